@@ -20,6 +20,8 @@ const initialState: UsersState = {
 export interface FetchUsersParams {
   userId?: number;
   accountId?: string;
+  /** Columns to fetch; the server defaults to the manifest's visible columns. */
+  fields?: string[];
 }
 
 export const fetchUsers = createAsyncThunk<Employee[], FetchUsersParams>(
@@ -28,6 +30,7 @@ export const fetchUsers = createAsyncThunk<Employee[], FetchUsersParams>(
     const query = new URLSearchParams();
     if (params.userId != null) query.set('userId', String(params.userId));
     if (params.accountId != null) query.set('accountId', params.accountId);
+    if (params.fields?.length) query.set('fields', params.fields.join(','));
 
     const url = `/api/users${query.size > 0 ? `?${query}` : ''}`;
     const res = await fetch(url);
@@ -58,6 +58,7 @@ export interface Employee {
   hireDate: string; // ISO date string (YYYY-MM-DD)
   salary: number;
   active?: boolean;
+  version?: number; // read-only; bumped on every update and echoed in the ETag
 }
 
 // Column manifest for backend-driven grid configuration
@@ -74,9 +75,26 @@ export interface ColumnManifest {
   order: number;
 }
 
+// Event on the /api/employees/changes stream; the SSE id is "<run>:<seq>"
+export interface EmployeeChange {
+  seq: number;
+  type: 'CREATED' | 'UPDATED' | 'DELETED';
+  id: number;
+  employee?: Employee;
+}
+
 // Worklist model
 export interface Worklist {
   id?: number;
   accountName: string;
   clientName: string;
+  priority?: number;
+}
+
+// A claimed worklist item
+export interface WorklistLease {
+  item: Worklist;
+  token: number;
+  worker: string;
+  expiresAt: string;
 }
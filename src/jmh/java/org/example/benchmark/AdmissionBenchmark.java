@@ -0,0 +1,119 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.example.web.AdmissionControl;
+import org.example.web.AdmissionFilter;
+import org.example.web.AdmissionProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What the admission filter adds to a request, at 1 and 4 threads: the bare filter chain, a
+ * request no endpoint class covers, one admitted by a rate limit alone, and one admitted by both
+ * a rate and an adaptive concurrency limit. Limits are set high enough that nothing is rejected,
+ * so every call takes the full admit-and-release path. Each thread is its own client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdmissionBenchmark {
+
+    private static final FilterChain CHAIN = (request, response) -> Blackhole.consumeCPU(0);
+
+    private AdmissionFilter filter;
+
+    @Setup
+    public void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setEndpoints(List.of(
+                endpoint("users-manifest", "/api/users/manifest", 0),
+                endpoint("users-list", "/api/users", 0),
+                endpoint("employees", "/api/employees/**", 1000),
+                endpoint("worklist", "/api/worklist/**", 1000)));
+        filter = new AdmissionFilter(new AdmissionControl(properties, new SimpleMeterRegistry()),
+                properties.getClientHeader(), new ObjectMapper());
+    }
+
+    private static AdmissionProperties.Endpoint endpoint(String name, String path, int concurrency) {
+        AdmissionProperties.Endpoint endpoint = new AdmissionProperties.Endpoint();
+        endpoint.setName(name);
+        endpoint.setPaths(List.of(path));
+        endpoint.setRate(1e9);
+        endpoint.setBurst(1_000_000);
+        endpoint.setConcurrency(concurrency);
+        endpoint.setMaxConcurrency(Math.max(1000, concurrency));
+        return endpoint;
+    }
+
+    @State(Scope.Thread)
+    public static class Requests {
+
+        private static final AtomicInteger CLIENTS = new AtomicInteger();
+
+        MockHttpServletRequest unclassified;
+        MockHttpServletRequest rateOnly;
+        MockHttpServletRequest rateAndConcurrency;
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+
+        @Setup
+        public void setUp() {
+            String client = "client-" + CLIENTS.incrementAndGet();
+            unclassified = request("/api/hello", client);
+            rateOnly = request("/api/users/manifest", client);
+            rateAndConcurrency = request("/api/worklist/claim", client);
+        }
+
+        private static MockHttpServletRequest request(String path, String client) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+            request.addHeader("X-Client-Id", client);
+            return request;
+        }
+    }
+
+    @Benchmark
+    public void chainOnly(Requests requests) throws Exception {
+        CHAIN.doFilter(requests.unclassified, requests.response);
+    }
+
+    @Benchmark
+    public void unclassified(Requests requests) throws Exception {
+        filter.doFilter(requests.unclassified, requests.response, CHAIN);
+    }
+
+    @Benchmark
+    public void rateLimited(Requests requests) throws Exception {
+        filter.doFilter(requests.rateOnly, requests.response, CHAIN);
+    }
+
+    @Benchmark
+    public void rateAndConcurrencyLimited(Requests requests) throws Exception {
+        filter.doFilter(requests.rateAndConcurrency, requests.response, CHAIN);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void rateAndConcurrencyLimited4(Requests requests) throws Exception {
+        filter.doFilter(requests.rateAndConcurrency, requests.response, CHAIN);
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.benchmark;
+
+import org.example.model.Employee;
+import org.example.repository.ColumnarEmployeeRepository;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.InMemoryEmployeeRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic employee rows shared by the benchmarks, so runs are comparable across releases.
+ */
+final class BenchmarkData {
+
+    static final int DEPARTMENTS = 40;
+
+    private static final String[] JOB_TITLES = {"Engineer", "Analyst", "Manager", "Designer", "Accountant", "Recruiter"};
+    private static final LocalDate FIRST_HIRE = LocalDate.of(2000, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    static Employee employee(long seed) {
+        return Employee.builder()
+                .firstName("First" + seed)
+                .lastName("Last" + (seed * 7919 % 100_003))
+                .email("employee" + seed + "@company.org")
+                .department("Dept" + (seed % DEPARTMENTS))
+                .jobTitle(JOB_TITLES[(int) (seed % JOB_TITLES.length)])
+                .hireDate(FIRST_HIRE.plusDays(seed * 31 % 9000))
+                .salary(40_000.0 + (seed * 2654435761L % 120_000))
+                .active(seed % 5 != 0)
+                .build();
+    }
+
+    static EmployeeRepository repository(String engine, int rows) {
+        EmployeeRepository repository = switch (engine) {
+            case "heap" -> new InMemoryEmployeeRepository();
+            case "columnar" -> new ColumnarEmployeeRepository();
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+        };
+        for (int start = 0; start < rows; start += 10_000) {
+            List<Employee> batch = new ArrayList<>(10_000);
+            for (int i = start; i < Math.min(rows, start + 10_000); i++) {
+                batch.add(employee(i));
+            }
+            repository.insertAll(batch);
+        }
+        return repository;
+    }
+
+    static List<Employee> employees(int rows) {
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Employee employee = employee(i);
+            employee.setId(i + 1L);
+            employees.add(employee);
+        }
+        return employees;
+    }
+}
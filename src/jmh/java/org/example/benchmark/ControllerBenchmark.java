@@ -0,0 +1,118 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.example.HelloWorldController;
+import org.example.common.ApiResponse;
+import org.example.controller.EmployeeController;
+import org.example.model.Employee;
+import org.example.repository.EmployeeRepository;
+import org.example.service.DepartmentStatsService;
+import org.example.service.EmployeeChangeFeed;
+import org.example.service.EmployeeIngestService;
+import org.example.service.EmployeePatchService;
+import org.example.service.EmployeeSearchService;
+import org.example.web.RequestMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller handler methods called directly, without MVC dispatch: {@code getUsers} with the
+ * filter shapes the grid sends, an {@link EmployeeController} create/read/update/delete cycle
+ * over a 10k-row store, and a one-field salary change sent as a full PUT (validated as
+ * {@code @Valid} would) versus a merge patch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerBenchmark {
+
+    private HelloWorldController users;
+    private EmployeeController employees;
+    private ServletWebRequest request;
+    private Validator validator;
+    private JsonNodeFactory nodes;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        EmployeeRepository repository = BenchmarkData.repository("heap", 10_000);
+        RequestMetrics metrics = new RequestMetrics(new SimpleMeterRegistry());
+        users = new HelloWorldController(objectMapper, metrics);
+        request = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/users"));
+        employees = new EmployeeController(repository, new EmployeeIngestService(repository, validator),
+                new EmployeePatchService(repository, validator, objectMapper), new DepartmentStatsService(repository),
+                new EmployeeSearchService(repository), new EmployeeChangeFeed(repository, 4096), objectMapper, metrics);
+        this.validator = validator;
+        this.nodes = objectMapper.getNodeFactory();
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<List<Employee>>> getUsersByAccount() {
+        return users.getUsers(null, "Engineering", null, null, null, null, null, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<List<Employee>>> getUsersFilteredAndSorted() {
+        return users.getUsers(null, null, List.of("active:true", "salary:70000..100000"), "lastName,asc", null, 5, null, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<List<Employee>>> getUserById() {
+        return users.getUsers(3L, null, null, null, null, null, null, request);
+    }
+
+    @Benchmark
+    public ApiResponse<Void> employeeCrudCycle() {
+        // past the preloaded rows, whose emails are taken
+        long next = 10_000 + 2 * seed++;
+        HttpServletRequest write = request.getRequest();
+        Employee created = employees.createEmployee(BenchmarkData.employee(next), write).getBody().getData();
+        employees.getEmployeeById(created.getId());
+        employees.updateEmployee(created.getId(), null, BenchmarkData.employee(next + 1), write);
+        return employees.deleteEmployee(created.getId(), null, write);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<Employee>> salaryChangeByPut() {
+        long next = seed++;
+        long id = 1 + next % 10_000;
+        Employee employee = BenchmarkData.employee(id - 1);
+        employee.setSalary(40_000.0 + next % 50_000);
+        validator.validate(employee);
+        return employees.updateEmployee(id, null, employee, request.getRequest());
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiResponse<Employee>> salaryChangeByPatch() throws IOException {
+        long next = seed++;
+        ObjectNode patch = nodes.objectNode().put("salary", 40_000.0 + next % 50_000);
+        return employees.patchEmployee(1 + next % 10_000, null, patch, request.getRequest());
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.benchmark;
+
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.example.query.EmployeeQueryParser;
+import org.example.query.UserColumns;
+import org.example.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtered and sorted first pages of 100 rows, the shape of a grid request, at 1k, 100k and
+ * 1M rows. Queries go through the manifest parser exactly as the controllers build them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class EmployeeQueryBenchmark {
+
+    private static final EmployeeQueryParser PARSER = new EmployeeQueryParser(UserColumns.all());
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"heap", "columnar"})
+    public String engine;
+
+    private EmployeeRepository repository;
+    private EmployeeQuery byDepartment;
+    private EmployeeQuery activeBySalary;
+    private EmployeeQuery hireDateRange;
+    private EmployeeQuery unfilteredById;
+
+    @Setup
+    public void setUp() {
+        repository = BenchmarkData.repository(engine, rows);
+        byDepartment = PARSER.parse(List.of("department:dept7"), null, null, 100);
+        activeBySalary = PARSER.parse(List.of("active:true"), "salary,desc", null, 100);
+        hireDateRange = PARSER.parse(List.of("hireDate:2010-01-01..2010-12-31"), "lastName", null, 100);
+        unfilteredById = PARSER.parse(null, null, null, 100);
+    }
+
+    @Benchmark
+    public EmployeePage departmentFilter() {
+        return repository.query(byDepartment);
+    }
+
+    @Benchmark
+    public EmployeePage activeSortedBySalary() {
+        return repository.query(activeBySalary);
+    }
+
+    @Benchmark
+    public EmployeePage hireDateRangeSortedByName() {
+        return repository.query(hireDateRange);
+    }
+
+    @Benchmark
+    public EmployeePage firstPageById() {
+        return repository.query(unfilteredById);
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.benchmark;
+
+import org.example.model.Employee;
+import org.example.repository.EmployeeSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead latency for top-10 searches over 1M employees: one- and three-letter word prefixes,
+ * a common word, a rare exact name, mid-word substrings and a miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class EmployeeSearchBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    @Param({"f", "las", "engineer", "first987654", "ployee99", "ast4", "zzq"})
+    public String query;
+
+    private EmployeeSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new EmployeeSearchIndex();
+        for (Employee employee : BenchmarkData.employees(rows)) {
+            index.onChange(null, employee);
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, 10);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.benchmark;
+
+import org.example.model.Employee;
+import org.example.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Point reads, full-row updates and create/delete cycles against a 100k-row store at 1, 4 and 16
+ * threads. Every created row gets a fresh email, so the cycle measures the insert path itself.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EmployeeStoreBenchmark {
+
+    private static final int ROWS = 100_000;
+
+    @Param({"heap", "columnar"})
+    public String engine;
+
+    private EmployeeRepository repository;
+    private final AtomicLong seeds = new AtomicLong(2L * ROWS);
+
+    @Setup
+    public void setUp() {
+        repository = BenchmarkData.repository(engine, ROWS);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Employee> read1() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Employee> read4() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Optional<Employee> read16() {
+        return read();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Optional<Employee> write1() {
+        return write();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Employee> write4() {
+        return write();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Optional<Employee> write16() {
+        return write();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean createDelete1() {
+        return createDelete();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean createDelete4() {
+        return createDelete();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean createDelete16() {
+        return createDelete();
+    }
+
+    private Optional<Employee> read() {
+        return repository.findById(1 + ThreadLocalRandom.current().nextLong(ROWS));
+    }
+
+    private Optional<Employee> write() {
+        long id = 1 + ThreadLocalRandom.current().nextLong(ROWS);
+        return repository.update(id, BenchmarkData.employee(id + ROWS));
+    }
+
+    private boolean createDelete() {
+        Employee created = repository.create(BenchmarkData.employee(seeds.getAndIncrement()));
+        return repository.delete(created.getId());
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.common.ApiResponse;
+import org.example.model.Employee;
+import org.example.web.EmployeeGridFormat;
+import org.example.web.EmployeeProjection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the {@code ApiResponse<List<Employee>>} envelope, using an
+ * {@link ObjectMapper} built with the same defaults Spring Boot applies, against the columnar
+ * {@link EmployeeGridFormat}, each in both directions, and through {@link EmployeeProjection}s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<Employee>> response;
+    private ApiResponse<List<Employee>> allColumns;
+    private ApiResponse<List<Employee>> threeColumns;
+    private byte[] json;
+    private byte[] grid;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        response = ApiResponse.success(BenchmarkData.employees(rows));
+        allColumns = ApiResponse.success(EmployeeProjection.visibleColumns().apply(response.getData()));
+        threeColumns = ApiResponse.success(EmployeeProjection.of(List.of("lastName", "department")).apply(response.getData()));
+        json = objectMapper.writeValueAsBytes(response);
+        grid = EmployeeGridFormat.write(response.getData());
+        System.out.printf("%n%d rows: JSON %d bytes, grid %d bytes%n", rows, json.length, grid.length);
+    }
+
+    @Benchmark
+    public byte[] serializeEnvelope() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeProjectedAllColumns() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(allColumns);
+    }
+
+    @Benchmark
+    public byte[] serializeProjectedThreeColumns() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(threeColumns);
+    }
+
+    @Benchmark
+    public byte[] encodeGrid() {
+        return EmployeeGridFormat.write(response.getData());
+    }
+
+    @Benchmark
+    public ApiResponse<List<Employee>> parseEnvelope() throws IOException {
+        return objectMapper.readValue(json, new TypeReference<>() {});
+    }
+
+    @Benchmark
+    public List<Employee> decodeGrid() {
+        return EmployeeGridFormat.read(grid);
+    }
+}
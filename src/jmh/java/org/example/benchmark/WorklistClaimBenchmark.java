@@ -0,0 +1,86 @@
+package org.example.benchmark;
+
+import org.example.model.Worklist;
+import org.example.model.WorklistLease;
+import org.example.service.WorklistQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.InstantSource;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claim, complete and refill cycles at 64 and 128 concurrent claimers, against one strictly
+ * ordered stripe (a single global lock) and the default striping. Throughput is claim calls, each
+ * taking {@code batch} items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class WorklistClaimBenchmark {
+
+    private static final int ITEMS = 100_000;
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    /** 1 is a single lock-protected heap; 0 is the production default. */
+    @Param({"1", "0"})
+    public int stripes;
+
+    @Param({"1", "16"})
+    public int batch;
+
+    private WorklistQueue queue;
+
+    @Setup
+    public void setUp() {
+        queue = new WorklistQueue(InstantSource.system(), stripes);
+        for (int i = 0; i < ITEMS; i++) {
+            queue.add(item(i));
+        }
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int claim64() {
+        return cycle();
+    }
+
+    @Benchmark
+    @Threads(128)
+    public int claim128() {
+        return cycle();
+    }
+
+    private int cycle() {
+        List<WorklistLease> leases = queue.claim("bench", batch, LEASE);
+        for (WorklistLease lease : leases) {
+            queue.complete(lease.getItem().getId(), lease.getToken());
+            queue.add(item(ThreadLocalRandom.current().nextInt(ITEMS)));
+        }
+        return leases.size();
+    }
+
+    private static Worklist item(int seed) {
+        return Worklist.builder()
+                .accountName("ACCT-" + seed)
+                .clientName("Client " + (seed % 500))
+                .priority(seed % 10)
+                .build();
+    }
+}
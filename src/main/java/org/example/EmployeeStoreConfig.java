@@ -0,0 +1,104 @@
+package org.example;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.persistence.EmployeeImportProperties;
+import org.example.persistence.MappedWriteAheadLog;
+import org.example.partition.PartitionProperties;
+import org.example.partition.PartitionedEmployeeRepository;
+import org.example.partition.PeerSecretFilter;
+import org.example.persistence.PersistenceProperties;
+import org.example.repository.ColumnarEmployeeRepository;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.IdSequence;
+import org.example.repository.InMemoryEmployeeRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Selects the employee storage engine with {@code employee.store.engine}: {@code heap} (default)
+ * keeps one object per row with secondary indexes, {@code columnar} keeps primitive column arrays.
+ * With {@code employee.store.persistence.enabled} the repository is rebuilt from the write-ahead
+ * log on startup and journals every later write to it. With {@code employee.store.partition.enabled}
+ * the store is split into shards of that engine spread over the configured instances, and the
+ * log holds the shards this instance owns; the instances reach each other's shards through
+ * {@code /internal/employees}, which only answers calls carrying the shared secret.
+ */
+@Configuration
+@EnableConfigurationProperties({PersistenceProperties.class, PartitionProperties.class, EmployeeImportProperties.class})
+public class EmployeeStoreConfig {
+
+    @Bean
+    public EmployeeRepository employeeRepository(@Value("${employee.store.engine:heap}") String engine,
+                                                 PartitionProperties partition, ObjectMapper objectMapper,
+                                                 ObjectProvider<MappedWriteAheadLog> journal) {
+        Function<IdSequence, EmployeeRepository> store = switch (engine) {
+            case "heap" -> InMemoryEmployeeRepository::new;
+            case "columnar" -> ColumnarEmployeeRepository::new;
+            default -> throw new IllegalStateException("Unknown employee.store.engine: " + engine);
+        };
+        EmployeeRepository repository = partition.isEnabled()
+                ? PartitionedEmployeeRepository.connect(partition, store, objectMapper)
+                : store.apply(new IdSequence());
+        journal.ifAvailable(wal -> {
+            repository.load(wal.recoveredRows());
+            repository.advanceIdsPast(wal.highestRecoveredId());
+            repository.setJournal(wal);
+        });
+        return repository;
+    }
+
+    /** Ahead of every other filter, so unauthenticated peer calls use up no admission capacity. */
+    @Bean
+    @ConditionalOnProperty(prefix = "employee.store.partition", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<PeerSecretFilter> peerSecretFilter(PartitionProperties partition) {
+        FilterRegistrationBean<PeerSecretFilter> registration =
+                new FilterRegistrationBean<>(new PeerSecretFilter(partition.requireSecret()));
+        registration.addUrlPatterns("/internal/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Store size and write rate (the rate of {@code employee.store.commits}), plus journal activity.
+     * A partitioned store reports the shards this instance owns.
+     */
+    @Bean
+    public MeterBinder employeeStoreMetrics(EmployeeRepository store, ObjectProvider<MappedWriteAheadLog> journal) {
+        EmployeeRepository employees = store.local();
+        return registry -> {
+            Gauge.builder("employee.store.size", employees, EmployeeRepository::count)
+                    .description("Employees stored")
+                    .baseUnit("rows")
+                    .register(registry);
+            FunctionCounter.builder("employee.store.commits", employees, EmployeeRepository::dataVersion)
+                    .description("Committed employee writes")
+                    .register(registry);
+            journal.ifAvailable(wal -> {
+                FunctionCounter.builder("employee.journal.records", wal, MappedWriteAheadLog::getRecords)
+                        .description("Records appended to the write-ahead log")
+                        .register(registry);
+                FunctionCounter.builder("employee.journal.forces", wal, MappedWriteAheadLog::getForces)
+                        .description("Write-ahead log forces to disk")
+                        .register(registry);
+            });
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "employee.store.persistence", name = "enabled", havingValue = "true")
+    public MappedWriteAheadLog employeeJournal(PersistenceProperties properties) throws IOException {
+        return MappedWriteAheadLog.open(properties);
+    }
+}
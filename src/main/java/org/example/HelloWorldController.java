@@ -1,37 +1,42 @@
 package org.example;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.common.ApiResponse;
-import org.example.model.ColumnManifest;
 import org.example.model.Employee;
-import org.springframework.core.io.ClassPathResource;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.example.query.EmployeeQueryParser;
+import org.example.query.UserColumns;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.InMemoryEmployeeRepository;
+import org.example.web.CsvResponses;
+import org.example.web.ETags;
+import org.example.web.EmployeeGridFormat;
+import org.example.web.EmployeeProjection;
+import org.example.web.NdjsonResponses;
+import org.example.web.PagedResponses;
+import org.example.web.PayloadCache;
+import org.example.web.RequestMetrics;
+import org.example.web.ResponseCoalescer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
 @Tag(name = "HelloWorld", description = "HelloWorld greeting endpoints")
 public class HelloWorldController {
 
-    private static final List<ColumnManifest> USER_COLUMNS = loadUserColumns();
-
-    private static List<ColumnManifest> loadUserColumns() {
-        try (InputStream is = new ClassPathResource("users-columns.json").getInputStream()) {
-            return new ObjectMapper().readValue(is, new TypeReference<>() {});
-        } catch (IOException e) {
-            throw new IllegalStateException("Failed to load users-columns.json", e);
-        }
-    }
-
     private static final List<Employee> DUMMY_USERS = List.of(
             Employee.builder().id(1L).firstName("Alice").lastName("Johnson").email("alice.johnson@example.com").department("Engineering").jobTitle("Software Engineer").hireDate(LocalDate.of(2021, 3, 15)).salary(95000.0).active(true).build(),
             Employee.builder().id(2L).firstName("Bob").lastName("Smith").email("bob.smith@example.com").department("Marketing").jobTitle("Marketing Manager").hireDate(LocalDate.of(2019, 7, 22)).salary(88000.0).active(true).build(),
@@ -45,6 +50,19 @@ public class HelloWorldController {
             Employee.builder().id(10L).firstName("Jack").lastName("Anderson").email("jack.anderson@example.com").department("Finance").jobTitle("Accountant").hireDate(LocalDate.of(2019, 4, 12)).salary(76000.0).active(false).build()
     );
 
+    private final EmployeeRepository users = new InMemoryEmployeeRepository(DUMMY_USERS);
+    private final ObjectMapper objectMapper;
+    private final PayloadCache payloads;
+    private final RequestMetrics metrics;
+    private final ResponseCoalescer coalescer;
+
+    public HelloWorldController(ObjectMapper objectMapper, RequestMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.payloads = new PayloadCache(objectMapper);
+        this.coalescer = new ResponseCoalescer(objectMapper, metrics, RequestMetrics.Endpoint.USERS);
+    }
+
     @GetMapping("/hello")
     @Operation(summary = "Get default greeting", description = "Returns a default Hello World greeting")
     public ApiResponse<HelloWorld> hello() {
@@ -60,34 +78,144 @@ public class HelloWorldController {
     }
 
     @GetMapping("/users")
-    @Operation(summary = "Get users", description = "Returns dummy users filtered by optional userId and accountId")
-    public ApiResponse<List<Employee>> getUsers(
+    @Operation(summary = "Get users",
+            description = "Returns one page of dummy users, as an ApiResponse of Employee entries, filtered by optional "
+                    + "userId and accountId, plus the manifest-driven filter, sort, cursor, limit and fields parameters. "
+                    + "Identical concurrent requests share one query and one encoded response. "
+                    + "Answers If-None-Match with 304 while the users are unchanged")
+    public ResponseEntity<?> getUsers(
             @Parameter(description = "Filter by user ID")
             @RequestParam(required = false) Long userId,
             @Parameter(description = "Filter by account/department ID")
-            @RequestParam(required = false) String accountId) {
+            @RequestParam(required = false) String accountId,
+            @Parameter(description = "Filter as field:value or field:from..to, repeatable")
+            @RequestParam(required = false) List<String> filter,
+            @Parameter(description = "Sort as field[,asc|desc]", example = "lastName,asc")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Cursor returned in X-Next-Cursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most " + EmployeeQueryParser.MAX_LIMIT)
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Columns to include, comma-separated; defaults to the manifest's visible columns. "
+                    + "The id is always included", example = "firstName,lastName,email")
+            @RequestParam(required = false) List<String> fields,
+            ServletWebRequest request) {
 
-        List<Employee> result = DUMMY_USERS;
+        long version = users.dataVersion();
+        if (ETags.listNotModified(request, version, MediaType.APPLICATION_JSON)) {
+            return null;
+        }
+        EmployeeProjection projection = EmployeeProjection.of(fields);
+        if (userId != null) {
+            return user(userId, accountId, projection);
+        }
+        EmployeeQuery query = usersQuery(accountId, filter, sort, cursor, limit);
+        return coalescer.respond(query, projection, version, request.getRequest(),
+                () -> usersPage(query, projection, request));
+    }
+
+    @GetMapping(value = "/users", produces = EmployeeGridFormat.MEDIA_TYPE_VALUE)
+    @Operation(summary = "Get users as a grid",
+            description = "Same page as the JSON variant in the columnar grid encoding. "
+                    + "Selected with Accept: " + EmployeeGridFormat.MEDIA_TYPE_VALUE)
+    public ResponseEntity<ApiResponse<List<Employee>>> getUsersAsGrid(
+            @Parameter(description = "Filter by user ID")
+            @RequestParam(required = false) Long userId,
+            @Parameter(description = "Filter by account/department ID")
+            @RequestParam(required = false) String accountId,
+            @Parameter(description = "Filter as field:value or field:from..to, repeatable")
+            @RequestParam(required = false) List<String> filter,
+            @Parameter(description = "Sort as field[,asc|desc]", example = "lastName,asc")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Cursor returned in X-Next-Cursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most " + EmployeeQueryParser.MAX_LIMIT)
+            @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Columns to include, comma-separated; defaults to the manifest's visible columns. "
+                    + "The id is always included", example = "firstName,lastName,email")
+            @RequestParam(required = false) List<String> fields,
+            ServletWebRequest request) {
 
+        if (ETags.listNotModified(request, users.dataVersion(), EmployeeGridFormat.MEDIA_TYPE)) {
+            return null;
+        }
+        EmployeeProjection projection = EmployeeProjection.of(fields);
         if (userId != null) {
-            result = result.stream()
-                    .filter(e -> e.getId().equals(userId))
-                    .collect(Collectors.toList());
+            return user(userId, accountId, projection);
         }
+        return usersPage(usersQuery(accountId, filter, sort, cursor, limit), projection, request);
+    }
+
+    private ResponseEntity<ApiResponse<List<Employee>>> user(long userId, String accountId, EmployeeProjection projection) {
+        List<Employee> result = users.findById(userId)
+                .filter(e -> accountId == null || accountId.equalsIgnoreCase(e.getDepartment()))
+                .map(List::of)
+                .orElse(List.of());
+        return ResponseEntity.ok(ApiResponse.success(projection.apply(result)));
+    }
 
+    private static EmployeeQuery usersQuery(String accountId, List<String> filter, String sort, String cursor, Integer limit) {
+        List<String> filters = filter == null ? new ArrayList<>() : new ArrayList<>(filter);
         if (accountId != null) {
-            result = result.stream()
-                    .filter(e -> e.getDepartment().equalsIgnoreCase(accountId))
-                    .collect(Collectors.toList());
+            filters.add("department:" + accountId);
         }
+        return UserColumns.parser().parse(filters, sort, cursor, limit);
+    }
+
+    private ResponseEntity<ApiResponse<List<Employee>>> usersPage(EmployeeQuery query, EmployeeProjection projection,
+                                                                  ServletWebRequest request) {
+        long started = System.nanoTime();
+        EmployeePage page = users.query(query);
+        metrics.query(request.getRequest(), RequestMetrics.Endpoint.USERS, started, page);
+        return PagedResponses.page(page, projection, request.getRequest());
+    }
 
-        return ApiResponse.success(result);
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream users",
+            description = "Streams every matching user as newline-delimited JSON without paging. "
+                    + "Selected with Accept: application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUsers(
+            @Parameter(description = "Filter by account/department ID")
+            @RequestParam(required = false) String accountId,
+            @Parameter(description = "Filter as field:value or field:from..to, repeatable")
+            @RequestParam(required = false) List<String> filter) {
+        List<String> filters = filter == null ? new ArrayList<>() : new ArrayList<>(filter);
+        if (accountId != null) {
+            filters.add("department:" + accountId);
+        }
+        EmployeeQuery query = UserColumns.parser().parse(filters, null, null, null);
+        return NdjsonResponses.employees(objectMapper, sink -> users.forEach(query, sink));
+    }
+
+    @GetMapping("/users/export.csv")
+    @Operation(summary = "Export users as CSV",
+            description = "Streams every matching user as CSV with the manifest's columns in display order, "
+                    + "as they all stood when the export began. Gzipped when the client accepts it")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Filter by account/department ID")
+            @RequestParam(required = false) String accountId,
+            @Parameter(description = "Filter as field:value or field:from..to, repeatable")
+            @RequestParam(required = false) List<String> filter,
+            @Parameter(description = "Columns to include, comma-separated; defaults to the manifest's visible columns. "
+                    + "The id is always included", example = "firstName,lastName,email")
+            @RequestParam(required = false) List<String> fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        List<String> filters = filter == null ? new ArrayList<>() : new ArrayList<>(filter);
+        if (accountId != null) {
+            filters.add("department:" + accountId);
+        }
+        EmployeeQuery query = UserColumns.parser().parse(filters, null, null, null);
+        return CsvResponses.employees("users.csv", CsvResponses.columns(fields), acceptEncoding,
+                sink -> users.forEachSnapshot(query, sink));
     }
 
     @GetMapping("/users/manifest")
     @Operation(summary = "Get users column manifest",
-            description = "Returns column configuration metadata for rendering the users grid")
-    public ApiResponse<List<ColumnManifest>> getUsersManifest() {
-        return ApiResponse.success(USER_COLUMNS);
+            description = "Returns column configuration metadata for rendering the users grid, as an "
+                    + "ApiResponse of ColumnManifest entries. Served pre-encoded, gzipped on request, with a strong ETag")
+    public ResponseEntity<byte[]> getUsersManifest(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // the column set is fixed at build time, so the entry never needs rebuilding
+        return payloads.respond("users-manifest", 0, () -> ApiResponse.success(UserColumns.all()), acceptEncoding);
     }
 }
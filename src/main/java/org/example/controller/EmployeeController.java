@@ -1,30 +1,91 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.example.common.ApiResponse;
+import org.example.model.BatchResult;
+import org.example.model.DepartmentStats;
 import org.example.model.Employee;
+import org.example.model.ImportResult;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.example.query.EmployeeQueryParser;
+import org.example.query.InvalidQueryException;
+import org.example.query.UserColumns;
+import org.example.repository.EmployeeRepository;
+import org.example.service.DepartmentStatsService;
+import org.example.service.EmployeeChangeFeed;
+import org.example.service.EmployeeImportService;
+import org.example.service.EmployeeIngestService;
+import org.example.service.EmployeePatchService;
+import org.example.service.EmployeeSearchService;
+import org.example.web.CsvResponses;
+import org.example.web.ETags;
+import org.example.web.EmployeeGridFormat;
+import org.example.web.NdjsonResponses;
+import org.example.web.PagedResponses;
+import org.example.web.RequestMetrics;
+import org.example.web.ResponseCoalescer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/employees")
 @Tag(name = "Employee", description = "Employee management endpoints")
 public class EmployeeController {
 
-    private final ConcurrentHashMap<Long, Employee> employees = new ConcurrentHashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    private final EmployeeRepository employees;
+    private final EmployeeIngestService ingestService;
+    private final EmployeeImportService importService;
+    private final EmployeePatchService patchService;
+    private final DepartmentStatsService statsService;
+    private final EmployeeSearchService searchService;
+    private final EmployeeChangeFeed changeFeed;
+    private final ObjectMapper objectMapper;
+    private final RequestMetrics metrics;
+    private final ResponseCoalescer coalescer;
+
+    public EmployeeController(EmployeeRepository employees, EmployeeIngestService ingestService,
+                              EmployeeImportService importService, EmployeePatchService patchService, DepartmentStatsService statsService, EmployeeSearchService searchService,
+                              EmployeeChangeFeed changeFeed, ObjectMapper objectMapper, RequestMetrics metrics) {
+        this.employees = employees;
+        this.ingestService = ingestService;
+        this.importService = importService;
+        this.patchService = patchService;
+        this.statsService = statsService;
+        this.searchService = searchService;
+        this.changeFeed = changeFeed;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.coalescer = new ResponseCoalescer(objectMapper, metrics, RequestMetrics.Endpoint.EMPLOYEES);
+
+        if (employees.local() != employees || employees.count() > 0) {
+            // recovered from the write-ahead log; only an empty store gets the sample rows, and
+            // only when this instance holds all of it rather than shards of a partitioned one
+            return;
+        }
 
-    public EmployeeController() {
         Employee emp1 = Employee.builder()
-                .id(idGenerator.getAndIncrement())
                 .firstName("Sarah")
                 .lastName("Mitchell")
                 .email("s.mitchell@company.org")
@@ -34,10 +95,9 @@ public class EmployeeController {
                 .salary(82500.00)
                 .active(true)
                 .build();
-        employees.put(emp1.getId(), emp1);
+        employees.create(emp1);
 
         Employee emp2 = Employee.builder()
-                .id(idGenerator.getAndIncrement())
                 .firstName("Marcus")
                 .lastName("Chen")
                 .email("m.chen@company.org")
@@ -47,10 +107,9 @@ public class EmployeeController {
                 .salary(67000.00)
                 .active(true)
                 .build();
-        employees.put(emp2.getId(), emp2);
+        employees.create(emp2);
 
         Employee emp3 = Employee.builder()
-                .id(idGenerator.getAndIncrement())
                 .firstName("Rachel")
                 .lastName("Patel")
                 .email("r.patel@company.org")
@@ -60,55 +119,242 @@ public class EmployeeController {
                 .salary(78000.00)
                 .active(true)
                 .build();
-        employees.put(emp3.getId(), emp3);
+        employees.create(emp3);
     }
 
     @GetMapping
-    @Operation(summary = "Get all employees", description = "Returns a list of all employees")
-    public ApiResponse<List<Employee>> getAllEmployees() {
-        return ApiResponse.success(new ArrayList<>(employees.values()));
+    @Operation(summary = "Get all employees",
+            description = "Returns one page of employees as an ApiResponse of Employee entries. Sort and filter columns "
+                    + "must be allowed by the users column manifest; the X-Next-Cursor response header holds the cursor "
+                    + "for the next page. Identical concurrent requests share one query and one encoded response. "
+                    + "Answers If-None-Match with 304 while no employee has changed")
+    public ResponseEntity<byte[]> getAllEmployees(
+            @Parameter(description = "Filter as field:value or field:from..to, repeatable")
+            @RequestParam(required = false) List<String> filter,
+            @Parameter(description = "Sort as field[,asc|desc]", example = "salary,desc")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Cursor returned in X-Next-Cursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most " + EmployeeQueryParser.MAX_LIMIT)
+            @RequestParam(required = false) Integer limit,
+            ServletWebRequest request) {
+        long version = employees.dataVersion();
+        if (ETags.listNotModified(request, version, MediaType.APPLICATION_JSON)) {
+            return null;
+        }
+        EmployeeQuery query = UserColumns.parser().parse(filter, sort, cursor, limit);
+        return coalescer.respond(query, null, version, request.getRequest(), () -> page(query, request));
+    }
+
+    @GetMapping(produces = EmployeeGridFormat.MEDIA_TYPE_VALUE)
+    @Operation(summary = "Get all employees as a grid",
+            description = "Same page as the JSON variant in the columnar grid encoding. "
+                    + "Selected with Accept: " + EmployeeGridFormat.MEDIA_TYPE_VALUE)
+    public ResponseEntity<ApiResponse<List<Employee>>> getAllEmployeesAsGrid(
+            @Parameter(description = "Filter as field:value or field:from..to, repeatable")
+            @RequestParam(required = false) List<String> filter,
+            @Parameter(description = "Sort as field[,asc|desc]", example = "salary,desc")
+            @RequestParam(required = false) String sort,
+            @Parameter(description = "Cursor returned in X-Next-Cursor by the previous page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size, at most " + EmployeeQueryParser.MAX_LIMIT)
+            @RequestParam(required = false) Integer limit,
+            ServletWebRequest request) {
+        if (ETags.listNotModified(request, employees.dataVersion(), EmployeeGridFormat.MEDIA_TYPE)) {
+            return null;
+        }
+        return page(UserColumns.parser().parse(filter, sort, cursor, limit), request);
+    }
+
+    private ResponseEntity<ApiResponse<List<Employee>>> page(EmployeeQuery query, ServletWebRequest request) {
+        long started = System.nanoTime();
+        EmployeePage page = employees.query(query);
+        metrics.query(request.getRequest(), RequestMetrics.Endpoint.EMPLOYEES, started, page);
+        return PagedResponses.page(page, request.getRequest());
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream employees",
+            description = "Streams every matching employee as newline-delimited JSON in storage order, "
+                    + "without paging. Selected with Accept: application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamEmployees(
+            @Parameter(description = "Filter as field:value or field:from..to, repeatable")
+            @RequestParam(required = false) List<String> filter) {
+        EmployeeQuery query = UserColumns.parser().parse(filter, null, null, null);
+        return NdjsonResponses.employees(objectMapper, sink -> employees.forEach(query, sink));
+    }
+
+    @GetMapping("/export.csv")
+    @Operation(summary = "Export employees as CSV",
+            description = "Streams every matching employee as CSV with the manifest's columns in display order, "
+                    + "as they all stood when the export began. Gzipped when the client accepts it")
+    public ResponseEntity<StreamingResponseBody> exportEmployees(
+            @Parameter(description = "Filter as field:value or field:from..to, repeatable")
+            @RequestParam(required = false) List<String> filter,
+            @Parameter(description = "Columns to include, comma-separated; defaults to the manifest's visible columns. "
+                    + "The id is always included", example = "lastName,email,salary")
+            @RequestParam(required = false) List<String> fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        EmployeeQuery query = UserColumns.parser().parse(filter, null, null, null);
+        return CsvResponses.employees("employees.csv", CsvResponses.columns(fields), acceptEncoding,
+                sink -> employees.forEachSnapshot(query, sink));
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Department statistics",
+            description = "Headcount, active count and salary sum, min, max and average per department, "
+                    + "maintained incrementally on every write")
+    public ApiResponse<List<DepartmentStats>> getDepartmentStats() {
+        return ApiResponse.success(statsService.stats());
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Search employees",
+            description = "Typeahead over first name, last name, email and job title, ignoring case. Employees with a "
+                    + "word starting with q come first, then other substring matches; queries under three characters "
+                    + "only match word starts")
+    public ApiResponse<List<Employee>> searchEmployees(
+            @Parameter(description = "Search text", example = "mitch") @RequestParam String q,
+            @Parameter(description = "Maximum results, at most " + EmployeeSearchService.MAX_RESULTS)
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > EmployeeSearchService.MAX_RESULTS) {
+            throw new InvalidQueryException("limit must be between 1 and " + EmployeeSearchService.MAX_RESULTS);
+        }
+        return ApiResponse.success(searchService.search(q, limit));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream employee changes",
+            description = "Server-sent events, one per create, update or delete, with ids <run>:<seq>. The first event, "
+                    + "ready, gives the starting position. Reconnecting with Last-Event-ID (or since) resumes from a "
+                    + "bounded buffer; a client too far behind gets a resync event and should reload the list")
+    public SseEmitter streamChanges(
+            @Parameter(description = "Position to resume after; EventSource sends this on reconnect")
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @Parameter(description = "Position to resume after, for clients that cannot set headers")
+            @RequestParam(required = false) String since) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get employee by ID", description = "Returns a single employee by ID")
-    public ApiResponse<Employee> getEmployeeById(
+    @Operation(summary = "Get employee by ID",
+            description = "Returns a single employee by ID with its ETag; answers a matching If-None-Match with 304")
+    public ResponseEntity<ApiResponse<Employee>> getEmployeeById(
             @Parameter(description = "Employee ID") @PathVariable Long id) {
-        Employee employee = employees.get(id);
-        if (employee == null) {
-            return ApiResponse.error("Employee not found with id: " + id);
-        }
-        return ApiResponse.success(employee);
+        return employees.findById(id)
+                .map(employee -> ResponseEntity.ok().eTag(ETags.of(employee)).body(ApiResponse.success(employee)))
+                .orElseGet(() -> ResponseEntity.ok(ApiResponse.error("Employee not found with id: " + id)));
     }
 
     @PostMapping
     @Operation(summary = "Create employee", description = "Creates a new employee")
-    public ApiResponse<Employee> createEmployee(@Valid @RequestBody Employee employee) {
-        employee.setId(idGenerator.getAndIncrement());
-        employees.put(employee.getId(), employee);
-        return ApiResponse.created(employee, employee.getId().toString(), "/api/employees/" + employee.getId());
+    public ResponseEntity<ApiResponse<Employee>> createEmployee(@Valid @RequestBody Employee employee,
+                                                                HttpServletRequest request) {
+        long started = System.nanoTime();
+        employees.create(employee);
+        metrics.write(request, started);
+        return ResponseEntity.ok()
+                .eTag(ETags.of(employee))
+                .body(ApiResponse.created(employee, employee.getId().toString(), "/api/employees/" + employee.getId()));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Create employees in bulk",
+            description = "Validates a JSON array of employees and stores the valid rows in one commit. "
+                    + "Accepted rows get consecutive ids unless the store is partitioned; rejected rows are reported by index")
+    public ApiResponse<BatchResult> createEmployees(@RequestBody List<Employee> batch, HttpServletRequest request) {
+        long started = System.nanoTime();
+        BatchResult result = ingestService.ingest(batch);
+        metrics.write(request, started);
+        return ApiResponse.success(result);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Create employees in bulk from NDJSON",
+            description = "Same as the JSON array variant, with one employee object per line: the valid rows "
+                    + "are stored in one commit. A line that cannot be parsed fails the request with 400 and "
+                    + "nothing is stored")
+    public ApiResponse<BatchResult> createEmployeesFromNdjson(InputStream body, HttpServletRequest request)
+            throws IOException {
+        long started = System.nanoTime();
+        BatchResult result;
+        try (MappingIterator<Employee> rows = objectMapper.readerFor(Employee.class).readValues(body)) {
+            result = ingestService.ingest(rows);
+        }
+        metrics.write(request, started);
+        return ApiResponse.success(result);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Import employees from CSV",
+            description = "Loads a CSV file with a header row naming the columns by field or header name. "
+                    + "The file is parsed in parallel chunks and each chunk is stored in one commit; "
+                    + "rejected rows are reported by line number, along with the rows per second achieved")
+    public ApiResponse<ImportResult> importEmployees(InputStream body, HttpServletRequest request) throws IOException {
+        // spooled to disk so the reader can map it in chunks whatever its size
+        Path file = Files.createTempFile("employee-import-", ".csv");
+        try {
+            Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            long started = System.nanoTime();
+            ImportResult result = importService.importFile(file);
+            metrics.write(request, started);
+            return ApiResponse.success(result);
+        } finally {
+            Files.deleteIfExists(file);
+        }
     }
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update employee", description = "Updates an existing employee")
-    public ApiResponse<Employee> updateEmployee(
+    @Operation(summary = "Update employee",
+            description = "Updates an existing employee. With If-Match the update only applies if the employee "
+                    + "still has that ETag, otherwise 412")
+    public ResponseEntity<ApiResponse<Employee>> updateEmployee(
             @Parameter(description = "Employee ID") @PathVariable Long id,
-            @Valid @RequestBody Employee employee) {
-        if (!employees.containsKey(id)) {
-            return ApiResponse.error("Employee not found with id: " + id);
-        }
-        employee.setId(id);
-        employees.put(id, employee);
-        return ApiResponse.updated(employee, id.toString(), "/api/employees/" + id);
+            @Parameter(description = "ETag from an earlier read") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody Employee employee,
+            HttpServletRequest request) {
+        long started = System.nanoTime();
+        Optional<Employee> result = employees.update(id, employee, ETags.expectedVersion(id, ifMatch));
+        metrics.write(request, started);
+        return result.map(updated -> ResponseEntity.ok()
+                        .eTag(ETags.of(updated))
+                        .body(ApiResponse.updated(updated, id.toString(), "/api/employees/" + id)))
+                .orElseGet(() -> ResponseEntity.ok(ApiResponse.error("Employee not found with id: " + id)));
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {EmployeePatchService.MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Patch employee",
+            description = "Applies a JSON Merge Patch: fields in the body are set, fields given as null are cleared, "
+                    + "the rest are kept. Only the patched fields are validated. With If-Match the patch only applies "
+                    + "if the employee still has that ETag, otherwise 412")
+    public ResponseEntity<ApiResponse<Employee>> patchEmployee(
+            @Parameter(description = "Employee ID") @PathVariable Long id,
+            @Parameter(description = "ETag from an earlier read") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode patch,
+            HttpServletRequest request) throws IOException {
+        long started = System.nanoTime();
+        Optional<Employee> result = patchService.patch(id, patch, ETags.expectedVersion(id, ifMatch));
+        metrics.write(request, started);
+        return result.map(patched -> ResponseEntity.ok()
+                        .eTag(ETags.of(patched))
+                        .body(ApiResponse.updated(patched, id.toString(), "/api/employees/" + id)))
+                .orElseGet(() -> ResponseEntity.ok(ApiResponse.error("Employee not found with id: " + id)));
     }
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete employee", description = "Deletes an employee by ID")
+    @Operation(summary = "Delete employee",
+            description = "Deletes an employee by ID. With If-Match the delete only applies if the employee "
+                    + "still has that ETag, otherwise 412")
     public ApiResponse<Void> deleteEmployee(
-            @Parameter(description = "Employee ID") @PathVariable Long id) {
-        if (!employees.containsKey(id)) {
+            @Parameter(description = "Employee ID") @PathVariable Long id,
+            @Parameter(description = "ETag from an earlier read") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            HttpServletRequest request) {
+        long started = System.nanoTime();
+        boolean deleted = employees.delete(id, ETags.expectedVersion(id, ifMatch));
+        metrics.write(request, started);
+        if (!deleted) {
             return ApiResponse.error("Employee not found with id: " + id);
         }
-        employees.remove(id);
         return ApiResponse.deleted(id.toString());
     }
 }
@@ -0,0 +1,161 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.example.model.DepartmentStats;
+import org.example.model.Employee;
+import org.example.partition.ShardQuery;
+import org.example.partition.ShardStatus;
+import org.example.query.EmployeeField;
+import org.example.query.InvalidQueryException;
+import org.example.repository.DuplicateEmailException;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.StaleVersionException;
+import org.example.service.DepartmentStatsService;
+import org.example.web.NdjsonResponses;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The shards this instance owns in a partitioned store, for the other instances to forward
+ * requests to. Every call reads or writes the local shards only and never calls a peer back.
+ * Bodies are plain rows rather than {@code ApiResponse} envelopes, and store conflicts come back
+ * as 409 and 412 with the details needed to rethrow them. Rows are validated as the public API
+ * validates them. Only calls carrying the shared secret get here (see {@code PeerSecretFilter}).
+ */
+@Hidden
+@RestController
+@RequestMapping("/internal/employees")
+@ConditionalOnProperty(prefix = "employee.store.partition", name = "enabled", havingValue = "true")
+public class InternalEmployeeController {
+
+    private final EmployeeRepository shards;
+    private final DepartmentStatsService statsService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    public InternalEmployeeController(EmployeeRepository employees, DepartmentStatsService statsService,
+                                      ObjectMapper objectMapper, Validator validator) {
+        this.shards = employees.local();
+        this.statsService = statsService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Employee> findById(@PathVariable Long id) {
+        return ResponseEntity.of(shards.findById(id));
+    }
+
+    @GetMapping("/by-email")
+    public ResponseEntity<Employee> findByEmail(@RequestParam String email) {
+        return ResponseEntity.of(shards.findByEmail(email));
+    }
+
+    /** Which of the given addresses rows on this instance's shards hold, and their ids. */
+    @PostMapping("/emails")
+    public Map<String, Long> holders(@RequestBody List<String> emails) {
+        Map<String, Long> held = new LinkedHashMap<>();
+        for (String email : emails) {
+            shards.findByEmail(email).ifPresent(holder -> held.put(email, holder.getId()));
+        }
+        return held;
+    }
+
+    @PostMapping
+    public Employee create(@Valid @RequestBody Employee employee) {
+        return shards.create(employee);
+    }
+
+    /** All or nothing: one invalid row refuses the whole batch. */
+    @PostMapping("/batch")
+    public List<Employee> insertAll(@RequestBody List<Employee> batch) {
+        Set<ConstraintViolation<Employee>> violations = new HashSet<>();
+        for (Employee employee : batch) {
+            if (employee == null) {
+                throw new InvalidQueryException("Row must be an employee object");
+            }
+            violations.addAll(validator.validate(employee));
+        }
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return shards.insertAll(batch);
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<Employee> update(@PathVariable Long id, @Valid @RequestBody Employee employee,
+                                           @RequestParam(required = false) Long expectedVersion) {
+        employee.setId(id);
+        return ResponseEntity.of(shards.update(id, employee, expectedVersion));
+    }
+
+    /** Field names to values, as {@link EmployeeField#parse} reads them; null clears a field. */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Employee> patch(@PathVariable Long id, @RequestBody Map<String, Object> body,
+                                          @RequestParam(required = false) Long expectedVersion) {
+        Map<EmployeeField, Object> changes = new EnumMap<>(EmployeeField.class);
+        body.forEach((name, value) -> {
+            EmployeeField field = EmployeeField.byName(name)
+                    .filter(f -> f != EmployeeField.ID)
+                    .orElseThrow(() -> new InvalidQueryException("Unknown field: " + name));
+            changes.put(field, value == null ? null : field.parse(value.toString()));
+        });
+        return ResponseEntity.of(shards.patch(id, changes, expectedVersion));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable Long id, @RequestParam(required = false) Long expectedVersion) {
+        return shards.delete(id, expectedVersion) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/query")
+    public ShardQuery.Page query(@RequestBody ShardQuery query) {
+        return ShardQuery.Page.of(shards.query(query.toQuery()));
+    }
+
+    @PostMapping("/scan")
+    public ResponseEntity<StreamingResponseBody> scan(@RequestBody ShardQuery query) {
+        return NdjsonResponses.employees(objectMapper, sink -> shards.forEachSnapshot(query.toQuery(), sink));
+    }
+
+    @GetMapping("/status")
+    public ShardStatus status() {
+        return ShardStatus.of(shards.count(), shards.dataVersion());
+    }
+
+    @GetMapping("/stats")
+    public List<DepartmentStats> stats() {
+        return statsService.localStats();
+    }
+
+    @ExceptionHandler(DuplicateEmailException.class)
+    public ResponseEntity<Map<String, Object>> duplicateEmail(DuplicateEmailException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("email", e.getEmail(), "ownerId", e.getOwnerId()));
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<Map<String, Object>> invalidRows(ConstraintViolationException e) {
+        return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+    }
+
+    @ExceptionHandler(StaleVersionException.class)
+    public ResponseEntity<Map<String, Object>> staleVersion(StaleVersionException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(Map.of("id", e.getId(),
+                "expectedVersion", e.getExpectedVersion(), "currentVersion", e.getCurrentVersion()));
+    }
+}
@@ -1,13 +1,20 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.common.ApiResponse;
 import org.example.model.Worklist;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.example.model.WorklistLease;
+import org.example.query.InvalidQueryException;
+import org.example.service.WorklistQueue;
+import org.example.web.PayloadCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -15,37 +22,95 @@ import java.util.List;
 @Tag(name = "WorkList", description = "WorkList management endpoints")
 public class WorkListController {
 
+    private final WorklistQueue queue;
+    private final PayloadCache payloads;
+
+    public WorkListController(WorklistQueue queue, ObjectMapper objectMapper) {
+        this.queue = queue;
+        this.payloads = new PayloadCache(objectMapper);
+
+        if (queue.version() > 0) {
+            // the queue outlives this controller in some contexts; only a fresh one gets the sample items
+            return;
+        }
+        queue.add(Worklist.builder()
+                .accountName("7291-CHASE-Q4")
+                .clientName("Morrison & Partners LLC")
+                .build());
+        queue.add(Worklist.builder()
+                .accountName("8834-WF-RECON")
+                .clientName("Hendricks Manufacturing")
+                .build());
+        queue.add(Worklist.builder()
+                .accountName("4520-BOA-ADJ")
+                .clientName("Clearwater Logistics")
+                .build());
+        queue.add(Worklist.builder()
+                .accountName("6103-USB-REVIEW")
+                .clientName("Tanaka Industries")
+                .build());
+        queue.add(Worklist.builder()
+                .accountName("9047-CITI-PENDING")
+                .clientName("Westbrook Capital")
+                .build());
+    }
+
     @GetMapping
-    @Operation(summary = "Get all worklist items", description = "Returns a list of all worklist items")
-    public ApiResponse<List<Worklist>> getWorkList() {
-        List<Worklist> workList = List.of(
-                Worklist.builder()
-                        .id(1L)
-                        .accountName("7291-CHASE-Q4")
-                        .clientName("Morrison & Partners LLC")
-                        .build(),
-                Worklist.builder()
-                        .id(2L)
-                        .accountName("8834-WF-RECON")
-                        .clientName("Hendricks Manufacturing")
-                        .build(),
-                Worklist.builder()
-                        .id(3L)
-                        .accountName("4520-BOA-ADJ")
-                        .clientName("Clearwater Logistics")
-                        .build(),
-                Worklist.builder()
-                        .id(4L)
-                        .accountName("6103-USB-REVIEW")
-                        .clientName("Tanaka Industries")
-                        .build(),
-                Worklist.builder()
-                        .id(5L)
-                        .accountName("9047-CITI-PENDING")
-                        .clientName("Westbrook Capital")
-                        .build()
-        );
-
-        return ApiResponse.success(workList);
+    @Operation(summary = "Get all worklist items",
+            description = "Returns the items waiting to be claimed, in claim order, as an ApiResponse of Worklist entries. "
+                    + "Served pre-encoded, gzipped on request, with a strong ETag")
+    public ResponseEntity<byte[]> getWorkList(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // expired leases go back on the queue first, so they count towards the version
+        queue.requeueExpired();
+        return payloads.respond("worklist", queue.version(), () -> ApiResponse.success(queue.waiting()), acceptEncoding);
+    }
+
+    @PostMapping
+    @Operation(summary = "Add worklist item", description = "Queues an item under a new id, ignoring any id in the body; "
+            + "higher priority items are claimed first")
+    public ApiResponse<Worklist> addWorkItem(@RequestBody Worklist item) {
+        Worklist stored = queue.add(item);
+        return ApiResponse.created(stored, stored.getId().toString(), "/api/worklist/" + stored.getId());
+    }
+
+    @PostMapping("/claims")
+    @Operation(summary = "Claim worklist items",
+            description = "Leases up to count items to the worker, highest priority first. No two live leases share "
+                    + "an item; an item whose lease runs out goes back on the queue")
+    public ApiResponse<List<WorklistLease>> claim(
+            @Parameter(description = "Worker identifier", example = "recon-worker-7") @RequestParam String worker,
+            @Parameter(description = "Items to claim, at most " + WorklistQueue.MAX_CLAIM) @RequestParam(defaultValue = "1") int count,
+            @Parameter(description = "Lease length in seconds, at most " + WorklistQueue.MAX_LEASE_SECONDS)
+            @RequestParam(defaultValue = "300") long leaseSeconds) {
+        if (count < 1 || count > WorklistQueue.MAX_CLAIM) {
+            throw new InvalidQueryException("count must be between 1 and " + WorklistQueue.MAX_CLAIM);
+        }
+        if (leaseSeconds < 1 || leaseSeconds > WorklistQueue.MAX_LEASE_SECONDS) {
+            throw new InvalidQueryException("leaseSeconds must be between 1 and " + WorklistQueue.MAX_LEASE_SECONDS);
+        }
+        return ApiResponse.success(queue.claim(worker, count, Duration.ofSeconds(leaseSeconds)));
+    }
+
+    @PostMapping("/{id}/complete")
+    @Operation(summary = "Complete worklist item", description = "Removes a claimed item for good; requires its live lease token")
+    public ApiResponse<Void> complete(
+            @Parameter(description = "Worklist item ID") @PathVariable Long id,
+            @Parameter(description = "Token from the claim") @RequestParam long token) {
+        if (!queue.complete(id, token)) {
+            return ApiResponse.error("No live lease " + token + " on worklist item " + id);
+        }
+        return ApiResponse.deleted(id.toString());
+    }
+
+    @PostMapping("/{id}/release")
+    @Operation(summary = "Release worklist item", description = "Puts a claimed item back on the queue before its lease runs out")
+    public ApiResponse<Void> release(
+            @Parameter(description = "Worklist item ID") @PathVariable Long id,
+            @Parameter(description = "Token from the claim") @RequestParam long token) {
+        if (!queue.release(id, token)) {
+            return ApiResponse.error("No live lease " + token + " on worklist item " + id);
+        }
+        return ApiResponse.success(null);
     }
 }
@@ -0,0 +1,88 @@
+package org.example.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of a bulk employee ingest")
+public class BatchResult {
+
+    @Schema(description = "Number of rows in the request", example = "1000")
+    private int received;
+
+    @Schema(description = "Number of rows stored", example = "998")
+    private int accepted;
+
+    @Schema(description = "Number of rows rejected", example = "2")
+    private int rejected;
+
+    @Schema(description = "Id assigned to the first accepted row (null if none)", example = "1043")
+    private Long firstId;
+
+    @Schema(description = "Id assigned to the last accepted row; accepted rows get consecutive ids in request order", example = "2040")
+    private Long lastId;
+
+    @Schema(description = "One entry per failed constraint of each rejected row")
+    private List<RowError> errors;
+
+    public BatchResult() {
+    }
+
+    public BatchResult(int received, int accepted, Long firstId, Long lastId, List<RowError> errors) {
+        this.received = received;
+        this.accepted = accepted;
+        this.rejected = received - accepted;
+        this.firstId = firstId;
+        this.lastId = lastId;
+        this.errors = errors;
+    }
+
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+
+    public int getAccepted() { return accepted; }
+    public void setAccepted(int accepted) { this.accepted = accepted; }
+
+    public int getRejected() { return rejected; }
+    public void setRejected(int rejected) { this.rejected = rejected; }
+
+    public Long getFirstId() { return firstId; }
+    public void setFirstId(Long firstId) { this.firstId = firstId; }
+
+    public Long getLastId() { return lastId; }
+    public void setLastId(Long lastId) { this.lastId = lastId; }
+
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+
+    @Schema(description = "A constraint failure on one input row")
+    public static class RowError {
+
+        @Schema(description = "Zero-based position of the row in the request", example = "17")
+        private int index;
+
+        @Schema(description = "Property that failed validation", example = "email")
+        private String field;
+
+        @Schema(description = "Validation message", example = "Email must be valid")
+        private String message;
+
+        public RowError() {
+        }
+
+        public RowError(int index, String field, String message) {
+            this.index = index;
+            this.field = field;
+            this.message = message;
+        }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public String getField() { return field; }
+        public void setField(String field) { this.field = field; }
+
+        public String getMessage() { return message; }
+        public void setMessage(String message) { this.message = message; }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Headcount and salary aggregates for one department")
+public class DepartmentStats {
+
+    @Schema(description = "Department name as first stored; departments are grouped ignoring case", example = "Finance")
+    private String department;
+
+    @Schema(description = "Number of employees", example = "42")
+    private long headcount;
+
+    @Schema(description = "Number of active employees", example = "39")
+    private long activeCount;
+
+    @Schema(description = "Number of employees with a salary", example = "42")
+    private long salariedCount;
+
+    @Schema(description = "Sum of salaries", example = "3465000.00")
+    private double salarySum;
+
+    @Schema(description = "Lowest salary (null if no employee has one)", example = "52000.00")
+    private Double minSalary;
+
+    @Schema(description = "Highest salary (null if no employee has one)", example = "145000.00")
+    private Double maxSalary;
+
+    @Schema(description = "Average over employees with a salary (null if none)", example = "82500.00")
+    private Double averageSalary;
+
+    public DepartmentStats() {
+    }
+
+    public DepartmentStats(String department, long headcount, long activeCount, long salariedCount, double salarySum,
+                           Double minSalary, Double maxSalary, Double averageSalary) {
+        this.department = department;
+        this.headcount = headcount;
+        this.activeCount = activeCount;
+        this.salariedCount = salariedCount;
+        this.salarySum = salarySum;
+        this.minSalary = minSalary;
+        this.maxSalary = maxSalary;
+        this.averageSalary = averageSalary;
+    }
+
+    public String getDepartment() { return department; }
+    public void setDepartment(String department) { this.department = department; }
+
+    public long getHeadcount() { return headcount; }
+    public void setHeadcount(long headcount) { this.headcount = headcount; }
+
+    public long getActiveCount() { return activeCount; }
+    public void setActiveCount(long activeCount) { this.activeCount = activeCount; }
+
+    public long getSalariedCount() { return salariedCount; }
+    public void setSalariedCount(long salariedCount) { this.salariedCount = salariedCount; }
+
+    public double getSalarySum() { return salarySum; }
+    public void setSalarySum(double salarySum) { this.salarySum = salarySum; }
+
+    public Double getMinSalary() { return minSalary; }
+    public void setMinSalary(Double minSalary) { this.minSalary = minSalary; }
+
+    public Double getMaxSalary() { return maxSalary; }
+    public void setMaxSalary(Double maxSalary) { this.maxSalary = maxSalary; }
+
+    public Double getAverageSalary() { return averageSalary; }
+    public void setAverageSalary(Double averageSalary) { this.averageSalary = averageSalary; }
+}
@@ -1,5 +1,6 @@
 package org.example.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 
@@ -47,6 +48,11 @@ public class Employee {
     @Schema(description = "Active status", example = "true")
     private Boolean active;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Revision number, incremented on every update; echoed in the ETag",
+            example = "3", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     public Employee() {
     }
 
@@ -95,6 +101,9 @@ public class Employee {
     public Boolean getActive() { return active; }
     public void setActive(Boolean active) { this.active = active; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public static class EmployeeBuilder {
         private Long id;
         private String firstName;
@@ -105,6 +114,7 @@ public class Employee {
         private LocalDate hireDate;
         private Double salary;
         private Boolean active;
+        private Long version;
 
         public EmployeeBuilder id(Long id) { this.id = id; return this; }
         public EmployeeBuilder firstName(String firstName) { this.firstName = firstName; return this; }
@@ -115,9 +125,12 @@ public class Employee {
         public EmployeeBuilder hireDate(LocalDate hireDate) { this.hireDate = hireDate; return this; }
         public EmployeeBuilder salary(Double salary) { this.salary = salary; return this; }
         public EmployeeBuilder active(Boolean active) { this.active = active; return this; }
+        public EmployeeBuilder version(Long version) { this.version = version; return this; }
 
         public Employee build() {
-            return new Employee(id, firstName, lastName, email, department, jobTitle, hireDate, salary, active);
+            Employee employee = new Employee(id, firstName, lastName, email, department, jobTitle, hireDate, salary, active);
+            employee.setVersion(version);
+            return employee;
         }
     }
 }
@@ -0,0 +1,45 @@
+package org.example.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "One committed write to the employee store, as published on the change feed")
+public class EmployeeChange {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    @Schema(description = "Position in the feed; increases by one per change", example = "1042")
+    private long seq;
+
+    @Schema(description = "Kind of write", example = "UPDATED")
+    private Type type;
+
+    @Schema(description = "Employee ID", example = "17")
+    private Long id;
+
+    @Schema(description = "Employee after the write; absent for deletes")
+    private Employee employee;
+
+    public EmployeeChange() {
+    }
+
+    public EmployeeChange(long seq, Type type, Long id, Employee employee) {
+        this.seq = seq;
+        this.type = type;
+        this.id = id;
+        this.employee = employee;
+    }
+
+    public long getSeq() { return seq; }
+    public void setSeq(long seq) { this.seq = seq; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Employee getEmployee() { return employee; }
+    public void setEmployee(Employee employee) { this.employee = employee; }
+}
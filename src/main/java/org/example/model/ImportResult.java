@@ -0,0 +1,57 @@
+package org.example.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Outcome of a CSV employee import")
+public class ImportResult {
+
+    @Schema(description = "Number of data rows in the file, blank lines excluded", example = "1000000")
+    private long received;
+
+    @Schema(description = "Number of rows stored", example = "999998")
+    private long accepted;
+
+    @Schema(description = "Number of rows rejected", example = "2")
+    private long rejected;
+
+    @Schema(description = "Wall-clock time of the import in milliseconds", example = "4210")
+    private long elapsedMillis;
+
+    @Schema(description = "Rows read per second of elapsed time", example = "237529")
+    private long rowsPerSecond;
+
+    @Schema(description = "The first rejected rows, one entry per problem; index is the 1-based line number in the file")
+    private List<BatchResult.RowError> errors;
+
+    public ImportResult() {
+    }
+
+    public ImportResult(long received, long accepted, long elapsedMillis, List<BatchResult.RowError> errors) {
+        this.received = received;
+        this.accepted = accepted;
+        this.rejected = received - accepted;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = received * 1000 / Math.max(1, elapsedMillis);
+        this.errors = errors;
+    }
+
+    public long getReceived() { return received; }
+    public void setReceived(long received) { this.received = received; }
+
+    public long getAccepted() { return accepted; }
+    public void setAccepted(long accepted) { this.accepted = accepted; }
+
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    public long getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(long rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+
+    public List<BatchResult.RowError> getErrors() { return errors; }
+    public void setErrors(List<BatchResult.RowError> errors) { this.errors = errors; }
+}
@@ -14,13 +14,21 @@ public class Worklist {
     @Schema(description = "Client name", example = "Morrison & Partners LLC")
     private String clientName;
 
+    @Schema(description = "Claim priority; higher is claimed first, ties in arrival order", example = "0")
+    private int priority;
+
     public Worklist() {
     }
 
     public Worklist(Long id, String accountName, String clientName) {
+        this(id, accountName, clientName, 0);
+    }
+
+    public Worklist(Long id, String accountName, String clientName, int priority) {
         this.id = id;
         this.accountName = accountName;
         this.clientName = clientName;
+        this.priority = priority;
     }
 
     public static WorklistBuilder builder() {
@@ -36,17 +44,22 @@ public class Worklist {
     public String getClientName() { return clientName; }
     public void setClientName(String clientName) { this.clientName = clientName; }
 
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
     public static class WorklistBuilder {
         private Long id;
         private String accountName;
         private String clientName;
+        private int priority;
 
         public WorklistBuilder id(Long id) { this.id = id; return this; }
         public WorklistBuilder accountName(String accountName) { this.accountName = accountName; return this; }
         public WorklistBuilder clientName(String clientName) { this.clientName = clientName; return this; }
+        public WorklistBuilder priority(int priority) { this.priority = priority; return this; }
 
         public Worklist build() {
-            return new Worklist(id, accountName, clientName);
+            return new Worklist(id, accountName, clientName, priority);
         }
     }
 }
@@ -0,0 +1,43 @@
+package org.example.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(description = "A claimed worklist item, held by one worker until completed, released or expired")
+public class WorklistLease {
+
+    @Schema(description = "The claimed item")
+    private Worklist item;
+
+    @Schema(description = "Lease token; completing or releasing the item requires it", example = "918273")
+    private long token;
+
+    @Schema(description = "Worker that holds the lease", example = "recon-worker-7")
+    private String worker;
+
+    @Schema(description = "When the item goes back on the queue unless completed first", example = "2024-05-01T12:00:30Z")
+    private Instant expiresAt;
+
+    public WorklistLease() {
+    }
+
+    public WorklistLease(Worklist item, long token, String worker, Instant expiresAt) {
+        this.item = item;
+        this.token = token;
+        this.worker = worker;
+        this.expiresAt = expiresAt;
+    }
+
+    public Worklist getItem() { return item; }
+    public void setItem(Worklist item) { this.item = item; }
+
+    public long getToken() { return token; }
+    public void setToken(long token) { this.token = token; }
+
+    public String getWorker() { return worker; }
+    public void setWorker(String worker) { this.worker = worker; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -0,0 +1,72 @@
+package org.example.partition;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for spreading the employee store over several instances, bound from
+ * {@code employee.store.partition}. Every instance must list the same nodes in the same order and
+ * use the same shard count.
+ */
+@ConfigurationProperties(prefix = "employee.store.partition")
+public class PartitionProperties {
+
+    /** Partition the store; off by default, which keeps the whole store in this process. */
+    private boolean enabled;
+
+    /**
+     * Fixed number of shards. Ids encode their shard, so this cannot change once rows are stored.
+     */
+    private int shards = 64;
+
+    /** Base URL of every instance, this one included, e.g. {@code http://emp-1:8080}. */
+    private List<String> nodes = new ArrayList<>();
+
+    /** This instance's entry in {@link #nodes}; the only node when the list is empty. */
+    private String self = "http://localhost:8080";
+
+    /** Ring tokens per node; more tokens spread the shards more evenly. */
+    private int tokensPerNode = 128;
+
+    /** Limit on each call to a peer, from connecting to reading the whole response. */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * Shared by every instance and required when partitioned: the peer endpoints refuse calls
+     * that do not carry it, since they skip the checks the public API makes.
+     */
+    private String secret;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getShards() { return shards; }
+    public void setShards(int shards) { this.shards = shards; }
+
+    public List<String> getNodes() { return nodes; }
+    public void setNodes(List<String> nodes) { this.nodes = nodes; }
+
+    public String getSelf() { return self; }
+    public void setSelf(String self) { this.self = self; }
+
+    public int getTokensPerNode() { return tokensPerNode; }
+    public void setTokensPerNode(int tokensPerNode) { this.tokensPerNode = tokensPerNode; }
+
+    public Duration getTimeout() { return timeout; }
+    public void setTimeout(Duration timeout) { this.timeout = timeout; }
+
+    public String getSecret() { return secret; }
+
+    /** The secret, refusing to run partitioned without one. */
+    public String requireSecret() {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("employee.store.partition.secret must be set when partitioning is enabled");
+        }
+        return secret;
+    }
+
+    public void setSecret(String secret) { this.secret = secret; }
+}
@@ -0,0 +1,487 @@
+package org.example.partition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.DepartmentStats;
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.example.repository.DuplicateEmailException;
+import org.example.repository.EmployeeChangeListener;
+import org.example.repository.EmployeeJournal;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.IdSequence;
+
+import java.net.http.HttpClient;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * An employee store split into a fixed number of shards spread over several instances by a
+ * {@link ShardRing}. Each instance keeps the shards it owns in local stores of the configured
+ * engine and reaches the others through their owners' internal endpoints, so any instance
+ * answers any request:
+ * <ul>
+ *     <li>reads and writes of one id go to the shard the id names, here or on its owner;</li>
+ *     <li>a new row goes to the shard its email address hashes to;</li>
+ *     <li>lists, counts and lookups by anything but id ask every local shard and every peer at
+ *     once and merge the answers: a page is the first {@code limit} rows of the union of each
+ *     part's first {@code limit} rows, in the query's order.</li>
+ * </ul>
+ *
+ * <p>Guarantees are per shard. A batch is split by shard and each part is stored as one unit,
+ * but a failure in one part leaves the others stored. Two creates of one address meet on the
+ * address's shard and one of them fails. An update or patch can leave an address on a row
+ * outside that shard, so a create or batch first asks every other shard whether its addresses
+ * are taken, and an update or patch that changes an address asks every shard; these checks can
+ * race with a concurrent write of the same address elsewhere. Listeners, the journal and
+ * recovery cover the local shards only.
+ */
+public class PartitionedEmployeeRepository implements EmployeeRepository, AutoCloseable {
+
+    private static final Comparator<Employee> BY_ID = Comparator.comparing(Employee::getId);
+
+    private final ShardRing ring;
+    /** Indexed by shard; null where another node owns the shard. */
+    private final EmployeeRepository[] shards;
+    /** Indexed by node; null for this node, and for every node in the local view. */
+    private final RemoteEmployeeRepository[] peers;
+    /** Shards a new row without an email address may be put on. */
+    private final int[] placeable;
+    private final List<EmployeeRepository> localShards = new ArrayList<>();
+    private final List<RemoteEmployeeRepository> remotePeers = new ArrayList<>();
+    private final ExecutorService fanOut;
+    private final PartitionedEmployeeRepository local;
+
+    /**
+     * A store whose shards are all held in this process, as with a single-node ring.
+     */
+    public PartitionedEmployeeRepository(int shards, Function<IdSequence, EmployeeRepository> engine) {
+        this(new ShardRing(shards, List.of("local"), 1), 0, engine, new RemoteEmployeeRepository[1]);
+    }
+
+    private PartitionedEmployeeRepository(ShardRing ring, int self, Function<IdSequence, EmployeeRepository> engine,
+                                          RemoteEmployeeRepository[] peers) {
+        this.ring = ring;
+        this.shards = new EmployeeRepository[ring.shards()];
+        for (int shard : ring.shardsOf(self)) {
+            shards[shard] = engine.apply(new IdSequence(shard + 1, ring.shards()));
+        }
+        this.peers = peers;
+        this.fanOut = Executors.newVirtualThreadPerTaskExecutor();
+        collectParts();
+        this.placeable = allShards(ring.shards());
+        this.local = new PartitionedEmployeeRepository(this, ring.shardsOf(self));
+    }
+
+    /** The view of {@code store} restricted to its local shards. */
+    private PartitionedEmployeeRepository(PartitionedEmployeeRepository store, int[] owned) {
+        this.ring = store.ring;
+        this.shards = store.shards;
+        this.peers = new RemoteEmployeeRepository[store.peers.length];
+        this.fanOut = store.fanOut;
+        collectParts();
+        this.placeable = owned;
+        this.local = this;
+    }
+
+    /**
+     * Builds this instance's part of the store described by {@code properties}: empty local
+     * shards of the given engine, and clients for the peers.
+     */
+    public static PartitionedEmployeeRepository connect(PartitionProperties properties,
+                                                        Function<IdSequence, EmployeeRepository> engine,
+                                                        ObjectMapper mapper) {
+        List<String> nodes = properties.getNodes().isEmpty() ? List.of(properties.getSelf()) : properties.getNodes();
+        int self = nodes.indexOf(properties.getSelf());
+        if (self < 0) {
+            throw new IllegalStateException("employee.store.partition.self " + properties.getSelf()
+                    + " is not one of the nodes " + nodes);
+        }
+        String secret = properties.requireSecret();
+        ShardRing ring = new ShardRing(properties.getShards(), nodes, properties.getTokensPerNode());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getTimeout())
+                .build();
+        RemoteEmployeeRepository[] peers = new RemoteEmployeeRepository[nodes.size()];
+        for (int node = 0; node < nodes.size(); node++) {
+            if (node != self) {
+                peers[node] = new RemoteEmployeeRepository(nodes.get(node), client, mapper, properties.getTimeout(),
+                        secret);
+            }
+        }
+        return new PartitionedEmployeeRepository(ring, self, engine, peers);
+    }
+
+    private void collectParts() {
+        for (EmployeeRepository shard : shards) {
+            if (shard != null) {
+                localShards.add(shard);
+            }
+        }
+        for (RemoteEmployeeRepository peer : peers) {
+            if (peer != null) {
+                remotePeers.add(peer);
+            }
+        }
+    }
+
+    private static int[] allShards(int count) {
+        int[] all = new int[count];
+        for (int i = 0; i < count; i++) {
+            all[i] = i;
+        }
+        return all;
+    }
+
+    public ShardRing ring() {
+        return ring;
+    }
+
+    @Override
+    public PartitionedEmployeeRepository local() {
+        return local;
+    }
+
+    /** The local shard or the peer that holds {@code shard}; null if this view cannot reach it. */
+    private EmployeeRepository partFor(int shard) {
+        EmployeeRepository part = shards[shard];
+        return part != null ? part : peers[ring.ownerOf(shard)];
+    }
+
+    private EmployeeRepository partForId(Long id) {
+        return id == null || id < 1 ? null : partFor(ring.shardOf(id));
+    }
+
+    private int placement(Employee employee) {
+        return employee.getEmail() != null
+                ? ring.shardOfEmail(employee.getEmail())
+                : placeable[ThreadLocalRandom.current().nextInt(placeable.length)];
+    }
+
+    @Override
+    public Employee create(Employee employee) {
+        int shard = placement(employee);
+        EmployeeRepository part = partFor(shard);
+        if (part == null) {
+            throw new IllegalStateException("Shard " + shard + " is not owned by this node");
+        }
+        if (employee.getEmail() != null) {
+            List<EmployeeRepository> others = new ArrayList<>(parts());
+            others.remove(part);
+            checkAddressesFree(others, List.of(employee.getEmail()));
+        }
+        return part.create(employee);
+    }
+
+    @Override
+    public List<Employee> insertAll(List<Employee> batch) {
+        Map<EmployeeRepository, List<Employee>> byPart = new HashMap<>();
+        for (Employee employee : batch) {
+            int shard = placement(employee);
+            EmployeeRepository part = partFor(shard);
+            if (part == null) {
+                throw new IllegalStateException("Shard " + shard + " is not owned by this node");
+            }
+            byPart.computeIfAbsent(part, p -> new ArrayList<>()).add(employee);
+        }
+        List<String> emails = batch.stream().map(Employee::getEmail).filter(Objects::nonNull).toList();
+        if (!emails.isEmpty()) {
+            checkAddressesFree(parts(), emails);
+        }
+        gather(List.copyOf(byPart.keySet()), part -> part.insertAll(byPart.get(part)));
+        return batch;
+    }
+
+    /**
+     * Puts recovered rows back into the shards their ids name.
+     *
+     * @throws IllegalStateException if a row belongs to a shard another node now owns; moving
+     *                               shards between nodes is not supported
+     */
+    @Override
+    public void load(Collection<Employee> rows) {
+        Map<Integer, List<Employee>> byShard = new HashMap<>();
+        for (Employee employee : rows) {
+            int shard = ring.shardOf(employee.getId());
+            if (shards[shard] == null) {
+                throw new IllegalStateException("Recovered employee " + employee.getId() + " belongs to shard "
+                        + shard + ", owned by " + ring.nodes().get(ring.ownerOf(shard)));
+            }
+            byShard.computeIfAbsent(shard, s -> new ArrayList<>()).add(employee);
+        }
+        byShard.forEach((shard, shardRows) -> shards[shard].load(shardRows));
+    }
+
+    /** Advances every local shard; each then continues after {@code id} in its own residue class. */
+    @Override
+    public void advanceIdsPast(long id) {
+        localShards.forEach(shard -> shard.advanceIdsPast(id));
+    }
+
+    @Override
+    public void setJournal(EmployeeJournal journal) {
+        localShards.forEach(shard -> shard.setJournal(journal));
+    }
+
+    @Override
+    public void addListener(EmployeeChangeListener listener) {
+        localShards.forEach(shard -> shard.addListener(listener));
+    }
+
+    @Override
+    public Optional<Employee> findById(Long id) {
+        EmployeeRepository part = partForId(id);
+        return part == null ? Optional.empty() : part.findById(id);
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        return concat(EmployeeRepository::findAll);
+    }
+
+    @Override
+    public EmployeePage query(EmployeeQuery query) {
+        List<Employee> merged = new ArrayList<>();
+        boolean more = false;
+        int scanned = 0;
+        for (EmployeePage page : gather(part -> part.query(query))) {
+            merged.addAll(page.getItems());
+            more |= page.getNext() != null;
+            scanned += page.getScanned();
+        }
+        merged.sort(query.order());
+        if (merged.size() > query.getLimit()) {
+            merged = new ArrayList<>(merged.subList(0, query.getLimit()));
+            more = true;
+        }
+        return new EmployeePage(merged, more && !merged.isEmpty() ? query.cursorAt(merged.get(merged.size() - 1)) : null,
+                scanned);
+    }
+
+    /** Local shards in shard order, then each peer's rows as they stream in. */
+    @Override
+    public void forEach(EmployeeQuery query, Consumer<? super Employee> action) {
+        for (EmployeeRepository shard : localShards) {
+            shard.forEach(query, action);
+        }
+        for (RemoteEmployeeRepository peer : remotePeers) {
+            peer.forEach(query, action);
+        }
+    }
+
+    /**
+     * Local shards, then peers, as in {@link #forEach}; each shard's rows are as of the moment
+     * that shard's scan began rather than one instant across the whole store.
+     */
+    @Override
+    public void forEachSnapshot(EmployeeQuery query, Consumer<? super Employee> action) {
+        for (EmployeeRepository shard : localShards) {
+            shard.forEachSnapshot(query, action);
+        }
+        for (RemoteEmployeeRepository peer : remotePeers) {
+            peer.forEachSnapshot(query, action);
+        }
+    }
+
+    /**
+     * Asks the shard the address hashes to first, where every row is created, and then the
+     * others, since an update may have given a row on another shard that address.
+     */
+    @Override
+    public Optional<Employee> findByEmail(String email) {
+        EmployeeRepository home = partFor(ring.shardOfEmail(email));
+        Optional<Employee> found = home == null ? Optional.empty() : home.findByEmail(email);
+        if (found.isPresent()) {
+            return found;
+        }
+        List<EmployeeRepository> others = new ArrayList<>(parts());
+        others.remove(home);
+        return gather(others, part -> part.findByEmail(email)).stream()
+                .flatMap(Optional::stream)
+                .findFirst();
+    }
+
+    @Override
+    public List<Employee> findByDepartment(String department) {
+        return concat(part -> part.findByDepartment(department));
+    }
+
+    @Override
+    public List<Employee> findByActive(boolean active) {
+        return concat(part -> part.findByActive(active));
+    }
+
+    @Override
+    public List<Employee> findByHireDateBetween(LocalDate from, LocalDate to) {
+        return concat(part -> part.findByHireDateBetween(from, to));
+    }
+
+    @Override
+    public Optional<Employee> update(Long id, Employee employee, Long expectedVersion) {
+        EmployeeRepository part = partForId(id);
+        if (part == null) {
+            return Optional.empty();
+        }
+        checkAddressChange(part, id, employee.getEmail());
+        return part.update(id, employee, expectedVersion);
+    }
+
+    @Override
+    public Optional<Employee> patch(Long id, Map<EmployeeField, Object> changes, Long expectedVersion) {
+        EmployeeRepository part = partForId(id);
+        if (part == null) {
+            return Optional.empty();
+        }
+        if (changes.get(EmployeeField.EMAIL) instanceof String email) {
+            checkAddressChange(part, id, email);
+        }
+        return part.patch(id, changes, expectedVersion);
+    }
+
+    /**
+     * The row's shard only knows its own addresses, so a new address is looked up everywhere
+     * before the write is sent there.
+     */
+    private void checkAddressChange(EmployeeRepository part, Long id, String email) {
+        if (email == null) {
+            return;
+        }
+        Optional<Employee> current = part.findById(id);
+        if (current.isEmpty() || email.strip().equalsIgnoreCase(String.valueOf(current.get().getEmail()).strip())) {
+            return;
+        }
+        Optional<Employee> holder = findByEmail(email);
+        if (holder.isPresent() && !holder.get().getId().equals(id)) {
+            throw new DuplicateEmailException(email, holder.get().getId());
+        }
+    }
+
+    /**
+     * Fails if a row on any of {@code parts} holds one of the addresses. Each part is asked once
+     * for all of them, the peers concurrently.
+     */
+    private void checkAddressesFree(List<EmployeeRepository> parts, List<String> emails) {
+        for (Map<String, Long> held : gather(parts, part -> holders(part, emails))) {
+            if (!held.isEmpty()) {
+                Map.Entry<String, Long> holder = held.entrySet().iterator().next();
+                throw new DuplicateEmailException(holder.getKey(), holder.getValue());
+            }
+        }
+    }
+
+    /** The ids of the rows in {@code part} holding any of {@code emails}, by address as given. */
+    private static Map<String, Long> holders(EmployeeRepository part, List<String> emails) {
+        if (part instanceof RemoteEmployeeRepository peer) {
+            return peer.holders(emails);
+        }
+        Map<String, Long> held = new LinkedHashMap<>();
+        for (String email : emails) {
+            part.findByEmail(email).ifPresent(holder -> held.put(email, holder.getId()));
+        }
+        return held;
+    }
+
+    @Override
+    public boolean delete(Long id, Long expectedVersion) {
+        EmployeeRepository part = partForId(id);
+        return part != null && part.delete(id, expectedVersion);
+    }
+
+    @Override
+    public int count() {
+        return gather(EmployeeRepository::count).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * The sum of every part's counter, which advances whenever any of them does. Peers' counters
+     * are shifted past their previous run when they restart, so the sum never goes back.
+     */
+    @Override
+    public long dataVersion() {
+        return gather(EmployeeRepository::dataVersion).stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Department aggregates from each peer, over the shards it owns; the local shards' are
+     * kept by this process's listeners.
+     */
+    public List<List<DepartmentStats>> peerStats() {
+        return gather(remotePeers, peer -> ((RemoteEmployeeRepository) peer).stats());
+    }
+
+    @Override
+    public void close() {
+        if (local != this) {
+            fanOut.close();
+        }
+    }
+
+    private List<EmployeeRepository> parts() {
+        List<EmployeeRepository> parts = new ArrayList<>(localShards);
+        parts.addAll(remotePeers);
+        return parts;
+    }
+
+    private List<Employee> concat(Function<EmployeeRepository, List<Employee>> call) {
+        List<Employee> rows = new ArrayList<>();
+        gather(call).forEach(rows::addAll);
+        rows.sort(BY_ID);
+        return rows;
+    }
+
+    private <T> List<T> gather(Function<EmployeeRepository, T> call) {
+        return gather(parts(), call);
+    }
+
+    /**
+     * Calls every part and returns the results in the order of {@code parts}. Peers are called
+     * concurrently, each on its own virtual thread, while the local ones run on the caller's.
+     */
+    private <T> List<T> gather(List<? extends EmployeeRepository> parts, Function<EmployeeRepository, T> call) {
+        List<Future<T>> remote = new ArrayList<>(parts.size());
+        for (EmployeeRepository part : parts) {
+            remote.add(part instanceof RemoteEmployeeRepository ? fanOut.submit(() -> call.apply(part)) : null);
+        }
+        List<T> results = new ArrayList<>(parts.size());
+        for (int i = 0; i < parts.size(); i++) {
+            results.add(remote.get(i) == null ? call.apply(parts.get(i)) : null);
+        }
+        for (int i = 0; i < parts.size(); i++) {
+            if (remote.get(i) != null) {
+                results.set(i, join(remote.get(i)));
+            }
+        }
+        return results;
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a peer", e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.partition;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Lets a request through to the peer endpoints only when it carries the shared
+ * {@code employee.store.partition.secret} in {@link #HEADER}; anything else gets a bare 401.
+ * The comparison takes the same time wherever the supplied value first differs.
+ */
+public class PeerSecretFilter extends OncePerRequestFilter {
+
+    /** The header {@link RemoteEmployeeRepository} sends the secret in. */
+    public static final String HEADER = "X-Peer-Secret";
+
+    private final byte[] secret;
+
+    public PeerSecretFilter(String secret) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String supplied = request.getHeader(HEADER);
+        if (supplied == null || !MessageDigest.isEqual(secret, supplied.getBytes(StandardCharsets.UTF_8))) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.partition;
+
+/**
+ * A peer of a partitioned store could not be reached or failed to answer, so the shards it owns
+ * are unavailable for now.
+ */
+public class PeerUnavailableException extends RuntimeException {
+
+    public PeerUnavailableException(String node, String message, Throwable cause) {
+        super("Peer " + node + " is unavailable: " + message, cause);
+    }
+}
@@ -0,0 +1,342 @@
+package org.example.partition;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import org.example.model.DepartmentStats;
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeeFilter;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.example.repository.DuplicateEmailException;
+import org.example.repository.EmployeeChangeListener;
+import org.example.repository.EmployeeJournal;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.StaleVersionException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The shards one peer owns, reached through its {@code /internal/employees} endpoints (see
+ * {@code InternalEmployeeController}). Conflicts come back as the exceptions the peer's store
+ * threw; anything else that goes wrong on the way is a {@link PeerUnavailableException}, a
+ * refused secret included. The peer keeps its own journal and listeners, so those cannot be set
+ * from here.
+ */
+final class RemoteEmployeeRepository implements EmployeeRepository {
+
+    private static final Comparator<Employee> BY_ID = Comparator.comparing(Employee::getId);
+    private static final TypeReference<List<Employee>> EMPLOYEES = new TypeReference<>() {};
+    private static final TypeReference<List<DepartmentStats>> STATS = new TypeReference<>() {};
+    private static final TypeReference<Map<String, Long>> HOLDERS = new TypeReference<>() {};
+
+    private final String node;
+    private final String base;
+    private final HttpClient client;
+    private final ObjectMapper mapper;
+    private final Duration timeout;
+    private final String secret;
+
+    /** The peer's run behind the last status read, and what its counter is shifted by; guarded by this. */
+    private String run;
+    private long runOffset;
+    private long highestVersion;
+
+    RemoteEmployeeRepository(String node, HttpClient client, ObjectMapper mapper, Duration timeout, String secret) {
+        this.node = node;
+        this.base = node.replaceAll("/+$", "") + "/internal/employees";
+        this.client = client;
+        this.mapper = readingVersions(mapper);
+        this.timeout = timeout;
+        this.secret = secret;
+    }
+
+    /**
+     * The public API never accepts a version in a body, but rows coming back from a peer carry
+     * the version it stored.
+     */
+    private static ObjectMapper readingVersions(ObjectMapper mapper) {
+        return mapper.copy().setAnnotationIntrospector(new JacksonAnnotationIntrospector() {
+            @Override
+            public JsonProperty.Access findPropertyAccess(Annotated annotated) {
+                return null;
+            }
+        });
+    }
+
+    String node() {
+        return node;
+    }
+
+    @Override
+    public Employee create(Employee employee) {
+        Employee stored = send("POST", "", employee, Employee.class).orElseThrow();
+        // callers hold on to the row they passed in, as with a local store
+        employee.setId(stored.getId());
+        employee.setVersion(stored.getVersion());
+        return employee;
+    }
+
+    @Override
+    public List<Employee> insertAll(List<Employee> batch) {
+        List<Employee> stored = send("POST", "/batch", batch, EMPLOYEES).orElseThrow();
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).setId(stored.get(i).getId());
+            batch.get(i).setVersion(stored.get(i).getVersion());
+        }
+        return batch;
+    }
+
+    @Override
+    public void load(Collection<Employee> rows) {
+        throw new UnsupportedOperationException("Rows of " + node + " are loaded by that node");
+    }
+
+    @Override
+    public void advanceIdsPast(long id) {
+        throw new UnsupportedOperationException(node + " assigns its own ids");
+    }
+
+    @Override
+    public void setJournal(EmployeeJournal journal) {
+        throw new UnsupportedOperationException(node + " journals its own writes");
+    }
+
+    @Override
+    public void addListener(EmployeeChangeListener listener) {
+        throw new UnsupportedOperationException(node + " notifies its own listeners");
+    }
+
+    @Override
+    public Optional<Employee> findById(Long id) {
+        return send("GET", "/" + id, null, Employee.class);
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        return scan(EmployeeQuery.builder().build(), null);
+    }
+
+    @Override
+    public EmployeePage query(EmployeeQuery query) {
+        return send("POST", "/query", ShardQuery.of(query), ShardQuery.Page.class).orElseThrow().toPage();
+    }
+
+    @Override
+    public void forEach(EmployeeQuery query, Consumer<? super Employee> action) {
+        HttpResponse<InputStream> response = exchange("POST", "/scan", ShardQuery.of(query),
+                HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() != 200) {
+                check(response.statusCode(), body.readAllBytes());
+            }
+            // one object per line, handed on as it arrives
+            try (MappingIterator<Employee> rows = mapper.readerFor(Employee.class).readValues(body)) {
+                while (rows.hasNextValue()) {
+                    action.accept(rows.nextValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new PeerUnavailableException(node, e.getMessage(), e);
+        }
+    }
+
+    /** The peer's scan endpoint already reads each of its shards as a snapshot. */
+    @Override
+    public void forEachSnapshot(EmployeeQuery query, Consumer<? super Employee> action) {
+        forEach(query, action);
+    }
+
+    @Override
+    public Optional<Employee> findByEmail(String email) {
+        return send("GET", "/by-email?email=" + URLEncoder.encode(email, StandardCharsets.UTF_8), null, Employee.class);
+    }
+
+    @Override
+    public List<Employee> findByDepartment(String department) {
+        return scan(filtered(EmployeeFilter.equalTo(EmployeeField.DEPARTMENT, department)), null);
+    }
+
+    @Override
+    public List<Employee> findByActive(boolean active) {
+        // a row without the flag counts as inactive, which an equality filter would not match
+        return scan(EmployeeQuery.builder().build(), e -> Boolean.TRUE.equals(e.getActive()) == active);
+    }
+
+    @Override
+    public List<Employee> findByHireDateBetween(LocalDate from, LocalDate to) {
+        return scan(filtered(EmployeeFilter.between(EmployeeField.HIRE_DATE, from, to)), null);
+    }
+
+    @Override
+    public Optional<Employee> update(Long id, Employee employee, Long expectedVersion) {
+        return send("PUT", "/" + id + versionParam(expectedVersion), employee, Employee.class);
+    }
+
+    @Override
+    public Optional<Employee> patch(Long id, Map<EmployeeField, Object> changes, Long expectedVersion) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        changes.forEach((field, value) -> body.put(field.getField(), value));
+        return send("PATCH", "/" + id + versionParam(expectedVersion), body, Employee.class);
+    }
+
+    @Override
+    public boolean delete(Long id, Long expectedVersion) {
+        HttpResponse<byte[]> response = exchange("DELETE", "/" + id + versionParam(expectedVersion), null,
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        if (response.statusCode() != 204) {
+            check(response.statusCode(), response.body());
+        }
+        return true;
+    }
+
+    @Override
+    public int count() {
+        return status().count();
+    }
+
+    /**
+     * The peer's counter, kept from going backwards when the peer restarts: a new run continues
+     * above the highest value seen from the previous one, so a sum over the parts never repeats
+     * a value it had for different data.
+     */
+    @Override
+    public long dataVersion() {
+        ShardStatus status = status();
+        synchronized (this) {
+            if (!Objects.equals(status.run(), run)) {
+                if (run != null) {
+                    runOffset = highestVersion + 1;
+                }
+                run = status.run();
+            }
+            long version = runOffset + status.dataVersion();
+            highestVersion = Math.max(highestVersion, version);
+            return version;
+        }
+    }
+
+    ShardStatus status() {
+        return send("GET", "/status", null, ShardStatus.class).orElseThrow();
+    }
+
+    /** The ids of the peer's rows holding any of {@code emails}, by address as given. */
+    Map<String, Long> holders(List<String> emails) {
+        return send("POST", "/emails", emails, HOLDERS).orElseThrow();
+    }
+
+    /** Department aggregates over the peer's shards. */
+    List<DepartmentStats> stats() {
+        return send("GET", "/stats", null, STATS).orElseThrow();
+    }
+
+    private static EmployeeQuery filtered(EmployeeFilter filter) {
+        return EmployeeQuery.builder().filters(List.of(filter)).build();
+    }
+
+    private static String versionParam(Long expectedVersion) {
+        return expectedVersion == null ? "" : "?expectedVersion=" + expectedVersion;
+    }
+
+    private List<Employee> scan(EmployeeQuery query, Predicate<Employee> keep) {
+        List<Employee> rows = new ArrayList<>();
+        forEach(query, e -> {
+            if (keep == null || keep.test(e)) {
+                rows.add(e);
+            }
+        });
+        rows.sort(BY_ID);
+        return rows;
+    }
+
+    private <T> Optional<T> send(String method, String path, Object body, Class<T> type) {
+        return send(method, path, body, mapper.getTypeFactory().constructType(type));
+    }
+
+    private <T> Optional<T> send(String method, String path, Object body, TypeReference<T> type) {
+        return send(method, path, body, mapper.getTypeFactory().constructType(type));
+    }
+
+    /** Empty on 404, which the peer answers for an id or address it does not hold. */
+    private <T> Optional<T> send(String method, String path, Object body, JavaType type) {
+        HttpResponse<byte[]> response = exchange(method, path, body, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.statusCode() != 200) {
+            check(response.statusCode(), response.body());
+        }
+        try {
+            return Optional.of(mapper.readValue(response.body(), type));
+        } catch (IOException e) {
+            throw new PeerUnavailableException(node, "unreadable response to " + method + " " + path, e);
+        }
+    }
+
+    private <T> HttpResponse<T> exchange(String method, String path, Object body, HttpResponse.BodyHandler<T> handler) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                .timeout(timeout)
+                .header(PeerSecretFilter.HEADER, secret);
+        try {
+            if (body == null) {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            } else {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+            }
+            return client.send(request.build(), handler);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize request to " + node, e);
+        } catch (IOException e) {
+            throw new PeerUnavailableException(node, e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PeerUnavailableException(node, "interrupted", e);
+        }
+    }
+
+    /** Turns an error status back into the exception the peer's store threw. */
+    private void check(int status, byte[] body) {
+        JsonNode error;
+        try {
+            error = mapper.readTree(body);
+        } catch (IOException e) {
+            error = mapper.nullNode();
+        }
+        switch (status) {
+            case 409 -> throw new DuplicateEmailException(error.path("email").asText(), error.path("ownerId").asLong());
+            case 412 -> throw new StaleVersionException(error.path("id").asLong(),
+                    error.path("expectedVersion").asLong(), error.path("currentVersion").asLong());
+            default -> throw new PeerUnavailableException(node, "status " + status, null);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.partition;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeeFilter;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.example.query.InvalidQueryException;
+import org.example.query.PageCursor;
+
+import java.util.List;
+
+/**
+ * An {@link EmployeeQuery} as sent to a peer. Values travel as the strings
+ * {@link EmployeeField#parse} reads back, and the cursor in its {@link PageCursor#encode} form.
+ * It bypasses the column manifest: the query was validated by the node that received it.
+ */
+public record ShardQuery(List<Filter> filters, String sort, boolean descending, String after, int limit) {
+
+    public record Filter(String field, String from, String to, boolean equality) {
+    }
+
+    public static ShardQuery of(EmployeeQuery query) {
+        List<Filter> filters = query.getFilters().stream()
+                .map(f -> new Filter(f.getField().getField(), format(f.getFrom()), format(f.getTo()), f.isEquality()))
+                .toList();
+        return new ShardQuery(filters, query.getSortField().getField(), query.isDescending(),
+                query.getAfter() == null ? null : query.getAfter().encode(), query.getLimit());
+    }
+
+    public EmployeeQuery toQuery() {
+        List<EmployeeFilter> parsed = filters.stream().map(ShardQuery::parse).toList();
+        return EmployeeQuery.builder()
+                .filters(parsed)
+                .sortField(field(sort))
+                .descending(descending)
+                .after(after == null ? null : PageCursor.decode(after))
+                .limit(limit)
+                .build();
+    }
+
+    private static EmployeeFilter parse(Filter filter) {
+        EmployeeField field = field(filter.field());
+        Object from = filter.from() == null ? null : field.parse(filter.from());
+        return filter.equality()
+                ? EmployeeFilter.equalTo(field, from)
+                : EmployeeFilter.between(field, from, filter.to() == null ? null : field.parse(filter.to()));
+    }
+
+    private static EmployeeField field(String name) {
+        return EmployeeField.byName(name).orElseThrow(() -> new InvalidQueryException("Unknown field: " + name));
+    }
+
+    private static String format(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /** One shard's answer to a {@link ShardQuery}. */
+    public record Page(List<Employee> items, String next, int scanned) {
+
+        public static Page of(EmployeePage page) {
+            return new Page(page.getItems(), page.getNext() == null ? null : page.getNext().encode(), page.getScanned());
+        }
+
+        public EmployeePage toPage() {
+            return new EmployeePage(items, next == null ? null : PageCursor.decode(next), scanned);
+        }
+    }
+}
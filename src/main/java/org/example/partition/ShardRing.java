@@ -0,0 +1,103 @@
+package org.example.partition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Places a fixed number of shards on the nodes of a partitioned store by consistent hashing.
+ * Every node puts {@code tokensPerNode} tokens on a 64-bit ring and a shard belongs to the node
+ * holding the first token at or after the shard's own hash, so adding or removing a node only
+ * moves the shards next to its tokens. Nodes are named by their base URLs; every node must be
+ * configured with the same list and shard count to agree on the placement.
+ *
+ * <p>An id names its shard directly: shard {@code s} hands out ids {@code s + 1},
+ * {@code s + 1 + shards}, ... (see {@link org.example.repository.IdSequence}). New rows are put on
+ * the shard chosen by hashing their email address, so two creates of the same address always
+ * meet on one shard, where the address is checked for uniqueness.
+ */
+public final class ShardRing {
+
+    private final int shards;
+    private final List<String> nodes;
+    private final int[] owners;
+
+    public ShardRing(int shards, List<String> nodes, int tokensPerNode) {
+        if (shards < 1 || nodes.isEmpty() || tokensPerNode < 1) {
+            throw new IllegalArgumentException("A ring needs shards, nodes and tokens: "
+                    + shards + ", " + nodes + ", " + tokensPerNode);
+        }
+        this.shards = shards;
+        this.nodes = List.copyOf(nodes);
+        TreeMap<Long, Integer> ring = new TreeMap<>();
+        for (int node = 0; node < nodes.size(); node++) {
+            for (int token = 0; token < tokensPerNode; token++) {
+                ring.putIfAbsent(hash(nodes.get(node) + '#' + token), node);
+            }
+        }
+        this.owners = new int[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            Map.Entry<Long, Integer> owner = ring.ceilingEntry(hash("shard-" + shard));
+            owners[shard] = (owner != null ? owner : ring.firstEntry()).getValue();
+        }
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public List<String> nodes() {
+        return nodes;
+    }
+
+    /** The shard holding the row with this id. */
+    public int shardOf(long id) {
+        return (int) ((id - 1) % shards);
+    }
+
+    /** The shard a new row with this email address is stored on; matches addresses ignoring case. */
+    public int shardOfEmail(String email) {
+        return Math.floorMod(hash(email.strip().toLowerCase(Locale.ROOT)), shards);
+    }
+
+    /** Index into {@link #nodes()} of the node that owns {@code shard}. */
+    public int ownerOf(int shard) {
+        return owners[shard];
+    }
+
+    /** The shards owned by the node at {@code node}, ascending. */
+    public int[] shardsOf(int node) {
+        List<Integer> owned = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            if (owners[shard] == node) {
+                owned.add(shard);
+            }
+        }
+        return owned.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder placement = new StringBuilder("ShardRing[");
+        for (int node = 0; node < nodes.size(); node++) {
+            placement.append(node == 0 ? "" : ", ").append(nodes.get(node)).append('=')
+                    .append(Arrays.toString(shardsOf(node)));
+        }
+        return placement.append(']').toString();
+    }
+
+    /** FNV-1a over the UTF-8 bytes, finished with the SplitMix64 mixer so nearby names spread. */
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
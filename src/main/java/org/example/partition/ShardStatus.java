@@ -0,0 +1,15 @@
+package org.example.partition;
+
+/**
+ * Row count and write counter of the shards one node owns. The counter starts over when the
+ * node restarts; {@code run} changes at the same time, so callers can tell the two apart.
+ */
+public record ShardStatus(int count, long dataVersion, String run) {
+
+    /** Identifies this process's run of the store, as the change feed's event ids do. */
+    public static final String THIS_RUN = Long.toString(System.currentTimeMillis(), 36);
+
+    public static ShardStatus of(int count, long dataVersion) {
+        return new ShardStatus(count, dataVersion, THIS_RUN);
+    }
+}
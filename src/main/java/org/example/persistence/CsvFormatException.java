@@ -0,0 +1,12 @@
+package org.example.persistence;
+
+/**
+ * Thrown when a CSV file cannot be read as employees at all, e.g. its header names a column the
+ * manifest does not have. Problems confined to single rows are reported per row instead.
+ */
+public class CsvFormatException extends RuntimeException {
+
+    public CsvFormatException(String message) {
+        super(message);
+    }
+}
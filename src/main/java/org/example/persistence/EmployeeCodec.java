@@ -0,0 +1,99 @@
+package org.example.persistence;
+
+import org.example.model.Employee;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Compact binary form of an {@link Employee} shared by the log and snapshots: id, version, a bit
+ * mask of the null properties, then the non-null ones in declaration order. Text is an int byte
+ * count and UTF-8 from format 4; earlier formats used {@link DataOutput#writeUTF}, which cannot
+ * hold more than 65,535 bytes. Format 1 files predate versions; their rows read back as version 1.
+ */
+final class EmployeeCodec {
+
+    private static final int FIRST_NAME = 1;
+    private static final int LAST_NAME = 1 << 1;
+    private static final int EMAIL = 1 << 2;
+    private static final int DEPARTMENT = 1 << 3;
+    private static final int JOB_TITLE = 1 << 4;
+    private static final int HIRE_DATE = 1 << 5;
+    private static final int SALARY = 1 << 6;
+    private static final int ACTIVE = 1 << 7;
+
+    private static final int LENGTH_PREFIXED_FORMAT = 4;
+
+    private EmployeeCodec() {
+    }
+
+    static void write(DataOutput out, Employee employee) throws IOException {
+        int nulls = (employee.getFirstName() == null ? FIRST_NAME : 0)
+                | (employee.getLastName() == null ? LAST_NAME : 0)
+                | (employee.getEmail() == null ? EMAIL : 0)
+                | (employee.getDepartment() == null ? DEPARTMENT : 0)
+                | (employee.getJobTitle() == null ? JOB_TITLE : 0)
+                | (employee.getHireDate() == null ? HIRE_DATE : 0)
+                | (employee.getSalary() == null ? SALARY : 0)
+                | (employee.getActive() == null ? ACTIVE : 0);
+        out.writeLong(employee.getId());
+        out.writeLong(employee.getVersion());
+        out.writeByte(nulls);
+        writeText(out, employee.getFirstName());
+        writeText(out, employee.getLastName());
+        writeText(out, employee.getEmail());
+        writeText(out, employee.getDepartment());
+        writeText(out, employee.getJobTitle());
+        if (employee.getHireDate() != null) {
+            out.writeInt((int) employee.getHireDate().toEpochDay());
+        }
+        if (employee.getSalary() != null) {
+            out.writeDouble(employee.getSalary());
+        }
+        if (employee.getActive() != null) {
+            out.writeBoolean(employee.getActive());
+        }
+    }
+
+    static Employee read(DataInput in, int format) throws IOException {
+        long id = in.readLong();
+        long version = format >= 2 ? in.readLong() : 1;
+        int nulls = in.readUnsignedByte();
+        return Employee.builder()
+                .id(id)
+                .version(version)
+                .firstName((nulls & FIRST_NAME) == 0 ? readText(in, format) : null)
+                .lastName((nulls & LAST_NAME) == 0 ? readText(in, format) : null)
+                .email((nulls & EMAIL) == 0 ? readText(in, format) : null)
+                .department((nulls & DEPARTMENT) == 0 ? readText(in, format) : null)
+                .jobTitle((nulls & JOB_TITLE) == 0 ? readText(in, format) : null)
+                .hireDate((nulls & HIRE_DATE) == 0 ? LocalDate.ofEpochDay(in.readInt()) : null)
+                .salary((nulls & SALARY) == 0 ? in.readDouble() : null)
+                .active((nulls & ACTIVE) == 0 ? in.readBoolean() : null)
+                .build();
+    }
+
+    private static void writeText(DataOutput out, String value) throws IOException {
+        if (value != null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readText(DataInput in, int format) throws IOException {
+        if (format < LENGTH_PREFIXED_FORMAT) {
+            return in.readUTF();
+        }
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative text length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
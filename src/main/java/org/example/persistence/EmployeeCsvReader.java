@@ -0,0 +1,402 @@
+package org.example.persistence;
+
+import org.example.model.BatchResult;
+import org.example.model.ColumnManifest;
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.InvalidQueryException;
+import org.example.query.UserColumns;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads employees from a CSV file in chunks that can be parsed in parallel. Opening the file reads
+ * the header and splits the rest into chunks of about {@code chunkSize} bytes, each ending at a
+ * line break; {@link #parse} then memory-maps one chunk and parses it without touching any other,
+ * so each thread can take its own.
+ *
+ * <p>The header names the columns by manifest field or header name, ignoring case, in any order.
+ * An {@code id} column is skipped since the store assigns ids; any other unknown column fails the
+ * file. Fields follow RFC 4180 as {@link org.example.web.CsvResponses} writes them, except that a
+ * quoted field may not hold a line break: chunks are split at every line break, so such a row
+ * would straddle two chunks, and it is rejected instead. Empty fields are nulls.
+ */
+public final class EmployeeCsvReader implements Closeable {
+
+    /** Bytes read at a time while looking for the line break that ends a chunk. */
+    private static final int SCAN_WINDOW = 16 * 1024;
+
+    private final FileChannel channel;
+    /** The field of each column in header order; null for a skipped column. */
+    private final EmployeeField[] columns;
+    /** Chunk {@code i} spans bytes {@code [bounds[i], bounds[i + 1])}. */
+    private final long[] bounds;
+
+    private EmployeeCsvReader(FileChannel channel, EmployeeField[] columns, long[] bounds) {
+        this.channel = channel;
+        this.columns = columns;
+        this.bounds = bounds;
+    }
+
+    /**
+     * @throws CsvFormatException if the file has no header or the header names an unknown column
+     */
+    public static EmployeeCsvReader open(Path file, long chunkSize) throws IOException {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long headerEnd = nextLine(channel, 0, size);
+            if (headerEnd == 0) {
+                throw new CsvFormatException("CSV file is empty; expected a header row");
+            }
+            ByteBuffer header = ByteBuffer.allocate(Math.toIntExact(headerEnd));
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                // positional reads until the header is in
+            }
+            EmployeeField[] columns = columns(new String(header.array(), StandardCharsets.UTF_8));
+
+            List<Long> bounds = new ArrayList<>();
+            long start = headerEnd;
+            bounds.add(start);
+            while (start < size) {
+                long end = start + chunkSize >= size ? size : nextLine(channel, start + chunkSize - 1, size);
+                bounds.add(end);
+                start = end;
+            }
+            return new EmployeeCsvReader(channel, columns, bounds.stream().mapToLong(Long::longValue).toArray());
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Number of chunks; zero for a file with only a header. */
+    public int chunks() {
+        return bounds.length - 1;
+    }
+
+    /**
+     * Maps and parses chunk {@code index}. Safe to call from several threads at once.
+     */
+    public Chunk parse(int index) throws IOException {
+        long start = bounds[index];
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, bounds[index + 1] - start);
+        return new ChunkParser(buffer, columns).parse();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * The rows of one chunk. {@code lines[i]} is the line of {@code rows.get(i)} counted from 0 at
+     * the chunk's first line; error indexes count lines the same way.
+     *
+     * @param lineCount lines in the chunk, blank ones included
+     * @param errors    rows that could not be read; they are not in {@code rows}
+     */
+    public record Chunk(List<Employee> rows, int[] lines, int lineCount, List<BatchResult.RowError> errors) {
+    }
+
+    /** Position just past the first line break at or after {@code from}, or {@code size}. */
+    private static long nextLine(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(SCAN_WINDOW);
+        long position = from;
+        while (position < size) {
+            window.clear();
+            int read = channel.read(window, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static EmployeeField[] columns(String header) {
+        if (!header.isEmpty() && header.charAt(0) == '\uFEFF') {
+            header = header.substring(1);
+        }
+        List<String> names = splitHeader(header.strip());
+        EmployeeField[] columns = new EmployeeField[names.size()];
+        boolean[] seen = new boolean[EmployeeField.values().length];
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).strip();
+            EmployeeField field = column(name);
+            if (field == null) {
+                throw new CsvFormatException("Unknown column: " + name);
+            }
+            if (seen[field.ordinal()]) {
+                throw new CsvFormatException("Duplicate column: " + name);
+            }
+            seen[field.ordinal()] = true;
+            columns[i] = field == EmployeeField.ID ? null : field;
+        }
+        return columns;
+    }
+
+    private static EmployeeField column(String name) {
+        for (EmployeeField field : EmployeeField.values()) {
+            if (field.getField().equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        for (ColumnManifest column : UserColumns.all()) {
+            if (column.getHeaderName() != null && column.getHeaderName().equalsIgnoreCase(name)) {
+                return EmployeeField.byName(column.getField()).orElse(null);
+            }
+        }
+        return null;
+    }
+
+    private static List<String> splitHeader(String line) {
+        List<String> names = new ArrayList<>();
+        StringBuilder name = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    name.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    name.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                names.add(name.toString());
+                name.setLength(0);
+            } else {
+                name.append(c);
+            }
+        }
+        names.add(name.toString());
+        return names;
+    }
+
+    /** Parses one mapped chunk; single use, not thread-safe. */
+    private static final class ChunkParser {
+
+        private final ByteBuffer buffer;
+        private final int limit;
+        private final EmployeeField[] columns;
+        private final String[] values;
+        private byte[] scratch = new byte[256];
+        private int position;
+
+        ChunkParser(ByteBuffer buffer, EmployeeField[] columns) {
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+            this.columns = columns;
+            this.values = new String[columns.length];
+        }
+
+        Chunk parse() {
+            List<Employee> rows = new ArrayList<>();
+            int[] lines = new int[64];
+            List<BatchResult.RowError> errors = new ArrayList<>();
+            int line = 0;
+            while (position < limit) {
+                if (blankLine()) {
+                    line++;
+                    continue;
+                }
+                String problem = readRow();
+                Employee employee = problem == null ? new Employee() : null;
+                for (int i = 0; i < columns.length && employee != null; i++) {
+                    if (columns[i] != null && values[i] != null) {
+                        try {
+                            columns[i].set(employee, value(columns[i], values[i]));
+                        } catch (InvalidQueryException | DateTimeException e) {
+                            errors.add(new BatchResult.RowError(line, columns[i].getField(),
+                                    "Invalid value: " + values[i]));
+                            employee = null;
+                        }
+                    }
+                }
+                if (problem != null) {
+                    errors.add(new BatchResult.RowError(line, null, problem));
+                } else if (employee != null) {
+                    if (rows.size() == lines.length) {
+                        lines = Arrays.copyOf(lines, lines.length * 2);
+                    }
+                    lines[rows.size()] = line;
+                    rows.add(employee);
+                }
+                line++;
+            }
+            return new Chunk(rows, Arrays.copyOf(lines, rows.size()), line, errors);
+        }
+
+        /** Skips an empty line, if that is what comes next. */
+        private boolean blankLine() {
+            int at = position;
+            if (at < limit && buffer.get(at) == '\r') {
+                at++;
+            }
+            if (at < limit && buffer.get(at) == '\n') {
+                position = at + 1;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Reads one line's fields into {@link #values} and moves past its line break.
+         *
+         * @return why the row cannot be read, or null
+         */
+        private String readRow() {
+            Arrays.fill(values, null);
+            int column = 0;
+            while (true) {
+                boolean wanted = column < columns.length && columns[column] != null;
+                String value;
+                if (position < limit && buffer.get(position) == '"') {
+                    value = quoted(wanted);
+                    if (value == null) {
+                        return skipLine("Unterminated quoted field");
+                    }
+                } else {
+                    value = plain(wanted);
+                }
+                if (wanted && !value.isEmpty()) {
+                    values[column] = value;
+                }
+                column++;
+                if (position >= limit) {
+                    break;
+                }
+                byte next = buffer.get(position);
+                if (next == ',') {
+                    position++;
+                } else if (next == '\n' || next == '\r') {
+                    position += next == '\r' && position + 1 < limit && buffer.get(position + 1) == '\n' ? 2 : 1;
+                    break;
+                } else {
+                    return skipLine("Unexpected character after a quoted field");
+                }
+            }
+            return column == columns.length ? null : "Expected " + columns.length + " fields, found " + column;
+        }
+
+        /** An unquoted field up to the next comma or line break; empty when not wanted. */
+        private String plain(boolean wanted) {
+            int start = position;
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b == ',' || b == '\n') {
+                    break;
+                }
+                position++;
+            }
+            int end = position;
+            if (end > start && buffer.get(end - 1) == '\r') {
+                position = --end;
+            }
+            if (!wanted || end == start) {
+                return "";
+            }
+            int length = end - start;
+            byte[] bytes = scratch(length);
+            buffer.get(start, bytes, 0, length);
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * A quoted field, positioned on its opening quote; quotes inside are doubled. Empty when
+         * not wanted; null, without consuming the line break, if the field runs into one unclosed.
+         */
+        private String quoted(boolean wanted) {
+            position++;
+            int length = 0;
+            while (position < limit) {
+                byte b = buffer.get(position++);
+                if (b == '"') {
+                    if (position < limit && buffer.get(position) == '"') {
+                        position++;
+                    } else {
+                        return wanted ? new String(scratch, 0, length, StandardCharsets.UTF_8) : "";
+                    }
+                } else if (b == '\n') {
+                    position--;
+                    return null;
+                }
+                if (wanted) {
+                    scratch(length + 1)[length++] = b;
+                }
+            }
+            return null;
+        }
+
+        private String skipLine(String problem) {
+            while (position < limit && buffer.get(position++) != '\n') {
+                // rest of the bad row
+            }
+            return problem;
+        }
+
+        private byte[] scratch(int length) {
+            if (scratch.length < length) {
+                scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length * 2));
+            }
+            return scratch;
+        }
+
+        private static Object value(EmployeeField field, String raw) {
+            if (field == EmployeeField.HIRE_DATE) {
+                return date(raw);
+            }
+            return field.parse(raw);
+        }
+
+        /** ISO {@code yyyy-MM-dd} without the formatter; anything else goes to the field parser. */
+        private static Object date(String raw) {
+            if (raw.length() == 10 && raw.charAt(4) == '-' && raw.charAt(7) == '-') {
+                int year = digits(raw, 0, 4);
+                int month = digits(raw, 5, 7);
+                int day = digits(raw, 8, 10);
+                if (year >= 0 && month >= 0 && day >= 0) {
+                    return LocalDate.of(year, month, day);
+                }
+            }
+            return EmployeeField.HIRE_DATE.parse(raw);
+        }
+
+        private static int digits(String raw, int from, int to) {
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                char c = raw.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                value = value * 10 + c - '0';
+            }
+            return value;
+        }
+    }
+}
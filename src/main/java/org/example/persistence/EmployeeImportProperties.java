@@ -0,0 +1,45 @@
+package org.example.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for bulk CSV imports, bound from {@code employee.store.import}.
+ */
+@ConfigurationProperties(prefix = "employee.store.import")
+public class EmployeeImportProperties {
+
+    /**
+     * CSV files imported once the application has started, in order. On a partitioned store list
+     * them on one instance only; the rows are routed to their shards from there.
+     */
+    private List<Path> files = new ArrayList<>();
+
+    /**
+     * Bytes per parse chunk. Chunks are parsed in parallel and each is stored as one batch, so
+     * a chunk's rows must also fit in one write-ahead log segment when persistence is on.
+     */
+    private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+    /** Chunks parsed at once ahead of the one being stored; 0 for one per processor. */
+    private int parallelism;
+
+    /** Rejected rows reported in detail; further ones are only counted. */
+    private int maxErrors = 100;
+
+    public List<Path> getFiles() { return files; }
+    public void setFiles(List<Path> files) { this.files = files; }
+
+    public DataSize getChunkSize() { return chunkSize; }
+    public void setChunkSize(DataSize chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+
+    public int getMaxErrors() { return maxErrors; }
+    public void setMaxErrors(int maxErrors) { this.maxErrors = maxErrors; }
+}
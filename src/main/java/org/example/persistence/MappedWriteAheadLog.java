@@ -0,0 +1,628 @@
+package org.example.persistence;
+
+import org.example.model.Employee;
+import org.example.repository.EmployeeJournal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * {@link EmployeeJournal} backed by memory-mapped log segments plus periodic snapshots.
+ *
+ * <p>Each record is {@code [length][crc32][payload]} appended to the mapped buffer of the active
+ * segment, so an append is a memory copy under a short lock. Durability uses group commit: the
+ * first writer to wait becomes the leader and forces every record appended so far, while writers
+ * arriving during that force queue behind it and are usually covered by the next one. With
+ * {@code fsync} off, acknowledged writes live in the OS page cache and survive a process crash.
+ *
+ * <p>Segments are numbered by generation. When a segment fills up, or the snapshot interval
+ * passes, writing moves on to the next generation and a background task folds the previous
+ * snapshot and the closed segments into {@code snapshot-<generation>} by replaying the files,
+ * without touching the live repository. Recovery loads the newest snapshot and replays the
+ * segments from its generation on, stopping at the first torn or corrupt record.
+ *
+ * <p>Every segment and snapshot header also records the highest id the log had seen when the
+ * file was started, deleted rows included. Recovery restores it through {@link #highestRecoveredId()}
+ * so ids of rows deleted before a restart are not handed out again.
+ */
+public class MappedWriteAheadLog implements EmployeeJournal, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedWriteAheadLog.class);
+
+    private static final int SEGMENT_MAGIC = 0x454d574c;
+    private static final int SNAPSHOT_MAGIC = 0x454d5350;
+    /**
+     * File format: formats 1, 2 and 4 follow {@link EmployeeCodec}; format 3 adds the id watermark
+     * to the headers.
+     */
+    private static final int FORMAT = 4;
+    private static final int WATERMARK_FORMAT = 3;
+    private static final int SEGMENT_HEADER = 16;
+    private static final int RECORD_HEADER = 8;
+
+    private static final byte UPSERT = 1;
+    private static final byte DELETE = 2;
+    private static final byte BATCH = 3;
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{16})\\.log");
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{16})\\.bin");
+
+    /** Marks a deleted id while folding log records. */
+    private static final Employee TOMBSTONE = new Employee();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean fsync;
+    private final ScheduledExecutorService snapshots;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private Segment active;
+    private long appended;
+    private long highestId;
+    private boolean flushing;
+    private boolean closed;
+    private volatile long durable;
+    private volatile long records;
+    private volatile long forces;
+
+    private Collection<Employee> recovered;
+    private final long highestRecoveredId;
+    private final Duration recoveryTime;
+
+    private MappedWriteAheadLog(PersistenceProperties properties, long generation, Collection<Employee> recovered,
+                                long highestRecoveredId, Duration recoveryTime) throws IOException {
+        this.directory = properties.getDirectory();
+        this.segmentSize = (int) Math.min(Integer.MAX_VALUE, properties.getSegmentSize().toBytes());
+        this.fsync = properties.isFsync();
+        this.recovered = recovered;
+        this.highestRecoveredId = highestRecoveredId;
+        this.highestId = highestRecoveredId;
+        this.recoveryTime = recoveryTime;
+        this.active = Segment.create(segmentPath(directory, generation), generation, segmentSize, 0, highestId);
+        this.appended = SEGMENT_HEADER;
+        this.durable = appended;
+        this.snapshots = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "employee-snapshots");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getSnapshotInterval().toMillis();
+        snapshots.scheduleWithFixedDelay(this::rollIfWritten, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Recovers the state stored in the configured directory and opens a fresh segment for new
+     * writes. The recovered rows are available once through {@link #recoveredRows()}.
+     */
+    public static MappedWriteAheadLog open(PersistenceProperties properties) throws IOException {
+        Path directory = properties.getDirectory();
+        Files.createDirectories(directory);
+        long started = System.nanoTime();
+
+        TreeMap<Long, Path> snapshotFiles = list(directory, SNAPSHOT_NAME);
+        TreeMap<Long, Path> segmentFiles = list(directory, SEGMENT_NAME);
+        Long snapshot = snapshotFiles.isEmpty() ? null : snapshotFiles.lastKey();
+        Map<Long, Employee> rows = new LinkedHashMap<>();
+        long highestId = 0;
+        if (snapshot != null) {
+            highestId = readSnapshot(snapshotFiles.get(snapshot), employee -> rows.put(employee.getId(), employee));
+        }
+        Collection<Path> replayed = snapshot == null ? segmentFiles.values() : segmentFiles.tailMap(snapshot).values();
+        for (Path segment : replayed) {
+            highestId = Math.max(highestId, replay(segment, rows));
+        }
+        rows.values().removeIf(employee -> employee == TOMBSTONE);
+        // leftovers of a fold that was interrupted after its snapshot was published
+        if (snapshot != null) {
+            deleteAll(snapshotFiles.headMap(snapshot).values());
+            deleteAll(segmentFiles.headMap(snapshot).values());
+        }
+
+        Duration recoveryTime = Duration.ofNanos(System.nanoTime() - started);
+        log.info("Recovered {} employees from {} ({} segments) in {} ms",
+                rows.size(), directory, replayed.size(), recoveryTime.toMillis());
+        long generation = Math.max(snapshot == null ? 0 : snapshot,
+                segmentFiles.isEmpty() ? 0 : segmentFiles.lastKey()) + 1;
+        MappedWriteAheadLog wal = new MappedWriteAheadLog(properties, generation, rows.values(), highestId, recoveryTime);
+        if (!replayed.isEmpty()) {
+            wal.snapshots.execute(() -> wal.fold(generation));
+        }
+        return wal;
+    }
+
+    /**
+     * Returns the rows recovered by {@link #open} and drops the log's reference to them.
+     */
+    public Collection<Employee> recoveredRows() {
+        Collection<Employee> rows = recovered;
+        recovered = List.of();
+        return rows;
+    }
+
+    /**
+     * The highest id recorded before the log was opened, including ids of rows deleted since. A
+     * repository must not assign ids up to it to new rows.
+     */
+    public long highestRecoveredId() {
+        return highestRecoveredId;
+    }
+
+    public Duration getRecoveryTime() {
+        return recoveryTime;
+    }
+
+    /** Records appended since the log was opened. */
+    public long getRecords() {
+        return records;
+    }
+
+    /** Forces issued since the log was opened; with group commit this stays well below the record count. */
+    public long getForces() {
+        return forces;
+    }
+
+    @Override
+    public long upsert(Employee employee) {
+        return append(employee.getId(), out -> {
+            out.writeByte(UPSERT);
+            EmployeeCodec.write(out, employee);
+        });
+    }
+
+    @Override
+    public long delete(long id) {
+        return append(id, out -> {
+            out.writeByte(DELETE);
+            out.writeLong(id);
+        });
+    }
+
+    @Override
+    public long batch(List<Employee> rows) {
+        long highest = 0;
+        for (Employee employee : rows) {
+            highest = Math.max(highest, employee.getId());
+        }
+        return append(highest, out -> {
+            out.writeByte(BATCH);
+            out.writeInt(rows.size());
+            for (Employee employee : rows) {
+                EmployeeCodec.write(out, employee);
+            }
+        });
+    }
+
+    @Override
+    public void awaitDurable(long position) {
+        if (!fsync || durable >= position) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (durable < position) {
+                if (flushing) {
+                    flushed.awaitUninterruptibly();
+                    continue;
+                }
+                flushing = true;
+                Segment segment = active;
+                long target = appended;
+                int from = segment.forced;
+                int to = (int) (target - segment.base);
+                boolean done = false;
+                lock.unlock();
+                try {
+                    segment.buffer.force(from, to - from);
+                    done = true;
+                } finally {
+                    lock.lock();
+                    flushing = false;
+                    if (done) {
+                        segment.forced = Math.max(segment.forced, to);
+                        durable = Math.max(durable, target);
+                        forces++;
+                    }
+                    flushed.signalAll();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (fsync) {
+                active.buffer.force();
+            }
+            active.channel.close();
+        } finally {
+            lock.unlock();
+        }
+        snapshots.shutdown();
+        try {
+            snapshots.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long append(long id, RecordWriter writer) {
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            writer.write(new DataOutputStream(bytes));
+            payload = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Employee journal is closed");
+            }
+            if (active.buffer.remaining() < RECORD_HEADER + payload.length) {
+                roll(payload.length);
+            }
+            active.buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            appended = active.base + active.buffer.position();
+            highestId = Math.max(highestId, id);
+            records++;
+            return appended;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the active segment and starts the next generation. Called with the lock held.
+     */
+    private void roll(int payloadLength) {
+        Segment previous = active;
+        long generation = previous.generation + 1;
+        int size = Math.max(segmentSize, SEGMENT_HEADER + RECORD_HEADER + payloadLength);
+        try {
+            if (fsync) {
+                previous.buffer.force();
+            }
+            active = Segment.create(segmentPath(directory, generation), generation, size, appended - SEGMENT_HEADER, highestId);
+            previous.channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // everything in the previous segment is on disk now, so its waiters can go
+        durable = Math.max(durable, appended);
+        appended = active.base + SEGMENT_HEADER;
+        flushed.signalAll();
+        snapshots.execute(() -> fold(generation));
+    }
+
+    private void rollIfWritten() {
+        lock.lock();
+        try {
+            if (!closed && active.buffer.position() > SEGMENT_HEADER) {
+                roll(0);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not roll employee log segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes {@code snapshot-<generation>} from the newest older snapshot and every closed
+     * segment before {@code generation}, then removes the files it replaces. Only the changes
+     * from the segments are held in memory; the old snapshot is streamed through.
+     */
+    private void fold(long generation) {
+        try {
+            TreeMap<Long, Path> snapshotFiles = list(directory, SNAPSHOT_NAME);
+            TreeMap<Long, Path> segmentFiles = list(directory, SEGMENT_NAME);
+            Map.Entry<Long, Path> base = snapshotFiles.lowerEntry(generation);
+            Collection<Path> segments = segmentFiles.subMap(base == null ? 0 : base.getKey(), generation).values();
+            if (segments.isEmpty()) {
+                return;
+            }
+            Map<Long, Employee> changes = new LinkedHashMap<>();
+            long highestId = base == null ? 0 : readSnapshotWatermark(base.getValue());
+            for (Path segment : segments) {
+                highestId = Math.max(highestId, replay(segment, changes));
+            }
+            Path target = snapshotPath(directory, generation);
+            Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+            long rows;
+            try (SnapshotWriter out = new SnapshotWriter(temporary, highestId)) {
+                if (base != null) {
+                    readSnapshot(base.getValue(), employee -> {
+                        Employee changed = changes.remove(employee.getId());
+                        out.write(changed == null ? employee : changed);
+                    });
+                }
+                for (Employee employee : changes.values()) {
+                    out.write(employee);
+                }
+                rows = out.rows;
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(directory);
+            deleteAll(snapshotFiles.headMap(generation).values());
+            deleteAll(segments);
+            log.info("Wrote employee snapshot {} with {} rows", target.getFileName(), rows);
+        } catch (IOException | UncheckedIOException e) {
+            // the replaced files are still in place, so recovery is unaffected
+            log.error("Could not write employee snapshot for generation {}", generation, e);
+        }
+    }
+
+    /**
+     * Applies a segment's records to {@code rows}, recording deletes as {@link #TOMBSTONE}, and
+     * returns the highest id in its header or any of its records.
+     */
+    private static long replay(Path file, Map<Long, Employee> rows) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != SEGMENT_MAGIC) {
+                throw new IOException("Not an employee log segment: " + file);
+            }
+            int format = readFormat(buffer.getInt(), file);
+            long highestId = 0;
+            if (format >= WATERMARK_FORMAT) {
+                if (buffer.remaining() < Long.BYTES) {
+                    throw new IOException("Not an employee log segment: " + file);
+                }
+                highestId = buffer.getLong();
+            }
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= RECORD_HEADER) {
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Stopping replay of {} at a torn record", file.getFileName());
+                    break;
+                }
+                highestId = Math.max(highestId, apply(new DataInputStream(new ByteArrayInputStream(payload)), format, rows));
+            }
+            return highestId;
+        }
+    }
+
+    /** Applies one record and returns the highest id it names. */
+    private static long apply(DataInputStream in, int format, Map<Long, Employee> rows) throws IOException {
+        switch (in.readByte()) {
+            case UPSERT -> {
+                Employee employee = EmployeeCodec.read(in, format);
+                rows.put(employee.getId(), employee);
+                return employee.getId();
+            }
+            case DELETE -> {
+                long id = in.readLong();
+                rows.put(id, TOMBSTONE);
+                return id;
+            }
+            case BATCH -> {
+                int count = in.readInt();
+                long highestId = 0;
+                for (int i = 0; i < count; i++) {
+                    Employee employee = EmployeeCodec.read(in, format);
+                    rows.put(employee.getId(), employee);
+                    highestId = Math.max(highestId, employee.getId());
+                }
+                return highestId;
+            }
+            default -> throw new IOException("Unknown employee log record type");
+        }
+    }
+
+    /**
+     * Streams a snapshot's rows to {@code action} and returns the highest id in its header or
+     * any of its rows.
+     */
+    private static long readSnapshot(Path file, Consumer<Employee> action) throws IOException {
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(new FileInputStream(file.toFile()), 1 << 16), crc))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not an employee snapshot: " + file);
+            }
+            int format = readFormat(in.readInt(), file);
+            long highestId = format >= WATERMARK_FORMAT ? in.readLong() : 0;
+            long rows = 0;
+            while (in.readBoolean()) {
+                Employee employee = EmployeeCodec.read(in, format);
+                highestId = Math.max(highestId, employee.getId());
+                action.accept(employee);
+                rows++;
+            }
+            long expectedRows = in.readLong();
+            int expectedCrc = (int) crc.getValue();
+            if (rows != expectedRows || in.readInt() != expectedCrc) {
+                throw new IOException("Corrupt employee snapshot: " + file);
+            }
+            return highestId;
+        }
+    }
+
+    /** Reads only the id watermark from a snapshot header; older snapshots have none. */
+    private static long readSnapshotWatermark(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file.toFile()), 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not an employee snapshot: " + file);
+            }
+            return readFormat(in.readInt(), file) >= WATERMARK_FORMAT ? in.readLong() : 0;
+        }
+    }
+
+    private static int readFormat(int format, Path file) throws IOException {
+        if (format < 1 || format > FORMAT) {
+            throw new IOException("Unsupported format " + format + " in " + file);
+        }
+        return format;
+    }
+
+    private static TreeMap<Long, Path> list(Path directory, Pattern name) throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> entries = Files.list(directory)) {
+            entries.forEach(path -> {
+                Matcher matcher = name.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    files.put(Long.parseLong(matcher.group(1)), path);
+                }
+            });
+        }
+        return files;
+    }
+
+    private static void deleteAll(Collection<Path> files) throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // not every platform can open a directory; the rename is still atomic there
+        }
+    }
+
+    private static Path segmentPath(Path directory, long generation) {
+        return directory.resolve(String.format("wal-%016d.log", generation));
+    }
+
+    private static Path snapshotPath(Path directory, long generation) {
+        return directory.resolve(String.format("snapshot-%016d.bin", generation));
+    }
+
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static final class Segment {
+        final long generation;
+        final long base;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int forced;
+
+        private Segment(long generation, long base, FileChannel channel, MappedByteBuffer buffer) {
+            this.generation = generation;
+            this.base = base;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Maps a new, zero-filled segment whose header records the highest id written before it.
+         * A zero length marks the end of the written records.
+         */
+        static Segment create(Path path, long generation, int size, long base, long highestId) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(SEGMENT_MAGIC).putInt(FORMAT).putLong(highestId);
+            buffer.force(0, SEGMENT_HEADER);
+            Segment segment = new Segment(generation, base, channel, buffer);
+            segment.forced = SEGMENT_HEADER;
+            return segment;
+        }
+    }
+
+    /**
+     * Streams rows into a snapshot file, after a header carrying the id watermark, followed by the
+     * row count and a CRC of everything before it.
+     */
+    private static final class SnapshotWriter implements Closeable {
+        private final FileOutputStream file;
+        private final CRC32 crc = new CRC32();
+        private final DataOutputStream out;
+        long rows;
+
+        SnapshotWriter(Path path, long highestId) throws IOException {
+            file = new FileOutputStream(path.toFile());
+            out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), crc));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeInt(FORMAT);
+            out.writeLong(highestId);
+        }
+
+        void write(Employee employee) {
+            if (employee == TOMBSTONE) {
+                return;
+            }
+            try {
+                out.writeBoolean(true);
+                EmployeeCodec.write(out, employee);
+                rows++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.writeBoolean(false);
+                out.writeLong(rows);
+                out.writeInt((int) crc.getValue());
+                out.flush();
+                file.getFD().sync();
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.persistence;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for the employee write-ahead log, bound from {@code employee.store.persistence}.
+ */
+@ConfigurationProperties(prefix = "employee.store.persistence")
+public class PersistenceProperties {
+
+    /** Keep employees across restarts; off by default so the sample data starts fresh. */
+    private boolean enabled;
+
+    /** Directory holding log segments and snapshots. */
+    private Path directory = Path.of("data", "employees");
+
+    /** Size of each memory-mapped log segment; a full segment is rolled into the next snapshot. */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /** How often the active segment is rolled and folded into a snapshot even if it is not full. */
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+
+    /**
+     * Force log pages to disk before a write is acknowledged. When off, acknowledged writes
+     * survive a process crash (the pages are in the OS cache) but not a power loss.
+     */
+    private boolean fsync = true;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Path getDirectory() { return directory; }
+    public void setDirectory(Path directory) { this.directory = directory; }
+
+    public DataSize getSegmentSize() { return segmentSize; }
+    public void setSegmentSize(DataSize segmentSize) { this.segmentSize = segmentSize; }
+
+    public Duration getSnapshotInterval() { return snapshotInterval; }
+    public void setSnapshotInterval(Duration snapshotInterval) { this.snapshotInterval = snapshotInterval; }
+
+    public boolean isFsync() { return fsync; }
+    public void setFsync(boolean fsync) { this.fsync = fsync; }
+}
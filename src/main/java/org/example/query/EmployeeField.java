@@ -0,0 +1,102 @@
+package org.example.query;
+
+import org.example.model.Employee;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Typed accessors for the {@link Employee} properties named in the column manifest.
+ */
+public enum EmployeeField {
+
+    ID("id", Employee::getId, (e, v) -> e.setId((Long) v), Long::valueOf),
+    FIRST_NAME("firstName", Employee::getFirstName, (e, v) -> e.setFirstName((String) v), null),
+    LAST_NAME("lastName", Employee::getLastName, (e, v) -> e.setLastName((String) v), null),
+    EMAIL("email", Employee::getEmail, (e, v) -> e.setEmail((String) v), null),
+    DEPARTMENT("department", Employee::getDepartment, (e, v) -> e.setDepartment((String) v), null),
+    JOB_TITLE("jobTitle", Employee::getJobTitle, (e, v) -> e.setJobTitle((String) v), null),
+    HIRE_DATE("hireDate", Employee::getHireDate, (e, v) -> e.setHireDate((LocalDate) v), LocalDate::parse),
+    SALARY("salary", Employee::getSalary, (e, v) -> e.setSalary((Double) v), Double::valueOf),
+    ACTIVE("active", Employee::getActive, (e, v) -> e.setActive((Boolean) v), EmployeeField::parseBoolean);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> NATURAL = Comparator.nullsFirst((Comparator) Comparator.naturalOrder());
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> TEXT = Comparator.nullsFirst((Comparator) String.CASE_INSENSITIVE_ORDER);
+
+    private final String field;
+    private final Function<Employee, ?> accessor;
+    private final BiConsumer<Employee, Object> mutator;
+    /** Null for text columns, which take the raw parameter as is. */
+    private final Function<String, ?> parser;
+
+    EmployeeField(String field, Function<Employee, ?> accessor, BiConsumer<Employee, Object> mutator,
+                  Function<String, ?> parser) {
+        this.field = field;
+        this.accessor = accessor;
+        this.mutator = mutator;
+        this.parser = parser;
+    }
+
+    public static Optional<EmployeeField> byName(String field) {
+        for (EmployeeField value : values()) {
+            if (value.field.equals(field)) {
+                return Optional.of(value);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public Object get(Employee employee) {
+        return accessor.apply(employee);
+    }
+
+    /** Sets this field on {@code employee}; {@code value} must be of the field's type or null. */
+    public void set(Employee employee, Object value) {
+        mutator.accept(employee, value);
+    }
+
+    public boolean isText() {
+        return parser == null;
+    }
+
+    /**
+     * Parses a request parameter into this field's value type.
+     */
+    public Object parse(String raw) {
+        if (parser == null) {
+            return raw;
+        }
+        try {
+            return parser.apply(raw);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidQueryException("Invalid value for " + field + ": " + raw);
+        }
+    }
+
+    /**
+     * Orders values of this field; nulls sort first and text ignores case.
+     */
+    public Comparator<Object> comparator() {
+        return isText() ? TEXT : NATURAL;
+    }
+
+    private static Boolean parseBoolean(String raw) {
+        if ("true".equalsIgnoreCase(raw)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(raw)) {
+            return Boolean.FALSE;
+        }
+        throw new InvalidQueryException("Invalid value for active: " + raw);
+    }
+}
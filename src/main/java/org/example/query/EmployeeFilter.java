@@ -0,0 +1,49 @@
+package org.example.query;
+
+import org.example.model.Employee;
+
+/**
+ * A single-column predicate: either equality ({@code from == to}) or an inclusive range
+ * with optional bounds. Text equality ignores case.
+ */
+public final class EmployeeFilter {
+
+    private final EmployeeField field;
+    private final Object from;
+    private final Object to;
+
+    private EmployeeFilter(EmployeeField field, Object from, Object to) {
+        this.field = field;
+        this.from = from;
+        this.to = to;
+    }
+
+    public static EmployeeFilter equalTo(EmployeeField field, Object value) {
+        return new EmployeeFilter(field, value, value);
+    }
+
+    public static EmployeeFilter between(EmployeeField field, Object from, Object to) {
+        return new EmployeeFilter(field, from, to);
+    }
+
+    public EmployeeField getField() { return field; }
+
+    public Object getFrom() { return from; }
+
+    public Object getTo() { return to; }
+
+    public boolean isEquality() {
+        return from != null && from == to;
+    }
+
+    public boolean matches(Employee employee) {
+        Object value = field.get(employee);
+        if (value == null) {
+            return false;
+        }
+        if (from != null && field.comparator().compare(value, from) < 0) {
+            return false;
+        }
+        return to == null || field.comparator().compare(value, to) <= 0;
+    }
+}
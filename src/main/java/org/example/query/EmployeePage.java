@@ -0,0 +1,30 @@
+package org.example.query;
+
+import org.example.model.Employee;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query. {@code scanned} counts the rows examined to build it.
+ */
+public class EmployeePage {
+
+    private final List<Employee> items;
+    private final PageCursor next;
+    private final int scanned;
+
+    public EmployeePage(List<Employee> items, PageCursor next, int scanned) {
+        this.items = items;
+        this.next = next;
+        this.scanned = scanned;
+    }
+
+    public List<Employee> getItems() { return items; }
+
+    /**
+     * Cursor for the following page, or null when this is the last one.
+     */
+    public PageCursor getNext() { return next; }
+
+    public int getScanned() { return scanned; }
+}
@@ -0,0 +1,95 @@
+package org.example.query;
+
+import org.example.model.Employee;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A validated list request: conjunctive filters, a single sort column (ties broken by id),
+ * an optional keyset cursor and a page size.
+ */
+public class EmployeeQuery {
+
+    private final List<EmployeeFilter> filters;
+    private final EmployeeField sortField;
+    private final boolean descending;
+    private final PageCursor after;
+    private final int limit;
+
+    private EmployeeQuery(Builder builder) {
+        this.filters = List.copyOf(builder.filters);
+        this.sortField = builder.sortField;
+        this.descending = builder.descending;
+        this.after = builder.after;
+        this.limit = builder.limit;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public List<EmployeeFilter> getFilters() { return filters; }
+
+    public EmployeeField getSortField() { return sortField; }
+
+    public boolean isDescending() { return descending; }
+
+    public PageCursor getAfter() { return after; }
+
+    public int getLimit() { return limit; }
+
+    public boolean matches(Employee employee) {
+        for (EmployeeFilter filter : filters) {
+            if (!filter.matches(employee)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Total order used for keyset pagination: sort column, then id.
+     */
+    public Comparator<Employee> order() {
+        Comparator<Employee> order = Comparator.<Employee, Object>comparing(sortField::get, sortField.comparator())
+                .thenComparing(Employee::getId);
+        return descending ? order.reversed() : order;
+    }
+
+    /**
+     * True if the row sorts strictly after the cursor position.
+     */
+    public boolean isAfterCursor(Employee employee) {
+        if (after == null) {
+            return true;
+        }
+        int cmp = sortField.comparator().compare(sortField.get(employee), after.getValue());
+        if (cmp == 0) {
+            cmp = Long.compare(employee.getId(), after.getId());
+        }
+        return descending ? cmp < 0 : cmp > 0;
+    }
+
+    public PageCursor cursorAt(Employee employee) {
+        return new PageCursor(sortField, descending, sortField.get(employee), employee.getId());
+    }
+
+    public static class Builder {
+        private List<EmployeeFilter> filters = List.of();
+        private EmployeeField sortField = EmployeeField.ID;
+        private boolean descending;
+        private PageCursor after;
+        private int limit = EmployeeQueryParser.DEFAULT_LIMIT;
+
+        public Builder filters(List<EmployeeFilter> filters) { this.filters = filters; return this; }
+        public Builder sortField(EmployeeField sortField) { this.sortField = sortField; return this; }
+        public Builder descending(boolean descending) { this.descending = descending; return this; }
+        public Builder after(PageCursor after) { this.after = after; return this; }
+        public Builder limit(int limit) { this.limit = limit; return this; }
+
+        public EmployeeQuery build() {
+            return new EmployeeQuery(this);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.query;
+
+import org.example.model.ColumnManifest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Turns list request parameters into an {@link EmployeeQuery}, rejecting any column the
+ * manifest does not mark as sortable or filterable.
+ *
+ * <ul>
+ *   <li>{@code sort=field[,asc|desc]} - defaults to {@code id,asc}</li>
+ *   <li>{@code filter=field:value} - equality, case-insensitive for text columns</li>
+ *   <li>{@code filter=field:from..to} - inclusive range, either bound may be omitted</li>
+ *   <li>{@code cursor=token} - the {@code X-Next-Cursor} of the previous page</li>
+ *   <li>{@code limit=n} - page size, at most {@value #MAX_LIMIT}</li>
+ * </ul>
+ */
+public class EmployeeQueryParser {
+
+    public static final int DEFAULT_LIMIT = 1000;
+    public static final int MAX_LIMIT = 1000;
+
+    private final Map<String, ColumnManifest> columns;
+
+    public EmployeeQueryParser(List<ColumnManifest> columns) {
+        this.columns = columns.stream().collect(Collectors.toMap(ColumnManifest::getField, Function.identity()));
+    }
+
+    public EmployeeQuery parse(List<String> filters, String sort, String cursor, Integer limit) {
+        EmployeeQuery.Builder builder = EmployeeQuery.builder();
+
+        if (sort != null && !sort.isBlank()) {
+            String[] parts = sort.split(",", 2);
+            ColumnManifest column = column(parts[0].trim());
+            if (!column.isSortable()) {
+                throw new InvalidQueryException("Column is not sortable: " + column.getField());
+            }
+            builder.sortField(field(column));
+            if (parts.length == 2) {
+                String direction = parts[1].trim();
+                if (!"asc".equalsIgnoreCase(direction) && !"desc".equalsIgnoreCase(direction)) {
+                    throw new InvalidQueryException("Sort direction must be asc or desc: " + direction);
+                }
+                builder.descending("desc".equalsIgnoreCase(direction));
+            }
+        }
+
+        builder.filters(parseFilters(filters));
+
+        if (limit != null) {
+            if (limit < 1 || limit > MAX_LIMIT) {
+                throw new InvalidQueryException("limit must be between 1 and " + MAX_LIMIT);
+            }
+            builder.limit(limit);
+        }
+
+        EmployeeQuery query = builder.build();
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor after = PageCursor.decode(cursor);
+            if (after.getSortField() != query.getSortField() || after.isDescending() != query.isDescending()) {
+                throw new InvalidQueryException("Cursor does not match the requested sort");
+            }
+            builder.after(after);
+            query = builder.build();
+        }
+        return query;
+    }
+
+    private List<EmployeeFilter> parseFilters(List<String> filters) {
+        List<EmployeeFilter> result = new ArrayList<>();
+        if (filters == null) {
+            return result;
+        }
+        for (String filter : filters) {
+            int colon = filter.indexOf(':');
+            if (colon < 1) {
+                throw new InvalidQueryException("Filter must be field:value, got: " + filter);
+            }
+            ColumnManifest column = column(filter.substring(0, colon));
+            if (!column.isFilterable()) {
+                throw new InvalidQueryException("Column is not filterable: " + column.getField());
+            }
+            result.add(filter(field(column), filter.substring(colon + 1)));
+        }
+        return result;
+    }
+
+    private static EmployeeFilter filter(EmployeeField field, String raw) {
+        int range = raw.indexOf("..");
+        if (range < 0 || field.isText()) {
+            return EmployeeFilter.equalTo(field, field.parse(raw));
+        }
+        String from = raw.substring(0, range);
+        String to = raw.substring(range + 2);
+        if (from.isEmpty() && to.isEmpty()) {
+            throw new InvalidQueryException("Range filter needs at least one bound: " + field.getField());
+        }
+        return EmployeeFilter.between(field,
+                from.isEmpty() ? null : field.parse(from),
+                to.isEmpty() ? null : field.parse(to));
+    }
+
+    private ColumnManifest column(String name) {
+        ColumnManifest column = columns.get(name);
+        if (column == null) {
+            throw new InvalidQueryException("Unknown column: " + name);
+        }
+        return column;
+    }
+
+    private static EmployeeField field(ColumnManifest column) {
+        return EmployeeField.byName(column.getField())
+                .orElseThrow(() -> new InvalidQueryException("Unknown column: " + column.getField()));
+    }
+}
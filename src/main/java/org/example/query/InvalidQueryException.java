@@ -0,0 +1,11 @@
+package org.example.query;
+
+/**
+ * Thrown when list parameters ask for a sort, filter or cursor the column manifest does not allow.
+ */
+public class InvalidQueryException extends RuntimeException {
+
+    public InvalidQueryException(String message) {
+        super(message);
+    }
+}
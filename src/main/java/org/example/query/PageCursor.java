@@ -0,0 +1,50 @@
+package org.example.query;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last row on a page: its sort value and id. Encoded as an opaque
+ * URL-safe token that also pins the sort column and direction it was issued for.
+ */
+public final class PageCursor {
+
+    private final EmployeeField sortField;
+    private final boolean descending;
+    private final Object value;
+    private final long id;
+
+    public PageCursor(EmployeeField sortField, boolean descending, Object value, long id) {
+        this.sortField = sortField;
+        this.descending = descending;
+        this.value = value;
+        this.id = id;
+    }
+
+    public EmployeeField getSortField() { return sortField; }
+
+    public boolean isDescending() { return descending; }
+
+    public Object getValue() { return value; }
+
+    public long getId() { return id; }
+
+    public String encode() {
+        String raw = sortField.getField() + '\n' + (descending ? 'd' : 'a') + '\n' + id + '\n'
+                + (value == null ? "" : "=" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            EmployeeField field = EmployeeField.byName(parts[0])
+                    .orElseThrow(() -> new InvalidQueryException("Invalid cursor"));
+            Object value = parts[3].isEmpty() ? null : field.parse(parts[3].substring(1));
+            return new PageCursor(field, "d".equals(parts[1]), value, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidQueryException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.query;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.example.model.ColumnManifest;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Column manifest for the employee grids, loaded from {@code users-columns.json} on first use.
+ *
+ * <p>Loading is deferred to the first call rather than done while the controllers are being
+ * created, and reads the file with Jackson's streaming parser instead of building an
+ * {@code ObjectMapper} and a bean deserializer for {@link ColumnManifest}, which keeps it off the
+ * startup path. Properties the manifest does not know are skipped.
+ */
+public final class UserColumns {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private UserColumns() {
+    }
+
+    public static List<ColumnManifest> all() {
+        return Manifest.COLUMNS;
+    }
+
+    public static Optional<ColumnManifest> find(String field) {
+        return Optional.ofNullable(Manifest.BY_FIELD.get(field));
+    }
+
+    /** The query parser for the manifest's sortable and filterable columns. */
+    public static EmployeeQueryParser parser() {
+        return Manifest.PARSER;
+    }
+
+    /** Initialized by the first call to one of the accessors above. */
+    private static final class Manifest {
+        static final List<ColumnManifest> COLUMNS = load();
+        static final Map<String, ColumnManifest> BY_FIELD = COLUMNS.stream()
+                .collect(Collectors.toUnmodifiableMap(ColumnManifest::getField, Function.identity()));
+        static final EmployeeQueryParser PARSER = new EmployeeQueryParser(COLUMNS);
+    }
+
+    private static List<ColumnManifest> load() {
+        try (InputStream is = new ClassPathResource("users-columns.json").getInputStream()) {
+            return read(is);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load users-columns.json", e);
+        }
+    }
+
+    /** Reads a JSON array of column objects, with the same defaults as binding them to {@link ColumnManifest}. */
+    static List<ColumnManifest> read(InputStream in) throws IOException {
+        List<ColumnManifest> columns = new ArrayList<>();
+        try (JsonParser parser = JSON.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected an array of columns");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                ColumnManifest column = new ColumnManifest();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    switch (name) {
+                        case "field" -> column.setField(text(parser));
+                        case "headerName" -> column.setHeaderName(text(parser));
+                        case "type" -> column.setType(text(parser));
+                        case "width" -> column.setWidth(value == JsonToken.VALUE_NULL ? null : parser.getIntValue());
+                        case "flex" -> column.setFlex(value == JsonToken.VALUE_NULL ? null : parser.getIntValue());
+                        case "sortable" -> column.setSortable(parser.getBooleanValue());
+                        case "filterable" -> column.setFilterable(parser.getBooleanValue());
+                        case "resizable" -> column.setResizable(parser.getBooleanValue());
+                        case "visible" -> column.setVisible(parser.getBooleanValue());
+                        case "order" -> column.setOrder(parser.getIntValue());
+                        default -> parser.skipChildren();
+                    }
+                }
+                columns.add(column);
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Expected a column object at " + parser.currentLocation());
+            }
+        }
+        return List.copyOf(columns);
+    }
+
+    private static String text(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.repository;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Makes a batch insert appear all at once to readers of a store whose rows are written one by
+ * one. Each batch owns a contiguous id block that is hidden while its rows are written and then
+ * revealed at a commit epoch. A read takes the current epoch when it starts and treats a block
+ * as visible only if it was revealed at or before that epoch, so a scan never sees part of a
+ * batch even if the batch commits while the scan is running.
+ *
+ * <p>Blocks are kept in skip lists keyed by their first id, so a lookup costs O(log n) in the
+ * number of blocks rather than a scan over them. A block leaves the pending list as soon as it
+ * is revealed; only a read that started before some reveal consults the revealed list, so reads
+ * at the current epoch pay for pending batches alone. Revealed blocks are forgotten after
+ * {@link #RETAIN_NANOS}; a scan running longer than that may see a batch that committed after
+ * it started. Writers coordinate with a {@link ReentrantLock} rather than a monitor so a virtual
+ * thread waiting here does not pin its carrier.
+ */
+class BatchVisibility {
+
+    private static final long RETAIN_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final AtomicLong epoch = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, Block> pending = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, Block> revealed = new ConcurrentSkipListMap<>();
+    private final ArrayDeque<Block> revealOrder = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    long currentEpoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Checks pending blocks first. {@link #reveal} advances the epoch before it unlists a block,
+     * so a read that misses a block it should still hide sees a newer epoch than its own and
+     * finds the block among the revealed ones.
+     */
+    boolean isHidden(long id, long readEpoch) {
+        Block block = containing(pending, id);
+        if (block != null) {
+            long revealedAt = block.revealedAt;
+            return revealedAt == 0 || revealedAt > readEpoch;
+        }
+        if (readEpoch >= epoch.get()) {
+            return false;
+        }
+        block = containing(revealed, id);
+        return block != null && block.revealedAt > readEpoch;
+    }
+
+    private static Block containing(ConcurrentSkipListMap<Long, Block> blocks, long id) {
+        if (blocks.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, Block> floor = blocks.floorEntry(id);
+        return floor != null && id <= floor.getValue().last ? floor.getValue() : null;
+    }
+
+    Block hide(long first, long last) {
+        Block block = new Block(first, last);
+        pending.put(first, block);
+        return block;
+    }
+
+    /**
+     * Stamps the block and lists it as revealed before advancing the epoch, so any read that
+     * observes the new epoch also observes the block as revealed, and only then unlists it from
+     * the pending blocks.
+     */
+    void reveal(Block block) {
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            while (!revealOrder.isEmpty() && now - revealOrder.peekFirst().revealedNanos >= RETAIN_NANOS) {
+                Block expired = revealOrder.pollFirst();
+                revealed.remove(expired.first, expired);
+            }
+            long next = epoch.get() + 1;
+            block.revealedNanos = now;
+            block.revealedAt = next;
+            revealed.put(block.first, block);
+            revealOrder.addLast(block);
+            epoch.set(next);
+            pending.remove(block.first, block);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static final class Block {
+        final long first;
+        final long last;
+        volatile long revealedAt;
+        volatile long revealedNanos;
+
+        Block(long first, long last) {
+            this.first = first;
+            this.last = last;
+        }
+    }
+}
@@ -0,0 +1,882 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeeFilter;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.example.query.PageCursor;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * Column-oriented {@link EmployeeRepository} for large tables. Each property lives in its own
+ * array: primitive ids, salaries, hire-date epoch days and active bits, dictionary codes for
+ * department and job title, and plain references for the free-text columns. Rows are
+ * materialized as {@link Employee} objects only when a result list element is read, which for
+ * REST responses is while Jackson serializes it.
+ *
+ * <p>Rows are append-only. An update appends the new row and stamps the old one with the
+ * version that deleted it, so a reader holding a {@link State} sees a consistent snapshot
+ * without locking. Writers are serialized by a {@link StampedLock}; dead rows are compacted
+ * into fresh arrays once they outnumber live ones, leaving existing snapshots untouched.
+ * Filtered queries scan the primitive columns instead of maintaining secondary indexes; the one
+ * exception is the {@link EmailIndex} that keeps addresses unique, claimed under the write lock.
+ * Writes are journaled under the write lock and wait for durability after releasing it.
+ */
+public class ColumnarEmployeeRepository implements EmployeeRepository {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int COMPACT_THRESHOLD = 4096;
+
+    private final StampedLock lock = new StampedLock();
+    private final StringDictionary departments = new StringDictionary();
+    private final StringDictionary jobTitles = new StringDictionary();
+    private final LongIntHashMap rowsById = new LongIntHashMap();
+    private final EmailIndex emails = new EmailIndex();
+    private final IdSequence ids;
+
+    private volatile State state = new State(new Columns(INITIAL_CAPACITY), 0, 0, 0);
+    private volatile EmployeeJournal journal = EmployeeJournal.NONE;
+    private final List<EmployeeChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public ColumnarEmployeeRepository() {
+        this(new IdSequence());
+    }
+
+    /**
+     * Creates an empty repository that assigns new rows ids from {@code ids}.
+     */
+    public ColumnarEmployeeRepository(IdSequence ids) {
+        this.ids = ids;
+    }
+
+    @Override
+    public void load(Collection<Employee> rows) {
+        long stamp = lock.writeLock();
+        try {
+            State current = state;
+            Columns columns = current.columns;
+            int row = current.size;
+            for (Employee employee : rows) {
+                if (employee.getVersion() == null) {
+                    employee.setVersion(1L);
+                }
+                columns = ensureCapacity(columns, row);
+                write(columns, row, employee);
+                emails.load(employee.getEmail(), employee.getId());
+                rowsById.put(employee.getId(), row++);
+                ids.advancePast(employee.getId());
+            }
+            state = new State(columns, row, current.live + rows.size(), current.version + 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void advanceIdsPast(long id) {
+        ids.advancePast(id);
+    }
+
+    @Override
+    public void setJournal(EmployeeJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public void addListener(EmployeeChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public Employee create(Employee employee) {
+        long position;
+        long stamp = lock.writeLock();
+        try {
+            employee.setId(ids.next());
+            employee.setVersion(1L);
+            emails.claim(employee.getEmail(), employee.getId());
+            position = journalUpsert(employee, true);
+            State current = state;
+            Columns columns = ensureCapacity(current.columns, current.size);
+            int row = current.size;
+            write(columns, row, employee);
+            rowsById.put(employee.getId(), row);
+            state = new State(columns, row + 1, current.live + 1, current.version + 1);
+            notify(null, employee);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        journal.awaitDurable(position);
+        return employee;
+    }
+
+    /**
+     * Appends the whole batch under one write lock and publishes it with a single state swap.
+     */
+    @Override
+    public List<Employee> insertAll(List<Employee> batch) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        long position;
+        long stamp = lock.writeLock();
+        try {
+            long first = ids.reserve(batch.size());
+            State current = state;
+            Columns columns = current.columns;
+            int row = current.size;
+            int claimed = 0;
+            try {
+                for (Employee employee : batch) {
+                    employee.setId(ids.nth(first, claimed));
+                    employee.setVersion(1L);
+                    emails.claim(employee.getEmail(), employee.getId());
+                    claimed++;
+                    columns = ensureCapacity(columns, row);
+                    write(columns, row++, employee);
+                }
+                // rows past the published size stay invisible if the journal rejects the batch
+                position = journal.batch(batch);
+            } catch (RuntimeException e) {
+                for (int i = 0; i < claimed; i++) {
+                    emails.release(batch.get(i).getEmail(), batch.get(i).getId());
+                }
+                throw e;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                rowsById.put(batch.get(i).getId(), current.size + i);
+            }
+            state = new State(columns, row, current.live + batch.size(), current.version + 1);
+            for (Employee employee : batch) {
+                notify(null, employee);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        journal.awaitDurable(position);
+        return batch;
+    }
+
+    @Override
+    public Optional<Employee> findById(Long id) {
+        long stamp = lock.tryOptimisticRead();
+        State snapshot = state;
+        int row = LongIntHashMap.MISSING;
+        try {
+            row = rowsById.get(id);
+        } catch (IndexOutOfBoundsException e) {
+            // torn read of a resizing map; the validation below falls back to the read lock
+        }
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                snapshot = state;
+                row = rowsById.get(id);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (row == LongIntHashMap.MISSING) {
+            return Optional.empty();
+        }
+        return Optional.of(snapshot.materialize(row, departments.values(), jobTitles.values()));
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        return select(state, row -> true);
+    }
+
+    @Override
+    public Optional<Employee> findByEmail(String email) {
+        Long id = emails.owner(email);
+        String key = EmailIndex.key(email);
+        return id == null ? Optional.empty() : findById(id).filter(e -> key.equals(EmailIndex.key(e.getEmail())));
+    }
+
+    @Override
+    public List<Employee> findByDepartment(String department) {
+        State snapshot = state;
+        boolean[] codes = StringDictionary.matchingIgnoreCase(departments.values(), department);
+        int[] column = snapshot.columns.departments;
+        return select(snapshot, row -> matchesCode(codes, column[row]));
+    }
+
+    @Override
+    public List<Employee> findByActive(boolean active) {
+        State snapshot = state;
+        Columns columns = snapshot.columns;
+        return select(snapshot, row -> isActive(columns, row) == active);
+    }
+
+    @Override
+    public List<Employee> findByHireDateBetween(LocalDate from, LocalDate to) {
+        State snapshot = state;
+        int[] column = snapshot.columns.hireDays;
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        return select(snapshot, row -> column[row] != NO_DATE && column[row] >= fromDay && column[row] <= toDay);
+    }
+
+    @Override
+    public EmployeePage query(EmployeeQuery query) {
+        State snapshot = state;
+        Columns columns = snapshot.columns;
+        RowPredicate filter = compile(query, columns);
+        RowOrder order = new RowOrder(query.getSortField(), query.isDescending(), columns,
+                departments.values(), jobTitles.values());
+        PageCursor after = query.getAfter();
+        int limit = query.getLimit();
+
+        IntHeap heap = new IntHeap(limit + 1, order);
+        int scanned = 0;
+        for (int row = 0; row < snapshot.size; row++) {
+            if (!snapshot.isLive(row)) {
+                continue;
+            }
+            scanned++;
+            if (!filter.test(row) || (after != null && order.compareToCursor(row, after) <= 0)) {
+                continue;
+            }
+            if (heap.size() <= limit) {
+                heap.push(row);
+            } else if (order.compare(row, heap.peek()) < 0) {
+                heap.replaceTop(row);
+            }
+        }
+        boolean hasMore = heap.size() > limit;
+        if (hasMore) {
+            heap.pop();
+        }
+        List<Employee> items = snapshot.view(heap.drainDescending(), departments.values(), jobTitles.values());
+        PageCursor next = hasMore ? query.cursorAt(items.get(items.size() - 1)) : null;
+        return new EmployeePage(items, next, scanned);
+    }
+
+    @Override
+    public void forEach(EmployeeQuery query, Consumer<? super Employee> action) {
+        State snapshot = state;
+        RowPredicate filter = compile(query, snapshot.columns);
+        String[] departmentValues = departments.values();
+        String[] jobTitleValues = jobTitles.values();
+        for (int row = 0; row < snapshot.size; row++) {
+            if (snapshot.isLive(row) && filter.test(row)) {
+                action.accept(snapshot.materialize(row, departmentValues, jobTitleValues));
+            }
+        }
+    }
+
+    /** {@link #forEach} already reads a single {@link State}. */
+    @Override
+    public void forEachSnapshot(EmployeeQuery query, Consumer<? super Employee> action) {
+        forEach(query, action);
+    }
+
+    @Override
+    public Optional<Employee> update(Long id, Employee employee, Long expectedVersion) {
+        long position;
+        long stamp = lock.writeLock();
+        try {
+            int existing = rowsById.get(id);
+            if (existing == LongIntHashMap.MISSING) {
+                return Optional.empty();
+            }
+            State current = state;
+            checkVersion(current.columns, existing, expectedVersion);
+            employee.setId(id);
+            employee.setVersion(current.columns.versions[existing] + 1);
+            String oldEmail = current.columns.emails[existing];
+            boolean moved = emails.claimChange(oldEmail, employee.getEmail(), id);
+            position = journalUpsert(employee, moved);
+            Employee before = listeners.isEmpty() ? null : current.materialize(existing, departments.values(), jobTitles.values());
+            long version = current.version + 1;
+            current.columns.deletedAt[existing] = version;
+            Columns columns = ensureCapacity(current.columns, current.size);
+            int row = current.size;
+            write(columns, row, employee);
+            rowsById.put(id, row);
+            state = new State(columns, row + 1, current.live, version);
+            if (moved) {
+                emails.release(oldEmail, id);
+            }
+            notify(before, employee);
+            compactIfNeeded();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        journal.awaitDurable(position);
+        return Optional.of(employee);
+    }
+
+    /**
+     * Appends a copy of the current row with only the changed columns rewritten, so untouched
+     * text and dictionary columns are carried over without re-encoding.
+     */
+    @Override
+    public Optional<Employee> patch(Long id, Map<EmployeeField, Object> changes, Long expectedVersion) {
+        long position;
+        Employee after;
+        long stamp = lock.writeLock();
+        try {
+            int existing = rowsById.get(id);
+            if (existing == LongIntHashMap.MISSING) {
+                return Optional.empty();
+            }
+            State current = state;
+            checkVersion(current.columns, existing, expectedVersion);
+            Employee before = current.materialize(existing, departments.values(), jobTitles.values());
+            after = current.materialize(existing, departments.values(), jobTitles.values());
+            changes.forEach((field, value) -> field.set(after, value));
+            after.setVersion(before.getVersion() + 1);
+            boolean moved = emails.claimChange(before.getEmail(), after.getEmail(), id);
+            position = journalUpsert(after, moved);
+            long version = current.version + 1;
+            current.columns.deletedAt[existing] = version;
+            Columns columns = ensureCapacity(current.columns, current.size);
+            int row = current.size;
+            columns.copyRows(current.columns, existing, row, 1);
+            changes.forEach((field, value) -> write(columns, row, field, value));
+            columns.versions[row] = after.getVersion();
+            columns.deletedAt[row] = 0;
+            rowsById.put(id, row);
+            state = new State(columns, row + 1, current.live, version);
+            if (moved) {
+                emails.release(before.getEmail(), id);
+            }
+            notify(before, after);
+            compactIfNeeded();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        journal.awaitDurable(position);
+        return Optional.of(after);
+    }
+
+    @Override
+    public boolean delete(Long id, Long expectedVersion) {
+        long position;
+        long stamp = lock.writeLock();
+        try {
+            int existing = rowsById.get(id);
+            if (existing == LongIntHashMap.MISSING) {
+                return false;
+            }
+            State current = state;
+            checkVersion(current.columns, existing, expectedVersion);
+            position = journal.delete(id);
+            Employee before = listeners.isEmpty() ? null : current.materialize(existing, departments.values(), jobTitles.values());
+            long version = current.version + 1;
+            current.columns.deletedAt[existing] = version;
+            rowsById.remove(id);
+            emails.release(current.columns.emails[existing], id);
+            state = new State(current.columns, current.size, current.live - 1, version);
+            notify(before, null);
+            compactIfNeeded();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        journal.awaitDurable(position);
+        return true;
+    }
+
+    @Override
+    public int count() {
+        return state.live;
+    }
+
+    @Override
+    public long dataVersion() {
+        return state.version;
+    }
+
+    private static void checkVersion(Columns columns, int row, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != columns.versions[row]) {
+            throw new StaleVersionException(columns.ids[row], expectedVersion, columns.versions[row]);
+        }
+    }
+
+    /** Journals a row whose address was just claimed, handing the address back if the journal rejects it. */
+    private long journalUpsert(Employee employee, boolean claimed) {
+        try {
+            return journal.upsert(employee);
+        } catch (RuntimeException e) {
+            if (claimed) {
+                emails.release(employee.getEmail(), employee.getId());
+            }
+            throw e;
+        }
+    }
+
+    private void notify(Employee before, Employee after) {
+        for (EmployeeChangeListener listener : listeners) {
+            listener.onChange(before, after);
+        }
+    }
+
+    private List<Employee> select(State snapshot, RowPredicate predicate) {
+        RowOrder byId = new RowOrder(EmployeeField.ID, false, snapshot.columns, null, null);
+        IntHeap heap = new IntHeap(16, byId);
+        for (int row = 0; row < snapshot.size; row++) {
+            if (snapshot.isLive(row) && predicate.test(row)) {
+                heap.push(row);
+            }
+        }
+        return snapshot.view(heap.drainDescending(), departments.values(), jobTitles.values());
+    }
+
+    /**
+     * Returns columns with room for one more row, copying into larger arrays when full. The
+     * copy leaves the old arrays to any reader still holding an earlier snapshot.
+     */
+    private Columns ensureCapacity(Columns columns, int size) {
+        if (size < columns.capacity()) {
+            return columns;
+        }
+        Columns grown = new Columns(columns.capacity() * 2);
+        grown.copyRows(columns, 0, 0, size);
+        return grown;
+    }
+
+    private void compactIfNeeded() {
+        State current = state;
+        int dead = current.size - current.live;
+        if (dead < COMPACT_THRESHOLD || dead < current.live) {
+            return;
+        }
+        Columns compacted = new Columns(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, current.live)) << 1));
+        rowsById.clear();
+        int target = 0;
+        for (int row = 0; row < current.size; row++) {
+            if (current.columns.deletedAt[row] == 0) {
+                compacted.copyRows(current.columns, row, target, 1);
+                rowsById.put(compacted.ids[target], target);
+                target++;
+            }
+        }
+        state = new State(compacted, target, current.live, current.version);
+    }
+
+    private void write(Columns columns, int row, Employee employee) {
+        columns.ids[row] = employee.getId();
+        columns.firstNames[row] = employee.getFirstName();
+        columns.lastNames[row] = employee.getLastName();
+        columns.emails[row] = employee.getEmail();
+        columns.departments[row] = departments.encode(employee.getDepartment());
+        columns.jobTitles[row] = jobTitles.encode(employee.getJobTitle());
+        columns.hireDays[row] = employee.getHireDate() == null ? NO_DATE : (int) employee.getHireDate().toEpochDay();
+        columns.salaries[row] = employee.getSalary() == null ? Double.NaN : employee.getSalary();
+        setBit(columns.activeKnown, row, employee.getActive() != null);
+        setBit(columns.activeValues, row, Boolean.TRUE.equals(employee.getActive()));
+        columns.versions[row] = employee.getVersion();
+        columns.deletedAt[row] = 0;
+    }
+
+    private void write(Columns columns, int row, EmployeeField field, Object value) {
+        switch (field) {
+            case ID -> throw new IllegalArgumentException("The id cannot be changed");
+            case FIRST_NAME -> columns.firstNames[row] = (String) value;
+            case LAST_NAME -> columns.lastNames[row] = (String) value;
+            case EMAIL -> columns.emails[row] = (String) value;
+            case DEPARTMENT -> columns.departments[row] = departments.encode((String) value);
+            case JOB_TITLE -> columns.jobTitles[row] = jobTitles.encode((String) value);
+            case HIRE_DATE -> columns.hireDays[row] = value == null ? NO_DATE : (int) ((LocalDate) value).toEpochDay();
+            case SALARY -> columns.salaries[row] = value == null ? Double.NaN : (Double) value;
+            case ACTIVE -> {
+                setBit(columns.activeKnown, row, value != null);
+                setBit(columns.activeValues, row, Boolean.TRUE.equals(value));
+            }
+        }
+    }
+
+    private static boolean isActive(Columns columns, int row) {
+        return getBit(columns.activeKnown, row) && getBit(columns.activeValues, row);
+    }
+
+    private static boolean matchesCode(boolean[] codes, int code) {
+        return code >= 0 && code < codes.length && codes[code];
+    }
+
+    private static void setBit(long[] bits, int row, boolean value) {
+        if (value) {
+            bits[row >>> 6] |= 1L << row;
+        } else {
+            bits[row >>> 6] &= ~(1L << row);
+        }
+    }
+
+    private static boolean getBit(long[] bits, int row) {
+        return (bits[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Compiles the query's filters into checks against the raw columns, so scanning a row never
+     * allocates or decodes anything.
+     */
+    private RowPredicate compile(EmployeeQuery query, Columns c) {
+        RowPredicate predicate = row -> true;
+        for (EmployeeFilter filter : query.getFilters()) {
+            RowPredicate next = compile(filter, c);
+            RowPredicate previous = predicate;
+            predicate = row -> previous.test(row) && next.test(row);
+        }
+        return predicate;
+    }
+
+    private RowPredicate compile(EmployeeFilter filter, Columns c) {
+        Object from = filter.getFrom();
+        Object to = filter.getTo();
+        switch (filter.getField()) {
+            case ID -> {
+                long lo = from == null ? Long.MIN_VALUE : (Long) from;
+                long hi = to == null ? Long.MAX_VALUE : (Long) to;
+                return row -> c.ids[row] >= lo && c.ids[row] <= hi;
+            }
+            case FIRST_NAME -> {
+                return row -> ((String) from).equalsIgnoreCase(c.firstNames[row]);
+            }
+            case LAST_NAME -> {
+                return row -> ((String) from).equalsIgnoreCase(c.lastNames[row]);
+            }
+            case EMAIL -> {
+                return row -> ((String) from).equalsIgnoreCase(c.emails[row]);
+            }
+            case DEPARTMENT -> {
+                boolean[] codes = StringDictionary.matchingIgnoreCase(departments.values(), (String) from);
+                return row -> matchesCode(codes, c.departments[row]);
+            }
+            case JOB_TITLE -> {
+                boolean[] codes = StringDictionary.matchingIgnoreCase(jobTitles.values(), (String) from);
+                return row -> matchesCode(codes, c.jobTitles[row]);
+            }
+            case HIRE_DATE -> {
+                int lo = from == null ? NO_DATE + 1 : (int) ((LocalDate) from).toEpochDay();
+                int hi = to == null ? Integer.MAX_VALUE : (int) ((LocalDate) to).toEpochDay();
+                return row -> c.hireDays[row] != NO_DATE && c.hireDays[row] >= lo && c.hireDays[row] <= hi;
+            }
+            case SALARY -> {
+                double lo = from == null ? Double.NEGATIVE_INFINITY : (Double) from;
+                double hi = to == null ? Double.POSITIVE_INFINITY : (Double) to;
+                return row -> c.salaries[row] >= lo && c.salaries[row] <= hi;
+            }
+            case ACTIVE -> {
+                int lo = from == null ? 0 : activeKey((Boolean) from);
+                int hi = to == null ? 1 : activeKey((Boolean) to);
+                return row -> getBit(c.activeKnown, row)
+                        && activeKey(getBit(c.activeValues, row)) >= lo
+                        && activeKey(getBit(c.activeValues, row)) <= hi;
+            }
+            default -> throw new IllegalArgumentException("Unsupported filter: " + filter.getField());
+        }
+    }
+
+    private static int activeKey(boolean active) {
+        return active ? 1 : 0;
+    }
+
+    @FunctionalInterface
+    interface RowPredicate {
+        boolean test(int row);
+    }
+
+    @FunctionalInterface
+    interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Immutable view of the table: which columns, how many rows and the last applied version.
+     * A row is visible if it was appended before the snapshot and not deleted at or before
+     * {@code version}.
+     */
+    private static final class State {
+        final Columns columns;
+        final int size;
+        final int live;
+        final long version;
+
+        State(Columns columns, int size, int live, long version) {
+            this.columns = columns;
+            this.size = size;
+            this.live = live;
+            this.version = version;
+        }
+
+        boolean isLive(int row) {
+            long deletedAt = columns.deletedAt[row];
+            return deletedAt == 0 || deletedAt > version;
+        }
+
+        Employee materialize(int row, String[] departmentValues, String[] jobTitleValues) {
+            Columns c = columns;
+            int department = c.departments[row];
+            int jobTitle = c.jobTitles[row];
+            return Employee.builder()
+                    .id(c.ids[row])
+                    .firstName(c.firstNames[row])
+                    .lastName(c.lastNames[row])
+                    .email(c.emails[row])
+                    .department(department == StringDictionary.NO_CODE ? null : departmentValues[department])
+                    .jobTitle(jobTitle == StringDictionary.NO_CODE ? null : jobTitleValues[jobTitle])
+                    .hireDate(c.hireDays[row] == NO_DATE ? null : LocalDate.ofEpochDay(c.hireDays[row]))
+                    .salary(Double.isNaN(c.salaries[row]) ? null : c.salaries[row])
+                    .active(getBit(c.activeKnown, row) ? getBit(c.activeValues, row) : null)
+                    .version(c.versions[row])
+                    .build();
+        }
+
+        /**
+         * Lazily materializing list over the given rows of this snapshot.
+         */
+        List<Employee> view(int[] rows, String[] departmentValues, String[] jobTitleValues) {
+            return new AbstractList<>() {
+                @Override
+                public Employee get(int index) {
+                    return materialize(rows[index], departmentValues, jobTitleValues);
+                }
+
+                @Override
+                public int size() {
+                    return rows.length;
+                }
+            };
+        }
+    }
+
+    private static final class Columns {
+        final long[] ids;
+        final String[] firstNames;
+        final String[] lastNames;
+        final String[] emails;
+        final int[] departments;
+        final int[] jobTitles;
+        final int[] hireDays;
+        final double[] salaries;
+        final long[] activeKnown;
+        final long[] activeValues;
+        final long[] versions;
+        final long[] deletedAt;
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            firstNames = new String[capacity];
+            lastNames = new String[capacity];
+            emails = new String[capacity];
+            departments = new int[capacity];
+            jobTitles = new int[capacity];
+            hireDays = new int[capacity];
+            salaries = new double[capacity];
+            activeKnown = new long[(capacity + 63) >>> 6];
+            activeValues = new long[(capacity + 63) >>> 6];
+            versions = new long[capacity];
+            deletedAt = new long[capacity];
+        }
+
+        int capacity() {
+            return ids.length;
+        }
+
+        void copyRows(Columns from, int fromRow, int toRow, int count) {
+            System.arraycopy(from.ids, fromRow, ids, toRow, count);
+            System.arraycopy(from.firstNames, fromRow, firstNames, toRow, count);
+            System.arraycopy(from.lastNames, fromRow, lastNames, toRow, count);
+            System.arraycopy(from.emails, fromRow, emails, toRow, count);
+            System.arraycopy(from.departments, fromRow, departments, toRow, count);
+            System.arraycopy(from.jobTitles, fromRow, jobTitles, toRow, count);
+            System.arraycopy(from.hireDays, fromRow, hireDays, toRow, count);
+            System.arraycopy(from.salaries, fromRow, salaries, toRow, count);
+            System.arraycopy(from.versions, fromRow, versions, toRow, count);
+            System.arraycopy(from.deletedAt, fromRow, deletedAt, toRow, count);
+            for (int i = 0; i < count; i++) {
+                setBit(activeKnown, toRow + i, getBit(from.activeKnown, fromRow + i));
+                setBit(activeValues, toRow + i, getBit(from.activeValues, fromRow + i));
+            }
+        }
+    }
+
+    /**
+     * Sort order over rows of one snapshot, ties broken by id. Numeric columns compare as
+     * longs; nulls sort first, matching {@link EmployeeField#comparator()}.
+     */
+    private static final class RowOrder implements RowComparator {
+        private final EmployeeField field;
+        private final boolean descending;
+        private final Columns c;
+        private final String[] departmentValues;
+        private final String[] jobTitleValues;
+
+        RowOrder(EmployeeField field, boolean descending, Columns c, String[] departmentValues, String[] jobTitleValues) {
+            this.field = field;
+            this.descending = descending;
+            this.c = c;
+            this.departmentValues = departmentValues;
+            this.jobTitleValues = jobTitleValues;
+        }
+
+        @Override
+        public int compare(int a, int b) {
+            int cmp = field == EmployeeField.ID ? 0 : compareValues(a, b);
+            if (cmp == 0) {
+                cmp = Long.compare(c.ids[a], c.ids[b]);
+            }
+            return descending ? -cmp : cmp;
+        }
+
+        int compareToCursor(int row, PageCursor cursor) {
+            int cmp;
+            if (field.isText()) {
+                cmp = field.comparator().compare(text(row), cursor.getValue());
+            } else {
+                cmp = Long.compare(key(row), keyOf(cursor.getValue()));
+            }
+            if (cmp == 0) {
+                cmp = Long.compare(c.ids[row], cursor.getId());
+            }
+            return descending ? -cmp : cmp;
+        }
+
+        private int compareValues(int a, int b) {
+            if (field.isText()) {
+                return field.comparator().compare(text(a), text(b));
+            }
+            return Long.compare(key(a), key(b));
+        }
+
+        private String text(int row) {
+            return switch (field) {
+                case FIRST_NAME -> c.firstNames[row];
+                case LAST_NAME -> c.lastNames[row];
+                case EMAIL -> c.emails[row];
+                case DEPARTMENT -> decode(departmentValues, c.departments[row]);
+                case JOB_TITLE -> decode(jobTitleValues, c.jobTitles[row]);
+                default -> throw new IllegalStateException("Not a text column: " + field);
+            };
+        }
+
+        private long key(int row) {
+            return switch (field) {
+                case ID -> c.ids[row];
+                case HIRE_DATE -> c.hireDays[row] == NO_DATE ? Long.MIN_VALUE : c.hireDays[row];
+                case SALARY -> Double.isNaN(c.salaries[row]) ? Long.MIN_VALUE : sortableBits(c.salaries[row]);
+                case ACTIVE -> getBit(c.activeKnown, row) ? activeKey(getBit(c.activeValues, row)) : Long.MIN_VALUE;
+                default -> throw new IllegalStateException("Not a numeric column: " + field);
+            };
+        }
+
+        private long keyOf(Object value) {
+            if (value == null) {
+                return Long.MIN_VALUE;
+            }
+            return switch (field) {
+                case ID -> (Long) value;
+                case HIRE_DATE -> ((LocalDate) value).toEpochDay();
+                case SALARY -> sortableBits((Double) value);
+                case ACTIVE -> activeKey((Boolean) value);
+                default -> throw new IllegalStateException("Not a numeric column: " + field);
+            };
+        }
+
+        private static String decode(String[] values, int code) {
+            return code == StringDictionary.NO_CODE ? null : values[code];
+        }
+
+        private static long sortableBits(double value) {
+            long bits = Double.doubleToLongBits(value);
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Binary heap of row numbers; the root is the greatest row under the given comparator.
+     */
+    private static final class IntHeap {
+        private final RowComparator comparator;
+        private int[] rows;
+        private int size;
+
+        IntHeap(int capacity, RowComparator comparator) {
+            this.rows = new int[Math.max(1, Math.min(capacity, 1 << 16))];
+            this.comparator = comparator;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int peek() {
+            return rows[0];
+        }
+
+        void push(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size] = row;
+            siftUp(size++);
+        }
+
+        int pop() {
+            int top = rows[0];
+            rows[0] = rows[--size];
+            siftDown(0);
+            return top;
+        }
+
+        void replaceTop(int row) {
+            rows[0] = row;
+            siftDown(0);
+        }
+
+        /**
+         * Empties the heap, returning its rows smallest first.
+         */
+        int[] drainDescending() {
+            int[] sorted = new int[size];
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                sorted[i] = pop();
+            }
+            return sorted;
+        }
+
+        private void siftUp(int i) {
+            int row = rows[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (comparator.compare(row, rows[parent]) <= 0) {
+                    break;
+                }
+                rows[i] = rows[parent];
+                i = parent;
+            }
+            rows[i] = row;
+        }
+
+        private void siftDown(int i) {
+            int row = rows[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && comparator.compare(rows[child + 1], rows[child]) > 0) {
+                    child++;
+                }
+                if (comparator.compare(row, rows[child]) >= 0) {
+                    break;
+                }
+                rows[i] = rows[child];
+                i = child;
+            }
+            rows[i] = row;
+        }
+    }
+}
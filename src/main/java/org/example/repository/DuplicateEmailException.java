@@ -0,0 +1,24 @@
+package org.example.repository;
+
+/**
+ * A write would give an employee an email address another employee already has.
+ */
+public class DuplicateEmailException extends RuntimeException {
+
+    private final String email;
+    private final long ownerId;
+
+    public DuplicateEmailException(String email, long ownerId) {
+        super("Email " + email + " is already used by employee " + ownerId);
+        this.email = email;
+        this.ownerId = ownerId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public long getOwnerId() {
+        return ownerId;
+    }
+}
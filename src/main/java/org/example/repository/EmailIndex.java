@@ -0,0 +1,75 @@
+package org.example.repository;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Case-insensitive email to employee id, used to keep addresses unique. An address is claimed
+ * with a single {@code putIfAbsent}, so concurrent writers of different addresses never contend
+ * and two writers of the same address cannot both win. Writers claim before they store a row
+ * and release only once the row no longer holds the address; callers serialize claims per id.
+ */
+class EmailIndex {
+
+    private final ConcurrentHashMap<String, Long> owners = new ConcurrentHashMap<>();
+
+    static String key(String email) {
+        return email == null ? null : email.strip().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Reserves {@code email} for {@code id}; a no-op for a null address or one {@code id}
+     * already holds.
+     *
+     * @throws DuplicateEmailException if another employee holds it
+     */
+    void claim(String email, long id) {
+        String key = key(email);
+        if (key == null) {
+            return;
+        }
+        Long owner = owners.putIfAbsent(key, id);
+        if (owner != null && owner != id) {
+            throw new DuplicateEmailException(email, owner);
+        }
+    }
+
+    /**
+     * Claims the address {@code id} is about to have in place of {@code before}, and reports
+     * whether they differ. The old address stays claimed until the caller {@link #release releases}
+     * it once the new row is stored.
+     */
+    boolean claimChange(String before, String after, long id) {
+        if (Objects.equals(key(before), key(after))) {
+            return false;
+        }
+        claim(after, id);
+        return true;
+    }
+
+    /** Frees {@code email} if {@code id} holds it. */
+    void release(String email, long id) {
+        String key = key(email);
+        if (key != null) {
+            owners.remove(key, id);
+        }
+    }
+
+    /**
+     * Records an address for a row that is already stored, such as recovered state. Rows stored
+     * before addresses were unique may share one; the first keeps it and the others are left out.
+     */
+    void load(String email, long id) {
+        String key = key(email);
+        if (key != null) {
+            owners.putIfAbsent(key, id);
+        }
+    }
+
+    /** The id holding {@code email}, or null. */
+    Long owner(String email) {
+        String key = key(email);
+        return key == null ? null : owners.get(key);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+
+/**
+ * Observes committed row changes. Repositories call it inside the critical section that applies
+ * the write, so for any one employee the calls arrive in the order the writes were applied.
+ * Implementations must be quick and must not call back into the repository.
+ */
+@FunctionalInterface
+public interface EmployeeChangeListener {
+
+    /**
+     * @param before the previous row, or null for an insert
+     * @param after  the new row, or null for a delete
+     */
+    void onChange(Employee before, Employee after);
+}
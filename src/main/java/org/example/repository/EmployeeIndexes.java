@@ -0,0 +1,178 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary indexes over employee ids: case-insensitive department, active flag and hire date.
+ * Callers serialize changes per employee id; lookups are weakly consistent and callers
+ * re-check the predicate against the stored row.
+ * <p>
+ * A bucket is dropped in the same {@code compute} step that removes its last id, so departments
+ * and hire dates that no longer have rows cost nothing to keep or to range over. Buckets are
+ * concurrent sets mutated inside {@link ConcurrentHashMap#compute}, which is atomic per key, so
+ * a write costs one set operation whatever the bucket's size. Hire dates are also kept in a
+ * sorted set for range lookups; a date is added and dropped in the same {@code compute} that
+ * creates and empties its bucket.
+ */
+class EmployeeIndexes {
+
+    private final ConcurrentHashMap<String, Set<Long>> byDepartment = new ConcurrentHashMap<>();
+    private final Set<Long> activeIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> inactiveIds = ConcurrentHashMap.newKeySet();
+    private final ConcurrentHashMap<LocalDate, Set<Long>> byHireDate = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<LocalDate> hireDates = new ConcurrentSkipListSet<>();
+
+    static String departmentKey(String department) {
+        return department.toLowerCase(Locale.ROOT);
+    }
+
+    static boolean isActive(Employee employee) {
+        return Boolean.TRUE.equals(employee.getActive());
+    }
+
+    void add(Employee employee) {
+        Long id = employee.getId();
+        if (employee.getDepartment() != null) {
+            addDepartment(departmentKey(employee.getDepartment()), List.of(id));
+        }
+        (isActive(employee) ? activeIds : inactiveIds).add(id);
+        if (employee.getHireDate() != null) {
+            addHireDate(employee.getHireDate(), List.of(id));
+        }
+    }
+
+    /**
+     * Adds rows no other writer can reach yet, grouping them by key first so each index entry is
+     * looked up once per distinct department or hire date rather than once per row.
+     */
+    void addAll(Collection<Employee> batch) {
+        Map<String, List<Long>> departments = new HashMap<>();
+        Map<LocalDate, List<Long>> hireDates = new HashMap<>();
+        List<Long> active = new ArrayList<>();
+        List<Long> inactive = new ArrayList<>();
+        for (Employee employee : batch) {
+            Long id = employee.getId();
+            if (employee.getDepartment() != null) {
+                departments.computeIfAbsent(departmentKey(employee.getDepartment()), k -> new ArrayList<>()).add(id);
+            }
+            (isActive(employee) ? active : inactive).add(id);
+            if (employee.getHireDate() != null) {
+                hireDates.computeIfAbsent(employee.getHireDate(), k -> new ArrayList<>()).add(id);
+            }
+        }
+        departments.forEach(this::addDepartment);
+        activeIds.addAll(active);
+        inactiveIds.addAll(inactive);
+        hireDates.forEach(this::addHireDate);
+    }
+
+    void remove(Employee employee) {
+        Long id = employee.getId();
+        if (employee.getDepartment() != null) {
+            removeDepartment(departmentKey(employee.getDepartment()), id);
+        }
+        (isActive(employee) ? activeIds : inactiveIds).remove(id);
+        if (employee.getHireDate() != null) {
+            removeHireDate(employee.getHireDate(), id);
+        }
+    }
+
+    /** Moves {@code before}'s entries to {@code after}, same id, touching only the indexes whose key changed. */
+    void replace(Employee before, Employee after) {
+        Long id = after.getId();
+        String oldDepartment = before.getDepartment() == null ? null : departmentKey(before.getDepartment());
+        String newDepartment = after.getDepartment() == null ? null : departmentKey(after.getDepartment());
+        if (!Objects.equals(oldDepartment, newDepartment)) {
+            if (oldDepartment != null) {
+                removeDepartment(oldDepartment, id);
+            }
+            if (newDepartment != null) {
+                addDepartment(newDepartment, List.of(id));
+            }
+        }
+        if (isActive(before) != isActive(after)) {
+            (isActive(after) ? activeIds : inactiveIds).add(id);
+            (isActive(before) ? activeIds : inactiveIds).remove(id);
+        }
+        if (!Objects.equals(before.getHireDate(), after.getHireDate())) {
+            if (before.getHireDate() != null) {
+                removeHireDate(before.getHireDate(), id);
+            }
+            if (after.getHireDate() != null) {
+                addHireDate(after.getHireDate(), List.of(id));
+            }
+        }
+    }
+
+    private void addDepartment(String key, Collection<Long> ids) {
+        byDepartment.compute(key, (k, bucket) -> {
+            Set<Long> target = bucket == null ? ConcurrentHashMap.newKeySet() : bucket;
+            target.addAll(ids);
+            return target;
+        });
+    }
+
+    private void removeDepartment(String key, Long id) {
+        byDepartment.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(id);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    private void addHireDate(LocalDate date, Collection<Long> ids) {
+        byHireDate.compute(date, (k, bucket) -> {
+            Set<Long> target = bucket;
+            if (target == null) {
+                target = ConcurrentHashMap.newKeySet();
+                hireDates.add(date);
+            }
+            target.addAll(ids);
+            return target;
+        });
+    }
+
+    private void removeHireDate(LocalDate date, Long id) {
+        byHireDate.computeIfPresent(date, (k, bucket) -> {
+            bucket.remove(id);
+            if (!bucket.isEmpty()) {
+                return bucket;
+            }
+            hireDates.remove(date);
+            return null;
+        });
+    }
+
+    Set<Long> department(String department) {
+        return byDepartment.getOrDefault(departmentKey(department), Set.of());
+    }
+
+    Set<Long> active(boolean active) {
+        return active ? activeIds : inactiveIds;
+    }
+
+    Collection<Set<Long>> hireDateBetween(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return List.of();
+        }
+        List<Set<Long>> buckets = new ArrayList<>();
+        for (LocalDate date : hireDates.subSet(from, true, to, true)) {
+            Set<Long> bucket = byHireDate.get(date);
+            if (bucket != null) {
+                buckets.add(bucket);
+            }
+        }
+        return buckets;
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+
+import java.util.List;
+
+/**
+ * Write-ahead hook for repository writes. Repositories call the append methods inside the
+ * critical section that applies the write, so the journal order for any one employee matches
+ * the order the writes were applied in, and call {@link #awaitDurable} after releasing it.
+ */
+public interface EmployeeJournal {
+
+    EmployeeJournal NONE = new EmployeeJournal() {
+        @Override
+        public long upsert(Employee employee) {
+            return 0;
+        }
+
+        @Override
+        public long delete(long id) {
+            return 0;
+        }
+
+        @Override
+        public long batch(List<Employee> rows) {
+            return 0;
+        }
+
+        @Override
+        public void awaitDurable(long position) {
+        }
+    };
+
+    /**
+     * Records the full image of a created or updated employee. Returns the log position to wait for.
+     */
+    long upsert(Employee employee);
+
+    long delete(long id);
+
+    /**
+     * Records a batch as a single entry, so recovery restores all of it or none of it.
+     */
+    long batch(List<Employee> rows);
+
+    /**
+     * Blocks until everything up to {@code position} has reached stable storage.
+     */
+    void awaitDurable(long position);
+}
@@ -0,0 +1,149 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Storage abstraction for employees shared by the REST controllers.
+ * Implementations keep their secondary indexes consistent with every write.
+ * Every stored row carries a version: 1 when created, incremented by each update.
+ * Email addresses are unique ignoring case: a create, batch, update or patch that would give a
+ * second employee an address in use fails with {@link DuplicateEmailException} and changes nothing.
+ */
+public interface EmployeeRepository {
+
+    /**
+     * Stores a new employee, assigning it the next free id and version 1.
+     */
+    Employee create(Employee employee);
+
+    /**
+     * Stores a batch as one unit: the rows get a block of consecutive ids from the store's
+     * {@link IdSequence} reserved in a single step, and readers observe either none or all of
+     * them. A duplicate email, within the batch or against a stored row, rejects the whole batch.
+     */
+    List<Employee> insertAll(List<Employee> batch);
+
+    /**
+     * Adds rows that already carry ids, such as recovered state, without journaling them.
+     * Rows without a version get version 1. Intended for startup, before the repository is shared.
+     */
+    void load(Collection<Employee> rows);
+
+    /**
+     * Never assigns ids up to {@code id} to new rows, whether or not a row holds them, such as
+     * ids of rows deleted before a restart. Intended for startup, like {@link #load}.
+     */
+    void advanceIdsPast(long id);
+
+    /**
+     * Routes every later write through the given journal.
+     */
+    void setJournal(EmployeeJournal journal);
+
+    /**
+     * Registers a listener for every later insert, update and delete, including batch rows.
+     */
+    void addListener(EmployeeChangeListener listener);
+
+    /**
+     * The part of the store held by this process, whose writes reach this process's listeners.
+     * The store itself unless it is partitioned across several instances.
+     */
+    default EmployeeRepository local() {
+        return this;
+    }
+
+    Optional<Employee> findById(Long id);
+
+    List<Employee> findAll();
+
+    /**
+     * Returns one keyset page of rows matching the query, in the query's order.
+     */
+    EmployeePage query(EmployeeQuery query);
+
+    /**
+     * Passes every row matching the query's filters to {@code action} in storage order, one at a
+     * time, without collecting them. Sort, cursor and limit are ignored.
+     */
+    void forEach(EmployeeQuery query, Consumer<? super Employee> action);
+
+    /**
+     * Like {@link #forEach}, but every row is passed as it stood at one instant when the call
+     * began: writes applied while the scan runs are not seen, rows deleted meanwhile still are.
+     * Memory stays proportional to the rows written during the scan, not to the table.
+     */
+    void forEachSnapshot(EmployeeQuery query, Consumer<? super Employee> action);
+
+    /**
+     * Returns the employee holding {@code email}, compared ignoring case.
+     */
+    Optional<Employee> findByEmail(String email);
+
+    /**
+     * Returns employees whose department matches ignoring case.
+     */
+    List<Employee> findByDepartment(String department);
+
+    List<Employee> findByActive(boolean active);
+
+    /**
+     * Returns employees hired between {@code from} and {@code to}, both inclusive.
+     */
+    List<Employee> findByHireDateBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Replaces an existing employee. Returns empty if no employee has the given id.
+     */
+    default Optional<Employee> update(Long id, Employee employee) {
+        return update(id, employee, null);
+    }
+
+    /**
+     * Replaces an existing employee if it is still at {@code expectedVersion} (any version when
+     * null), as one atomic step. Returns empty if no employee has the given id.
+     *
+     * @throws StaleVersionException if the stored version differs
+     */
+    Optional<Employee> update(Long id, Employee employee, Long expectedVersion);
+
+    /**
+     * Sets the given fields on the stored employee and leaves the others as they are, if it is
+     * still at {@code expectedVersion} (any version when null), as one atomic step. Returns the
+     * new row, or empty if no employee has the given id.
+     *
+     * @param changes values of the fields to change, already validated; null clears a field.
+     *                Must not contain {@link EmployeeField#ID}
+     * @throws StaleVersionException if the stored version differs
+     */
+    Optional<Employee> patch(Long id, Map<EmployeeField, Object> changes, Long expectedVersion);
+
+    default boolean delete(Long id) {
+        return delete(id, null);
+    }
+
+    /**
+     * Deletes an employee if it is still at {@code expectedVersion} (any version when null).
+     *
+     * @throws StaleVersionException if the stored version differs
+     */
+    boolean delete(Long id, Long expectedVersion);
+
+    int count();
+
+    /**
+     * Counter advanced after every committed write. Reading the same value twice means no data
+     * changed in between, which makes it a cheap validator for cached query results.
+     */
+    long dataVersion();
+}
@@ -0,0 +1,362 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Typeahead index over the employee name, email and job title columns, kept current as a change
+ * listener.
+ *
+ * <p>Every indexed employee is a document numbered in write order, holding its searchable fields
+ * lowercased and joined by newlines. Two kinds of posting lists point at documents: one per
+ * trigram anywhere in a field, and one per 1-3 character prefix of each token (a run of letters
+ * and digits). Document numbers only grow, so postings stay sorted by appending. A rewritten
+ * employee gets a new document and the old one is tombstoned. Updates that leave the indexed
+ * fields alone do not touch the index.
+ *
+ * <p>A write holds the lock only to index its own document. Once tombstones outnumber live
+ * documents, a compaction rebuilds the live documents into a new generation on another thread
+ * while writes go on against the current one and are recorded; the recorded writes are replayed
+ * onto the new generation, which then replaces the current one by reference.
+ *
+ * <p>A query ranks token-prefix matches ("mit" in "s.mitchell@...") ahead of other substring
+ * matches, each tier in document order. Both tiers walk the intersection of their posting lists
+ * lazily from the shortest list and stop after {@code limit} verified hits, so the cost tracks
+ * the rarest gram and the page size rather than the number of employees. Queries shorter than
+ * three characters only match token prefixes.
+ */
+public class EmployeeSearchIndex implements EmployeeChangeListener {
+
+    public static final List<EmployeeField> FIELDS =
+            List.of(EmployeeField.FIRST_NAME, EmployeeField.LAST_NAME, EmployeeField.EMAIL, EmployeeField.JOB_TITLE);
+
+    private static final long TOKEN_PREFIX = 1L << 62;
+    private static final int MIN_TOMBSTONES_TO_COMPACT = 1024;
+    /** Recorded writes a compaction may replay while holding the lock; it drains longer backlogs first. */
+    private static final int MAX_LOCKED_REPLAY = 256;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Executor compactor;
+    private Generation current = new Generation(1024);
+    /** Writes made while a compaction runs, for it to replay; null when none runs. Guarded by lock. */
+    private List<Change> pending;
+
+    public EmployeeSearchIndex() {
+        this(task -> Thread.ofVirtual().name("search-index-compaction").start(task));
+    }
+
+    EmployeeSearchIndex(Executor compactor) {
+        this.compactor = compactor;
+    }
+
+    @Override
+    public void onChange(Employee before, Employee after) {
+        long id = (after != null ? after : before).getId();
+        String text = after == null ? null : text(after);
+        Runnable compaction = null;
+        lock.writeLock().lock();
+        try {
+            if (!current.apply(id, text)) {
+                return;
+            }
+            if (pending != null) {
+                pending.add(new Change(id, text));
+            } else if (current.tombstones > MIN_TOMBSTONES_TO_COMPACT && current.tombstones > current.docs / 2) {
+                pending = new ArrayList<>();
+                // documents below the cut are never written again except to tombstone them, and
+                // those tombstones are recorded, so the rebuild can read them without the lock
+                long[] ids = current.ids;
+                String[] texts = current.texts;
+                int cut = current.docs;
+                int live = current.docOf.size();
+                compaction = () -> compact(ids, texts, cut, live);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compaction != null) {
+            compactor.execute(compaction);
+        }
+    }
+
+    /**
+     * Returns the ids of up to {@code limit} employees with {@code query} in an indexed field,
+     * ignoring case: token-prefix matches first, then other substring matches.
+     */
+    public List<Long> search(String query, int limit) {
+        String q = query == null ? "" : query.strip().toLowerCase(Locale.ROOT).replace('\n', ' ');
+        List<Long> hits = new ArrayList<>(Math.min(limit, 64));
+        if (q.isEmpty() || limit < 1) {
+            return hits;
+        }
+        lock.readLock().lock();
+        try {
+            Generation index = current;
+            if (Character.isLetterOrDigit(q.charAt(0))) {
+                List<Postings> lists = index.trigrams(q);
+                lists.add(index.postings.get(TOKEN_PREFIX | gram(q, 0, Math.min(3, q.length()))));
+                index.collect(lists, doc -> startsToken(index.texts[doc], q), limit, hits);
+            }
+            if (hits.size() < limit && q.length() >= 3) {
+                index.collect(index.trigrams(q),
+                        doc -> index.texts[doc].contains(q) && !startsToken(index.texts[doc], q), limit, hits);
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return current.docOf.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String text(Employee employee) {
+        StringBuilder text = new StringBuilder(64);
+        for (EmployeeField field : FIELDS) {
+            if (!text.isEmpty()) {
+                text.append('\n');
+            }
+            Object value = field.get(employee);
+            if (value != null) {
+                text.append(value.toString().toLowerCase(Locale.ROOT).replace('\n', ' '));
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Rebuilds the live documents below {@code cut} into a new generation, replays the writes
+     * recorded meanwhile, and swaps it in. A failed rebuild leaves the current generation in place.
+     */
+    private void compact(long[] ids, String[] texts, int cut, int live) {
+        Generation next = new Generation(Math.max(1024, live * 2));
+        try {
+            for (int doc = 0; doc < cut; doc++) {
+                String text = texts[doc];
+                if (text != null) {
+                    next.add(ids[doc], text);
+                }
+            }
+            while (true) {
+                List<Change> backlog;
+                lock.writeLock().lock();
+                try {
+                    if (pending.size() <= MAX_LOCKED_REPLAY) {
+                        pending.forEach(change -> next.apply(change.id(), change.text()));
+                        current = next;
+                        pending = null;
+                        return;
+                    }
+                    backlog = pending;
+                    pending = new ArrayList<>();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                backlog.forEach(change -> next.apply(change.id(), change.text()));
+            }
+        } catch (RuntimeException | Error e) {
+            lock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+    }
+
+    /** A write to replay onto a generation being built; a null text removes the employee. */
+    private record Change(long id, String text) {
+    }
+
+    /**
+     * Documents and their posting lists. Only the thread building a generation touches it until
+     * it becomes the current one; after that, only under the lock.
+     */
+    private static final class Generation {
+
+        final LongIntHashMap docOf;
+        final Map<Long, Postings> postings = new HashMap<>();
+        /** Employee id per document. */
+        long[] ids;
+        /** Indexed text per document, null once tombstoned. */
+        String[] texts;
+        int docs;
+        int tombstones;
+
+        Generation(int capacity) {
+            docOf = new LongIntHashMap(capacity / 2);
+            ids = new long[capacity];
+            texts = new String[capacity];
+        }
+
+        /** Indexes {@code text} for {@code id}, or removes it when null; false when nothing changed. */
+        boolean apply(long id, String text) {
+            int doc = docOf.get(id);
+            if (doc != LongIntHashMap.MISSING) {
+                if (text != null && text.equals(texts[doc])) {
+                    return false;
+                }
+                texts[doc] = null;
+                tombstones++;
+                docOf.remove(id);
+            } else if (text == null) {
+                return false;
+            }
+            if (text != null) {
+                add(id, text);
+            }
+            return true;
+        }
+
+        void add(long id, String text) {
+            if (docs == ids.length) {
+                ids = Arrays.copyOf(ids, docs * 2);
+                texts = Arrays.copyOf(texts, docs * 2);
+            }
+            int doc = docs++;
+            ids[doc] = id;
+            texts[doc] = text;
+            docOf.put(id, doc);
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '\n') {
+                    continue;
+                }
+                int run = 1;
+                while (run < 3 && i + run < text.length() && text.charAt(i + run) != '\n') {
+                    run++;
+                }
+                if (run == 3) {
+                    post(gram(text, i, 3), doc);
+                }
+                if (isTokenStart(text, i)) {
+                    for (int n = 1; n <= run; n++) {
+                        post(TOKEN_PREFIX | gram(text, i, n), doc);
+                    }
+                }
+            }
+        }
+
+        private void post(long key, int doc) {
+            postings.computeIfAbsent(key, k -> new Postings()).add(doc);
+        }
+
+        /** Posting lists for every trigram of {@code q}; contains null when one has no documents. */
+        List<Postings> trigrams(String q) {
+            List<Postings> lists = new ArrayList<>();
+            for (int i = 0; i + 3 <= q.length(); i++) {
+                lists.add(postings.get(gram(q, i, 3)));
+            }
+            return lists;
+        }
+
+        /** Walks the intersection of {@code lists} in document order, adding live matches until full. */
+        void collect(List<Postings> lists, IntPredicate matches, int limit, List<Long> hits) {
+            if (lists.isEmpty() || lists.contains(null)) {
+                return;
+            }
+            Cursor[] cursors = lists.stream().distinct().sorted(Comparator.comparingInt(p -> p.size))
+                    .map(Cursor::new).toArray(Cursor[]::new);
+            Postings lead = cursors[0].postings;
+            next:
+            for (int i = 0; i < lead.size && hits.size() < limit; i++) {
+                int doc = lead.docs[i];
+                for (int c = 1; c < cursors.length; c++) {
+                    if (cursors[c].advanceTo(doc) != doc) {
+                        continue next;
+                    }
+                }
+                if (texts[doc] != null && matches.test(doc)) {
+                    hits.add(ids[doc]);
+                }
+            }
+        }
+    }
+
+    private static boolean startsToken(String text, String q) {
+        for (int at = text.indexOf(q); at >= 0; at = text.indexOf(q, at + 1)) {
+            if (isTokenStart(text, at)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTokenStart(String text, int i) {
+        return Character.isLetterOrDigit(text.charAt(i)) && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)));
+    }
+
+    /** Packs up to three chars and their count into one key. */
+    private static long gram(String text, int from, int length) {
+        long key = (long) length << 48;
+        for (int j = 0; j < length; j++) {
+            key |= (long) text.charAt(from + j) << (16 * (2 - j));
+        }
+        return key;
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    /** Forward-only position in a posting list, advanced by galloping then binary search. */
+    private static final class Cursor {
+        final Postings postings;
+        int position;
+
+        Cursor(Postings postings) {
+            this.postings = postings;
+        }
+
+        /** Returns the first document at or after {@code doc}, or -1 when there is none. */
+        int advanceTo(int doc) {
+            int[] docs = postings.docs;
+            int size = postings.size;
+            if (position >= size) {
+                return -1;
+            }
+            if (docs[position] >= doc) {
+                return docs[position];
+            }
+            int step = 1;
+            int low = position;
+            int high = position + 1;
+            while (high < size && docs[high] < doc) {
+                low = high;
+                step <<= 1;
+                high = position + step;
+            }
+            int found = Arrays.binarySearch(docs, low + 1, Math.min(high + 1, size), doc);
+            position = found >= 0 ? found : -found - 1;
+            return position < size ? docs[position] : -1;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.repository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out employee ids {@code first, first + step, first + 2 * step, ...}. A single store uses
+ * {@code 1, 2, 3, ...}; the shards of a partitioned store each take one residue class modulo the
+ * shard count, so an id alone names the shard that holds it.
+ */
+public final class IdSequence {
+
+    private final long first;
+    private final long step;
+    private final AtomicLong next;
+
+    public IdSequence() {
+        this(1, 1);
+    }
+
+    public IdSequence(long first, long step) {
+        if (first < 1 || step < 1) {
+            throw new IllegalArgumentException("first and step must be positive: " + first + ", " + step);
+        }
+        this.first = first;
+        this.step = step;
+        this.next = new AtomicLong(first);
+    }
+
+    /** Takes the next id. */
+    long next() {
+        return next.getAndAdd(step);
+    }
+
+    /** Takes {@code count} consecutive ids at once and returns the first; see {@link #nth}. */
+    long reserve(int count) {
+        return next.getAndAdd(step * count);
+    }
+
+    /** The {@code index}-th id of a block that starts at {@code start}. */
+    long nth(long start, int index) {
+        return start + step * index;
+    }
+
+    /** Moves past {@code id}, so recovered rows are never handed out again. */
+    void advancePast(long id) {
+        long following = id < first ? first : first + ((id - first) / step + 1) * step;
+        next.accumulateAndGet(following, Math::max);
+    }
+}
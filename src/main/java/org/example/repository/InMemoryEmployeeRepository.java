@@ -0,0 +1,620 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeeFilter;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.example.query.PageCursor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Heap-backed {@link EmployeeRepository}. Rows live in a {@link ConcurrentHashMap}; every write
+ * runs inside {@code compute} for its id so the secondary indexes never drift from the rows.
+ * Filtered lookups walk only the matching index entries instead of the whole table, and a
+ * sorted id set lets id-ordered pages stop as soon as they are full; pages sorted by another
+ * column do the same over that column's {@link SortIndexes ordered index}. Batches are written while
+ * their id block is hidden from readers and revealed in one step once every row is in place
+ * (see {@link BatchVisibility}). Writes are journaled inside the same {@code compute}, and the
+ * caller waits for durability only after the row's lock has been released. Email addresses are
+ * claimed in an {@link EmailIndex} from inside that {@code compute} too, so uniqueness costs one
+ * concurrent map operation per write rather than a table-wide lock.
+ */
+public class InMemoryEmployeeRepository implements EmployeeRepository {
+
+    private static final Comparator<Employee> BY_ID = Comparator.comparing(Employee::getId);
+
+    private final ConcurrentHashMap<Long, Employee> employees = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Long> orderedIds = new ConcurrentSkipListSet<>();
+    private final EmployeeIndexes indexes = new EmployeeIndexes();
+    private final SortIndexes sorted = new SortIndexes();
+    private final EmailIndex emails = new EmailIndex();
+    private final IdSequence ids;
+    private final AtomicLong modifications = new AtomicLong();
+
+    private final BatchVisibility batches = new BatchVisibility();
+    private final AtomicInteger hiddenRows = new AtomicInteger();
+
+    private volatile EmployeeJournal journal = EmployeeJournal.NONE;
+    private final List<EmployeeChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final List<SnapshotScan> scans = new CopyOnWriteArrayList<>();
+
+    public InMemoryEmployeeRepository() {
+        this(new IdSequence());
+    }
+
+    /**
+     * Creates an empty repository that assigns new rows ids from {@code ids}.
+     */
+    public InMemoryEmployeeRepository(IdSequence ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Creates a repository preloaded with employees that already carry their ids.
+     */
+    public InMemoryEmployeeRepository(Collection<Employee> initial) {
+        this();
+        load(initial);
+    }
+
+    @Override
+    public void load(Collection<Employee> rows) {
+        for (Employee employee : rows) {
+            if (employee.getVersion() == null) {
+                employee.setVersion(1L);
+            }
+            employees.put(employee.getId(), employee);
+            orderedIds.add(employee.getId());
+            indexes.add(employee);
+            sorted.replace(null, employee);
+            emails.load(employee.getEmail(), employee.getId());
+            ids.advancePast(employee.getId());
+        }
+        modifications.incrementAndGet();
+    }
+
+    @Override
+    public void advanceIdsPast(long id) {
+        ids.advancePast(id);
+    }
+
+    @Override
+    public void setJournal(EmployeeJournal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public void addListener(EmployeeChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public Employee create(Employee employee) {
+        employee.setId(ids.next());
+        employee.setVersion(1L);
+        long[] position = new long[1];
+        employees.compute(employee.getId(), (id, existing) -> {
+            emails.claim(employee.getEmail(), id);
+            position[0] = journalUpsert(employee, true);
+            orderedIds.add(id);
+            indexes.add(employee);
+            sorted.replace(null, employee);
+            notify(null, employee);
+            return employee;
+        });
+        modifications.incrementAndGet();
+        journal.awaitDurable(position[0]);
+        return employee;
+    }
+
+    @Override
+    public List<Employee> insertAll(List<Employee> batch) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        long first = ids.reserve(batch.size());
+        long last = ids.nth(first, batch.size() - 1);
+        BatchVisibility.Block block = batches.hide(first, last);
+        int claimed = 0;
+        int stored = 0;
+        long position;
+        try {
+            for (Employee employee : batch) {
+                employee.setId(ids.nth(first, claimed));
+                employee.setVersion(1L);
+                emails.claim(employee.getEmail(), employee.getId());
+                claimed++;
+            }
+            // The block is hidden and its ids were never handed out, so no reader sees these rows
+            // and no other write touches them until it is revealed: they are indexed as a batch
+            // and stored without a compute per row. Nothing else can journal them in between
+            // either; one record keeps the batch all-or-nothing on recovery as well.
+            indexes.addAll(batch);
+            for (Employee employee : batch) {
+                orderedIds.add(employee.getId());
+                hiddenRows.incrementAndGet();
+                employees.put(employee.getId(), employee);
+                sorted.replace(null, employee);
+                stored++;
+            }
+            position = journal.batch(batch);
+        } catch (RuntimeException e) {
+            for (int i = 0; i < stored; i++) {
+                unlink(ids.nth(first, i));
+            }
+            for (int i = stored; i < claimed; i++) {
+                Employee employee = batch.get(i);
+                indexes.remove(employee);
+                orderedIds.remove(employee.getId());
+                emails.release(employee.getEmail(), employee.getId());
+            }
+            throw e;
+        } finally {
+            batches.reveal(block);
+            hiddenRows.addAndGet(-stored);
+            modifications.incrementAndGet();
+        }
+        // only once the rows are journaled and visible, so listeners never hear of a row that
+        // readers cannot find or that a rejected batch takes back
+        for (Employee employee : batch) {
+            notify(null, employee);
+        }
+        journal.awaitDurable(position);
+        return batch;
+    }
+
+    @Override
+    public Optional<Employee> findById(Long id) {
+        Employee employee = employees.get(id);
+        return employee == null || batches.isHidden(id, batches.currentEpoch()) ? Optional.empty() : Optional.of(employee);
+    }
+
+    @Override
+    public List<Employee> findAll() {
+        List<Employee> result = new ArrayList<>(employees.size());
+        collect(orderedIds, e -> true, result, batches.currentEpoch());
+        return result;
+    }
+
+    @Override
+    public EmployeePage query(EmployeeQuery query) {
+        Iterable<Long> candidates = indexedCandidates(query);
+        if (candidates == null && query.getSortField() == EmployeeField.ID) {
+            return walkInIdOrder(query);
+        }
+        if (candidates == null) {
+            NavigableSet<Employee> rows = sorted.ordered(query.getSortField(), this::fillSortIndex);
+            if (rows != null) {
+                return walkInOrder(rows, query);
+            }
+        }
+        return topK(candidates == null ? orderedIds : candidates, query);
+    }
+
+    @Override
+    public Optional<Employee> findByEmail(String email) {
+        Long id = emails.owner(email);
+        String key = EmailIndex.key(email);
+        return id == null ? Optional.empty() : findById(id).filter(e -> key.equals(EmailIndex.key(e.getEmail())));
+    }
+
+    @Override
+    public List<Employee> findByDepartment(String department) {
+        return resolve(indexes.department(department), e -> department.equalsIgnoreCase(e.getDepartment()));
+    }
+
+    @Override
+    public List<Employee> findByActive(boolean active) {
+        return resolve(indexes.active(active), e -> EmployeeIndexes.isActive(e) == active);
+    }
+
+    @Override
+    public List<Employee> findByHireDateBetween(LocalDate from, LocalDate to) {
+        long epoch = batches.currentEpoch();
+        List<Employee> result = new ArrayList<>();
+        Predicate<Employee> inRange = e -> e.getHireDate() != null
+                && !e.getHireDate().isBefore(from) && !e.getHireDate().isAfter(to);
+        for (Collection<Long> ids : indexes.hireDateBetween(from, to)) {
+            collect(ids, inRange, result, epoch);
+        }
+        result.sort(BY_ID);
+        return result;
+    }
+
+    @Override
+    public void forEach(EmployeeQuery query, Consumer<? super Employee> action) {
+        long epoch = batches.currentEpoch();
+        Iterable<Long> candidates = indexedCandidates(query);
+        for (Long id : candidates == null ? orderedIds : candidates) {
+            Employee employee = employees.get(id);
+            if (employee != null && !batches.isHidden(id, epoch) && query.matches(employee)) {
+                action.accept(employee);
+            }
+        }
+    }
+
+    /**
+     * Walks the ids in ascending order, visiting each row inside its own {@code compute}. Writers
+     * check the open scans from inside theirs: for a row the scan has not reached they set aside
+     * the row as it was (or mark it as added), and the scan passes that image instead of the live
+     * row. Rows deleted before the scan reached them are passed at the end, in id order.
+     */
+    @Override
+    public void forEachSnapshot(EmployeeQuery query, Consumer<? super Employee> action) {
+        long epoch = batches.currentEpoch();
+        SnapshotScan scan = new SnapshotScan();
+        scans.add(scan);
+        try {
+            Employee[] visited = new Employee[1];
+            for (Long id : orderedIds) {
+                visited[0] = null;
+                employees.computeIfPresent(id, (key, current) -> {
+                    visited[0] = scan.visit(key, current);
+                    return current;
+                });
+                // handed on outside the compute, so a slow consumer never holds up writers
+                if (visited[0] != null && !batches.isHidden(id, epoch) && query.matches(visited[0])) {
+                    action.accept(visited[0]);
+                }
+            }
+            for (Employee deleted : scan.unvisited()) {
+                if (!batches.isHidden(deleted.getId(), epoch) && query.matches(deleted)) {
+                    action.accept(deleted);
+                }
+            }
+        } finally {
+            scans.remove(scan);
+        }
+    }
+
+    @Override
+    public Optional<Employee> update(Long id, Employee employee, Long expectedVersion) {
+        long[] position = new long[1];
+        Employee updated = employees.computeIfPresent(id, (key, existing) -> {
+            checkVersion(existing, expectedVersion);
+            employee.setId(key);
+            employee.setVersion(existing.getVersion() + 1);
+            boolean moved = emails.claimChange(existing.getEmail(), employee.getEmail(), key);
+            position[0] = journalUpsert(employee, moved);
+            indexes.replace(existing, employee);
+            sorted.replace(existing, employee);
+            if (moved) {
+                emails.release(existing.getEmail(), key);
+            }
+            notify(existing, employee);
+            return employee;
+        });
+        if (updated == null) {
+            return Optional.empty();
+        }
+        modifications.incrementAndGet();
+        journal.awaitDurable(position[0]);
+        return Optional.of(updated);
+    }
+
+    @Override
+    public Optional<Employee> patch(Long id, Map<EmployeeField, Object> changes, Long expectedVersion) {
+        long[] position = new long[1];
+        Employee patched = employees.computeIfPresent(id, (key, existing) -> {
+            checkVersion(existing, expectedVersion);
+            Employee employee = copyOf(existing);
+            changes.forEach((field, value) -> field.set(employee, value));
+            employee.setId(key);
+            employee.setVersion(existing.getVersion() + 1);
+            boolean moved = emails.claimChange(existing.getEmail(), employee.getEmail(), key);
+            position[0] = journalUpsert(employee, moved);
+            indexes.replace(existing, employee);
+            sorted.replace(existing, employee);
+            if (moved) {
+                emails.release(existing.getEmail(), key);
+            }
+            notify(existing, employee);
+            return employee;
+        });
+        if (patched == null) {
+            return Optional.empty();
+        }
+        modifications.incrementAndGet();
+        journal.awaitDurable(position[0]);
+        return Optional.of(patched);
+    }
+
+    @Override
+    public boolean delete(Long id, Long expectedVersion) {
+        long[] position = {-1};
+        employees.computeIfPresent(id, (key, existing) -> {
+            checkVersion(existing, expectedVersion);
+            position[0] = journal.delete(key);
+            indexes.remove(existing);
+            emails.release(existing.getEmail(), key);
+            orderedIds.remove(key);
+            sorted.replace(existing, null);
+            notify(existing, null);
+            return null;
+        });
+        if (position[0] < 0) {
+            return false;
+        }
+        modifications.incrementAndGet();
+        journal.awaitDurable(position[0]);
+        return true;
+    }
+
+    /**
+     * Removes a row without journaling it, for rolling back a batch that never reached the log.
+     * Listeners were never told of the row, so they are not told of its removal either.
+     */
+    private void unlink(Long id) {
+        employees.computeIfPresent(id, (key, existing) -> {
+            indexes.remove(existing);
+            emails.release(existing.getEmail(), key);
+            orderedIds.remove(key);
+            sorted.replace(existing, null);
+            return null;
+        });
+    }
+
+    /**
+     * Journals a row whose address was just claimed, handing the address back if the journal
+     * rejects the write so the failed write leaves nothing behind.
+     */
+    private long journalUpsert(Employee employee, boolean claimed) {
+        try {
+            return journal.upsert(employee);
+        } catch (RuntimeException e) {
+            if (claimed) {
+                emails.release(employee.getEmail(), employee.getId());
+            }
+            throw e;
+        }
+    }
+
+    private void notify(Employee before, Employee after) {
+        for (SnapshotScan scan : scans) {
+            scan.onChange(before != null ? before.getId() : after.getId(), before);
+        }
+        for (EmployeeChangeListener listener : listeners) {
+            listener.onChange(before, after);
+        }
+    }
+
+    @Override
+    public int count() {
+        return employees.size() - hiddenRows.get();
+    }
+
+    @Override
+    public long dataVersion() {
+        return modifications.get();
+    }
+
+    private static Employee copyOf(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .department(employee.getDepartment())
+                .jobTitle(employee.getJobTitle())
+                .hireDate(employee.getHireDate())
+                .salary(employee.getSalary())
+                .active(employee.getActive())
+                .version(employee.getVersion())
+                .build();
+    }
+
+    private static void checkVersion(Employee existing, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion.longValue() != existing.getVersion()) {
+            throw new StaleVersionException(existing.getId(), expectedVersion, existing.getVersion());
+        }
+    }
+
+    private List<Employee> resolve(Collection<Long> ids, Predicate<Employee> predicate) {
+        List<Employee> result = new ArrayList<>(ids.size());
+        collect(ids, predicate, result, batches.currentEpoch());
+        result.sort(BY_ID);
+        return result;
+    }
+
+    /**
+     * Index entries are weakly consistent with concurrent writers, so each hit is re-checked
+     * against the current row before it is returned.
+     */
+    private void collect(Collection<Long> ids, Predicate<Employee> predicate, List<Employee> into, long epoch) {
+        for (Long id : ids) {
+            Employee employee = employees.get(id);
+            if (employee != null && !batches.isHidden(id, epoch) && predicate.test(employee)) {
+                into.add(employee);
+            }
+        }
+    }
+
+    /**
+     * Picks the narrowest index that can answer one of the query's filters, or null if none can.
+     */
+    private Iterable<Long> indexedCandidates(EmployeeQuery query) {
+        Iterable<Long> hireDates = null;
+        Iterable<Long> active = null;
+        for (EmployeeFilter filter : query.getFilters()) {
+            switch (filter.getField()) {
+                case DEPARTMENT -> {
+                    return indexes.department((String) filter.getFrom());
+                }
+                case HIRE_DATE -> {
+                    if (filter.getFrom() != null && filter.getTo() != null) {
+                        Collection<Set<Long>> days = indexes.hireDateBetween((LocalDate) filter.getFrom(), (LocalDate) filter.getTo());
+                        hireDates = () -> days.stream().flatMap(Set::stream).iterator();
+                    }
+                }
+                case ACTIVE -> {
+                    if (filter.isEquality()) {
+                        active = indexes.active((Boolean) filter.getFrom());
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return hireDates != null ? hireDates : active;
+    }
+
+    /**
+     * Id-ordered pages with no indexed filter walk the sorted id set from the cursor and stop
+     * once the page is full, so the cost is bounded by the page rather than the table.
+     */
+    private EmployeePage walkInIdOrder(EmployeeQuery query) {
+        long epoch = batches.currentEpoch();
+        NavigableSet<Long> ids = query.isDescending() ? orderedIds.descendingSet() : orderedIds;
+        if (query.getAfter() != null) {
+            ids = ids.tailSet(query.getAfter().getId(), false);
+        }
+        List<Employee> items = new ArrayList<>(Math.min(query.getLimit(), 64));
+        int scanned = 0;
+        for (Long id : ids) {
+            Employee employee = employees.get(id);
+            if (employee == null || batches.isHidden(id, epoch)) {
+                continue;
+            }
+            scanned++;
+            if (!query.matches(employee)) {
+                continue;
+            }
+            if (items.size() == query.getLimit()) {
+                return new EmployeePage(items, query.cursorAt(items.get(items.size() - 1)), scanned);
+            }
+            items.add(employee);
+        }
+        return new EmployeePage(items, null, scanned);
+    }
+
+    /**
+     * Pages sorted by another column with no indexed filter walk that column's ordered index from
+     * the cursor, stopping once the page is full like {@link #walkInIdOrder}.
+     */
+    private EmployeePage walkInOrder(NavigableSet<Employee> rows, EmployeeQuery query) {
+        long epoch = batches.currentEpoch();
+        NavigableSet<Employee> ordered = query.isDescending() ? rows.descendingSet() : rows;
+        PageCursor after = query.getAfter();
+        if (after != null) {
+            ordered = ordered.tailSet(SortIndexes.after(query.getSortField(), after.getValue(), after.getId(),
+                    query.isDescending()), false);
+        }
+        List<Employee> items = new ArrayList<>(Math.min(query.getLimit(), 64));
+        int scanned = 0;
+        for (Employee employee : ordered) {
+            if (batches.isHidden(employee.getId(), epoch)) {
+                continue;
+            }
+            scanned++;
+            if (!query.matches(employee)) {
+                continue;
+            }
+            if (items.size() == query.getLimit()) {
+                return new EmployeePage(items, query.cursorAt(items.get(items.size() - 1)), scanned);
+            }
+            items.add(employee);
+        }
+        return new EmployeePage(items, null, scanned);
+    }
+
+    /** Hands every stored row to {@code sink}, each from inside its own {@code compute}. */
+    private void fillSortIndex(Consumer<Employee> sink) {
+        for (Long id : orderedIds) {
+            employees.computeIfPresent(id, (key, current) -> {
+                sink.accept(current);
+                return current;
+            });
+        }
+    }
+
+    /**
+     * Pages with an indexed filter, or sorted by a column whose index another request is still
+     * filling, keep a bounded heap of the best {@code limit + 1} rows past the cursor, so memory
+     * per request stays proportional to the page size.
+     */
+    private EmployeePage topK(Iterable<Long> ids, EmployeeQuery query) {
+        long epoch = batches.currentEpoch();
+        Comparator<Employee> order = query.order();
+        int limit = query.getLimit();
+        PriorityQueue<Employee> heap = new PriorityQueue<>(limit + 1, order.reversed());
+        int scanned = 0;
+        for (Long id : ids) {
+            Employee employee = employees.get(id);
+            if (employee == null || batches.isHidden(id, epoch)) {
+                continue;
+            }
+            scanned++;
+            if (!query.matches(employee) || !query.isAfterCursor(employee)) {
+                continue;
+            }
+            if (heap.size() <= limit) {
+                heap.add(employee);
+            } else if (order.compare(employee, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(employee);
+            }
+        }
+        boolean hasMore = heap.size() > limit;
+        if (hasMore) {
+            heap.poll();
+        }
+        List<Employee> items = new ArrayList<>(heap);
+        items.sort(order);
+        return new EmployeePage(items, hasMore ? query.cursorAt(items.get(items.size() - 1)) : null, scanned);
+    }
+
+    /**
+     * Rows as they stood when a {@link #forEachSnapshot} scan began, kept only for those written
+     * ahead of the scan. Both methods run inside the row's {@code compute}, so for any one id a
+     * write either lands before the visit, and is undone by the image, or after it, and is ignored.
+     */
+    private static final class SnapshotScan {
+
+        /** Stands in for rows added after the scan began. */
+        private static final Employee ADDED = new Employee();
+
+        private final ConcurrentSkipListMap<Long, Employee> before = new ConcurrentSkipListMap<>();
+        /** The last id visited; ids are visited in ascending order. */
+        private volatile long position = Long.MIN_VALUE;
+
+        void onChange(Long id, Employee existing) {
+            if (id > position) {
+                before.putIfAbsent(id, existing == null ? ADDED : existing);
+            }
+        }
+
+        /** The row {@code id} as of the scan's start, or null if it was added since. */
+        Employee visit(Long id, Employee current) {
+            position = id;
+            Employee image = before.remove(id);
+            if (image == null) {
+                return current;
+            }
+            return image == ADDED ? null : image;
+        }
+
+        /** Rows present when the scan began but deleted before it reached them. */
+        Collection<Employee> unvisited() {
+            return before.values().stream().filter(image -> image != ADDED).toList();
+        }
+    }
+}
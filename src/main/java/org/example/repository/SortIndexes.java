@@ -0,0 +1,86 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * Ordered indexes over the stored rows, one per sort column, so pages sorted by a column other
+ * than id can walk from the cursor instead of ranking the whole table. An index is built the
+ * first time a page is sorted by its column and kept current from then on; columns nobody sorts
+ * by cost nothing.
+ * <p>
+ * Entries are the stored row images ordered by column value, then id, then version, so the image
+ * a write replaces and the one it stores never collide. Writers call {@link #replace} inside the
+ * row's {@code compute}, after the id set has changed, and an index is filled by visiting each
+ * row inside its own {@code compute} once the index is registered: for any one id, a write either
+ * lands before the visit, which then adds its image, or after it, and sees the index.
+ */
+final class SortIndexes {
+
+    private final ConcurrentHashMap<EmployeeField, Index> byField = new ConcurrentHashMap<>();
+
+    /** Moves a row from its {@code before} image to its {@code after} image; either may be null. */
+    void replace(Employee before, Employee after) {
+        if (byField.isEmpty()) {
+            return;
+        }
+        for (Index index : byField.values()) {
+            if (before != null) {
+                index.rows.remove(before);
+            }
+            if (after != null) {
+                index.rows.add(after);
+            }
+        }
+    }
+
+    /**
+     * The rows ordered by {@code field}, or null while another caller is still filling that index.
+     * The first caller registers the index and fills it by handing {@code fill} the sink to pass
+     * every row to.
+     */
+    NavigableSet<Employee> ordered(EmployeeField field, Consumer<Consumer<Employee>> fill) {
+        Index index = byField.get(field);
+        if (index != null) {
+            return index.ready ? index.rows : null;
+        }
+        Index created = new Index(field);
+        index = byField.putIfAbsent(field, created);
+        if (index != null) {
+            return index.ready ? index.rows : null;
+        }
+        try {
+            fill.accept(created.rows::add);
+        } catch (RuntimeException | Error e) {
+            byField.remove(field, created);
+            throw e;
+        }
+        created.ready = true;
+        return created.rows;
+    }
+
+    /** Probe that sorts just past every image of the cursor row, in the direction of the walk. */
+    static Employee after(EmployeeField field, Object value, long id, boolean descending) {
+        Employee probe = Employee.builder().id(id).version(descending ? Long.MIN_VALUE : Long.MAX_VALUE).build();
+        field.set(probe, value);
+        return probe;
+    }
+
+    private static final class Index {
+
+        final NavigableSet<Employee> rows;
+        volatile boolean ready;
+
+        Index(EmployeeField field) {
+            this.rows = new ConcurrentSkipListSet<>(Comparator.<Employee, Object>comparing(field::get, field.comparator())
+                    .thenComparing(Employee::getId)
+                    .thenComparing(Employee::getVersion));
+        }
+    }
+}
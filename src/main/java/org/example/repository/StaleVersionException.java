@@ -0,0 +1,30 @@
+package org.example.repository;
+
+/**
+ * A conditional write named a version the employee no longer has.
+ */
+public class StaleVersionException extends RuntimeException {
+
+    private final long id;
+    private final long expectedVersion;
+    private final long currentVersion;
+
+    public StaleVersionException(long id, long expectedVersion, long currentVersion) {
+        super("Employee " + id + " is at version " + currentVersion + ", not " + expectedVersion);
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
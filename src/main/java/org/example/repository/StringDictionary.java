@@ -0,0 +1,54 @@
+package org.example.repository;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Append-only dictionary that encodes repeated strings (departments, job titles) as small int
+ * codes. {@link #encode} must be called under the owning store's write lock; {@link #values()}
+ * is safe to read concurrently and covers every code handed out before it was read.
+ */
+class StringDictionary {
+
+    static final int NO_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    int encode(String value) {
+        if (value == null) {
+            return NO_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        String[] current = values;
+        if (size == current.length) {
+            current = Arrays.copyOf(current, size * 2);
+        }
+        current[size] = value;
+        codes.put(value, size);
+        values = current;
+        return size++;
+    }
+
+    String[] values() {
+        return values;
+    }
+
+    /**
+     * Marks every code whose value equals {@code value} ignoring case.
+     */
+    static boolean[] matchingIgnoreCase(String[] values, String value) {
+        boolean[] matches = new boolean[values.length];
+        String key = value.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < values.length && values[i] != null; i++) {
+            matches[i] = values[i].toLowerCase(Locale.ROOT).equals(key);
+        }
+        return matches;
+    }
+}
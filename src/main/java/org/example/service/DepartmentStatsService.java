@@ -0,0 +1,229 @@
+package org.example.service;
+
+import org.example.model.DepartmentStats;
+import org.example.model.Employee;
+import org.example.partition.PartitionedEmployeeRepository;
+import org.example.query.EmployeeQuery;
+import org.example.repository.EmployeeChangeListener;
+import org.example.repository.EmployeeRepository;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BinaryOperator;
+
+/**
+ * Per-department headcount and salary aggregates, kept current by a repository change listener
+ * so reading them costs O(departments) rather than a scan of every employee.
+ *
+ * <p>Each department has its own lock. Salary sums are kept as exact decimals so removals never
+ * drift, and a sorted multiset of salaries keeps min and max correct when the current extreme
+ * is updated or deleted. An update that moves an employee between departments is applied as a
+ * removal from one and an add to the other; one within a department only adjusts the terms that
+ * changed, and leaves the aggregates alone when neither salary nor active status did.
+ *
+ * <p>With a partitioned store the listener sees the shards this instance owns; {@link #stats()}
+ * adds the peers' aggregates for theirs.
+ */
+@Service
+public class DepartmentStatsService implements EmployeeChangeListener {
+
+    private final ConcurrentHashMap<String, Aggregate> departments = new ConcurrentHashMap<>();
+    /** Null unless the store is partitioned. */
+    private final PartitionedEmployeeRepository partitioned;
+
+    /**
+     * Seeds the aggregates from rows already stored (recovered from the log) and subscribes to
+     * later writes. Runs while the context starts, before the repository takes traffic.
+     */
+    public DepartmentStatsService(EmployeeRepository employees) {
+        employees.local().forEach(EmployeeQuery.builder().build(), employee -> onChange(null, employee));
+        employees.local().addListener(this);
+        this.partitioned = employees instanceof PartitionedEmployeeRepository p ? p : null;
+    }
+
+    @Override
+    public void onChange(Employee before, Employee after) {
+        if (before != null && after != null && key(before).equals(key(after))) {
+            if (Boolean.TRUE.equals(before.getActive()) == Boolean.TRUE.equals(after.getActive())
+                    && Objects.equals(before.getSalary(), after.getSalary())) {
+                // names, email, title or hire date: nothing aggregated changed
+                return;
+            }
+            replace(before, after);
+            return;
+        }
+        if (before != null) {
+            apply(before, -1);
+        }
+        if (after != null) {
+            apply(after, 1);
+        }
+    }
+
+    /**
+     * Returns one entry per department with employees, ordered by name ignoring case.
+     */
+    public List<DepartmentStats> stats() {
+        List<DepartmentStats> local = localStats();
+        if (partitioned == null) {
+            return local;
+        }
+        List<List<DepartmentStats>> parts = new ArrayList<>(partitioned.peerStats());
+        parts.add(local);
+        return merge(parts);
+    }
+
+    /**
+     * Like {@link #stats()}, over the rows this instance holds.
+     */
+    public List<DepartmentStats> localStats() {
+        List<DepartmentStats> result = new ArrayList<>(departments.size());
+        for (Aggregate aggregate : departments.values()) {
+            DepartmentStats stats = aggregate.snapshot();
+            if (stats != null) {
+                result.add(stats);
+            }
+        }
+        result.sort(Comparator.comparing(DepartmentStats::getDepartment,
+                Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+        return result;
+    }
+
+    private static String key(Employee employee) {
+        return key(employee.getDepartment());
+    }
+
+    private static String key(String department) {
+        return department == null ? "" : department.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Combines aggregates over disjoint sets of rows, averaging over the summed counts of
+     * salaried employees.
+     */
+    static List<DepartmentStats> merge(List<List<DepartmentStats>> parts) {
+        Map<String, DepartmentStats> merged = new LinkedHashMap<>();
+        for (List<DepartmentStats> part : parts) {
+            for (DepartmentStats stats : part) {
+                merged.merge(key(stats.getDepartment()), stats, (a, b) -> new DepartmentStats(a.getDepartment(),
+                        a.getHeadcount() + b.getHeadcount(), a.getActiveCount() + b.getActiveCount(),
+                        a.getSalariedCount() + b.getSalariedCount(), a.getSalarySum() + b.getSalarySum(),
+                        extreme(a.getMinSalary(), b.getMinSalary(), Math::min),
+                        extreme(a.getMaxSalary(), b.getMaxSalary(), Math::max), null));
+            }
+        }
+        List<DepartmentStats> result = new ArrayList<>(merged.size());
+        for (DepartmentStats stats : merged.values()) {
+            stats.setAverageSalary(stats.getSalariedCount() == 0 ? null : stats.getSalarySum() / stats.getSalariedCount());
+            result.add(stats);
+        }
+        result.sort(Comparator.comparing(DepartmentStats::getDepartment,
+                Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+        return result;
+    }
+
+    private static Double extreme(Double a, Double b, BinaryOperator<Double> pick) {
+        return a == null ? b : b == null ? a : pick.apply(a, b);
+    }
+
+    /** An update within one department: headcount stays, only the changed terms move. */
+    private void replace(Employee before, Employee after) {
+        Aggregate aggregate = departments.get(key(after));
+        aggregate.lock.lock();
+        try {
+            aggregate.replace(before, after);
+        } finally {
+            aggregate.lock.unlock();
+        }
+    }
+
+    private void apply(Employee employee, int sign) {
+        String key = key(employee);
+        while (true) {
+            Aggregate aggregate = departments.computeIfAbsent(key, k -> new Aggregate(employee.getDepartment()));
+            aggregate.lock.lock();
+            try {
+                if (aggregate.retired) {
+                    // emptied and unlinked by another writer; retry against the replacement
+                    continue;
+                }
+                aggregate.apply(employee, sign);
+                if (aggregate.headcount == 0) {
+                    aggregate.retired = true;
+                    departments.remove(key, aggregate);
+                }
+                return;
+            } finally {
+                aggregate.lock.unlock();
+            }
+        }
+    }
+
+    private static final class Aggregate {
+        final ReentrantLock lock = new ReentrantLock();
+        final String name;
+        final TreeMap<Double, Integer> salaries = new TreeMap<>();
+        long headcount;
+        long active;
+        long salaried;
+        BigDecimal salarySum = BigDecimal.ZERO;
+        boolean retired;
+
+        Aggregate(String name) {
+            this.name = name;
+        }
+
+        void apply(Employee employee, int sign) {
+            headcount += sign;
+            if (Boolean.TRUE.equals(employee.getActive())) {
+                active += sign;
+            }
+            applySalary(employee.getSalary(), sign);
+        }
+
+        private void applySalary(Double salary, int sign) {
+            if (salary != null) {
+                salaried += sign;
+                BigDecimal amount = new BigDecimal(salary);
+                salarySum = sign > 0 ? salarySum.add(amount) : salarySum.subtract(amount);
+                salaries.merge(salary, sign, (count, delta) -> count + delta == 0 ? null : count + delta);
+            }
+        }
+
+        void replace(Employee before, Employee after) {
+            if (Boolean.TRUE.equals(before.getActive()) != Boolean.TRUE.equals(after.getActive())) {
+                active += Boolean.TRUE.equals(after.getActive()) ? 1 : -1;
+            }
+            if (!Objects.equals(before.getSalary(), after.getSalary())) {
+                applySalary(before.getSalary(), -1);
+                applySalary(after.getSalary(), 1);
+            }
+        }
+
+        DepartmentStats snapshot() {
+            lock.lock();
+            try {
+                if (retired || headcount == 0) {
+                    return null;
+                }
+                boolean anySalary = salaried > 0;
+                return new DepartmentStats(name, headcount, active, salaried, salarySum.doubleValue(),
+                        anySalary ? salaries.firstKey() : null,
+                        anySalary ? salaries.lastKey() : null,
+                        anySalary ? salarySum.doubleValue() / salaried : null);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
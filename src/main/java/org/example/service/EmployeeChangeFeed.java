@@ -0,0 +1,212 @@
+package org.example.service;
+
+import org.example.model.Employee;
+import org.example.model.EmployeeChange;
+import org.example.repository.EmployeeChangeListener;
+import org.example.repository.EmployeeRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes every employee write as a server-sent event.
+ *
+ * <p>Changes go into a fixed-size ring under a lock held only to number and store the event, so
+ * writers never wait for subscribers. Each subscriber has its own virtual thread that reads the
+ * ring from its last position and writes to its connection; a single notifier thread wakes them,
+ * so a write costs one unpark however many clients are listening. A subscriber that falls more
+ * than the ring's capacity behind, or asks to resume from a position the ring no longer holds,
+ * gets a {@code resync} event and is disconnected: it should reload and subscribe again.
+ *
+ * <p>Event ids are {@code <run>:<seq>}. The run part changes on every restart, so a client
+ * resuming with an id from an earlier process is told to resync rather than resumed at the wrong
+ * place.
+ */
+@Service
+public class EmployeeChangeFeed implements EmployeeChangeListener, DisposableBean {
+
+    private static final Duration HEARTBEAT = Duration.ofSeconds(15);
+    private static final int MAX_EVENTS_PER_READ = 256;
+
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+    private final EmployeeChange[] ring;
+    private final int mask;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Thread notifier;
+    private volatile long lastSeq;
+    private volatile boolean closed;
+
+    public EmployeeChangeFeed(EmployeeRepository employees,
+                              @Value("${employee.changes.buffer-size:4096}") int bufferSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, 2 * bufferSize - 1));
+        this.ring = new EmployeeChange[capacity];
+        this.mask = capacity - 1;
+        this.notifier = Thread.ofVirtual().name("employee-changes-notifier").start(this::wakeSubscribers);
+        // a partitioned store's instances each publish the writes to their own shards
+        employees.local().addListener(this);
+    }
+
+    @Override
+    public void onChange(Employee before, Employee after) {
+        EmployeeChange.Type type = before == null ? EmployeeChange.Type.CREATED
+                : after == null ? EmployeeChange.Type.DELETED : EmployeeChange.Type.UPDATED;
+        Long id = after != null ? after.getId() : before.getId();
+        appendLock.lock();
+        try {
+            long seq = lastSeq + 1;
+            ring[(int) seq & mask] = new EmployeeChange(seq, type, id, after);
+            lastSeq = seq;
+        } finally {
+            appendLock.unlock();
+        }
+        LockSupport.unpark(notifier);
+    }
+
+    /**
+     * Opens a stream starting after {@code lastEventId}, or at the current position when it is
+     * null. The first event, {@code ready}, carries the starting position as its id.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(0L);
+        long from = lastEventId == null || lastEventId.isBlank() ? lastSeq : parse(lastEventId);
+        Subscription subscription = new Subscription(emitter, from);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+        subscriptions.add(subscription);
+        subscription.thread = Thread.ofVirtual().name("employee-changes-subscriber").start(subscription::run);
+        return emitter;
+    }
+
+    public String position() {
+        return run + ":" + lastSeq;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Changes after {@code seq}, oldest first and at most a few hundred at a time; null when the
+     * ring no longer holds all of them or {@code seq} is ahead of the feed.
+     */
+    List<EmployeeChange> after(long seq) {
+        long last = lastSeq;
+        if (seq < 0 || seq > last || last - seq > ring.length) {
+            return null;
+        }
+        long end = Math.min(last, seq + MAX_EVENTS_PER_READ);
+        List<EmployeeChange> changes = new ArrayList<>((int) (end - seq));
+        for (long next = seq + 1; next <= end; next++) {
+            EmployeeChange change = ring[(int) next & mask];
+            if (change == null || change.getSeq() != next) {
+                // overwritten by a writer that lapped this reader
+                return null;
+            }
+            changes.add(change);
+        }
+        return changes;
+    }
+
+    /** The sequence number in an event id from this run, or -1. */
+    long parse(String eventId) {
+        int colon = eventId.indexOf(':');
+        if (colon < 0 || !eventId.substring(0, colon).equals(run)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(colon + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        notifier.interrupt();
+        for (Subscription subscription : subscriptions) {
+            subscription.emitter.complete();
+            subscription.close();
+        }
+    }
+
+    private void wakeSubscribers() {
+        while (!closed) {
+            LockSupport.park(this);
+            for (Subscription subscription : subscriptions) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+    }
+
+    private final class Subscription {
+        final SseEmitter emitter;
+        volatile Thread thread;
+        volatile boolean done;
+        long cursor;
+
+        Subscription(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        void run() {
+            try {
+                if (after(cursor) == null) {
+                    resync();
+                    return;
+                }
+                emitter.send(SseEmitter.event().name("ready").id(run + ":" + cursor).data(run + ":" + cursor));
+                while (!done && !closed) {
+                    List<EmployeeChange> changes = after(cursor);
+                    if (changes == null) {
+                        resync();
+                        return;
+                    }
+                    for (EmployeeChange change : changes) {
+                        emitter.send(SseEmitter.event().id(run + ":" + change.getSeq()).data(change, MediaType.APPLICATION_JSON));
+                        cursor = change.getSeq();
+                    }
+                    if (changes.isEmpty()) {
+                        LockSupport.parkNanos(this, HEARTBEAT.toNanos());
+                        if (cursor == lastSeq && !done) {
+                            emitter.send(SseEmitter.event().comment("keepalive"));
+                        }
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client went away or the emitter completed underneath us
+                emitter.completeWithError(e);
+            } finally {
+                close();
+            }
+        }
+
+        void resync() throws IOException {
+            emitter.send(SseEmitter.event().name("resync").data(position()));
+            emitter.complete();
+        }
+
+        void close() {
+            done = true;
+            subscriptions.remove(this);
+            Thread current = thread;
+            if (current != null) {
+                LockSupport.unpark(current);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.service;
+
+import org.example.model.BatchResult;
+import org.example.model.Employee;
+import org.example.model.ImportResult;
+import org.example.persistence.EmployeeCsvReader;
+import org.example.persistence.EmployeeImportProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Bulk CSV import. Chunks of the file are parsed by {@link EmployeeCsvReader} and validated
+ * against the {@link Employee} constraints in parallel, a few ahead of the one being stored, and
+ * each chunk is then stored through {@link EmployeeIngestService#store} in file order, with
+ * consecutive ids in a single commit per chunk. Storing is the only serial step, so it overlaps
+ * with parsing and validating the chunks behind it. Rejected rows are reported by their line in
+ * the file.
+ *
+ * <p>Also imports the files listed in {@code employee.store.import.files} once the application has
+ * started.
+ */
+@Service
+public class EmployeeImportService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeImportService.class);
+
+    private final EmployeeIngestService ingest;
+    private final EmployeeImportProperties properties;
+
+    public EmployeeImportService(EmployeeIngestService ingest, EmployeeImportProperties properties) {
+        this.ingest = ingest;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        for (Path file : properties.getFiles()) {
+            importFile(file);
+        }
+    }
+
+    public ImportResult importFile(Path file) throws IOException {
+        long started = System.nanoTime();
+        long received = 0;
+        long accepted = 0;
+        List<BatchResult.RowError> errors = new ArrayList<>();
+        try (EmployeeCsvReader reader = EmployeeCsvReader.open(file, properties.getChunkSize().toBytes())) {
+            int ahead = properties.getParallelism() > 0
+                    ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+            List<CompletableFuture<Parsed>> parsing = new ArrayList<>(reader.chunks());
+            // line 1 is the header
+            int firstLine = 2;
+            for (int i = 0; i < reader.chunks(); i++) {
+                while (parsing.size() < reader.chunks() && parsing.size() <= i + ahead) {
+                    int index = parsing.size();
+                    parsing.add(CompletableFuture.supplyAsync(() -> parse(reader, index)));
+                }
+                Parsed parsed = await(parsing.get(i));
+                parsing.set(i, null);
+                EmployeeCsvReader.Chunk chunk = parsed.chunk();
+
+                BatchResult stored = ingest.store(parsed.validated());
+                received += chunk.rows().size() + chunk.errors().size();
+                accepted += stored.getAccepted();
+                if (errors.size() < properties.getMaxErrors()) {
+                    List<BatchResult.RowError> found = new ArrayList<>(chunk.errors().size() + stored.getErrors().size());
+                    for (BatchResult.RowError error : chunk.errors()) {
+                        found.add(new BatchResult.RowError(firstLine + error.getIndex(), error.getField(), error.getMessage()));
+                    }
+                    for (BatchResult.RowError error : stored.getErrors()) {
+                        found.add(new BatchResult.RowError(firstLine + chunk.lines()[error.getIndex()],
+                                error.getField(), error.getMessage()));
+                    }
+                    found.stream()
+                            .sorted(Comparator.comparingInt(BatchResult.RowError::getIndex))
+                            .limit(properties.getMaxErrors() - errors.size())
+                            .forEach(errors::add);
+                }
+                firstLine += chunk.lineCount();
+            }
+        }
+        ImportResult result = new ImportResult(received, accepted, (System.nanoTime() - started) / 1_000_000, errors);
+        log.info("Imported {}: {} of {} rows in {} ms ({} rows/s), {} rejected",
+                file, result.getAccepted(), result.getReceived(), result.getElapsedMillis(),
+                result.getRowsPerSecond(), result.getRejected());
+        return result;
+    }
+
+    private Parsed parse(EmployeeCsvReader reader, int index) {
+        EmployeeCsvReader.Chunk chunk;
+        try {
+            chunk = reader.parse(index);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Parsed(chunk, ingest.validate(chunk.rows()));
+    }
+
+    private static Parsed await(CompletableFuture<Parsed> chunk) throws IOException {
+        try {
+            return chunk.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException io) {
+                throw io.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private record Parsed(EmployeeCsvReader.Chunk chunk, EmployeeIngestService.Validated validated) {
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.model.BatchResult;
+import org.example.model.Employee;
+import org.example.repository.EmployeeRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk ingest: validates every row against the {@link Employee} constraints in parallel, then
+ * hands the valid rows to {@link EmployeeRepository#insertAll} as one commit. Rows whose email
+ * repeats an earlier row or a stored employee are reported rather than failing the batch; the
+ * repository still rejects the whole batch if a concurrent write takes one of the addresses first.
+ */
+@Service
+public class EmployeeIngestService {
+
+    public BatchResult ingest(List<Employee> rows) {
+        return store(validate(rows));
+    }
+
+    /**
+     * Ingests rows read from a stream as one batch. The whole stream is read before anything is
+     * stored, so a row that cannot be parsed ends the ingest with the exception and leaves the
+     * store untouched; otherwise the accepted rows are stored in one commit, as for a list.
+     */
+    public BatchResult ingest(MappingIterator<Employee> rows) throws IOException {
+        List<Employee> batch = new ArrayList<>();
+        while (rows.hasNextValue()) {
+            batch.add(rows.nextValue());
+        }
+        return ingest(batch);
+    }
+
+    /**
+     * The first half of {@link #ingest}: checks the constraints of every row in parallel without
+     * touching the store, so callers can validate one batch while an earlier one is stored.
+     */
+    public Validated validate(List<Employee> rows) {
+        @SuppressWarnings("unchecked")
+        Set<ConstraintViolation<Employee>>[] violations = new Set[rows.size()];
+        IntStream.range(0, rows.size()).parallel()
+                .forEach(i -> violations[i] = rows.get(i) == null ? null : validator.validate(rows.get(i)));
+        return new Validated(rows, violations);
+    }
+
+    /**
+     * The second half of {@link #ingest}: rejects the invalid rows and those whose email is
+     * taken, and stores the rest in one commit.
+     */
+    public BatchResult store(Validated batch) {
+        List<Employee> rows = batch.rows;
+        List<Employee> accepted = new ArrayList<>(rows.size());
+        List<BatchResult.RowError> errors = new ArrayList<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (rows.get(i) == null) {
+                errors.add(new BatchResult.RowError(i, null, "Row must be an employee object"));
+            } else if (batch.violations[i].isEmpty()) {
+                String email = rows.get(i).getEmail();
+                if (email != null && (!emails.add(email.strip().toLowerCase(Locale.ROOT)) || employees.findByEmail(email).isPresent())) {
+                    errors.add(new BatchResult.RowError(i, "email", "Email is already in use"));
+                } else {
+                    accepted.add(rows.get(i));
+                }
+            } else {
+                int index = i;
+                batch.violations[i].stream()
+                        .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                        .forEach(v -> errors.add(new BatchResult.RowError(index, v.getPropertyPath().toString(), v.getMessage())));
+            }
+        }
+
+        employees.insertAll(accepted);
+        Long firstId = accepted.isEmpty() ? null : accepted.get(0).getId();
+        Long lastId = accepted.isEmpty() ? null : accepted.get(accepted.size() - 1).getId();
+        return new BatchResult(rows.size(), accepted.size(), firstId, lastId, errors);
+    }
+
+    /** Rows with their constraint violations, ready for {@link #store}. */
+    public static final class Validated {
+
+        private final List<Employee> rows;
+        private final Set<ConstraintViolation<Employee>>[] violations;
+
+        private Validated(List<Employee> rows, Set<ConstraintViolation<Employee>>[] violations) {
+            this.rows = rows;
+            this.violations = violations;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.StaleVersionException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JSON Merge Patch (RFC 7396) for employees. Fields present in the patch are set, those given as
+ * null are cleared, the rest are left alone. Only the patched fields are bound and validated,
+ * outside any lock; the changes are then applied to whatever version is stored at that moment
+ * through {@link EmployeeRepository#patch}, or rejected if it is not the expected one.
+ */
+@Service
+public class EmployeePatchService {
+
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private final EmployeeRepository employees;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    public EmployeePatchService(EmployeeRepository employees, Validator validator, ObjectMapper objectMapper) {
+        this.employees = employees;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the patched employee, or empty if there is none with {@code id}
+     * @throws InvalidPatchException if the patch is not an object, names a field that is not an
+     *                               editable employee property, or sets an invalid value
+     */
+    public Optional<Employee> patch(Long id, JsonNode patch, Long expectedVersion) throws JsonProcessingException {
+        Map<EmployeeField, Object> changes = changes(patch);
+        if (!changes.isEmpty()) {
+            return employees.patch(id, changes, expectedVersion);
+        }
+        Optional<Employee> current = employees.findById(id);
+        current.ifPresent(employee -> {
+            if (expectedVersion != null && expectedVersion.longValue() != employee.getVersion()) {
+                throw new StaleVersionException(id, expectedVersion, employee.getVersion());
+            }
+        });
+        return current;
+    }
+
+    Map<EmployeeField, Object> changes(JsonNode patch) throws JsonProcessingException {
+        if (!(patch instanceof ObjectNode object)) {
+            throw new InvalidPatchException("A merge patch must be a JSON object");
+        }
+        Employee values = objectMapper.treeToValue(object, Employee.class);
+        Map<EmployeeField, Object> changes = new EnumMap<>(EmployeeField.class);
+        List<String> errors = new ArrayList<>();
+        for (Iterator<String> names = object.fieldNames(); names.hasNext(); ) {
+            String name = names.next();
+            EmployeeField field = EmployeeField.byName(name).orElse(null);
+            if (field == null || field == EmployeeField.ID) {
+                errors.add(name + ": cannot be patched");
+                continue;
+            }
+            Object value = field.get(values);
+            for (ConstraintViolation<Employee> violation : validator.validateValue(Employee.class, name, value)) {
+                errors.add(name + ": " + violation.getMessage());
+            }
+            changes.put(field, value);
+        }
+        if (!errors.isEmpty()) {
+            throw new InvalidPatchException(String.join("; ", errors));
+        }
+        return changes;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.service;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeQuery;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.EmployeeSearchIndex;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Typeahead search over the employee store, backed by an {@link EmployeeSearchIndex} that the
+ * repository keeps current on every write.
+ */
+@Service
+public class EmployeeSearchService {
+
+    public static final int MAX_RESULTS = 50;
+
+    private final EmployeeRepository employees;
+    private final EmployeeSearchIndex index = new EmployeeSearchIndex();
+
+    /**
+     * Indexes rows already stored (recovered from the log) and subscribes to later writes. Runs
+     * while the context starts, before the repository takes traffic. A partitioned store's
+     * index covers the shards this instance owns.
+     */
+    public EmployeeSearchService(EmployeeRepository employees) {
+        this.employees = employees;
+        employees.local().forEach(EmployeeQuery.builder().build(), employee -> index.onChange(null, employee));
+        employees.local().addListener(index);
+    }
+
+    /**
+     * Up to {@code limit} employees matching {@code query} in {@link EmployeeSearchIndex#FIELDS};
+     * an employee deleted between the index lookup and the fetch is left out.
+     */
+    public List<Employee> search(String query, int limit) {
+        List<Employee> result = new ArrayList<>(limit);
+        for (Long id : index.search(query, limit)) {
+            employees.findById(id).ifPresent(result::add);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.service;
+
+/**
+ * Thrown when a merge patch names a field that cannot be changed or sets an invalid value.
+ */
+public class InvalidPatchException extends RuntimeException {
+
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
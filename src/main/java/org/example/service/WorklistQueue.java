@@ -0,0 +1,292 @@
+package org.example.service;
+
+import org.example.model.Worklist;
+import org.example.model.WorklistLease;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.InstantSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Worklist items waiting to be claimed, and the leases on claimed ones.
+ * <p>
+ * Waiting items are spread over several small heaps, each behind its own lock, instead of one
+ * global queue. A claim looks at the heads of two random stripes without locking, takes the
+ * better one with {@code tryLock}, and samples one more pair when that stripe is busy before
+ * waiting on a lock, so claimers rarely queue behind each other. Order is therefore relaxed: an item is claimed ahead of most, not
+ * necessarily all, lower-priority items. A claim only falls back to sweeping every stripe when the
+ * sampled ones keep coming up empty.
+ * <p>
+ * Leases live in a concurrent map by item id and a skip list by deadline. Completing, releasing
+ * and expiring a lease all compare-and-set the item's current lease, so exactly one of them wins.
+ * Expired leases are put back on the queue at the start of each claim or listing rather than by a
+ * background thread; nobody can observe an expired lease except through those calls.
+ */
+@Service
+public class WorklistQueue {
+
+    public static final int MAX_CLAIM = 100;
+    /** Longest lease a claim may ask for: a day. */
+    public static final long MAX_LEASE_SECONDS = 86_400;
+    public static final Duration MAX_LEASE = Duration.ofSeconds(MAX_LEASE_SECONDS);
+
+    private static final Comparator<Entry> CLAIM_ORDER = Comparator
+            .comparingInt((Entry entry) -> -entry.item.getPriority())
+            .thenComparingLong(entry -> entry.seq);
+
+    private final InstantSource clock;
+    private final Stripe[] stripes;
+    private final Map<Long, Entry> leased = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Deadline, Entry> deadlines = new ConcurrentSkipListMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicLong arrivals = new AtomicLong();
+    private final AtomicLong tokens = new AtomicLong();
+    private final AtomicLong modifications = new AtomicLong();
+
+    @Autowired
+    public WorklistQueue() {
+        this(InstantSource.system(), 0);
+    }
+
+    /**
+     * @param stripes number of heaps, rounded up to a power of two; 0 picks four per processor.
+     *                One stripe behaves as a single strictly ordered queue behind one lock.
+     */
+    public WorklistQueue(InstantSource clock, int stripes) {
+        int count = stripes > 0 ? stripes : 4 * Runtime.getRuntime().availableProcessors();
+        this.clock = clock;
+        this.stripes = new Stripe[Integer.highestOneBit(Math.max(1, 2 * count - 1))];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Queues a copy of {@code item} under the next id. Any id the item carries is ignored, so no
+     * two items, and no two leases, can share one.
+     */
+    public Worklist add(Worklist item) {
+        long id = ids.incrementAndGet();
+        Worklist stored = new Worklist(id, item.getAccountName(), item.getClientName(), item.getPriority());
+        offer(new Entry(stored, arrivals.incrementAndGet()));
+        modifications.incrementAndGet();
+        return stored;
+    }
+
+    /**
+     * Leases up to {@code max} items to {@code worker} for {@code leaseTime}; fewer when the queue
+     * runs out. Each item goes to at most one live lease.
+     */
+    public List<WorklistLease> claim(String worker, int max, Duration leaseTime) {
+        if (max < 1 || max > MAX_CLAIM) {
+            throw new IllegalArgumentException("Can claim between 1 and " + MAX_CLAIM + " items, not " + max);
+        }
+        if (leaseTime.isNegative() || leaseTime.isZero() || leaseTime.compareTo(MAX_LEASE) > 0) {
+            throw new IllegalArgumentException("Lease must be positive and at most " + MAX_LEASE + ", not " + leaseTime);
+        }
+        requeueExpired();
+        Instant expiresAt = clock.instant().plus(leaseTime);
+        List<WorklistLease> claimed = new ArrayList<>(max);
+        while (claimed.size() < max) {
+            Entry entry = poll();
+            if (entry == null) {
+                break;
+            }
+            Lease lease = new Lease(tokens.incrementAndGet(), expiresAt);
+            entry.lease.set(lease);
+            leased.put(entry.item.getId(), entry);
+            deadlines.put(new Deadline(expiresAt, lease.token), entry);
+            claimed.add(new WorklistLease(entry.item, lease.token, worker, expiresAt));
+        }
+        if (!claimed.isEmpty()) {
+            modifications.incrementAndGet();
+        }
+        return claimed;
+    }
+
+    /** Removes a leased item for good. False when {@code token} is not its live lease. */
+    public boolean complete(long id, long token) {
+        return endLease(id, token) != null;
+    }
+
+    /** Puts a leased item back on the queue before its lease runs out. */
+    public boolean release(long id, long token) {
+        Entry entry = endLease(id, token);
+        if (entry == null) {
+            return false;
+        }
+        offer(entry);
+        return true;
+    }
+
+    /** Requeues every item whose lease has run out; returns how many. */
+    public int requeueExpired() {
+        Instant now = clock.instant();
+        int requeued = 0;
+        for (Map.Entry<Deadline, Entry> first = deadlines.firstEntry();
+             first != null && !first.getKey().expiresAt.isAfter(now);
+             first = deadlines.firstEntry()) {
+            if (!deadlines.remove(first.getKey(), first.getValue())) {
+                continue;
+            }
+            Entry entry = first.getValue();
+            Lease lease = entry.lease.get();
+            if (lease != null && lease.token == first.getKey().token && entry.lease.compareAndSet(lease, null)) {
+                leased.remove(entry.item.getId(), entry);
+                offer(entry);
+                requeued++;
+            }
+        }
+        if (requeued > 0) {
+            modifications.incrementAndGet();
+        }
+        return requeued;
+    }
+
+    /** Items waiting to be claimed, in claim order. */
+    public List<Worklist> waiting() {
+        requeueExpired();
+        List<Entry> entries = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                entries.addAll(stripe.heap);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        entries.sort(CLAIM_ORDER);
+        return entries.stream().map(entry -> entry.item).toList();
+    }
+
+    public int leasedCount() {
+        return leased.size();
+    }
+
+    /** Increases whenever an item is added, claimed, completed, released or requeued. */
+    public long version() {
+        return modifications.get();
+    }
+
+    private Entry endLease(long id, long token) {
+        Entry entry = leased.get(id);
+        if (entry == null) {
+            return null;
+        }
+        Lease lease = entry.lease.get();
+        if (lease == null || lease.token != token || !lease.expiresAt.isAfter(clock.instant())
+                || !entry.lease.compareAndSet(lease, null)) {
+            return null;
+        }
+        leased.remove(id, entry);
+        deadlines.remove(new Deadline(lease.expiresAt, lease.token));
+        modifications.incrementAndGet();
+        return entry;
+    }
+
+    private void offer(Entry entry) {
+        Stripe stripe = stripes[ThreadLocalRandom.current().nextInt(stripes.length)];
+        stripe.lock.lock();
+        try {
+            stripe.heap.add(entry);
+            stripe.head = stripe.heap.peek();
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private Entry poll() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Stripe busy = null;
+        for (int attempt = 0; attempt < 2 * stripes.length; attempt++) {
+            Stripe a = stripes[random.nextInt(stripes.length)];
+            Stripe b = stripes[random.nextInt(stripes.length)];
+            Entry headA = a.head;
+            Entry headB = b.head;
+            if (headA == null && headB == null) {
+                continue;
+            }
+            Stripe better = headB == null || (headA != null && CLAIM_ORDER.compare(headA, headB) <= 0) ? a : b;
+            if (busy == null && !better.lock.tryLock()) {
+                // one more pair, then wait: spinning past a descheduled holder only burns its CPU
+                busy = better;
+                continue;
+            }
+            if (busy != null) {
+                better.lock.lock();
+            }
+            try {
+                Entry entry = better.pollLocked();
+                if (entry != null) {
+                    return entry;
+                }
+            } finally {
+                better.lock.unlock();
+            }
+        }
+        int start = random.nextInt(stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = stripes[(start + i) & (stripes.length - 1)];
+            stripe.lock.lock();
+            try {
+                Entry entry = stripe.pollLocked();
+                if (entry != null) {
+                    return entry;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return null;
+    }
+
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final PriorityQueue<Entry> heap = new PriorityQueue<>(CLAIM_ORDER);
+        /** The heap's head as of the last change, read without the lock to pick a stripe. */
+        volatile Entry head;
+
+        Entry pollLocked() {
+            Entry entry = heap.poll();
+            head = heap.peek();
+            return entry;
+        }
+    }
+
+    /** A stored item; {@code seq} keeps arrival order among equal priorities across requeues. */
+    private static final class Entry {
+        final Worklist item;
+        final long seq;
+        final AtomicReference<Lease> lease = new AtomicReference<>();
+
+        Entry(Worklist item, long seq) {
+            this.item = item;
+            this.seq = seq;
+        }
+    }
+
+    private record Lease(long token, Instant expiresAt) {
+    }
+
+    private record Deadline(Instant expiresAt, long token) implements Comparable<Deadline> {
+
+        @Override
+        public int compareTo(Deadline other) {
+            int byTime = expiresAt.compareTo(other.expiresAt);
+            return byTime != 0 ? byTime : Long.compare(token, other.token);
+        }
+    }
+}
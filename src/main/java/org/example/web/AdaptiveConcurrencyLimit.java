@@ -0,0 +1,119 @@
+package org.example.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A cap on concurrent requests that follows their latency. Completed requests add their latency
+ * to the current window; at the end of each window (at least {@value #MIN_SAMPLES} samples and
+ * {@link #WINDOW_NANOS} long) the window's average is compared with a slow-moving baseline.
+ * While the average stays within {@code tolerance} times the baseline the limit grows by about
+ * its square root, as long as requests actually used most of it; beyond that it shrinks in
+ * proportion, by at most half per window. Queueing shows up as latency before the request
+ * threads run out, so the limit settles just below the point where latency starts to climb.
+ *
+ * <p>Acquiring and releasing are a compare-and-set and two striped adds; only the thread that
+ * closes a window takes a lock, with {@code tryLock}, so no request waits for an update.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    static final long WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    static final int MIN_SAMPLES = 20;
+
+    private final int min;
+    private final int max;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peak = new AtomicInteger();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final ReentrantLock updating = new ReentrantLock();
+    private volatile int limit;
+    private volatile long windowEnd;
+    /** Long-run average latency in nanoseconds; guarded by {@link #updating}. */
+    private double baseline;
+
+    public AdaptiveConcurrencyLimit(int initial, int min, int max, double tolerance, long now) {
+        if (min < 1 || initial < min || max < initial || tolerance < 1) {
+            throw new IllegalArgumentException("Need 1 <= min <= initial <= max and tolerance >= 1: "
+                    + min + ", " + initial + ", " + max + ", " + tolerance);
+        }
+        this.min = min;
+        this.max = max;
+        this.tolerance = tolerance;
+        this.limit = initial;
+        this.windowEnd = now + WINDOW_NANOS;
+    }
+
+    /** Claims a slot, or returns false if the limit is reached. */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (current + 1 > peak.get()) {
+                    peak.accumulateAndGet(current + 1, Math::max);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Frees the slot taken at {@code started} and records the request's latency.
+     */
+    public void release(long started, long finished) {
+        inFlight.decrementAndGet();
+        latencyNanos.add(finished - started);
+        samples.increment();
+        if (finished - windowEnd >= 0 && updating.tryLock()) {
+            try {
+                if (finished - windowEnd >= 0) {
+                    update(finished);
+                }
+            } finally {
+                updating.unlock();
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void update(long now) {
+        if (samples.sum() < MIN_SAMPLES) {
+            return;
+        }
+        windowEnd = now + WINDOW_NANOS;
+        long count = samples.sumThenReset();
+        double recent = (double) latencyNanos.sumThenReset() / count;
+        int used = peak.getAndSet(inFlight.get());
+
+        // follows drops quickly and rises slowly, so sustained overload is not taken as normal
+        baseline = baseline == 0 ? recent
+                : recent < baseline ? 0.8 * baseline + 0.2 * recent : 0.99 * baseline + 0.01 * recent;
+        int current = limit;
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baseline / recent));
+        double target = current * gradient + Math.sqrt(current);
+        if (used < current / 2) {
+            // demand did not reach the limit, so this window says nothing about a higher one
+            target = Math.min(target, current);
+        }
+        // back off at once, but grow gradually so one quiet window does not open the gates
+        int next = target < current ? (int) target : (int) Math.round((current + target) / 2);
+        if (next == current && target > current) {
+            next++;
+        }
+        limit = Math.max(min, Math.min(max, next));
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The endpoint classes of {@link AdmissionProperties}, each with its token buckets and adaptive
+ * concurrency limit. Built once at startup; {@link #classify} walks the classes in configured
+ * order and does not allocate.
+ */
+public class AdmissionControl {
+
+    private final List<Gate> gates = new ArrayList<>();
+
+    public AdmissionControl(AdmissionProperties properties, MeterRegistry registry) {
+        long now = System.nanoTime();
+        for (AdmissionProperties.Endpoint endpoint : properties.getEndpoints()) {
+            gates.add(new Gate(endpoint, properties, registry, now));
+        }
+    }
+
+    /** The first class covering the request, or null if none does. */
+    public Gate classify(String method, String path) {
+        for (Gate gate : gates) {
+            if (gate.matches(method, path)) {
+                return gate;
+            }
+        }
+        return null;
+    }
+
+    /** One endpoint class: which requests it covers and the limits they share. */
+    public static final class Gate {
+
+        private final String name;
+        private final Set<String> methods = new HashSet<>();
+        private final Set<String> paths = new HashSet<>();
+        private final List<String> prefixes = new ArrayList<>();
+        private final TokenBucketStripes buckets;
+        private final AdaptiveConcurrencyLimit limit;
+        private final Counter rateLimited;
+        private final Counter overloaded;
+
+        Gate(AdmissionProperties.Endpoint endpoint, AdmissionProperties properties, MeterRegistry registry, long now) {
+            if (endpoint.getName() == null || endpoint.getPaths().isEmpty()) {
+                throw new IllegalArgumentException("Admission endpoints need a name and at least one path");
+            }
+            this.name = endpoint.getName();
+            endpoint.getMethods().forEach(method -> methods.add(method.toUpperCase(Locale.ROOT)));
+            for (String path : endpoint.getPaths()) {
+                if (path.endsWith("/**")) {
+                    // "/api/worklist/**" covers "/api/worklist" itself as well as everything below it
+                    String base = path.substring(0, path.length() - 3);
+                    paths.add(base);
+                    prefixes.add(base + "/");
+                } else {
+                    paths.add(path);
+                }
+            }
+            this.buckets = endpoint.getRate() > 0
+                    ? new TokenBucketStripes(properties.getStripes(), endpoint.getRate(), endpoint.getBurst())
+                    : null;
+            this.limit = endpoint.getConcurrency() > 0
+                    ? new AdaptiveConcurrencyLimit(endpoint.getConcurrency(), endpoint.getMinConcurrency(),
+                            endpoint.getMaxConcurrency(), properties.getLatencyTolerance(), now)
+                    : null;
+            this.rateLimited = rejections(registry, "rate");
+            this.overloaded = rejections(registry, "concurrency");
+            if (limit != null) {
+                Gauge.builder("http.server.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                        .description("Concurrent requests the endpoint class currently admits")
+                        .tag("endpoint", name)
+                        .register(registry);
+                Gauge.builder("http.server.admission.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                        .description("Admitted requests still running")
+                        .tag("endpoint", name)
+                        .register(registry);
+            }
+        }
+
+        private Counter rejections(MeterRegistry registry, String reason) {
+            return Counter.builder("http.server.admission.rejected")
+                    .description("Requests turned away before reaching a controller")
+                    .tag("endpoint", name)
+                    .tag("reason", reason)
+                    .register(registry);
+        }
+
+        boolean matches(String method, String path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return false;
+            }
+            if (paths.contains(path)) {
+                return true;
+            }
+            for (String prefix : prefixes) {
+                if (path.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** Takes a token for {@code client}; 0 if admitted, otherwise the nanoseconds to wait. */
+        long tryRate(Object client, long now) {
+            if (buckets == null) {
+                return 0;
+            }
+            long wait = buckets.tryAcquire(client, now);
+            if (wait > 0) {
+                rateLimited.increment();
+            }
+            return wait;
+        }
+
+        /** Claims a concurrency slot, to be given back with {@link #release}. */
+        boolean tryEnter() {
+            if (limit == null || limit.tryAcquire()) {
+                return true;
+            }
+            overloaded.increment();
+            return false;
+        }
+
+        void release(long started, long finished) {
+            if (limit != null) {
+                limit.release(started, finished);
+            }
+        }
+
+        /** The class's concurrency limit, or null if it has none. */
+        public AdaptiveConcurrencyLimit getLimit() {
+            return limit;
+        }
+    }
+}
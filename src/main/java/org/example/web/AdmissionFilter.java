@@ -0,0 +1,79 @@
+package org.example.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.common.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Turns requests away before they reach a controller when their endpoint class is over its
+ * limits: 429 when the client has used up its rate, 503 when the class already has as many
+ * requests running as its concurrency limit allows. Both carry {@code Retry-After} and an
+ * {@link ApiResponse} error body, and cost no more than the classification and one or two
+ * compare-and-sets; rejected requests never touch the store or the request threads' queue.
+ *
+ * <p>A request holds its concurrency slot until the filter chain returns. Streamed responses that
+ * continue asynchronously give it back when the handler hands off, so long exports are limited by
+ * their rate rather than their duration.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final AdmissionControl control;
+    private final String clientHeader;
+    private final ObjectMapper mapper;
+
+    public AdmissionFilter(AdmissionControl control, String clientHeader, ObjectMapper mapper) {
+        this.control = control;
+        this.clientHeader = clientHeader;
+        this.mapper = mapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdmissionControl.Gate gate = control.classify(request.getMethod(), request.getRequestURI());
+        if (gate == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long started = System.nanoTime();
+        long wait = gate.tryRate(client(request), started);
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, (wait + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND,
+                    "Rate limit exceeded for " + gate.getName());
+            return;
+        }
+        if (!gate.tryEnter()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, gate.getName() + " is at capacity");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            gate.release(started, System.nanoTime());
+        }
+    }
+
+    private Object client(HttpServletRequest request) {
+        String id = request.getHeader(clientHeader);
+        return id != null && !id.isEmpty() ? id : request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        mapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Admission control settings, bound from {@code admission}. Requests are matched against the
+ * endpoint classes in order; the first match decides which rate and concurrency limits apply, and
+ * requests matching none are let through untouched.
+ */
+@ConfigurationProperties(prefix = "admission")
+public class AdmissionProperties {
+
+    /** Shed load at the endpoint classes below; off by default. */
+    private boolean enabled;
+
+    /** Requests are attributed to this header's value, or to the remote address without it. */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * Token buckets per endpoint class. Clients are hashed onto them, so memory stays fixed however
+     * many clients there are; clients sharing a stripe share its rate.
+     */
+    private int stripes = 1024;
+
+    /**
+     * How far the recent average latency may rise above the long-run one before the concurrency
+     * limit starts to shrink.
+     */
+    private double latencyTolerance = 2.0;
+
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getClientHeader() { return clientHeader; }
+    public void setClientHeader(String clientHeader) { this.clientHeader = clientHeader; }
+
+    public int getStripes() { return stripes; }
+    public void setStripes(int stripes) { this.stripes = stripes; }
+
+    public double getLatencyTolerance() { return latencyTolerance; }
+    public void setLatencyTolerance(double latencyTolerance) { this.latencyTolerance = latencyTolerance; }
+
+    public List<Endpoint> getEndpoints() { return endpoints; }
+    public void setEndpoints(List<Endpoint> endpoints) { this.endpoints = endpoints; }
+
+    public static class Endpoint {
+
+        /** Name used in rejection messages and metric tags. */
+        private String name;
+
+        /** HTTP methods this class covers; all when empty. */
+        private List<String> methods = new ArrayList<>();
+
+        /** Exact paths, or prefixes written as {@code /api/worklist/**}. */
+        private List<String> paths = new ArrayList<>();
+
+        /** Sustained requests per second per client; 0 for no rate limit. */
+        private double rate;
+
+        /** Requests a client may send at once after being idle. */
+        private int burst = 1;
+
+        /** Concurrent requests the limit starts at; 0 for no concurrency limit. */
+        private int concurrency;
+
+        /** Floor and ceiling the adaptive limit moves between. */
+        private int minConcurrency = 1;
+        private int maxConcurrency = 1000;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+
+        public double getRate() { return rate; }
+        public void setRate(double rate) { this.rate = rate; }
+
+        public int getBurst() { return burst; }
+        public void setBurst(int burst) { this.burst = burst; }
+
+        public int getConcurrency() { return concurrency; }
+        public void setConcurrency(int concurrency) { this.concurrency = concurrency; }
+
+        public int getMinConcurrency() { return minConcurrency; }
+        public void setMinConcurrency(int minConcurrency) { this.minConcurrency = minConcurrency; }
+
+        public int getMaxConcurrency() { return maxConcurrency; }
+        public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+    }
+}
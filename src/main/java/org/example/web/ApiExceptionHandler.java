@@ -0,0 +1,64 @@
+package org.example.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.example.common.ApiResponse;
+import org.example.partition.PeerUnavailableException;
+import org.example.persistence.CsvFormatException;
+import org.example.query.InvalidQueryException;
+import org.example.repository.DuplicateEmailException;
+import org.example.repository.StaleVersionException;
+import org.example.service.InvalidPatchException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(InvalidQueryException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidQuery(InvalidQueryException e) {
+        return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidPatch(InvalidPatchException e) {
+        return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(CsvFormatException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCsvFormat(CsvFormatException e) {
+        return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+    }
+
+    /**
+     * A failed {@code If-Match}: 412 with the current entity tag, so the client can refetch or retry.
+     */
+    @ExceptionHandler(StaleVersionException.class)
+    public ResponseEntity<ApiResponse<Void>> handleStaleVersion(StaleVersionException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(ETags.of(e.getId(), e.getCurrentVersion()))
+                .body(ApiResponse.error(e.getMessage()));
+    }
+
+    /**
+     * The email belongs to another employee: 409, with the message naming the one that has it.
+     */
+    @ExceptionHandler(DuplicateEmailException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDuplicateEmail(DuplicateEmailException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage()));
+    }
+
+    /**
+     * A partitioned store could not reach the instance owning a shard the request needs: 503.
+     */
+    @ExceptionHandler(PeerUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePeerUnavailable(PeerUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(ApiResponse.error(e.getMessage()));
+    }
+
+    @ExceptionHandler(JsonProcessingException.class)
+    public ResponseEntity<ApiResponse<Void>> handleMalformedBody(JsonProcessingException e) {
+        return ResponseEntity.badRequest().body(ApiResponse.error("Malformed request body: " + e.getOriginalMessage()));
+    }
+}
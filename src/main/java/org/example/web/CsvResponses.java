@@ -0,0 +1,185 @@
+package org.example.web;
+
+import org.example.model.ColumnManifest;
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.InvalidQueryException;
+import org.example.query.UserColumns;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams employees as RFC 4180 CSV: a header row of the manifest's header names, then one line
+ * per row with the columns in manifest {@code order}. Like {@link NdjsonResponses} it writes rows
+ * as the scan produces them, so memory stays constant whatever the row count, and it compresses
+ * on the fly when the client accepts gzip.
+ *
+ * <p>Values are written in the forms the query parameters accept: ISO dates, {@code true} or
+ * {@code false}, and amounts in plain decimal notation. Empty fields are nulls. Fields holding a
+ * comma, quote or line break are quoted, with quotes doubled.
+ */
+public final class CsvResponses {
+
+    public static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    /** Rows written between explicit flushes, so the first bytes leave early. */
+    private static final int FLUSH_EVERY = 256;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private CsvResponses() {
+    }
+
+    /**
+     * The manifest columns to export in display order: the id and those named in {@code fields},
+     * or the ones the manifest marks visible when none are named.
+     *
+     * @throws InvalidQueryException for a name that is not a manifest column
+     */
+    public static List<ColumnManifest> columns(List<String> fields) {
+        if (fields == null || fields.stream().allMatch(String::isBlank)) {
+            return UserColumns.all().stream()
+                    .filter(ColumnManifest::isVisible)
+                    .sorted(Comparator.comparingInt(ColumnManifest::getOrder))
+                    .toList();
+        }
+        Set<String> named = fields.stream().map(String::strip).filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+        named.add(EmployeeField.ID.getField());
+        for (String name : named) {
+            if (UserColumns.find(name).isEmpty() || EmployeeField.byName(name).isEmpty()) {
+                throw new InvalidQueryException("Unknown field: " + name);
+            }
+        }
+        return UserColumns.all().stream()
+                .filter(column -> named.contains(column.getField()))
+                .sorted(Comparator.comparingInt(ColumnManifest::getOrder))
+                .toList();
+    }
+
+    /**
+     * @param filename       suggested to the client in {@code Content-Disposition}
+     * @param acceptEncoding the request's {@code Accept-Encoding}, which decides whether to gzip
+     * @param source         invokes the given sink once per row, e.g.
+     *                       {@code sink -> repository.forEachSnapshot(query, sink)}
+     */
+    public static ResponseEntity<StreamingResponseBody> employees(String filename, List<ColumnManifest> columns,
+                                                                  String acceptEncoding,
+                                                                  Consumer<Consumer<? super Employee>> source) {
+        EmployeeField[] fields = columns.stream()
+                .map(column -> EmployeeField.byName(column.getField()).orElseThrow(
+                        () -> new InvalidQueryException("Unknown field: " + column.getField())))
+                .toArray(EmployeeField[]::new);
+        boolean gzip = PayloadCache.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    ColumnManifest column = columns.get(i);
+                    writeText(writer, column.getHeaderName() != null ? column.getHeaderName() : column.getField());
+                }
+                writer.write("\r\n");
+                int[] written = new int[1];
+                source.accept(employee -> {
+                    try {
+                        writeRow(writer, fields, employee);
+                        if (++written[0] % FLUSH_EVERY == 1) {
+                            writer.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static void writeRow(Writer writer, EmployeeField[] fields, Employee employee) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = fields[i].get(employee);
+            if (value == null) {
+                continue;
+            }
+            if (value instanceof String text) {
+                writeText(writer, text);
+            } else if (value instanceof Double amount) {
+                writer.write(plain(amount));
+            } else if (value instanceof Long || value instanceof Boolean || value instanceof LocalDate) {
+                writer.write(value.toString());
+            } else {
+                throw new IllegalStateException("No CSV form for " + fields[i] + " values: " + value.getClass());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeText(Writer writer, String text) throws IOException {
+        if (!needsQuotes(text)) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whole amounts without a fraction, others in full; never in exponent form. */
+    private static String plain(double amount) {
+        if (!Double.isFinite(amount)) {
+            return Double.toString(amount);
+        }
+        if (amount == Math.rint(amount) && Math.abs(amount) < 1e15) {
+            return Long.toString((long) amount);
+        }
+        return BigDecimal.valueOf(amount).toPlainString();
+    }
+}
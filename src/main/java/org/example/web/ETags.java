@@ -0,0 +1,97 @@
+package org.example.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.model.Employee;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Entity tags for employee resources. A single employee's tag is {@code "<id>.<version>"}; a
+ * list's tag combines the store's data version with a digest of the request parameters, so it
+ * can be checked before the query runs and changes whenever any row does. The data version
+ * starts over on every restart, so list tags also name the process run they were issued in.
+ */
+public final class ETags {
+
+    /** Changes on every restart, when the data version counts from zero again. */
+    private static final String RUN = Long.toString(System.currentTimeMillis(), 36);
+
+    /** Matches no stored version, so a precondition naming another resource fails. */
+    private static final long NO_VERSION = -1;
+
+    private ETags() {
+    }
+
+    public static String of(Employee employee) {
+        return of(employee.getId(), employee.getVersion());
+    }
+
+    public static String of(long id, long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    /**
+     * Checks a list read against its {@code If-None-Match} header, setting the list's tag and
+     * {@code Vary: Accept} on the response, since the same URL has one tag per representation.
+     * Returns true when the response is complete as a 304.
+     */
+    public static boolean listNotModified(ServletWebRequest request, long dataVersion, MediaType representation) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return request.checkNotModified(ofList(dataVersion, representation, request.getParameterMap()));
+    }
+
+    /**
+     * The representation is digested first, so the JSON and grid encodings of a page never share
+     * a tag. Parameters follow in name order with length-prefixed values, so the tag does not
+     * depend on the order they were sent in.
+     */
+    public static String ofList(long dataVersion, MediaType representation, Map<String, String[]> parameters) {
+        String type = representation.getType() + "/" + representation.getSubtype();
+        StringBuilder canonical = new StringBuilder().append(type.length()).append('#').append(type);
+        new TreeMap<>(parameters).forEach((name, values) -> {
+            canonical.append(name.length()).append(':').append(name);
+            for (String value : values) {
+                canonical.append(value.length()).append('=').append(value);
+            }
+        });
+        return "\"" + RUN + "-" + Long.toHexString(dataVersion) + "-"
+                + DigestUtils.md5DigestAsHex(canonical.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /** A strong tag derived from the encoded body, for payloads without a version of their own. */
+    public static String ofContent(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+
+    /**
+     * Returns the version an {@code If-Match} header requires for employee {@code id}: null when
+     * the header is absent or {@code *}, and a version no row can have when none of the listed
+     * tags is a strong tag for this employee.
+     */
+    public static Long expectedVersion(long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String prefix = "\"" + id + ".";
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+                } catch (NumberFormatException e) {
+                    // not one of ours; keep looking
+                }
+            }
+        }
+        return NO_VERSION;
+    }
+}
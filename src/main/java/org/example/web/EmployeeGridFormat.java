@@ -0,0 +1,385 @@
+package org.example.web;
+
+import org.example.model.ColumnManifest;
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.UserColumns;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Columnar binary encoding of an employee list, for grids that load many rows at once.
+ *
+ * <p>Layout, all integers unsigned LEB128 varints unless noted:
+ * <pre>
+ *   "EGRD" format(1 byte) columnCount rowCount
+ *   per column: nameLength name(UTF-8) kind(1 byte)
+ *   per column, in the same order:
+ *     hasNulls(1 byte) [null bitmap, one bit per row, set when null]
+ *     the non-null values, by kind:
+ *       DELTA    zigzag varint of the difference from the previous value (ids, dates as epoch days)
+ *       TEXT     length, UTF-8 bytes
+ *       DICT     dictionary size, entries as TEXT, then one varint entry index per value
+ *       DOUBLE   8 bytes little-endian IEEE 754
+ *       BOOLEAN  one bit per row (in row position, null rows left clear)
+ * </pre>
+ * Columns follow the grid's column manifest order. Field names travel in the header, so a reader
+ * needs no schema of its own and ignores columns it does not know. The format carries rows only;
+ * paging headers are the same as for JSON.
+ */
+public final class EmployeeGridFormat {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-employee-grid";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    static final int FORMAT = 1;
+
+    private static final byte[] MAGIC = {'E', 'G', 'R', 'D'};
+    private static final List<EmployeeField> COLUMNS = columns();
+
+    enum Kind { DELTA, TEXT, DICT, DOUBLE, BOOLEAN }
+
+    private EmployeeGridFormat() {
+    }
+
+    public static byte[] write(List<Employee> rows) {
+        return write(rows, COLUMNS);
+    }
+
+    /** Encodes only {@code columns}, which should be in manifest order. */
+    public static byte[] write(List<Employee> rows, List<EmployeeField> columns) {
+        Sink out = new Sink(64 + rows.size() * 48);
+        out.bytes(MAGIC, 0, MAGIC.length);
+        out.raw(FORMAT);
+        out.varint(columns.size());
+        out.varint(rows.size());
+        for (EmployeeField field : columns) {
+            out.text(field.getField());
+            out.raw(kind(field).ordinal());
+        }
+        Object[] values = new Object[rows.size()];
+        for (EmployeeField field : columns) {
+            boolean hasNulls = false;
+            for (int i = 0; i < values.length; i++) {
+                values[i] = field.get(rows.get(i));
+                hasNulls |= values[i] == null;
+            }
+            out.raw(hasNulls ? 1 : 0);
+            if (hasNulls) {
+                out.bits(values, value -> value == null);
+            }
+            writeValues(out, kind(field), values);
+        }
+        return out.toByteArray();
+    }
+
+    /** Decodes {@link #write} output; columns unknown to this version are skipped. */
+    public static List<Employee> read(byte[] data) {
+        Source in = new Source(data);
+        for (byte b : MAGIC) {
+            if (in.raw() != b) {
+                throw new IllegalArgumentException("Not an employee grid");
+            }
+        }
+        int format = in.raw();
+        if (format != FORMAT) {
+            throw new IllegalArgumentException("Unsupported employee grid format " + format);
+        }
+        int columnCount = (int) in.varint();
+        int rowCount = (int) in.varint();
+        String[] names = new String[columnCount];
+        Kind[] kinds = new Kind[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            names[c] = in.text();
+            kinds[c] = Kind.values()[in.raw()];
+        }
+        Employee[] rows = new Employee[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            rows[i] = new Employee();
+        }
+        Object[] values = new Object[rowCount];
+        for (int c = 0; c < columnCount; c++) {
+            boolean[] nulls = in.raw() == 1 ? in.bits(rowCount) : new boolean[rowCount];
+            readValues(in, kinds[c], nulls, values);
+            Optional<EmployeeField> field = EmployeeField.byName(names[c]);
+            if (field.isPresent()) {
+                for (int i = 0; i < rowCount; i++) {
+                    set(rows[i], field.get(), values[i]);
+                }
+            }
+        }
+        return Arrays.asList(rows);
+    }
+
+    private static void writeValues(Sink out, Kind kind, Object[] values) {
+        switch (kind) {
+            case DELTA -> {
+                long previous = 0;
+                for (Object value : values) {
+                    if (value != null) {
+                        long current = asLong(value);
+                        out.varint(zigzag(current - previous));
+                        previous = current;
+                    }
+                }
+            }
+            case TEXT -> {
+                for (Object value : values) {
+                    if (value != null) {
+                        out.text((String) value);
+                    }
+                }
+            }
+            case DICT -> {
+                Map<Object, Integer> codes = new HashMap<>();
+                List<Object> entries = new ArrayList<>();
+                for (Object value : values) {
+                    if (value != null && codes.putIfAbsent(value, codes.size()) == null) {
+                        entries.add(value);
+                    }
+                }
+                out.varint(entries.size());
+                for (Object entry : entries) {
+                    out.text((String) entry);
+                }
+                for (Object value : values) {
+                    if (value != null) {
+                        out.varint(codes.get(value));
+                    }
+                }
+            }
+            case DOUBLE -> {
+                for (Object value : values) {
+                    if (value != null) {
+                        out.fixed64(Double.doubleToRawLongBits((Double) value));
+                    }
+                }
+            }
+            case BOOLEAN -> out.bits(values, Boolean.TRUE::equals);
+        }
+    }
+
+    private static void readValues(Source in, Kind kind, boolean[] nulls, Object[] values) {
+        Arrays.fill(values, null);
+        switch (kind) {
+            case DELTA -> {
+                long previous = 0;
+                for (int i = 0; i < values.length; i++) {
+                    if (!nulls[i]) {
+                        previous += unzigzag(in.varint());
+                        values[i] = previous;
+                    }
+                }
+            }
+            case TEXT -> {
+                for (int i = 0; i < values.length; i++) {
+                    if (!nulls[i]) {
+                        values[i] = in.text();
+                    }
+                }
+            }
+            case DICT -> {
+                String[] entries = new String[(int) in.varint()];
+                for (int e = 0; e < entries.length; e++) {
+                    entries[e] = in.text();
+                }
+                for (int i = 0; i < values.length; i++) {
+                    if (!nulls[i]) {
+                        values[i] = entries[(int) in.varint()];
+                    }
+                }
+            }
+            case DOUBLE -> {
+                for (int i = 0; i < values.length; i++) {
+                    if (!nulls[i]) {
+                        values[i] = Double.longBitsToDouble(in.fixed64());
+                    }
+                }
+            }
+            case BOOLEAN -> {
+                boolean[] bits = in.bits(values.length);
+                for (int i = 0; i < values.length; i++) {
+                    if (!nulls[i]) {
+                        values[i] = bits[i];
+                    }
+                }
+            }
+        }
+    }
+
+    private static Kind kind(EmployeeField field) {
+        return switch (field) {
+            case ID, HIRE_DATE -> Kind.DELTA;
+            case DEPARTMENT, JOB_TITLE -> Kind.DICT;
+            case SALARY -> Kind.DOUBLE;
+            case ACTIVE -> Kind.BOOLEAN;
+            case FIRST_NAME, LAST_NAME, EMAIL -> Kind.TEXT;
+        };
+    }
+
+    private static long asLong(Object value) {
+        return value instanceof LocalDate date ? date.toEpochDay() : (Long) value;
+    }
+
+    private static void set(Employee employee, EmployeeField field, Object value) {
+        switch (field) {
+            case ID -> employee.setId((Long) value);
+            case FIRST_NAME -> employee.setFirstName((String) value);
+            case LAST_NAME -> employee.setLastName((String) value);
+            case EMAIL -> employee.setEmail((String) value);
+            case DEPARTMENT -> employee.setDepartment((String) value);
+            case JOB_TITLE -> employee.setJobTitle((String) value);
+            case HIRE_DATE -> employee.setHireDate(value == null ? null : LocalDate.ofEpochDay((Long) value));
+            case SALARY -> employee.setSalary((Double) value);
+            case ACTIVE -> employee.setActive((Boolean) value);
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static List<EmployeeField> columns() {
+        return UserColumns.all().stream()
+                .sorted(Comparator.comparingInt(ColumnManifest::getOrder))
+                .flatMap(column -> EmployeeField.byName(column.getField()).stream())
+                .toList();
+    }
+
+    private static final class Sink {
+        private byte[] buffer;
+        private int size;
+
+        Sink(int capacity) {
+            buffer = new byte[capacity];
+        }
+
+        void raw(int b) {
+            ensure(1);
+            buffer[size++] = (byte) b;
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        void fixed64(long value) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                buffer[size++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        void text(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            bytes(utf8, 0, utf8.length);
+        }
+
+        void bytes(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        void bits(Object[] values, Predicate<Object> set) {
+            int length = (values.length + 7) / 8;
+            ensure(length);
+            for (int i = 0; i < values.length; i++) {
+                if (set.test(values[i])) {
+                    buffer[size + (i >>> 3)] |= (byte) (1 << (i & 7));
+                }
+            }
+            size += length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int more) {
+            if (size + more > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + more));
+            }
+        }
+    }
+
+    private static final class Source {
+        private final byte[] data;
+        private int position;
+
+        Source(byte[] data) {
+            this.data = data;
+        }
+
+        int raw() {
+            check(1);
+            return data[position++] & 0xFF;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = raw();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint at " + position);
+        }
+
+        long fixed64() {
+            check(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value |= (long) (data[position++] & 0xFF) << (8 * i);
+            }
+            return value;
+        }
+
+        String text() {
+            int length = (int) varint();
+            check(length);
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        boolean[] bits(int count) {
+            int length = (count + 7) / 8;
+            check(length);
+            boolean[] bits = new boolean[count];
+            for (int i = 0; i < count; i++) {
+                bits[i] = (data[position + (i >>> 3)] & (1 << (i & 7))) != 0;
+            }
+            position += length;
+            return bits;
+        }
+
+        private void check(int length) {
+            if (length < 0 || position + length > data.length) {
+                throw new IllegalArgumentException("Truncated employee grid at " + position);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example.web;
+
+import org.example.common.ApiResponse;
+import org.example.model.Employee;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@code ApiResponse<List<Employee>>} bodies in {@link EmployeeGridFormat} when the client
+ * asks for {@value EmployeeGridFormat#MEDIA_TYPE_VALUE}. Registered after the JSON converter, so
+ * clients that accept anything, or send no Accept header, still get JSON. Only the rows
+ * are sent, so clients should also accept JSON to read error responses.
+ */
+public class EmployeeGridHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public EmployeeGridHttpMessageConverter() {
+        super(EmployeeGridFormat.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ApiResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (type == null || !canWrite(mediaType)) {
+            return false;
+        }
+        ResolvableType body = ResolvableType.forType(type);
+        return ApiResponse.class.equals(body.resolve())
+                && List.class.equals(body.getGeneric(0).resolve())
+                && Employee.class.equals(body.getGeneric(0, 0).resolve());
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        // the element type is needed, which only the generic variant sees
+        return false;
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(Class<?> clazz) {
+        return supports(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        List<Employee> rows = (List<Employee>) ((ApiResponse<?>) body).getData();
+        byte[] encoded = rows instanceof EmployeeProjection.Rows projected
+                ? EmployeeGridFormat.write(projected.rows, projected.projection.fields())
+                : EmployeeGridFormat.write(rows == null ? List.of() : rows);
+        outputMessage.getHeaders().setContentLength(encoded.length);
+        outputMessage.getBody().write(encoded);
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Employee grids are response-only", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Employee grids are response-only", inputMessage);
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.example.model.ColumnManifest;
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.InvalidQueryException;
+import org.example.query.UserColumns;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * A subset of the {@link EmployeeField} columns to send for each employee.
+ *
+ * <p>Each distinct field set is compiled once into a projection holding the fields in manifest
+ * order and their pre-encoded JSON names; rows are then written by calling the field accessors
+ * directly, without Jackson's bean introspection or per-property filtering. {@link #apply} wraps a
+ * page of rows so it serializes through the projection while still being a
+ * {@code List<Employee>} to everything else. The id is always included, as the grids key rows by it.
+ */
+public final class EmployeeProjection {
+
+    private static final EmployeeField[] FIELDS = EmployeeField.values();
+    /** One slot per field set; written racily, which is harmless as projections are immutable. */
+    private static final EmployeeProjection[] BY_MASK = new EmployeeProjection[1 << FIELDS.length];
+    private static final EmployeeProjection VISIBLE = of(UserColumns.all().stream()
+            .filter(ColumnManifest::isVisible)
+            .map(ColumnManifest::getField)
+            .toList());
+
+    private final EmployeeField[] fields;
+    private final SerializedString[] names;
+
+    private EmployeeProjection(int mask) {
+        this.fields = new EmployeeField[Integer.bitCount(mask)];
+        this.names = new SerializedString[fields.length];
+        int i = 0;
+        for (EmployeeField field : FIELDS) {
+            if ((mask & (1 << field.ordinal())) != 0) {
+                fields[i] = field;
+                names[i++] = new SerializedString(field.getField());
+            }
+        }
+    }
+
+    /** The columns the manifest marks visible. */
+    public static EmployeeProjection visibleColumns() {
+        return VISIBLE;
+    }
+
+    /**
+     * The projection onto {@code fields}, or onto the visible columns when none are given.
+     *
+     * @throws InvalidQueryException for a name that is not a manifest column
+     */
+    public static EmployeeProjection of(List<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return VISIBLE;
+        }
+        int mask = 1 << EmployeeField.ID.ordinal();
+        for (String name : fields) {
+            if (name.isBlank()) {
+                continue;
+            }
+            EmployeeField field = EmployeeField.byName(name.strip())
+                    .filter(f -> UserColumns.find(f.getField()).isPresent())
+                    .orElseThrow(() -> new InvalidQueryException("Unknown field: " + name));
+            mask |= 1 << field.ordinal();
+        }
+        EmployeeProjection projection = BY_MASK[mask];
+        if (projection == null) {
+            projection = new EmployeeProjection(mask);
+            BY_MASK[mask] = projection;
+        }
+        return projection;
+    }
+
+    public List<EmployeeField> fields() {
+        return List.of(fields);
+    }
+
+    /** {@code rows} as a list that serializes through this projection. */
+    public List<Employee> apply(List<Employee> rows) {
+        return new Rows(rows, this);
+    }
+
+    void write(JsonGenerator generator, Employee employee) throws IOException {
+        generator.writeStartObject(employee);
+        for (int i = 0; i < fields.length; i++) {
+            generator.writeFieldName(names[i]);
+            Object value = fields[i].get(employee);
+            if (value == null) {
+                generator.writeNull();
+            } else if (value instanceof String text) {
+                generator.writeString(text);
+            } else if (value instanceof Long number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Double number) {
+                generator.writeNumber(number);
+            } else if (value instanceof Boolean flag) {
+                generator.writeBoolean(flag);
+            } else if (value instanceof LocalDate date) {
+                generator.writeString(date.toString());
+            } else {
+                throw new IllegalStateException("No JSON form for " + fields[i] + " values: " + value.getClass());
+            }
+        }
+        generator.writeEndObject();
+    }
+
+    /** A page of rows bound to the projection that renders them. */
+    @JsonSerialize(using = RowsSerializer.class)
+    static final class Rows extends AbstractList<Employee> {
+        final List<Employee> rows;
+        final EmployeeProjection projection;
+
+        Rows(List<Employee> rows, EmployeeProjection projection) {
+            this.rows = rows;
+            this.projection = projection;
+        }
+
+        @Override
+        public Employee get(int index) {
+            return rows.get(index);
+        }
+
+        @Override
+        public int size() {
+            return rows.size();
+        }
+    }
+
+    static final class RowsSerializer extends JsonSerializer<Rows> {
+
+        @Override
+        public void serialize(Rows value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeStartArray(value, value.size());
+            for (Employee employee : value.rows) {
+                value.projection.write(generator, employee);
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.web;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Offers {@link EmployeeGridFormat} next to JSON for employee list responses.
+ */
+@Configuration(proxyBeanMethods = false)
+public class GridFormatConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new EmployeeGridHttpMessageConverter());
+    }
+}
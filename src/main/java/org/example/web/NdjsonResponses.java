@@ -0,0 +1,55 @@
+package org.example.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.model.Employee;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Streams employees as newline-delimited JSON, one object per line, straight from a repository
+ * scan to the response. Writes block while the client is not reading, so a slow consumer
+ * slows the scan instead of growing a buffer, and nothing is held beyond the current row.
+ */
+public final class NdjsonResponses {
+
+    /** Rows written between explicit flushes, so the first bytes leave early. */
+    private static final int FLUSH_EVERY = 256;
+
+    private NdjsonResponses() {
+    }
+
+    /**
+     * @param source invokes the given sink once per row, e.g. {@code sink -> repository.forEach(query, sink)}
+     */
+    public static ResponseEntity<StreamingResponseBody> employees(ObjectMapper mapper,
+                                                                  Consumer<Consumer<? super Employee>> source) {
+        ObjectWriter writer = mapper.writerFor(Employee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                int[] written = new int[1];
+                source.accept(employee -> {
+                    try {
+                        writer.writeValue(generator, employee);
+                        generator.writeRaw('\n');
+                        if (++written[0] % FLUSH_EVERY == 1) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+}
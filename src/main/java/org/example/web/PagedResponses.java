@@ -0,0 +1,50 @@
+package org.example.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.common.ApiResponse;
+import org.example.model.Employee;
+import org.example.query.EmployeePage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Renders an {@link EmployeePage} as the usual {@link ApiResponse} envelope. The cursor for the
+ * next page travels in the {@value #NEXT_CURSOR} header and a {@code Link: rel="next"} header.
+ * The request is passed in rather than read from {@code RequestContextHolder}, so rendering does
+ * not depend on running on the thread that received the request.
+ */
+public final class PagedResponses {
+
+    public static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private PagedResponses() {
+    }
+
+    public static ResponseEntity<ApiResponse<List<Employee>>> page(EmployeePage page, HttpServletRequest request) {
+        return page(page, null, request);
+    }
+
+    /** As {@link #page(EmployeePage, HttpServletRequest)}, sending only the projected fields when one is given. */
+    public static ResponseEntity<ApiResponse<List<Employee>>> page(EmployeePage page, EmployeeProjection projection,
+                                                                   HttpServletRequest request) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            String token = page.getNext().encode();
+            response.header(NEXT_CURSOR, token)
+                    .header(HttpHeaders.LINK, nextLink(request, token));
+        }
+        List<Employee> rows = projection == null ? page.getItems() : projection.apply(page.getItems());
+        return response.body(ApiResponse.success(rows));
+    }
+
+    /** The {@code Link} header value pointing {@code request} at the page after {@code token}. */
+    public static String nextLink(HttpServletRequest request, String token) {
+        String next = ServletUriComponentsBuilder.fromRequest(request)
+                .replaceQueryParam("cursor", token)
+                .toUriString();
+        return "<" + next + ">; rel=\"next\"";
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded responses for payloads that rarely change. An entry holds the JSON bytes, a gzip
+ * variant when that is smaller, and a strong ETag per variant; a hit hands out the stored bytes
+ * without building or serializing the payload. Each entry is tagged with the version of the data
+ * it was built from and is rebuilt on the first request that passes a different version, so
+ * callers invalidate by bumping the version (or calling {@link #invalidate}). Anything generated
+ * per response, such as the envelope timestamp, is frozen at the time the entry was built.
+ * Conditional requests are answered by Spring from the ETag on the returned entity.
+ */
+public class PayloadCache {
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public PayloadCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public ResponseEntity<byte[]> respond(String key, long version, Supplier<?> payload, String acceptEncoding) {
+        Entry entry = entries.get(key);
+        if (entry == null || entry.version != version) {
+            // concurrent misses may both encode; the bytes are identical so either may win
+            entry = encode(version, payload.get());
+            entries.put(key, entry);
+        }
+        boolean gzip = entry.gzip != null && acceptsGzip(acceptEncoding);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").eTag(entry.gzipETag).body(entry.gzip);
+        }
+        return response.eTag(entry.eTag).body(entry.identity);
+    }
+
+    public void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    private Entry encode(long version, Object payload) {
+        byte[] identity;
+        try {
+            identity = objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize cached payload", e);
+        }
+        byte[] gzip = gzip(identity);
+        String eTag = ETags.ofContent(identity);
+        return new Entry(version, identity, eTag, gzip.length < identity.length ? gzip : null,
+                eTag.substring(0, eTag.length() - 1) + "-gz\"");
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /** True when gzip, or {@code *}, is listed without {@code q=0}. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(param.substring(2)) == 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+            return !refused;
+        }
+        return false;
+    }
+
+    private record Entry(long version, byte[] identity, String eTag, byte[] gzip, String gzipETag) {
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.query.EmployeePage;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query and serialization meters for the employee endpoints, registered once up front so that
+ * recording is a lookup-free, allocation-free histogram update. Per-endpoint latency comes from
+ * Spring's own {@code http.server.requests} timer.
+ */
+public class RequestMetrics {
+
+    public enum Endpoint { EMPLOYEES, USERS }
+
+    private static final double MAX_ROWS = 10_000_000;
+
+    private final DistributionSummary[] scanned = new DistributionSummary[Endpoint.values().length];
+    private final DistributionSummary[] returned = new DistributionSummary[Endpoint.values().length];
+    private final Counter[] coalesced = new Counter[Endpoint.values().length];
+    private final Timer serialization;
+    private final DistributionSummary serializedBytes;
+
+    public RequestMetrics(MeterRegistry registry) {
+        for (Endpoint endpoint : Endpoint.values()) {
+            String tag = endpoint.name().toLowerCase(Locale.ROOT);
+            scanned[endpoint.ordinal()] = DistributionSummary.builder("employee.query.rows.scanned")
+                    .description("Rows examined to build one page")
+                    .baseUnit("rows")
+                    .tag("endpoint", tag)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(MAX_ROWS)
+                    .register(registry);
+            returned[endpoint.ordinal()] = DistributionSummary.builder("employee.query.rows.returned")
+                    .description("Rows in one page")
+                    .baseUnit("rows")
+                    .tag("endpoint", tag)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(MAX_ROWS)
+                    .register(registry);
+            coalesced[endpoint.ordinal()] = Counter.builder("employee.query.coalesced")
+                    .description("Reads answered with the response built for an identical request")
+                    .tag("endpoint", tag)
+                    .register(registry);
+        }
+        serialization = Timer.builder("http.server.response.serialization")
+                .description("Time to encode JSON response bodies")
+                .publishPercentileHistogram()
+                .register(registry);
+        serializedBytes = DistributionSummary.builder("http.server.response.serialized")
+                .description("Encoded size of JSON response bodies")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /** Records a page read that started at {@code startedNanos}. */
+    public void query(HttpServletRequest request, Endpoint endpoint, long startedNanos, EmployeePage page) {
+        ServerTiming.of(request).since(ServerTiming.Phase.QUERY, startedNanos);
+        scanned[endpoint.ordinal()].record(page.getScanned());
+        returned[endpoint.ordinal()].record(page.getItems().size());
+    }
+
+    /** Records store writes (with any validation they include) that started at {@code startedNanos}. */
+    public void write(HttpServletRequest request, long startedNanos) {
+        ServerTiming.of(request).since(ServerTiming.Phase.WRITE, startedNanos);
+    }
+
+    void coalesced(Endpoint endpoint) {
+        coalesced[endpoint.ordinal()].increment();
+    }
+
+    void serialized(long nanos, long bytes) {
+        serialization.record(nanos, TimeUnit.NANOSECONDS);
+        serializedBytes.record(bytes);
+    }
+}
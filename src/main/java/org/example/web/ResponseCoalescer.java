@@ -0,0 +1,192 @@
+package org.example.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeeFilter;
+import org.example.query.EmployeeQuery;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for list reads. Requests for the same query and projection at the same data
+ * version share one store query and one encoded JSON body: the first builds the page and encodes
+ * it, and the others wait for it and send the very same bytes, so a dashboard refresh that sends
+ * the same request from every screen at once costs one scan and one serialization.
+ *
+ * <p>Queries are compared as parsed rather than as sent: filters in any order, text values in any
+ * case (they are matched ignoring case), and {@code accountId=X} or {@code filter=department:X}
+ * all give the same key, while parameters a handler does not read play no part. The data version
+ * is part of the key, so once a write bumps it no request joins or reuses a body built before it;
+ * older entries are dropped as soon as a request sees the newer version. A finished body is kept
+ * for later identical requests while the version holds, up to {@value #MAX_ENTRIES} of them, so
+ * paging through cursors cannot grow the map without bound. Anything generated per response,
+ * such as the envelope timestamp, is shared with the body. Only the body and the next-page cursor
+ * are shared; the {@code Link} header is built for each request from its own URL, since requests
+ * with the same key may arrive through different hosts or spell their parameters differently.
+ */
+public class ResponseCoalescer {
+
+    /** Finished bodies kept for the current version; beyond this they are dropped once sent. */
+    static final int MAX_ENTRIES = 64;
+
+    private final ObjectMapper objectMapper;
+    private final RequestMetrics metrics;
+    private final RequestMetrics.Endpoint endpoint;
+    private final Map<Key, CompletableFuture<Encoded>> flights = new ConcurrentHashMap<>();
+    private final AtomicLong newestVersion = new AtomicLong(Long.MIN_VALUE);
+
+    public ResponseCoalescer(ObjectMapper objectMapper, RequestMetrics metrics, RequestMetrics.Endpoint endpoint) {
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Answers with the JSON encoding of {@code page}'s body and headers, built by this request or
+     * shared with an identical one.
+     *
+     * @param version the store's data version, read before the query runs
+     * @param page    runs the query and renders it, e.g. with {@link PagedResponses#page}
+     */
+    public ResponseEntity<byte[]> respond(EmployeeQuery query, EmployeeProjection projection, long version,
+                                          HttpServletRequest request, Supplier<? extends ResponseEntity<?>> page) {
+        evictBefore(version);
+        Key key = new Key(canonical(query), projection, version);
+        CompletableFuture<Encoded> flight = flights.get(key);
+        if (flight == null) {
+            CompletableFuture<Encoded> own = new CompletableFuture<>();
+            flight = flights.putIfAbsent(key, own);
+            if (flight == null) {
+                return lead(key, own, request, page).toResponse(request);
+            }
+        }
+        long started = System.nanoTime();
+        Encoded encoded = await(flight);
+        ServerTiming.of(request).since(ServerTiming.Phase.COALESCED, started);
+        metrics.coalesced(endpoint);
+        return encoded.toResponse(request);
+    }
+
+    private Encoded lead(Key key, CompletableFuture<Encoded> flight, HttpServletRequest request,
+                         Supplier<? extends ResponseEntity<?>> page) {
+        Encoded encoded;
+        try {
+            encoded = encode(page.get(), request);
+        } catch (RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        flight.complete(encoded);
+        if (flights.size() > MAX_ENTRIES) {
+            flights.remove(key, flight);
+        }
+        return encoded;
+    }
+
+    private Encoded encode(ResponseEntity<?> page, HttpServletRequest request) {
+        long started = System.nanoTime();
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(page.getBody());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize page", e);
+        }
+        long elapsed = System.nanoTime() - started;
+        metrics.serialized(elapsed, body.length);
+        ServerTiming.of(request).add(ServerTiming.Phase.SERIALIZE, elapsed);
+        return new Encoded(page.getStatusCode(), page.getHeaders().getFirst(PagedResponses.NEXT_CURSOR), body);
+    }
+
+    /** Drops the entries of versions before {@code version} the first time a request passes it. */
+    private void evictBefore(long version) {
+        long newest = newestVersion.get();
+        if (version > newest && newestVersion.compareAndSet(newest, version)) {
+            flights.keySet().removeIf(key -> key.version < version);
+        }
+    }
+
+    private static Encoded await(CompletableFuture<Encoded> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The query with equivalent forms made equal: filters sorted, text values case-folded the way
+     * they are compared, and every value length-prefixed so no value can pass for a separator.
+     */
+    static String canonical(EmployeeQuery query) {
+        StringBuilder key = new StringBuilder(64);
+        query.getFilters().stream()
+                .map(ResponseCoalescer::canonical)
+                .sorted()
+                .forEach(filter -> key.append(filter).append('&'));
+        key.append(query.getSortField().getField()).append(query.isDescending() ? ",desc" : ",asc");
+        if (query.getAfter() != null) {
+            key.append('@').append(query.getAfter().encode());
+        }
+        return key.append('#').append(query.getLimit()).toString();
+    }
+
+    private static String canonical(EmployeeFilter filter) {
+        StringBuilder key = new StringBuilder(filter.getField().getField()).append(':');
+        value(key, filter.getField(), filter.getFrom());
+        if (!filter.isEquality()) {
+            key.append("..");
+            value(key, filter.getField(), filter.getTo());
+        }
+        return key.toString();
+    }
+
+    private static void value(StringBuilder key, EmployeeField field, Object value) {
+        if (value == null) {
+            key.append('-');
+            return;
+        }
+        String text = value.toString();
+        key.append(text.length()).append('=');
+        if (!field.isText()) {
+            key.append(text);
+            return;
+        }
+        // per character, as String.CASE_INSENSITIVE_ORDER compares
+        for (int i = 0; i < text.length(); i++) {
+            key.append(Character.toLowerCase(Character.toUpperCase(text.charAt(i))));
+        }
+    }
+
+    private record Key(String query, EmployeeProjection projection, long version) {
+    }
+
+    private record Encoded(HttpStatusCode status, String cursor, byte[] body) {
+
+        ResponseEntity<byte[]> toResponse(HttpServletRequest request) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON);
+            if (cursor != null) {
+                response.header(PagedResponses.NEXT_CURSOR, cursor)
+                        .header(HttpHeaders.LINK, PagedResponses.nextLink(request, cursor));
+            }
+            return response.body(body);
+        }
+    }
+}
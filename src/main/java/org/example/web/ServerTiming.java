@@ -0,0 +1,151 @@
+package org.example.web;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Per-request phase durations, sent as a {@code Server-Timing} header. Handlers add time to a
+ * phase as they go; the header is written just before the response starts, so it covers every
+ * phase up to the first body byte, including serialization of JSON bodies (which are encoded
+ * into a buffer first). Adding to a phase does not allocate.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    public enum Phase {
+        /** Store reads: filtering, sorting and paging. */
+        QUERY("query"),
+        /** Store writes, including validation of bulk rows. */
+        WRITE("write"),
+        /** Encoding the response body. */
+        SERIALIZE("ser"),
+        /** Waiting for an identical concurrent request's response, see {@link ResponseCoalescer}. */
+        COALESCED("wait");
+
+        private final String metric;
+
+        Phase(String metric) {
+            this.metric = metric;
+        }
+    }
+
+    private static final String ATTRIBUTE = ServerTiming.class.getName();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long started = System.nanoTime();
+    private final long[] nanos = new long[PHASES.length];
+
+    /** The timing for {@code request}, started here if no filter has done so. */
+    public static ServerTiming of(HttpServletRequest request) {
+        Object timing = request.getAttribute(ATTRIBUTE);
+        if (timing == null) {
+            timing = new ServerTiming();
+            request.setAttribute(ATTRIBUTE, timing);
+        }
+        return (ServerTiming) timing;
+    }
+
+    /** The timing carried by a response wrapped with {@link #wrap}, or null. */
+    public static ServerTiming of(HttpServletResponse response) {
+        while (response instanceof HttpServletResponseWrapper wrapper) {
+            if (wrapper instanceof TimedResponse timed) {
+                return timed.timing;
+            }
+            response = (HttpServletResponse) wrapper.getResponse();
+        }
+        return null;
+    }
+
+    /** Wraps {@code response} so the header is added the moment the body is first opened. */
+    public HttpServletResponse wrap(HttpServletResponse response) {
+        return new TimedResponse(response, this);
+    }
+
+    public void add(Phase phase, long durationNanos) {
+        nanos[phase.ordinal()] += durationNanos;
+    }
+
+    /** Adds the time since {@code startedNanos} to {@code phase}. */
+    public void since(Phase phase, long startedNanos) {
+        add(phase, System.nanoTime() - startedNanos);
+    }
+
+    String header() {
+        StringBuilder header = new StringBuilder(64);
+        for (Phase phase : PHASES) {
+            if (nanos[phase.ordinal()] > 0) {
+                append(header, phase.metric, nanos[phase.ordinal()]);
+            }
+        }
+        return append(header, "total", System.nanoTime() - started).toString();
+    }
+
+    private static StringBuilder append(StringBuilder header, String metric, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        return header.append(metric).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1e6));
+    }
+
+    /** Stamps a response whose body was never opened, such as a 304. */
+    static void finish(HttpServletResponse response) {
+        if (response instanceof TimedResponse timed) {
+            timed.stamp();
+        }
+    }
+
+    private static final class TimedResponse extends HttpServletResponseWrapper {
+
+        private final ServerTiming timing;
+        private boolean stamped;
+
+        TimedResponse(HttpServletResponse response, ServerTiming timing) {
+            super(response);
+            this.timing = timing;
+        }
+
+        void stamp() {
+            if (!stamped && !isCommitted()) {
+                stamped = true;
+                addHeader(HEADER, timing.header());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            stamp();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            stamp();
+            super.sendError(sc);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Starts each request's {@link ServerTiming} and adds its header to the response.
+ */
+@Component
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpServletResponse timed = ServerTiming.of(request).wrap(response);
+        chain.doFilter(request, timed);
+        if (!request.isAsyncStarted()) {
+            ServerTiming.finish(timed);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * The Jackson converter, encoding into a buffer first so the time and size of serialization can
+ * be recorded and reported in {@code Server-Timing} before the first byte goes out.
+ */
+class TimedJsonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final RequestMetrics metrics;
+
+    TimedJsonHttpMessageConverter(ObjectMapper objectMapper, RequestMetrics metrics) {
+        super(objectMapper);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        long started = System.nanoTime();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+        super.writeInternal(object, type, new HttpOutputMessage() {
+            @Override
+            public OutputStream getBody() {
+                return buffer;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return outputMessage.getHeaders();
+            }
+        });
+        long elapsed = System.nanoTime() - started;
+        metrics.serialized(elapsed, buffer.size());
+        if (outputMessage instanceof ServletServerHttpResponse response) {
+            ServerTiming timing = ServerTiming.of(response.getServletResponse());
+            if (timing != null) {
+                timing.add(ServerTiming.Phase.SERIALIZE, elapsed);
+            }
+        }
+        buffer.writeTo(outputMessage.getBody());
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.web;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed array of token buckets that clients are hashed onto. Each bucket is one
+ * {@code long} updated by compare-and-set, the theoretical arrival time of the generic cell rate
+ * algorithm: a request is admitted while that time is at most {@code burst - 1} intervals ahead
+ * of now, and pushes it one interval further. Buckets sit on separate cache lines so clients on
+ * different stripes do not contend.
+ */
+public final class TokenBucketStripes {
+
+    /** Longs per 64-byte cache line. */
+    private static final int PAD = 8;
+
+    private final AtomicLongArray arrivals;
+    private final int mask;
+    private final long interval;
+    private final long tolerance;
+
+    public TokenBucketStripes(int stripes, double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate and burst must be positive: " + ratePerSecond + ", " + burst);
+        }
+        int size = Integer.highestOneBit(Math.max(1, 2 * stripes - 1));
+        this.mask = size - 1;
+        this.interval = Math.max(1, Math.round(1e9 / ratePerSecond));
+        this.tolerance = interval * (burst - 1);
+        this.arrivals = new AtomicLongArray(size * PAD);
+        for (int i = 0; i < size; i++) {
+            arrivals.set(i * PAD, Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Takes a token for {@code client} at {@code now} (from {@link System#nanoTime()}).
+     *
+     * @return 0 if admitted, otherwise the nanoseconds until the client's bucket has a token
+     */
+    public long tryAcquire(Object client, long now) {
+        int hash = client.hashCode();
+        int slot = ((hash ^ (hash >>> 16)) & mask) * PAD;
+        while (true) {
+            long arrival = arrivals.get(slot);
+            long from = Math.max(arrival, now);
+            long wait = from - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrivals.compareAndSet(slot, arrival, from + interval)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Request metrics and the timed JSON converter. Without a meter registry (web slice tests) the
+ * meters go to a private in-memory one.
+ */
+@Configuration(proxyBeanMethods = false)
+public class WebMetricsConfig implements WebMvcConfigurer {
+
+    private final RequestMetrics metrics;
+
+    public WebMetricsConfig(ObjectProvider<MeterRegistry> registry) {
+        this.metrics = new RequestMetrics(registry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Bean
+    public RequestMetrics requestMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i).getClass() == MappingJackson2HttpMessageConverter.class) {
+                MappingJackson2HttpMessageConverter jackson = (MappingJackson2HttpMessageConverter) converters.get(i);
+                TimedJsonHttpMessageConverter timed = new TimedJsonHttpMessageConverter(jackson.getObjectMapper(), metrics);
+                timed.setSupportedMediaTypes(jackson.getSupportedMediaTypes());
+                converters.set(i, timed);
+            }
+        }
+    }
+}
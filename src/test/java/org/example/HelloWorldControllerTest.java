@@ -3,9 +3,19 @@ package org.example;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -75,6 +85,119 @@ class HelloWorldControllerTest {
                 .andExpect(jsonPath("$.data", hasSize(0)));
     }
 
+    @Test
+    void getUsersSortsDescendingBySalary() throws Exception {
+        mockMvc.perform(get("/api/users").param("sort", "salary,desc").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].firstName").value("Carol"))
+                .andExpect(jsonPath("$.data[1].firstName").value("Frank"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andExpect(header().string("Link", containsString("rel=\"next\"")));
+    }
+
+    @Test
+    void getUsersFollowsCursorToNextPage() throws Exception {
+        String cursor = mockMvc.perform(get("/api/users").param("sort", "lastName").param("limit", "9"))
+                .andExpect(jsonPath("$.data", hasSize(9)))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/users").param("sort", "lastName").param("limit", "9").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].lastName").value("Wilson"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getUsersAppliesFiltersTogether() throws Exception {
+        mockMvc.perform(get("/api/users")
+                        .param("filter", "hireDate:2021-01-01..")
+                        .param("filter", "active:true")
+                        .param("accountId", "engineering"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(3)))
+                .andExpect(jsonPath("$.data[0].firstName").value("Alice"));
+    }
+
+    @Test
+    void getUsersRejectsColumnThatIsNotFilterable() throws Exception {
+        mockMvc.perform(get("/api/users").param("filter", "id:1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void getUsersRejectsUnknownSortColumn() throws Exception {
+        mockMvc.perform(get("/api/users").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getUsersRejectsCursorForDifferentSort() throws Exception {
+        String cursor = mockMvc.perform(get("/api/users").param("sort", "lastName").param("limit", "1"))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/api/users").param("sort", "salary").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getUsersSendsOnlyRequestedFields() throws Exception {
+        mockMvc.perform(get("/api/users").param("userId", "1").param("fields", "salary,lastName"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].firstName").doesNotExist())
+                .andExpect(jsonPath("$.data[0].id").value(1))
+                .andExpect(jsonPath("$.data[0].lastName").value("Johnson"))
+                .andExpect(jsonPath("$.data[0].salary").value(95000.0))
+                .andExpect(jsonPath("$.data[0].email").doesNotExist());
+    }
+
+    @Test
+    void getUsersDefaultsToVisibleColumns() throws Exception {
+        String body = mockMvc.perform(get("/api/users").param("userId", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("\"data\":[{\"id\":1,\"firstName\":\"Alice\",\"lastName\":\"Johnson\","
+                + "\"email\":\"alice.johnson@example.com\",\"department\":\"Engineering\",\"jobTitle\":\"Software Engineer\","
+                + "\"hireDate\":\"2021-03-15\",\"salary\":95000.0,\"active\":true}]"), body);
+    }
+
+    @Test
+    void getUsersRejectsUnknownField() throws Exception {
+        mockMvc.perform(get("/api/users").param("fields", "firstName,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void getUsersStreamsNdjsonWhenRequested() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users")
+                        .param("accountId", "Engineering")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":1,"));
+        assertTrue(lines[0].contains("\"hireDate\":\"2021-03-15\""));
+    }
+
+    @Test
+    void getUsersDefaultsToJsonEnvelope() throws Exception {
+        mockMvc.perform(get("/api/users").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.data", hasSize(10)));
+    }
+
     @Test
     void getUsersManifestReturnsAllColumns() throws Exception {
         mockMvc.perform(get("/api/users/manifest"))
@@ -131,4 +254,80 @@ class HelloWorldControllerTest {
                 .andExpect(jsonPath("$.data[3].flex").value(1))
                 .andExpect(jsonPath("$.data[3].width").doesNotExist());
     }
+
+    @Test
+    void getUsersManifestIsServedWithStrongEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/users/manifest"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", "Accept-Encoding"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertTrue(etag.matches("\"[0-9a-f]{32}\""));
+
+        mockMvc.perform(get("/api/users/manifest").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getUsersManifestIsGzippedWhenAccepted() throws Exception {
+        MvcResult plain = mockMvc.perform(get("/api/users/manifest")).andReturn();
+        MvcResult gzipped = mockMvc.perform(get("/api/users/manifest").header("Accept-Encoding", "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn();
+
+        assertTrue(gzipped.getResponse().getContentAsByteArray().length < plain.getResponse().getContentAsByteArray().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+            assertEquals(plain.getResponse().getContentAsString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(plain.getResponse().getHeader("ETag").replace("\"", "") + "-gz",
+                gzipped.getResponse().getHeader("ETag").replace("\"", ""));
+
+        mockMvc.perform(get("/api/users/manifest").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+    }
+
+    @Test
+    void exportUsersStreamsCsvInManifestOrder() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/export.csv").param("accountId", "Engineering"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString("users.csv")))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\r\n");
+        assertEquals(5, lines.length);
+        assertEquals("ID,First Name TEST,AAA Last Name,Email,Department,Job Title,Hire Date,Salary,Active", lines[0]);
+        assertEquals("1,Alice,Johnson,alice.johnson@example.com,Engineering,Software Engineer,2021-03-15,95000,true", lines[1]);
+    }
+
+    @Test
+    void exportUsersWritesOnlyTheNamedColumnsGzippedWhenAccepted() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/export.csv")
+                        .param("fields", "salary,lastName")
+                        .param("filter", "active:false")
+                        .header("Accept-Encoding", "gzip"))
+                .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("ID,AAA Last Name,Salary\r\n5,Davis,82000\r\n10,Anderson,76000\r\n",
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void exportUsersRejectsUnknownField() throws Exception {
+        mockMvc.perform(get("/api/users/export.csv").param("fields", "password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
 }
@@ -0,0 +1,454 @@
+package org.example.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.EmployeeStoreConfig;
+import org.example.service.DepartmentStatsService;
+import org.example.service.EmployeeChangeFeed;
+import org.example.service.EmployeeImportService;
+import org.example.service.EmployeeIngestService;
+import org.example.service.EmployeePatchService;
+import org.example.model.Employee;
+import org.example.service.EmployeeSearchService;
+import org.example.web.EmployeeGridFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(EmployeeController.class)
+@Import({EmployeeStoreConfig.class, EmployeeIngestService.class, EmployeeImportService.class, EmployeePatchService.class, DepartmentStatsService.class,
+        EmployeeSearchService.class, EmployeeChangeFeed.class, SimpleMeterRegistry.class})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class EmployeeControllerTest {
+
+    private static final String VALID_ROW = """
+            {"firstName":"Ann","lastName":"Lee","email":"ann.lee@company.org","department":"IT",
+             "jobTitle":"Engineer","hireDate":"2020-01-01","salary":70000,"active":true}""";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void getAllEmployeesReturnsSeededEmployees() throws Exception {
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data", hasSize(3)))
+                .andExpect(jsonPath("$.data[0].firstName").value("Sarah"));
+    }
+
+    @Test
+    void identicalReadsShareOneResponseUntilAWrite() throws Exception {
+        String first = mockMvc.perform(get("/api/employees").param("filter", "department:it").param("utm", "a"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+        String second = mockMvc.perform(get("/api/employees").param("filter", "department:IT").param("sort", "id,asc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", containsString("wait;dur=")))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, second);
+        assertEquals(1, registry.get("employee.query.coalesced").tag("endpoint", "employees").counter().count());
+
+        mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_ROW.replace("ann.lee@", "ann.lee3@")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/employees").param("filter", "department:IT"))
+                .andExpect(jsonPath("$.data", hasSize(2)));
+        assertEquals(1, registry.get("employee.query.coalesced").tag("endpoint", "employees").counter().count());
+    }
+
+    @Test
+    void exportStreamsMatchingEmployeesAsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/employees/export.csv")
+                        .param("filter", "department:IT")
+                        .param("fields", "email,firstName"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals("ID,First Name TEST,Email\r\n3,Rachel,r.patel@company.org\r\n", body);
+    }
+
+    @Test
+    void pagesReportPhaseTimingsAndRowCounts() throws Exception {
+        mockMvc.perform(get("/api/employees").param("filter", "department:IT"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Server-Timing", containsString("query;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("ser;dur=")))
+                .andExpect(header().string("Server-Timing", containsString("total;dur=")));
+        mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(VALID_ROW))
+                .andExpect(header().string("Server-Timing", containsString("write;dur=")));
+
+        // answered from the department index, so no rows are examined and thrown away
+        assertEquals(1.0, registry.get("employee.query.rows.scanned").tag("endpoint", "employees").summary().totalAmount());
+        assertEquals(1.0, registry.get("employee.query.rows.returned").tag("endpoint", "employees").summary().totalAmount());
+        assertEquals(2, registry.get("http.server.response.serialization").timer().count());
+        assertTrue(registry.get("http.server.response.serialized").summary().totalAmount() > 0);
+    }
+
+    @Test
+    void gridFormatIsNegotiatedByAccept() throws Exception {
+        byte[] grid = mockMvc.perform(get("/api/employees").param("sort", "salary,desc").param("limit", "2")
+                        .accept(EmployeeGridFormat.MEDIA_TYPE_VALUE + ", application/json;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(EmployeeGridFormat.MEDIA_TYPE_VALUE))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        List<Employee> rows = EmployeeGridFormat.read(grid);
+        assertEquals(2, rows.size());
+        assertEquals("Sarah", rows.get(0).getFirstName());
+        assertEquals("Finance", rows.get(0).getDepartment());
+        assertEquals("Rachel", rows.get(1).getFirstName());
+
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+        mockMvc.perform(get("/api/employees/stats").accept(EmployeeGridFormat.MEDIA_TYPE_VALUE))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void singleEmployeeEtagSupportsConditionalGet() throws Exception {
+        mockMvc.perform(get("/api/employees/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1.1\""))
+                .andExpect(jsonPath("$.data.version").value(1));
+
+        mockMvc.perform(get("/api/employees/1").header("If-None-Match", "\"1.1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void updateWithStaleIfMatchReturns412() throws Exception {
+        mockMvc.perform(put("/api/employees/1").header("If-Match", "\"1.1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(VALID_ROW))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1.2\""));
+
+        mockMvc.perform(put("/api/employees/1").header("If-Match", "\"1.1\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(VALID_ROW))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().string("ETag", "\"1.2\""))
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void listEtagChangesOnlyWhenDataChanges() throws Exception {
+        String etag = mockMvc.perform(get("/api/employees").param("sort", "salary,desc"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/employees").param("sort", "salary,desc").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/employees").param("sort", "salary,asc").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(VALID_ROW))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/employees").param("sort", "salary,desc").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(4)));
+    }
+
+    @Test
+    void listEtagDiffersPerRepresentation() throws Exception {
+        String json = mockMvc.perform(get("/api/employees"))
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getHeader("ETag");
+        String grid = mockMvc.perform(get("/api/employees").accept(EmployeeGridFormat.MEDIA_TYPE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Vary", containsString("Accept")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertNotEquals(json, grid);
+        mockMvc.perform(get("/api/employees").accept(EmployeeGridFormat.MEDIA_TYPE_VALUE).header("If-None-Match", json))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(EmployeeGridFormat.MEDIA_TYPE_VALUE));
+        mockMvc.perform(get("/api/employees").accept(EmployeeGridFormat.MEDIA_TYPE_VALUE).header("If-None-Match", grid))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void mergePatchChangesOnlyTheGivenFields() throws Exception {
+        mockMvc.perform(patch("/api/employees/3").header("If-Match", "\"3.1\"")
+                        .contentType(EmployeePatchService.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"salary\":81000,\"active\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3.2\""))
+                .andExpect(jsonPath("$.data.salary").value(81000.0))
+                .andExpect(jsonPath("$.data.active").value(false))
+                .andExpect(jsonPath("$.data.firstName").value("Rachel"))
+                .andExpect(jsonPath("$.data.version").value(2));
+
+        mockMvc.perform(get("/api/employees/stats"))
+                .andExpect(jsonPath("$.data[1].department").value("IT"))
+                .andExpect(jsonPath("$.data[1].activeCount").value(0))
+                .andExpect(jsonPath("$.data[1].salarySum").value(81000.0));
+
+        mockMvc.perform(patch("/api/employees/3").header("If-Match", "\"3.1\"")
+                        .contentType(EmployeePatchService.MERGE_PATCH_JSON_VALUE).content("{\"active\":true}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void mergePatchValidatesOnlyPatchedFields() throws Exception {
+        mockMvc.perform(patch("/api/employees/1").contentType(EmployeePatchService.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"salary\":-5,\"firstName\":null}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("salary: Salary must be positive")))
+                .andExpect(jsonPath("$.message", containsString("firstName: First name is required")));
+        mockMvc.perform(patch("/api/employees/1").contentType(MediaType.APPLICATION_JSON).content("{\"version\":9}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/api/employees/1").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/employees/1"))
+                .andExpect(jsonPath("$.data.version").value(1))
+                .andExpect(jsonPath("$.data.salary").value(82500.0));
+    }
+
+    @Test
+    void statsFollowWrites() throws Exception {
+        mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(VALID_ROW))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/employees/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(3)))
+                .andExpect(jsonPath("$.data[1].department").value("IT"))
+                .andExpect(jsonPath("$.data[1].headcount").value(2))
+                .andExpect(jsonPath("$.data[1].salarySum").value(148000.0))
+                .andExpect(jsonPath("$.data[1].minSalary").value(70000.0))
+                .andExpect(jsonPath("$.data[1].maxSalary").value(78000.0))
+                .andExpect(jsonPath("$.data[1].averageSalary").value(74000.0));
+    }
+
+    @Test
+    void searchRanksWordPrefixesFirstAndFollowsWrites() throws Exception {
+        mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON)
+                        .content(VALID_ROW.replace("\"Lee\"", "\"Atel\"").replace("ann.lee@", "ann.atel@")))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/employees/search").param("q", "ATEL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].lastName").value("Atel"))
+                .andExpect(jsonPath("$.data[1].lastName").value("Patel"));
+        mockMvc.perform(get("/api/employees/search").param("q", "at"))
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].lastName").value("Atel"));
+
+        mockMvc.perform(put("/api/employees/3").contentType(MediaType.APPLICATION_JSON).content(VALID_ROW))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/employees/search").param("q", "patel"))
+                .andExpect(jsonPath("$.data", hasSize(0)));
+        mockMvc.perform(get("/api/employees/search").param("q", "x").param("limit", "500"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void changeStreamPublishesWritesAndResumesFromLastEventId() throws Exception {
+        MvcResult live = mockMvc.perform(get("/api/employees/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ready = awaitEvent(live, "event:ready\nid:([^\n]+)");
+
+        mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(VALID_ROW))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/employees/4").contentType(MediaType.APPLICATION_JSON).content(VALID_ROW))
+                .andExpect(status().isOk());
+        awaitEvent(live, "\"type\":\"UPDATED\",\"id\":4");
+
+        MvcResult resumed = mockMvc.perform(get("/api/employees/changes").header("Last-Event-ID", ready))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String first = awaitEvent(resumed, "id:([^\n]+)\ndata:\\{\"seq\":\\d+,\"type\":\"CREATED\",\"id\":4");
+        awaitEvent(resumed, "\"type\":\"UPDATED\",\"id\":4");
+        assertTrue(first.startsWith(ready.substring(0, ready.indexOf(':') + 1)));
+
+        MvcResult stale = mockMvc.perform(get("/api/employees/changes").param("since", "some-earlier-run:12"))
+                .andReturn();
+        awaitEvent(stale, "event:resync");
+    }
+
+    /** Waits for the streamed body to match {@code regex}; returns the first group, if any. */
+    private static String awaitEvent(MvcResult result, String regex) throws Exception {
+        Pattern pattern = Pattern.compile(regex);
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            Matcher matcher = pattern.matcher(result.getResponse().getContentAsString());
+            if (matcher.find()) {
+                return matcher.groupCount() > 0 ? matcher.group(1) : matcher.group();
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No event matching " + regex + " in:\n" + result.getResponse().getContentAsString());
+    }
+
+    @Test
+    void batchStoresValidRowsAndReportsRejectedOnes() throws Exception {
+        String invalid = VALID_ROW.replace("ann.lee@company.org", "not-an-email").replace("70000", "-1");
+        String another = VALID_ROW.replace("ann.lee@", "ann.lee2@");
+
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + VALID_ROW + "," + invalid + "," + another + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.received").value(3))
+                .andExpect(jsonPath("$.data.accepted").value(2))
+                .andExpect(jsonPath("$.data.rejected").value(1))
+                .andExpect(jsonPath("$.data.firstId").value(4))
+                .andExpect(jsonPath("$.data.lastId").value(5))
+                .andExpect(jsonPath("$.data.errors", hasSize(2)))
+                .andExpect(jsonPath("$.data.errors[0].index").value(1))
+                .andExpect(jsonPath("$.data.errors[0].field").value("email"))
+                .andExpect(jsonPath("$.data.errors[1].field").value("salary"));
+
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(jsonPath("$.data", hasSize(5)));
+    }
+
+    @Test
+    void batchAcceptsNdjson() throws Exception {
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(VALID_ROW.replace("\n", "") + "\n" + VALID_ROW.replace("\n", "").replace("ann.lee@", "ann.lee2@") + "\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.accepted").value(2))
+                .andExpect(jsonPath("$.data.errors", hasSize(0)));
+    }
+
+    @Test
+    void batchStoresLargeNdjsonInOneCommitAndNumbersEveryRow() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 5_001; i++) {
+            String email = i == 5_000 ? "bulk0@company.org" : "bulk" + i + "@company.org";
+            body.append(VALID_ROW.replace("\n", "").replace("ann.lee@company.org", email)).append('\n');
+        }
+
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.received").value(5_001))
+                .andExpect(jsonPath("$.data.accepted").value(5_000))
+                .andExpect(jsonPath("$.data.errors", hasSize(1)))
+                .andExpect(jsonPath("$.data.errors[0].index").value(5_000))
+                .andExpect(jsonPath("$.data.errors[0].field").value("email"))
+                .andExpect(jsonPath("$.data.firstId").value(4))
+                .andExpect(jsonPath("$.data.lastId").value(5_003));
+    }
+
+    @Test
+    void importStoresCsvRowsAndReportsRejectedOnesByLine() throws Exception {
+        String csv = """
+                First Name TEST,AAA Last Name,email,department,jobTitle,hireDate,salary,active
+                Ann,Lee,ann.lee@company.org,IT,Engineer,2020-01-01,70000,true
+                Bob,Roe,r.patel@company.org,IT,Engineer,2020-01-01,70000,true
+                Cy,Doe,cy.doe@company.org,IT,Engineer,2020-01-01,-5,false
+                Di,Poe,di.poe@company.org,Finance,"Analyst, Senior",2021-06-30,65000.5,true
+                """;
+
+        mockMvc.perform(post("/api/employees/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.received").value(4))
+                .andExpect(jsonPath("$.data.accepted").value(2))
+                .andExpect(jsonPath("$.data.rejected").value(2))
+                .andExpect(jsonPath("$.data.errors", hasSize(2)))
+                .andExpect(jsonPath("$.data.errors[0].index").value(3))
+                .andExpect(jsonPath("$.data.errors[0].field").value("email"))
+                .andExpect(jsonPath("$.data.errors[1].index").value(4))
+                .andExpect(jsonPath("$.data.errors[1].field").value("salary"));
+
+        mockMvc.perform(get("/api/employees").param("filter", "department:Finance"))
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[1].jobTitle").value("Analyst, Senior"));
+        mockMvc.perform(post("/api/employees/import").contentType("text/csv").content("firstName,nickname\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown column: nickname"));
+    }
+
+    @Test
+    void duplicateEmailIsAConflict() throws Exception {
+        String clash = VALID_ROW.replace("ann.lee@company.org", "R.Patel@Company.org");
+
+        mockMvc.perform(post("/api/employees").contentType(MediaType.APPLICATION_JSON).content(clash))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("Email R.Patel@Company.org is already used by employee 3"));
+        mockMvc.perform(put("/api/employees/1").contentType(MediaType.APPLICATION_JSON).content(clash))
+                .andExpect(status().isConflict());
+        mockMvc.perform(patch("/api/employees/2").contentType(EmployeePatchService.MERGE_PATCH_JSON_VALUE)
+                        .content("{\"email\":\"r.patel@company.org\"}"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(get("/api/employees/1"))
+                .andExpect(jsonPath("$.data.email").value("s.mitchell@company.org"));
+
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + VALID_ROW + "," + clash + "," + VALID_ROW.replace("Ann", "Anne") + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.accepted").value(1))
+                .andExpect(jsonPath("$.data.errors", hasSize(2)))
+                .andExpect(jsonPath("$.data.errors[0].index").value(1))
+                .andExpect(jsonPath("$.data.errors[0].field").value("email"))
+                .andExpect(jsonPath("$.data.errors[1].index").value(2));
+    }
+
+    @Test
+    void batchRejectsMalformedNdjson() throws Exception {
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"firstName\": \n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void malformedNdjsonLineStoresNothing() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 6_000; i++) {
+            body.append(VALID_ROW.replace("\n", "").replace("ann.lee@company.org", "partial" + i + "@company.org")).append('\n');
+        }
+        body.append("{\"firstName\": \n");
+
+        mockMvc.perform(post("/api/employees/batch")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body.toString()))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(jsonPath("$.data", hasSize(3)));
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.example.service.WorklistQueue;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(WorkListController.class)
+@Import(WorklistQueue.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+class WorkListControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getWorkListReturnsItems() throws Exception {
+        mockMvc.perform(get("/api/worklist"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data", hasSize(5)))
+                .andExpect(jsonPath("$.data[0].accountName").value("7291-CHASE-Q4"));
+    }
+
+    @Test
+    void getWorkListRepeatsTheSameBytesAndEtag() throws Exception {
+        var first = mockMvc.perform(get("/api/worklist")).andReturn().getResponse();
+
+        mockMvc.perform(get("/api/worklist"))
+                .andExpect(header().string("ETag", first.getHeader("ETag")))
+                .andExpect(content().bytes(first.getContentAsByteArray()));
+        mockMvc.perform(get("/api/worklist").header("If-None-Match", first.getHeader("ETag")))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void claimedItemsLeaveTheListUntilReleased() throws Exception {
+        String etag = mockMvc.perform(get("/api/worklist")).andReturn().getResponse().getHeader("ETag");
+
+        String claims = mockMvc.perform(post("/api/worklist/claims").param("worker", "w1").param("count", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].worker").value("w1"))
+                .andReturn().getResponse().getContentAsString();
+        List<Integer> ids = JsonPath.read(claims, "$.data[*].item.id");
+        List<Integer> tokens = JsonPath.read(claims, "$.data[*].token");
+
+        mockMvc.perform(get("/api/worklist").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(3)))
+                .andExpect(jsonPath("$.data[*].id", not(hasItem(ids.get(0)))))
+                .andExpect(jsonPath("$.data[*].id", not(hasItem(ids.get(1)))));
+
+        mockMvc.perform(post("/api/worklist/" + ids.get(0) + "/release").param("token", "" + tokens.get(0)))
+                .andExpect(jsonPath("$.success").value(true));
+        mockMvc.perform(post("/api/worklist/" + ids.get(1) + "/complete").param("token", "" + tokens.get(0)))
+                .andExpect(jsonPath("$.success").value(false));
+        mockMvc.perform(post("/api/worklist/" + ids.get(1) + "/complete").param("token", "" + tokens.get(1)))
+                .andExpect(jsonPath("$.success").value(true));
+
+        mockMvc.perform(get("/api/worklist"))
+                .andExpect(jsonPath("$.data", hasSize(4)))
+                .andExpect(jsonPath("$.data[*].id", hasItem(ids.get(0))));
+    }
+
+    @Test
+    void claimCountIsBounded() throws Exception {
+        mockMvc.perform(post("/api/worklist/claims").param("worker", "w1").param("count", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void leaseLengthIsBounded() throws Exception {
+        mockMvc.perform(post("/api/worklist/claims").param("worker", "w1").param("leaseSeconds", "" + Long.MAX_VALUE))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.load;
+
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.example.model.ImportResult;
+import org.example.persistence.EmployeeImportProperties;
+import org.example.repository.ColumnarEmployeeRepository;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.InMemoryEmployeeRepository;
+import org.example.service.EmployeeImportService;
+import org.example.service.EmployeeIngestService;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Bulk import throughput. Not a unit test; writes a CSV of {@code rows} generated employees to a
+ * temporary file, imports it into an empty store of the given engine and prints the result. Run
+ * it with, e.g.
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.example.load.CsvImportRunner -Dexec.args="10000000 columnar" \
+ *     -Dexec.jvmArgs=-Xmx8g
+ * </pre>
+ * Every hundredth row has a negative salary, so the rejected count should be {@code rows / 100}.
+ */
+public class CsvImportRunner {
+
+    private static final String[] DEPARTMENTS = {"Finance", "Operations", "IT", "Sales", "Legal", "Marketing"};
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String engine = args.length > 1 ? args[1] : "heap";
+
+        Path file = Files.createTempFile("employees-", ".csv");
+        try {
+            long started = System.nanoTime();
+            generate(file, rows);
+            System.out.printf("wrote %,d rows (%,d MB) in %,d ms%n", rows, Files.size(file) >> 20,
+                    (System.nanoTime() - started) / 1_000_000);
+
+            EmployeeRepository store = engine.equals("columnar") ? new ColumnarEmployeeRepository() : new InMemoryEmployeeRepository();
+            try (ValidatorFactory validation = Validation.buildDefaultValidatorFactory()) {
+                EmployeeImportService importer = new EmployeeImportService(
+                        new EmployeeIngestService(store, validation.getValidator()), new EmployeeImportProperties());
+                ImportResult result = importer.importFile(file);
+                System.out.printf("%s: %,d received, %,d accepted, %,d rejected in %,d ms = %,d rows/s; %,d stored%n",
+                        engine, result.getReceived(), result.getAccepted(), result.getRejected(),
+                        result.getElapsedMillis(), result.getRowsPerSecond(), store.count());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void generate(Path file, int rows) throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("id,firstName,lastName,email,department,jobTitle,hireDate,salary,active\n");
+            for (int i = 1; i <= rows; i++) {
+                out.write(Integer.toString(i));
+                out.write(",First");
+                out.write(Integer.toString(i % 5000));
+                out.write(",\"Last, ");
+                out.write(Integer.toString(i % 7919));
+                out.write("\",employee");
+                out.write(Integer.toString(i));
+                out.write("@company.org,");
+                out.write(DEPARTMENTS[i % DEPARTMENTS.length]);
+                out.write(",Analyst ");
+                out.write(Integer.toString(i % 12));
+                out.write(",20");
+                out.write(Integer.toString(10 + i % 14));
+                out.write('-');
+                out.write(i % 9 + 1 < 10 ? "0" + (i % 9 + 1) : Integer.toString(i % 9 + 1));
+                out.write("-15,");
+                out.write(i % 100 == 0 ? "-1" : Integer.toString(40_000 + i % 60_000));
+                out.write(i % 3 == 0 ? ",false\n" : ",true\n");
+            }
+        }
+    }
+}
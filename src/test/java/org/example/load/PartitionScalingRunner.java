@@ -0,0 +1,211 @@
+package org.example.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.HelloWorldApplication;
+import org.example.partition.PeerSecretFilter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Throughput of a partitioned employee store on 1 to 4 instances. Not a unit test; for each node
+ * count it boots that many instances in this JVM, loads {@code rows} employees through the first,
+ * then keeps {@code clients} connections busy for {@code seconds}, each request sent to a random
+ * instance: 70% reads by id, 20% creates and 10% first pages sorted by salary. Run it with, e.g.
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.example.load.PartitionScalingRunner -Dexec.args="64 20000 15"
+ * </pre>
+ * Arguments are clients, rows and measured seconds per node count. The instances share this
+ * machine's cores, so the table shows what forwarding and scatter/gather cost and how rows
+ * spread; throughput gains need the instances on separate machines.
+ */
+public class PartitionScalingRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String SECRET = "scaling-runner";
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 15;
+
+        List<String> lines = new ArrayList<>();
+        for (int nodes = 1; nodes <= 4; nodes++) {
+            List<String> urls = new ArrayList<>();
+            for (int i = 0; i < nodes; i++) {
+                urls.add("http://localhost:" + freePort());
+            }
+            List<ConfigurableApplicationContext> instances = new ArrayList<>();
+            try {
+                for (String url : urls) {
+                    instances.add(start(url, urls));
+                }
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .executor(Executors.newVirtualThreadPerTaskExecutor())
+                        .build();
+                long[] ids = load(client, urls.get(0), rows);
+                String held = urls.stream().map(url -> Integer.toString(localCount(client, url)))
+                        .collect(Collectors.joining("/"));
+                drive(client, urls, ids, clients, Duration.ofSeconds(Math.max(2, seconds / 3)));
+                Result result = drive(client, urls, ids, clients, Duration.ofSeconds(seconds));
+                lines.add(String.format("%5d  %9.0f  %8.2f  %8.2f  %8.2f  %6d  %s", nodes, result.throughput(),
+                        result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors, held));
+            } finally {
+                instances.forEach(ConfigurableApplicationContext::close);
+            }
+        }
+        System.out.printf("%nclients=%d rows=%d seconds=%d cpus=%d%n",
+                clients, rows, seconds, Runtime.getRuntime().availableProcessors());
+        System.out.println("nodes      req/s    p50 ms    p99 ms    max ms  errors  rows per node");
+        lines.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(String self, List<String> nodes) {
+        return new SpringApplicationBuilder(HelloWorldApplication.class).run(
+                "--server.port=" + URI.create(self).getPort(),
+                "--logging.level.root=WARN",
+                "--employee.store.partition.enabled=true",
+                "--employee.store.partition.nodes=" + String.join(",", nodes),
+                "--employee.store.partition.self=" + self,
+                "--employee.store.partition.secret=" + SECRET);
+    }
+
+    /** Stores {@code rows} employees in batches and returns their ids. */
+    private static long[] load(HttpClient client, String url, int rows) throws Exception {
+        for (int first = 0; first < rows; first += 1000) {
+            String batch = IntStream.range(first, Math.min(rows, first + 1000))
+                    .mapToObj(i -> row("load" + i))
+                    .collect(Collectors.joining(",", "[", "]"));
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(url + "/api/employees/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(batch)).build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Batch failed: " + response.body());
+            }
+        }
+        HttpResponse<Stream<String>> all = client.send(
+                HttpRequest.newBuilder(URI.create(url + "/api/employees")).header("Accept", "application/x-ndjson").build(),
+                HttpResponse.BodyHandlers.ofLines());
+        return all.body().filter(line -> !line.isBlank()).mapToLong(line -> {
+            try {
+                return MAPPER.readTree(line).path("id").asLong();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }).toArray();
+    }
+
+    private static int localCount(HttpClient client, String url) {
+        try {
+            HttpResponse<String> status = client.send(HttpRequest.newBuilder(URI.create(url + "/internal/employees/status"))
+                            .header(PeerSecretFilter.HEADER, SECRET).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            return MAPPER.readTree(status.body()).path("count").asInt();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static Result drive(HttpClient client, List<String> urls, long[] ids, int clients, Duration duration)
+            throws Exception {
+        AtomicLong errors = new AtomicLong();
+        AtomicLong created = new AtomicLong();
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        List<Future<long[]>> workers = new ArrayList<>(clients);
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                workers.add(threads.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] latencies = new long[256];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        String url = urls.get(random.nextInt(urls.size()));
+                        int kind = random.nextInt(10);
+                        HttpRequest.Builder request;
+                        if (kind < 7) {
+                            request = HttpRequest.newBuilder(URI.create(url + "/api/employees/" + ids[random.nextInt(ids.length)]));
+                        } else if (kind < 9) {
+                            request = HttpRequest.newBuilder(URI.create(url + "/api/employees"))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(row("new" + created.incrementAndGet() + "-" + System.nanoTime())));
+                        } else {
+                            request = HttpRequest.newBuilder(URI.create(url + "/api/employees?sort=salary,desc&limit=20"));
+                        }
+                        long sent = System.nanoTime();
+                        try {
+                            if (client.send(request.timeout(Duration.ofSeconds(30)).build(),
+                                    HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - sent;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        List<long[]> all = new ArrayList<>();
+        for (Future<long[]> worker : workers) {
+            all.add(worker.get());
+        }
+        long[] sorted = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(sorted, elapsed, errors.get());
+    }
+
+    private static String row(String name) {
+        return """
+                {"firstName":"%s","lastName":"Load","email":"%s@company.org","department":"Dept%d",
+                 "jobTitle":"Engineer","hireDate":"2020-01-01","salary":%d,"active":true}"""
+                .formatted(name, name, Math.floorMod(name.hashCode(), 12), 30_000 + Math.floorMod(name.hashCode(), 90_000));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Result(long[] sortedLatencies, double seconds, long errors) {
+
+        double throughput() {
+            return sortedLatencies.length / seconds;
+        }
+
+        double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.load;
+
+import org.example.HelloWorldApplication;
+import org.example.common.ApiResponse;
+import org.example.query.EmployeeQuery;
+import org.example.repository.EmployeeRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Saturation load test comparing Tomcat's platform-thread pool with virtual threads. Not a unit
+ * test; it boots the application once per mode on a random port and keeps {@code connections}
+ * concurrent keep-alive connections busy against an endpoint that blocks for {@code delayMs}
+ * (standing in for a slow downstream call or a synchronous log flush) before reading a page of
+ * employees. Run it with, e.g.
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=org.example.load.SaturationLoadRunner -Dexec.args="2000 20 50"
+ * </pre>
+ * Arguments are connections, measured seconds per mode and downstream delay in milliseconds.
+ * The process needs a file descriptor limit of at least twice the connection count.
+ */
+public class SaturationLoadRunner {
+
+    private static final String PATH = "/load/slow";
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int delayMs = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        List<String> lines = new ArrayList<>();
+        for (boolean virtual : new boolean[] {false, true}) {
+            try (ConfigurableApplicationContext app = start(virtual, delayMs)) {
+                URI uri = URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port") + PATH);
+                drive(uri, connections, Duration.ofSeconds(Math.max(2, seconds / 4)));
+                Result result = drive(uri, connections, Duration.ofSeconds(seconds));
+                lines.add(String.format("%-8s  %11d  %9.0f  %8.1f  %8.1f  %8.1f  %6d",
+                        virtual ? "virtual" : "platform", connections, result.throughput(),
+                        result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.errors));
+            }
+        }
+        System.out.printf("%nconnections=%d seconds=%d delayMs=%d cpus=%d%n",
+                connections, seconds, delayMs, Runtime.getRuntime().availableProcessors());
+        System.out.println("mode      connections    req/s    p50 ms    p99 ms    max ms  errors");
+        lines.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual, int delayMs) {
+        ApplicationContextInitializer<ConfigurableApplicationContext> slowRoute = context ->
+                ((GenericApplicationContext) context).registerBean("slowDownstreamRoute", RouterFunction.class, () -> {
+                    EmployeeQuery firstPage = EmployeeQuery.builder().limit(20).build();
+                    return RouterFunctions.route().GET(PATH, request -> {
+                        Thread.sleep(delayMs);
+                        EmployeeRepository employees = context.getBean(EmployeeRepository.class);
+                        return ServerResponse.ok().body(ApiResponse.success(employees.query(firstPage).getItems()));
+                    }).build();
+                });
+        return new SpringApplicationBuilder(HelloWorldApplication.class)
+                .initializers(slowRoute)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "server.tomcat.max-connections=20000",
+                        "server.tomcat.accept-count=20000",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static Result drive(URI uri, int connections, Duration duration) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build();
+        AtomicLong errors = new AtomicLong();
+        long started = System.nanoTime();
+        long deadline = started + duration.toNanos();
+        List<Future<long[]>> workers = new ArrayList<>(connections);
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                workers.add(threads.submit(() -> {
+                    long[] latencies = new long[256];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - sent;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+        int total = 0;
+        for (Future<long[]> worker : workers) {
+            total += worker.get().length;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (Future<long[]> worker : workers) {
+            long[] latencies = worker.get();
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        Arrays.sort(all);
+        return new Result(all, elapsed, errors.get());
+    }
+
+    private record Result(long[] sortedLatencies, double seconds, long errors) {
+
+        double throughput() {
+            return sortedLatencies.length / seconds;
+        }
+
+        double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
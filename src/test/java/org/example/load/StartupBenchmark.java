@@ -0,0 +1,108 @@
+package org.example.load;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start comparison of the standard jar and the {@code faststart} build (Spring AOT plus an
+ * AppCDS archive). Not a unit test; each run launches a fresh JVM on a free port and measures
+ * the time from starting the process to the first 200 from {@value #PATH}, which needs the
+ * context, the web server, the column manifest and the employee store to all be up. Launches
+ * alternate between the two builds so disk cache and machine noise hit both alike. The
+ * {@code faststart} profile runs it with
+ * <pre>
+ * mvn -Pfaststart verify -Dstartup.benchmark.skip=false -Dstartup.runs=10
+ * </pre>
+ * Arguments are the standard jar, the faststart jar, its CDS archive and the launches per build.
+ */
+public class StartupBenchmark {
+
+    private static final String PATH = "/api/users?limit=1";
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("usage: StartupBenchmark <standard.jar> <faststart.jar> <faststart.jsa> [runs]");
+            System.exit(2);
+        }
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> standard = List.of(java, "-jar", args[0]);
+        List<String> fastStart = List.of(java, "-XX:SharedArchiveFile=" + args[2],
+                "-Dspring.aot.enabled=true", "-jar", args[1]);
+
+        long[] standardMs = new long[runs];
+        long[] fastStartMs = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            standardMs[i] = timeToFirstRequest(standard);
+            fastStartMs[i] = timeToFirstRequest(fastStart);
+        }
+
+        System.out.printf("%nruns=%d cpus=%d java=%s%n", runs, Runtime.getRuntime().availableProcessors(), java);
+        System.out.println("build        min ms  median ms    max ms");
+        print("standard", standardMs);
+        print("faststart", fastStartMs);
+    }
+
+    /** Milliseconds from launching {@code command} to its first successful response. */
+    private static long timeToFirstRequest(List<String> command) throws Exception {
+        int port = freePort();
+        List<String> full = new ArrayList<>(command);
+        full.addAll(List.of("--server.port=" + port, "--logging.level.root=WARN"));
+        File log = Files.createTempFile("startup-benchmark", ".log").toFile();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PATH))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(full).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            while (System.nanoTime() - started < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Exited with " + process.exitValue() + ": " + command
+                            + "\n" + Files.readString(log.toPath()));
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No successful response within " + TIMEOUT + ": " + command);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            Files.deleteIfExists(log.toPath());
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void print(String build, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-10s  %8d  %9d  %8d%n", build, sorted[0], sorted[sorted.length / 2], sorted[sorted.length - 1]);
+    }
+}
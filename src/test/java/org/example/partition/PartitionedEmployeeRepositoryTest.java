@@ -0,0 +1,163 @@
+package org.example.partition;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeeFilter;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.example.repository.DuplicateEmailException;
+import org.example.repository.InMemoryEmployeeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedEmployeeRepositoryTest {
+
+    private static final int SHARDS = 8;
+
+    private final PartitionedEmployeeRepository repository = new PartitionedEmployeeRepository(SHARDS, InMemoryEmployeeRepository::new);
+    private final ShardRing ring = repository.ring();
+
+    @Test
+    void rowsLiveOnTheShardTheirAddressHashesToAndIdsNameIt() {
+        for (int i = 0; i < 40; i++) {
+            Employee created = repository.create(employee("user" + i + "@company.org", "IT", 50_000 + i));
+
+            assertEquals(ring.shardOfEmail(created.getEmail()), ring.shardOf(created.getId()));
+            assertEquals(created.getEmail(), repository.findById(created.getId()).orElseThrow().getEmail());
+        }
+        assertEquals(40, repository.count());
+        assertEquals(40, repository.findAll().size());
+    }
+
+    @Test
+    void pagesMergeEveryShardInQueryOrder() {
+        Random random = new Random(7);
+        List<Employee> batch = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            batch.add(employee("row" + i + "@company.org", random.nextBoolean() ? "IT" : "Sales", random.nextInt(40) * 1000.0));
+        }
+        repository.insertAll(batch);
+
+        for (EmployeeQuery first : List.of(
+                EmployeeQuery.builder().limit(17).build(),
+                EmployeeQuery.builder().sortField(EmployeeField.SALARY).descending(true).limit(23).build(),
+                EmployeeQuery.builder().sortField(EmployeeField.EMAIL).limit(50)
+                        .filters(List.of(EmployeeFilter.equalTo(EmployeeField.DEPARTMENT, "it"))).build())) {
+            List<Long> expected = repository.findAll().stream()
+                    .filter(first::matches)
+                    .sorted(first.order())
+                    .map(Employee::getId)
+                    .toList();
+
+            List<Long> paged = new ArrayList<>();
+            EmployeeQuery query = first;
+            while (true) {
+                EmployeePage page = repository.query(query);
+                assertTrue(page.getItems().size() <= first.getLimit());
+                page.getItems().forEach(e -> paged.add(e.getId()));
+                if (page.getNext() == null) {
+                    break;
+                }
+                query = EmployeeQuery.builder().filters(first.getFilters()).sortField(first.getSortField())
+                        .descending(first.isDescending()).limit(first.getLimit()).after(page.getNext()).build();
+            }
+            assertEquals(expected, paged);
+        }
+    }
+
+    @Test
+    void addressesStayUniqueAcrossShards() {
+        Employee a = repository.create(employee("a@company.org", "IT", 1));
+        String elsewhere = emailOnAnotherShard(ring.shardOf(a.getId()));
+        Employee b = repository.create(employee(elsewhere, "IT", 2));
+
+        assertThrows(DuplicateEmailException.class, () -> repository.create(employee("A@company.org", "HR", 3)));
+        assertThrows(DuplicateEmailException.class, () -> repository.patch(b.getId(), Map.of(EmployeeField.EMAIL, "a@company.org"), null));
+
+        // a moved address is found on the shard that holds the row, not the one it hashes to
+        String moved = emailOnAnotherShard(ring.shardOf(a.getId()));
+        repository.patch(a.getId(), Map.of(EmployeeField.EMAIL, moved), null);
+        assertEquals(a.getId(), repository.findByEmail(moved).orElseThrow().getId());
+        assertTrue(repository.findByEmail("a@company.org").isEmpty());
+    }
+
+    @Test
+    void addressMovedOntoAnotherShardCannotBeCreatedAgain() {
+        Employee a = repository.create(employee("a@company.org", "IT", 1));
+        String moved = emailOnAnotherShard(ring.shardOf(a.getId()));
+        repository.update(a.getId(), employee(moved, "IT", 1));
+
+        DuplicateEmailException clash = assertThrows(DuplicateEmailException.class,
+                () -> repository.create(employee(moved, "HR", 2)));
+        assertEquals(a.getId().longValue(), clash.getOwnerId());
+        assertThrows(DuplicateEmailException.class,
+                () -> repository.insertAll(List.of(employee("fresh@company.org", "HR", 3), employee(moved.toUpperCase(), "HR", 4))));
+        assertTrue(repository.findByEmail("fresh@company.org").isEmpty());
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void loadPutsRecoveredRowsOnTheirShardsAndNewIdsFollowThem() {
+        String address = emailOnShard(0);
+        repository.load(List.of(
+                Employee.builder().id(1L + 2 * SHARDS).email("old@company.org").department("IT").build(),
+                Employee.builder().id(2L).email("older@company.org").department("HR").build()));
+
+        assertEquals(2, repository.count());
+        assertEquals(1L + 3 * SHARDS, repository.create(employee(address, "IT", 1)).getId());
+    }
+
+    @Test
+    void listenersAndCountersCoverEveryShard() {
+        AtomicInteger changes = new AtomicInteger();
+        repository.addListener((before, after) -> changes.incrementAndGet());
+        long version = repository.dataVersion();
+
+        for (int i = 0; i < 20; i++) {
+            repository.create(employee("l" + i + "@company.org", "IT", i));
+        }
+
+        assertEquals(20, changes.get());
+        assertTrue(repository.dataVersion() >= version + 20);
+        assertSame(repository.local(), repository.local().local());
+    }
+
+    private String emailOnShard(int shard) {
+        for (int i = 0; ; i++) {
+            String email = "s" + i + "@company.org";
+            if (ring.shardOfEmail(email) == shard) {
+                return email;
+            }
+        }
+    }
+
+    private String emailOnAnotherShard(int shard) {
+        for (int i = 0; ; i++) {
+            String email = "x" + i + "@company.org";
+            if (ring.shardOfEmail(email) != shard && repository.findByEmail(email).isEmpty()) {
+                return email;
+            }
+        }
+    }
+
+    private static Employee employee(String email, String department, double salary) {
+        return Employee.builder()
+                .firstName("First")
+                .lastName("Last")
+                .email(email)
+                .department(department)
+                .jobTitle("Engineer")
+                .hireDate(LocalDate.of(2020, 1, 1))
+                .salary(salary)
+                .active(true)
+                .build();
+    }
+}
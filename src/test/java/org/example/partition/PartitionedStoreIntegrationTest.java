@@ -0,0 +1,169 @@
+package org.example.partition;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.HelloWorldApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Three instances sharing one partitioned store on localhost, each reached only through its
+ * public API.
+ */
+class PartitionedStoreIntegrationTest {
+
+    private static final int NODES = 3;
+    private static final int ROWS = 45;
+
+    private static final String SECRET = "integration-test";
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+    private static final List<ConfigurableApplicationContext> INSTANCES = new ArrayList<>();
+    private static final List<String> URLS = new ArrayList<>();
+
+    @BeforeAll
+    static void startInstances() throws IOException {
+        for (int i = 0; i < NODES; i++) {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                URLS.add("http://localhost:" + socket.getLocalPort());
+            }
+        }
+        for (String url : URLS) {
+            INSTANCES.add(start(url, URLS));
+        }
+    }
+
+    static ConfigurableApplicationContext start(String self, List<String> nodes) {
+        // arguments rather than default properties, which application.yml would override
+        return new SpringApplicationBuilder(HelloWorldApplication.class).run(
+                "--server.port=" + URI.create(self).getPort(),
+                "--logging.level.root=WARN",
+                "--employee.store.partition.enabled=true",
+                "--employee.store.partition.shards=16",
+                "--employee.store.partition.nodes=" + String.join(",", nodes),
+                "--employee.store.partition.self=" + self,
+                "--employee.store.partition.secret=" + SECRET);
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        INSTANCES.forEach(ConfigurableApplicationContext::close);
+    }
+
+    @Test
+    void anyInstanceServesTheWholeStore() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            JsonNode created = send(URLS.get(i % NODES), "POST", "/api/employees", row("p" + i, 40_000 + 1000 * i));
+            ids.add(created.path("data").path("id").asLong());
+        }
+
+        // every row is readable from every instance, wherever its shard lives
+        for (int i = 0; i < ROWS; i++) {
+            for (String url : URLS) {
+                assertEquals("p" + i + "@company.org",
+                        send(url, "GET", "/api/employees/" + ids.get(i), null).path("data").path("email").asText());
+            }
+        }
+
+        // the rows are spread over the instances, and only the owners hold them
+        int held = 0;
+        for (String url : URLS) {
+            int local = send(url, "GET", "/internal/employees/status", null, SECRET).path("count").asInt();
+            assertTrue(local > 0, url + " holds no rows");
+            held += local;
+        }
+        assertEquals(ROWS, held);
+
+        // the peer endpoints refuse calls without the shared secret, and rows that fail validation
+        assertEquals(401, exchange(URLS.get(0), "GET", "/internal/employees/status", null).statusCode());
+        assertEquals(401, exchange(URLS.get(0), "POST", "/internal/employees", row("intruder", 1), null, "wrong").statusCode());
+        assertEquals(400, exchange(URLS.get(0), "POST", "/internal/employees/batch",
+                "[" + row("bad", 1).replace("\"firstName\":\"bad\"", "\"firstName\":\"\"") + "]", null, SECRET).statusCode());
+
+        // pages gathered from all shards come back in order without gaps or repeats
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            HttpResponse<String> page = exchange(URLS.get(1), "GET",
+                    "/api/employees?sort=salary,desc&limit=7" + (cursor == null ? "" : "&cursor=" + cursor), null);
+            MAPPER.readTree(page.body()).path("data").forEach(e -> paged.add(e.path("id").asLong()));
+            cursor = page.headers().firstValue("X-Next-Cursor").orElse(null);
+        } while (cursor != null);
+        List<Long> bySalaryDesc = new ArrayList<>(ids);
+        bySalaryDesc.sort(Comparator.comparing(ids::indexOf, Comparator.reverseOrder()));
+        assertEquals(bySalaryDesc, paged);
+
+        // aggregates include every instance's shards
+        JsonNode stats = send(URLS.get(2), "GET", "/api/employees/stats", null).path("data");
+        assertEquals(1, stats.size());
+        assertEquals(ROWS, stats.get(0).path("headcount").asInt());
+
+        // an address in use is refused wherever the create arrives
+        assertEquals(409, exchange(URLS.get(0), "POST", "/api/employees", row("p3", 1)).statusCode());
+        assertEquals(409, exchange(URLS.get(2), "POST", "/api/employees", row("P3", 1)).statusCode());
+
+        // conditional writes and deletes are forwarded to the owner with their preconditions
+        long id = ids.get(5);
+        HttpResponse<String> stale = exchange(URLS.get(0), "PUT", "/api/employees/" + id, row("p5", 1), "\"" + id + ".9\"");
+        assertEquals(412, stale.statusCode());
+        for (String url : URLS) {
+            assertTrue(send(url, "DELETE", "/api/employees/" + ids.get(6 + URLS.indexOf(url)), null).path("success").asBoolean());
+        }
+        assertEquals(ROWS - NODES, send(URLS.get(1), "GET", "/api/employees?limit=100", null).path("data").size());
+    }
+
+    private static String row(String name, double salary) {
+        return """
+                {"firstName":"%s","lastName":"Node","email":"%s@company.org","department":"IT",
+                 "jobTitle":"Engineer","hireDate":"2020-01-01","salary":%s,"active":true}""".formatted(name, name, salary);
+    }
+
+    private static JsonNode send(String url, String method, String path, String body) throws Exception {
+        return send(url, method, path, body, null);
+    }
+
+    private static JsonNode send(String url, String method, String path, String body, String secret) throws Exception {
+        HttpResponse<String> response = exchange(url, method, path, body, null, secret);
+        assertEquals(200, response.statusCode(), method + " " + path + ": " + response.body());
+        return MAPPER.readTree(response.body());
+    }
+
+    private static HttpResponse<String> exchange(String url, String method, String path, String body) throws Exception {
+        return exchange(url, method, path, body, null);
+    }
+
+    private static HttpResponse<String> exchange(String url, String method, String path, String body, String ifMatch)
+            throws Exception {
+        return exchange(url, method, path, body, ifMatch, null);
+    }
+
+    private static HttpResponse<String> exchange(String url, String method, String path, String body, String ifMatch,
+                                                 String secret) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+        if (ifMatch != null) {
+            request.header("If-Match", ifMatch);
+        }
+        if (secret != null) {
+            request.header(PeerSecretFilter.HEADER, secret);
+        }
+        return CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.partition;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PeerSecretFilterTest {
+
+    private final PeerSecretFilter filter = new PeerSecretFilter("s3cret");
+
+    @Test
+    void passesOnlyCallsCarryingTheSecret() throws Exception {
+        MockFilterChain passed = send("s3cret");
+        assertNotNull(passed.getRequest());
+
+        for (String secret : new String[] {null, "", "s3cre", "s3cret!", "S3CRET"}) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request(secret), response, chain);
+            assertEquals(401, response.getStatus(), String.valueOf(secret));
+            assertNull(chain.getRequest());
+        }
+    }
+
+    @Test
+    void partitioningWithoutASecretDoesNotStart() {
+        PartitionProperties properties = new PartitionProperties();
+        assertThrows(IllegalStateException.class, properties::requireSecret);
+        properties.setSecret(" ");
+        assertThrows(IllegalStateException.class, properties::requireSecret);
+    }
+
+    private MockFilterChain send(String secret) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request(secret), new MockHttpServletResponse(), chain);
+        return chain;
+    }
+
+    private static MockHttpServletRequest request(String secret) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/internal/employees/status");
+        if (secret != null) {
+            request.addHeader(PeerSecretFilter.HEADER, secret);
+        }
+        return request;
+    }
+}
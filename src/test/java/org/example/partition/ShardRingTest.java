@@ -0,0 +1,64 @@
+package org.example.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRingTest {
+
+    private static final List<String> THREE = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+
+    @Test
+    void everyShardHasOneOwnerAndEveryNodeSomeShards() {
+        ShardRing ring = new ShardRing(64, THREE, 128);
+
+        int owned = 0;
+        for (int node = 0; node < THREE.size(); node++) {
+            int[] shards = ring.shardsOf(node);
+            assertTrue(shards.length >= 10, ring.toString());
+            for (int shard : shards) {
+                assertEquals(node, ring.ownerOf(shard));
+            }
+            owned += shards.length;
+        }
+        assertEquals(64, owned);
+    }
+
+    @Test
+    void placementDependsOnlyOnTheConfiguration() {
+        ShardRing a = new ShardRing(64, THREE, 128);
+        ShardRing b = new ShardRing(64, THREE, 128);
+
+        for (int shard = 0; shard < 64; shard++) {
+            assertEquals(a.ownerOf(shard), b.ownerOf(shard));
+        }
+        assertEquals(a.shardOfEmail("Ann.Lee@company.org "), b.shardOfEmail("ann.lee@company.org"));
+    }
+
+    @Test
+    void addingANodeOnlyMovesShardsToIt() {
+        ShardRing before = new ShardRing(64, THREE, 128);
+        ShardRing after = new ShardRing(64, List.of("http://a:8080", "http://b:8080", "http://c:8080", "http://d:8080"), 128);
+
+        int moved = 0;
+        for (int shard = 0; shard < 64; shard++) {
+            if (after.ownerOf(shard) != before.ownerOf(shard)) {
+                assertEquals(3, after.ownerOf(shard), "shard " + shard + " moved between existing nodes");
+                moved++;
+            }
+        }
+        assertTrue(moved > 0 && moved < 32, "moved " + moved);
+    }
+
+    @Test
+    void idsNameTheShardThatIssuedThem() {
+        ShardRing ring = new ShardRing(8, THREE, 16);
+
+        assertEquals(0, ring.shardOf(1));
+        assertEquals(7, ring.shardOf(8));
+        assertEquals(0, ring.shardOf(9));
+        assertEquals(2, ring.shardOf(8 * 1000 + 3));
+    }
+}
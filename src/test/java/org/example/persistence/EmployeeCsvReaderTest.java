@@ -0,0 +1,109 @@
+package org.example.persistence;
+
+import org.example.model.BatchResult;
+import org.example.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeCsvReaderTest {
+
+    private static final String HEADER = "ID,First Name TEST,lastName,EMAIL,department,jobTitle,hireDate,salary,active\r\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void splitsAtLineBreaksAndReadsEveryRowOnce() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 1000; i++) {
+            csv.append(i).append(",Emp").append(i).append(",\"Smith, Jr\",emp").append(i)
+                    .append("@company.org,IT,\"The \"\"Lead\"\"\",2020-01-").append(String.format("%02d", i % 28 + 1))
+                    .append(',').append(50000 + i).append(".5,").append(i % 2 == 0).append("\r\n");
+        }
+
+        List<Employee> rows = new ArrayList<>();
+        int lines = 0;
+        try (EmployeeCsvReader reader = EmployeeCsvReader.open(write(csv.toString()), 1000)) {
+            assertTrue(reader.chunks() > 10);
+            for (int i = 0; i < reader.chunks(); i++) {
+                EmployeeCsvReader.Chunk chunk = reader.parse(i);
+                assertEquals(List.of(), chunk.errors());
+                rows.addAll(chunk.rows());
+                lines += chunk.lineCount();
+            }
+        }
+
+        assertEquals(1000, rows.size());
+        assertEquals(1000, lines);
+        for (int i = 0; i < 1000; i++) {
+            Employee employee = rows.get(i);
+            assertNull(employee.getId());
+            assertEquals("Emp" + i, employee.getFirstName());
+            assertEquals("Smith, Jr", employee.getLastName());
+            assertEquals("emp" + i + "@company.org", employee.getEmail());
+            assertEquals("The \"Lead\"", employee.getJobTitle());
+            assertEquals(LocalDate.of(2020, 1, i % 28 + 1), employee.getHireDate());
+            assertEquals(50000 + i + 0.5, employee.getSalary());
+            assertEquals(i % 2 == 0, employee.getActive());
+        }
+    }
+
+    @Test
+    void reportsBadRowsByLineAndSkipsBlankLines() throws IOException {
+        String csv = "email,firstName,hireDate,salary\n"
+                + "a@company.org,Ann,2020-02-30,1\n"
+                + "\n"
+                + "b@company.org,Bob,2020-01-01,lots\n"
+                + "c@company.org,\"Cy\"x,2020-01-01,1\n"
+                + "d@company.org,Di\n"
+                + "e@company.org,,,\n"
+                + "f@company.org,\"Fay";
+
+        EmployeeCsvReader.Chunk chunk;
+        try (EmployeeCsvReader reader = EmployeeCsvReader.open(write(csv), 1 << 20)) {
+            assertEquals(1, reader.chunks());
+            chunk = reader.parse(0);
+        }
+
+        assertEquals(7, chunk.lineCount());
+        assertEquals(1, chunk.rows().size());
+        assertArrayEquals(new int[] {5}, chunk.lines());
+        Employee empty = chunk.rows().get(0);
+        assertEquals("e@company.org", empty.getEmail());
+        assertNull(empty.getFirstName());
+        assertNull(empty.getSalary());
+
+        List<BatchResult.RowError> errors = chunk.errors();
+        assertEquals(List.of(0, 2, 3, 4, 6), errors.stream().map(BatchResult.RowError::getIndex).toList());
+        assertEquals("hireDate", errors.get(0).getField());
+        assertEquals("salary", errors.get(1).getField());
+        assertEquals("Unexpected character after a quoted field", errors.get(2).getMessage());
+        assertEquals("Expected 4 fields, found 2", errors.get(3).getMessage());
+        assertEquals("Unterminated quoted field", errors.get(4).getMessage());
+    }
+
+    @Test
+    void rejectsUnknownColumns() throws IOException {
+        Path file = write("firstName,nickname\nAnn,Annie\n");
+
+        CsvFormatException e = assertThrows(CsvFormatException.class, () -> EmployeeCsvReader.open(file, 1024));
+        assertEquals("Unknown column: nickname", e.getMessage());
+        assertThrows(CsvFormatException.class, () -> EmployeeCsvReader.open(write(""), 1024));
+    }
+
+    private Path write(String csv) throws IOException {
+        Path file = Files.createTempFile(directory, "employees", ".csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.persistence;
+
+import org.example.model.Employee;
+import org.example.repository.ColumnarEmployeeRepository;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.InMemoryEmployeeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedWriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversOneMillionEmployees() throws IOException {
+        int total = 1_000_000;
+        EmployeeRepository repository = new ColumnarEmployeeRepository();
+        try (MappedWriteAheadLog wal = open(DataSize.ofMegabytes(16))) {
+            repository.setJournal(wal);
+            for (int start = 0; start < total; start += 10_000) {
+                List<Employee> batch = new ArrayList<>(10_000);
+                for (int i = start; i < start + 10_000; i++) {
+                    batch.add(employee("Emp" + i, "Dept" + (i % 50), i % 3 != 0));
+                }
+                repository.insertAll(batch);
+            }
+            for (long id = 1; id <= 1000; id++) {
+                repository.update(id, employee("Updated" + id, "Moved", true));
+            }
+            for (long id = 1001; id <= 2000; id++) {
+                repository.delete(id);
+            }
+        }
+
+        EmployeeRepository recovered = new ColumnarEmployeeRepository();
+        try (MappedWriteAheadLog wal = open(DataSize.ofMegabytes(16))) {
+            recovered.load(wal.recoveredRows());
+            assertNotNull(wal.getRecoveryTime());
+        }
+
+        assertEquals(total - 1000, recovered.count());
+        assertEquals("Updated7", recovered.findById(7L).orElseThrow().getFirstName());
+        assertEquals("Moved", recovered.findById(1000L).orElseThrow().getDepartment());
+        assertTrue(recovered.findById(1500L).isEmpty());
+        Employee last = recovered.findById((long) total).orElseThrow();
+        assertEquals("Emp" + (total - 1), last.getFirstName());
+        assertEquals(LocalDate.of(2020, 1, 1), last.getHireDate());
+        assertEquals(total + 1L, recovered.create(employee("Next", "HR", true)).getId());
+    }
+
+    @Test
+    void foldsSegmentsIntoSnapshotKeepingLatestImages() throws IOException {
+        InMemoryEmployeeRepository repository = new InMemoryEmployeeRepository();
+        try (MappedWriteAheadLog wal = open(DataSize.ofKilobytes(4))) {
+            repository.setJournal(wal);
+            for (int i = 0; i < 500; i++) {
+                repository.create(employee("Emp" + i, "Dept" + (i % 5), true));
+            }
+            for (long id = 1; id <= 500; id += 2) {
+                repository.update(id, employee("Odd" + id, "Odd", false));
+            }
+            for (long id = 2; id <= 500; id += 10) {
+                repository.delete(id);
+            }
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(path -> path.getFileName().toString()).toList();
+            assertEquals(1, names.stream().filter(name -> name.startsWith("snapshot-")).count(), names.toString());
+            assertTrue(names.stream().filter(name -> name.startsWith("wal-")).count() <= 2, names.toString());
+        }
+        InMemoryEmployeeRepository recovered = new InMemoryEmployeeRepository();
+        try (MappedWriteAheadLog wal = open(DataSize.ofKilobytes(4))) {
+            recovered.load(wal.recoveredRows());
+        }
+        assertEquals(names(repository.findAll()), names(recovered.findAll()));
+        assertEquals(250, recovered.findByDepartment("odd").size());
+    }
+
+    @Test
+    void replayStopsAtTornRecord() throws IOException {
+        InMemoryEmployeeRepository repository = new InMemoryEmployeeRepository();
+        try (MappedWriteAheadLog wal = open(DataSize.ofMegabytes(1))) {
+            repository.setJournal(wal);
+            repository.create(employee("Alice", "IT", true));
+            repository.create(employee("Bob", "IT", true));
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // flip a byte inside Bob's record, as a write cut short by a crash would leave it
+            long bob = 16 + 8 + recordLength(file, 16) + 20;
+            file.seek(bob);
+            int value = file.read();
+            file.seek(bob);
+            file.write(value ^ 0xff);
+        }
+
+        InMemoryEmployeeRepository recovered = new InMemoryEmployeeRepository();
+        try (MappedWriteAheadLog wal = open(DataSize.ofMegabytes(1))) {
+            recovered.load(wal.recoveredRows());
+        }
+        assertEquals(List.of("1:Alice:true"), names(recovered.findAll()));
+    }
+
+    @Test
+    void deletedIdsAreNotReusedAfterRestart() throws IOException {
+        InMemoryEmployeeRepository repository = new InMemoryEmployeeRepository();
+        try (MappedWriteAheadLog wal = open(DataSize.ofMegabytes(1))) {
+            repository.setJournal(wal);
+            repository.create(employee("Alice", "IT", true));
+            repository.create(employee("Bob", "IT", true));
+            repository.create(employee("Carol", "IT", true));
+            repository.delete(3L);
+            repository.delete(2L);
+        }
+
+        InMemoryEmployeeRepository recovered = new InMemoryEmployeeRepository();
+        try (MappedWriteAheadLog wal = open(DataSize.ofMegabytes(1))) {
+            recovered.load(wal.recoveredRows());
+            recovered.advanceIdsPast(wal.highestRecoveredId());
+            recovered.setJournal(wal);
+            assertEquals(3L, wal.highestRecoveredId());
+            assertEquals(4L, recovered.create(employee("Dan", "IT", true)).getId());
+            recovered.delete(4L);
+        }
+
+        // and again once those segments have been folded into a snapshot
+        ColumnarEmployeeRepository again = new ColumnarEmployeeRepository();
+        try (MappedWriteAheadLog wal = open(DataSize.ofMegabytes(1))) {
+            again.load(wal.recoveredRows());
+            again.advanceIdsPast(wal.highestRecoveredId());
+        }
+        try (MappedWriteAheadLog wal = open(DataSize.ofMegabytes(1))) {
+            assertEquals(4L, wal.highestRecoveredId());
+            assertEquals(List.of("1:Alice:true"), names(new InMemoryEmployeeRepository(wal.recoveredRows()).findAll()));
+        }
+        assertEquals(5L, again.create(employee("Eve", "IT", true)).getId());
+    }
+
+    @Test
+    void textLongerThanSixtyFourKilobytesRoundTrips() throws IOException {
+        String title = "Ingénieur ".repeat(10_000);
+        InMemoryEmployeeRepository repository = new InMemoryEmployeeRepository();
+        try (MappedWriteAheadLog wal = open(DataSize.ofMegabytes(1))) {
+            repository.setJournal(wal);
+            Employee alice = employee("Alice", "IT", true);
+            alice.setJobTitle(title);
+            repository.create(alice);
+            Employee bob = employee("Bob", "IT", true);
+            bob.setJobTitle(title);
+            repository.insertAll(List.of(bob));
+        }
+
+        try (MappedWriteAheadLog wal = open(DataSize.ofMegabytes(1))) {
+            List<Employee> recovered = new InMemoryEmployeeRepository(wal.recoveredRows()).findAll();
+            assertEquals(List.of("1:Alice:true", "2:Bob:true"), names(recovered));
+            recovered.forEach(e -> assertEquals(title, e.getJobTitle()));
+        }
+    }
+
+    private MappedWriteAheadLog open(DataSize segmentSize) throws IOException {
+        PersistenceProperties properties = new PersistenceProperties();
+        properties.setDirectory(directory);
+        properties.setSegmentSize(segmentSize);
+        return MappedWriteAheadLog.open(properties);
+    }
+
+    private static int recordLength(RandomAccessFile file, long offset) throws IOException {
+        file.seek(offset);
+        return file.readInt();
+    }
+
+    private static List<String> names(List<Employee> employees) {
+        return employees.stream().map(e -> e.getId() + ":" + e.getFirstName() + ":" + e.getActive()).toList();
+    }
+
+    private static Employee employee(String firstName, String department, boolean active) {
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName("Tester")
+                .email(firstName.toLowerCase() + "@example.com")
+                .department(department)
+                .jobTitle("Engineer")
+                .hireDate(LocalDate.of(2020, 1, 1))
+                .salary(50000.0)
+                .active(active)
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.query;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.ColumnManifest;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserColumnsTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void readsTheManifestAsDataBindingWould() throws Exception {
+        List<ColumnManifest> bound;
+        try (InputStream is = new ClassPathResource("users-columns.json").getInputStream()) {
+            bound = mapper.readValue(is, new TypeReference<>() {});
+        }
+
+        assertEquals(mapper.writeValueAsString(bound), mapper.writeValueAsString(UserColumns.all()));
+    }
+
+    @Test
+    void keepsBeanDefaultsForMissingOrNullPropertiesAndSkipsUnknownOnes() throws Exception {
+        String json = """
+                [{"field":"salary","width":null,"extra":{"nested":[1,2]},"order":4},{"field":"email"}]""";
+
+        List<ColumnManifest> columns = UserColumns.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(mapper.writeValueAsString(mapper.readValue(json.replace(",\"extra\":{\"nested\":[1,2]}", ""),
+                new TypeReference<List<ColumnManifest>>() {})), mapper.writeValueAsString(columns));
+        assertThrows(IOException.class, () -> UserColumns.read(new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8))));
+    }
+}
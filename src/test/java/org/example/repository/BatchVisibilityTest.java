@@ -0,0 +1,33 @@
+package org.example.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchVisibilityTest {
+
+    private final BatchVisibility batches = new BatchVisibility();
+
+    @Test
+    void blockStaysHiddenFromReadsThatStartedBeforeItWasRevealed() {
+        BatchVisibility.Block first = batches.hide(10, 19);
+        BatchVisibility.Block second = batches.hide(20, 29);
+        long before = batches.currentEpoch();
+        assertTrue(batches.isHidden(15, before));
+        assertTrue(batches.isHidden(20, before));
+        assertFalse(batches.isHidden(9, before));
+        assertFalse(batches.isHidden(30, before));
+
+        batches.reveal(first);
+        long after = batches.currentEpoch();
+
+        assertTrue(batches.isHidden(15, before));
+        assertFalse(batches.isHidden(15, after));
+        assertTrue(batches.isHidden(25, after));
+
+        batches.reveal(second);
+
+        assertFalse(batches.isHidden(25, batches.currentEpoch()));
+        assertTrue(batches.isHidden(25, after));
+    }
+}
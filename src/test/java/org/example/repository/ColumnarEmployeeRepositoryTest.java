@@ -0,0 +1,68 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarEmployeeRepositoryTest extends EmployeeRepositoryContractTest {
+
+    @Override
+    protected EmployeeRepository newRepository() {
+        return new ColumnarEmployeeRepository();
+    }
+
+    @Test
+    void resultListKeepsSnapshotAcrossLaterWrites() {
+        List<Employee> before = repository.findAll();
+
+        repository.update(1L, employee("Alicia", "Finance", LocalDate.of(2021, 3, 15), true));
+        repository.delete(2L);
+        repository.create(employee("Dan", "HR", LocalDate.of(2022, 1, 1), true));
+
+        assertEquals(List.of("Alice", "Bob", "Carol"), before.stream().map(Employee::getFirstName).toList());
+        assertEquals(List.of("Alicia", "Carol", "Dan"), repository.findAll().stream().map(Employee::getFirstName).toList());
+    }
+
+    @Test
+    void materializedRowsRoundTripAllColumns() {
+        Employee created = repository.create(Employee.builder()
+                .firstName("Nora").lastName("Null").email("nora@example.com")
+                .department(null).jobTitle("Analyst").hireDate(null).salary(null).active(null)
+                .build());
+
+        Employee stored = repository.findById(created.getId()).orElseThrow();
+
+        assertEquals("Nora", stored.getFirstName());
+        assertEquals("Analyst", stored.getJobTitle());
+        assertNull(stored.getDepartment());
+        assertNull(stored.getHireDate());
+        assertNull(stored.getSalary());
+        assertNull(stored.getActive());
+    }
+
+    @Test
+    void compactionAfterManyUpdatesKeepsRowsAndOrder() {
+        for (int i = 0; i < 3000; i++) {
+            repository.create(employee("Emp" + i, "Dept" + (i % 10), LocalDate.of(2020, 1, 1).plusDays(i % 400), i % 3 != 0));
+        }
+        for (int round = 0; round < 5; round++) {
+            for (long id = 4; id <= 3003; id++) {
+                repository.update(id, employee("Emp" + id + "r" + round, "Dept" + (id % 10), LocalDate.of(2020, 1, 1), true));
+            }
+        }
+
+        assertEquals(3003, repository.count());
+        assertEquals("Emp3003r4", repository.findById(3003L).orElseThrow().getFirstName());
+        assertEquals(300, repository.findByDepartment("dept3").size());
+
+        EmployeePage page = repository.query(EmployeeQuery.builder().sortField(EmployeeField.ID).descending(true).limit(3).build());
+        assertEquals(List.of(3003L, 3002L, 3001L), page.getItems().stream().map(Employee::getId).toList());
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeIndexesTest {
+
+    private final EmployeeIndexes indexes = new EmployeeIndexes();
+
+    @Test
+    void emptiedBucketsAreDropped() {
+        Employee ada = Employee.builder().id(1L).department("Eng").hireDate(LocalDate.of(2020, 1, 1)).active(true).build();
+        Employee bob = Employee.builder().id(2L).department("eng").hireDate(LocalDate.of(2020, 1, 1)).active(true).build();
+        indexes.addAll(List.of(ada, bob));
+
+        indexes.remove(ada);
+        assertEquals(Set.of(2L), indexes.department("ENG"));
+        assertEquals(List.of(Set.of(2L)), List.copyOf(indexes.hireDateBetween(LocalDate.MIN, LocalDate.MAX)));
+
+        indexes.replace(bob, Employee.builder().id(2L).department("Sales").hireDate(LocalDate.of(2021, 3, 4)).active(true).build());
+        assertTrue(indexes.department("eng").isEmpty());
+        assertEquals(List.of(Set.of(2L)), List.copyOf(indexes.hireDateBetween(LocalDate.of(2019, 1, 1), LocalDate.of(2022, 1, 1))));
+        assertTrue(indexes.hireDateBetween(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31)).isEmpty());
+    }
+}
@@ -0,0 +1,447 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeeFilter;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Behaviour every {@link EmployeeRepository} engine must share.
+ */
+abstract class EmployeeRepositoryContractTest {
+
+    protected EmployeeRepository repository;
+
+    protected abstract EmployeeRepository newRepository();
+
+    @BeforeEach
+    void setUp() {
+        repository = newRepository();
+        repository.create(employee("Alice", "Engineering", LocalDate.of(2021, 3, 15), true));
+        repository.create(employee("Bob", "Marketing", LocalDate.of(2019, 7, 22), true));
+        repository.create(employee("Carol", "engineering", LocalDate.of(2018, 1, 10), false));
+    }
+
+    @Test
+    void createAssignsSequentialIds() {
+        assertEquals(List.of(1L, 2L, 3L), repository.findAll().stream().map(Employee::getId).toList());
+    }
+
+    @Test
+    void findByDepartmentIgnoresCase() {
+        List<Employee> result = repository.findByDepartment("ENGINEERING");
+
+        assertEquals(List.of("Alice", "Carol"), result.stream().map(Employee::getFirstName).toList());
+    }
+
+    @Test
+    void findByActiveUsesFlag() {
+        assertEquals(2, repository.findByActive(true).size());
+        assertEquals("Carol", repository.findByActive(false).get(0).getFirstName());
+    }
+
+    @Test
+    void findByHireDateBetweenIsInclusive() {
+        List<Employee> result = repository.findByHireDateBetween(LocalDate.of(2018, 1, 10), LocalDate.of(2019, 7, 22));
+
+        assertEquals(List.of("Bob", "Carol"), result.stream().map(Employee::getFirstName).sorted().toList());
+        assertTrue(repository.findByHireDateBetween(LocalDate.of(2022, 1, 1), LocalDate.of(2021, 1, 1)).isEmpty());
+    }
+
+    @Test
+    void updateMovesIndexEntries() {
+        repository.update(1L, employee("Alice", "Finance", LocalDate.of(2023, 1, 1), false));
+
+        assertEquals(1, repository.findByDepartment("engineering").size());
+        assertEquals(1, repository.findByDepartment("finance").size());
+        assertEquals(2, repository.findByActive(false).size());
+        assertEquals(1L, repository.findByHireDateBetween(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 1, 1)).get(0).getId());
+        assertTrue(repository.findByHireDateBetween(LocalDate.of(2021, 3, 15), LocalDate.of(2021, 3, 15)).isEmpty());
+    }
+
+    @Test
+    void updateOfMissingEmployeeReturnsEmpty() {
+        assertTrue(repository.update(99L, employee("Nobody", "HR", LocalDate.of(2020, 1, 1), true)).isEmpty());
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void updatesAdvanceVersionAndDataVersion() {
+        long before = repository.dataVersion();
+
+        Employee updated = repository.update(1L, employee("Alicia", "IT", LocalDate.of(2021, 3, 15), true), 1L).orElseThrow();
+
+        assertEquals(2L, updated.getVersion());
+        assertEquals(2L, repository.findById(1L).orElseThrow().getVersion());
+        assertTrue(repository.dataVersion() > before);
+    }
+
+    @Test
+    void patchChangesOnlyTheNamedFieldsAndMovesTheirIndexEntries() {
+        Map<EmployeeField, Object> changes = new EnumMap<>(EmployeeField.class);
+        changes.put(EmployeeField.DEPARTMENT, "Finance");
+        changes.put(EmployeeField.ACTIVE, false);
+        changes.put(EmployeeField.SALARY, null);
+        long before = repository.dataVersion();
+
+        Employee patched = repository.patch(1L, changes, 1L).orElseThrow();
+
+        assertEquals(2L, patched.getVersion());
+        assertEquals("Alice", patched.getFirstName());
+        assertEquals(LocalDate.of(2021, 3, 15), patched.getHireDate());
+        assertNull(patched.getSalary());
+        Employee stored = repository.findById(1L).orElseThrow();
+        assertEquals("Finance", stored.getDepartment());
+        assertEquals("Alice", stored.getFirstName());
+        assertNull(stored.getSalary());
+        assertEquals(List.of(3L), repository.findByDepartment("engineering").stream().map(Employee::getId).toList());
+        assertEquals(List.of(1L), repository.findByDepartment("finance").stream().map(Employee::getId).toList());
+        assertEquals(2, repository.findByActive(false).size());
+        assertEquals(1, repository.findByHireDateBetween(LocalDate.of(2021, 3, 15), LocalDate.of(2021, 3, 15)).size());
+        assertTrue(repository.dataVersion() > before);
+
+        assertThrows(StaleVersionException.class, () -> repository.patch(1L, Map.of(EmployeeField.ACTIVE, true), 1L));
+        assertFalse(repository.findById(1L).orElseThrow().getActive());
+        assertTrue(repository.patch(99L, Map.of(EmployeeField.ACTIVE, true), null).isEmpty());
+    }
+
+    @Test
+    void staleConditionalWritesAreRejectedWithoutEffect() {
+        repository.update(1L, employee("Alicia", "IT", LocalDate.of(2021, 3, 15), true));
+        long before = repository.dataVersion();
+
+        StaleVersionException stale = assertThrows(StaleVersionException.class,
+                () -> repository.update(1L, employee("Late", "HR", LocalDate.of(2021, 3, 15), true), 1L));
+        assertThrows(StaleVersionException.class, () -> repository.delete(1L, 1L));
+
+        assertEquals(2L, stale.getCurrentVersion());
+        assertEquals("Alicia", repository.findById(1L).orElseThrow().getFirstName());
+        assertTrue(repository.findByDepartment("HR").isEmpty());
+        assertEquals(before, repository.dataVersion());
+        assertTrue(repository.delete(1L, 2L));
+    }
+
+    @Test
+    void concurrentConditionalUpdatesHaveOneWinnerPerVersion() throws Exception {
+        int writers = 8;
+        List<CompletableFuture<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            String name = "Writer" + i;
+            attempts.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return repository.update(2L, employee(name, "IT", LocalDate.of(2020, 1, 1), true), 1L).isPresent();
+                } catch (StaleVersionException e) {
+                    return false;
+                }
+            }));
+        }
+        long winners = 0;
+        for (CompletableFuture<Boolean> attempt : attempts) {
+            winners += attempt.get() ? 1 : 0;
+        }
+
+        assertEquals(1, winners);
+        assertEquals(2L, repository.findById(2L).orElseThrow().getVersion());
+    }
+
+    @Test
+    void deleteRemovesIndexEntries() {
+        assertTrue(repository.delete(2L));
+        assertFalse(repository.delete(2L));
+
+        assertTrue(repository.findByDepartment("marketing").isEmpty());
+        assertEquals(1, repository.findByActive(true).size());
+        assertTrue(repository.findById(2L).isEmpty());
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    void queryPagesThroughAllRowsWithKeysetCursor() {
+        for (int i = 0; i < 50; i++) {
+            repository.create(employee("Emp" + i, i % 2 == 0 ? "Sales" : "Support", LocalDate.of(2020, 1, 1).plusDays(i % 7), true));
+        }
+
+        List<Long> seen = new ArrayList<>();
+        EmployeeQuery.Builder builder = EmployeeQuery.builder()
+                .sortField(EmployeeField.HIRE_DATE)
+                .descending(true)
+                .filters(List.of(EmployeeFilter.equalTo(EmployeeField.DEPARTMENT, "sales")))
+                .limit(4);
+        EmployeePage page = repository.query(builder.build());
+        while (true) {
+            page.getItems().forEach(e -> seen.add(e.getId()));
+            if (page.getNext() == null) {
+                break;
+            }
+            page = repository.query(builder.after(page.getNext()).build());
+        }
+
+        assertEquals(25, seen.size());
+        assertEquals(25, seen.stream().distinct().count());
+    }
+
+    @Test
+    void insertAllAssignsContiguousIds() {
+        List<Employee> batch = List.of(
+                employee("Dan", "HR", LocalDate.of(2020, 1, 1), true),
+                employee("Eve", "HR", LocalDate.of(2020, 1, 1), true));
+
+        repository.insertAll(batch);
+
+        assertEquals(List.of(4L, 5L), batch.stream().map(Employee::getId).toList());
+        assertEquals(2, repository.findByDepartment("hr").size());
+        assertEquals(6L, repository.create(employee("Fay", "HR", LocalDate.of(2020, 1, 1), true)).getId());
+    }
+
+    @Test
+    void readersNeverSeePartOfABatch() throws Exception {
+        AtomicBoolean done = new AtomicBoolean();
+        CompletableFuture<List<Integer>> observed = CompletableFuture.supplyAsync(() -> {
+            List<Integer> sizes = new ArrayList<>();
+            while (!done.get()) {
+                sizes.add(repository.findAll().size());
+                sizes.add(repository.findByDepartment("bulk").size() + 3);
+            }
+            sizes.add(repository.findAll().size());
+            return sizes;
+        });
+
+        List<Employee> batch = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            batch.add(employee("Bulk" + i, "Bulk", LocalDate.of(2020, 1, 1), true));
+        }
+        repository.insertAll(batch);
+        done.set(true);
+
+        for (int size : observed.get()) {
+            assertTrue(size == 3 || size == 20_003, "saw partial batch of " + size);
+        }
+        assertEquals(20_003, repository.count());
+    }
+
+    @Test
+    void snapshotScanPassesRowsAsTheyStoodWhenItBegan() {
+        List<Employee> seen = new ArrayList<>();
+        repository.forEachSnapshot(EmployeeQuery.builder().build(), employee -> {
+            if (seen.isEmpty()) {
+                repository.update(2L, employee("Bob", "Finance", LocalDate.of(2019, 7, 22), true));
+                repository.delete(3L);
+                repository.create(employee("Dan", "Engineering", LocalDate.of(2024, 1, 1), true));
+                repository.update(1L, employee("Alice", "Finance", LocalDate.of(2021, 3, 15), true));
+            }
+            seen.add(employee);
+        });
+
+        assertEquals(List.of("Alice:Engineering", "Bob:Marketing", "Carol:engineering"),
+                seen.stream().map(e -> e.getFirstName() + ":" + e.getDepartment()).sorted().toList());
+        List<String> after = new ArrayList<>();
+        repository.forEachSnapshot(EmployeeQuery.builder().build(), e -> after.add(e.getFirstName()));
+        assertEquals(List.of("Alice", "Bob", "Dan"), after.stream().sorted().toList());
+    }
+
+    @Test
+    void snapshotScansNeverMixRowsFromBeforeAndAfterAWrite() throws Exception {
+        int rows = 200;
+        List<Employee> extra = new ArrayList<>();
+        for (int i = 0; i < rows - 3; i++) {
+            extra.add(employee("Row" + i, "Sweep", LocalDate.of(2020, 1, 1), true));
+        }
+        repository.insertAll(extra);
+        AtomicBoolean done = new AtomicBoolean();
+        // sweeps the rows in id order, each pass raising every salary to the pass number
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int pass = 100_000; !done.get(); pass++) {
+                for (long id = 1; id <= rows && !done.get(); id++) {
+                    repository.patch(id, Map.of(EmployeeField.SALARY, (double) pass), null);
+                }
+            }
+        });
+
+        try {
+            for (int scan = 0; scan < 50; scan++) {
+                double[] salaries = new double[rows + 1];
+                repository.forEachSnapshot(EmployeeQuery.builder().build(),
+                        e -> salaries[e.getId().intValue()] = e.getSalary());
+                // at any instant the sweep has raised a prefix of the ids to one pass above the rest
+                int steps = 0;
+                for (int id = 2; id <= rows; id++) {
+                    assertTrue(salaries[id - 1] >= salaries[id], "row " + id + " is ahead of row " + (id - 1));
+                    if (salaries[id - 1] > salaries[id]) {
+                        steps++;
+                    }
+                }
+                assertTrue(steps <= 1, "scan saw " + (steps + 1) + " different passes");
+            }
+        } finally {
+            done.set(true);
+            writer.get();
+        }
+    }
+
+    @Test
+    void emailsAreUniqueIgnoringCaseUntilReleased() {
+        Employee clash = employee("Alicia", "IT", LocalDate.of(2020, 1, 1), true);
+        clash.setEmail(" ALICE@example.com");
+        DuplicateEmailException duplicate = assertThrows(DuplicateEmailException.class, () -> repository.create(clash));
+        assertEquals(1L, duplicate.getOwnerId());
+        Employee bobAsAlice = employee("Bob", "Marketing", LocalDate.of(2019, 7, 22), true);
+        bobAsAlice.setEmail("alice@EXAMPLE.com");
+        assertThrows(DuplicateEmailException.class, () -> repository.update(2L, bobAsAlice));
+        assertThrows(DuplicateEmailException.class,
+                () -> repository.patch(3L, Map.of(EmployeeField.EMAIL, "Alice@example.com"), null));
+
+        assertEquals(3, repository.count());
+        assertEquals("bob@example.com", repository.findById(2L).orElseThrow().getEmail());
+        assertEquals(1L, repository.findById(3L).orElseThrow().getVersion());
+        assertEquals(3L, repository.findByEmail("CAROL@example.com").orElseThrow().getId());
+
+        repository.patch(1L, Map.of(EmployeeField.EMAIL, "alicia@example.com"), null);
+        assertTrue(repository.delete(2L));
+        assertEquals(1L, repository.findByEmail("alicia@example.com").orElseThrow().getId());
+        assertTrue(repository.findByEmail("alice@example.com").isEmpty());
+        Employee alice = repository.create(employee("Alice", "IT", LocalDate.of(2020, 1, 1), true));
+        repository.create(employee("Bob", "IT", LocalDate.of(2020, 1, 1), true));
+        assertEquals(alice.getId(), repository.findByEmail("alice@example.com").orElseThrow().getId());
+        assertEquals(4, repository.count());
+    }
+
+    @Test
+    void batchWithADuplicateEmailStoresNothing() {
+        List<Employee> clashesWithStore = List.of(
+                employee("Dan", "HR", LocalDate.of(2020, 1, 1), true),
+                employee("Bob", "HR", LocalDate.of(2020, 1, 1), true));
+        List<Employee> clashesWithItself = List.of(
+                employee("Dan", "HR", LocalDate.of(2020, 1, 1), true),
+                employee("Dan", "HR", LocalDate.of(2020, 1, 1), true));
+
+        assertThrows(DuplicateEmailException.class, () -> repository.insertAll(clashesWithStore));
+        assertThrows(DuplicateEmailException.class, () -> repository.insertAll(clashesWithItself));
+
+        assertEquals(3, repository.count());
+        assertTrue(repository.findByDepartment("hr").isEmpty());
+        repository.insertAll(List.of(employee("Dan", "HR", LocalDate.of(2020, 1, 1), true)));
+        assertEquals("Dan", repository.findByEmail("dan@example.com").orElseThrow().getFirstName());
+    }
+
+    @Test
+    void batchListenersHearOnlyOfStoredVisibleRows() {
+        List<Boolean> visibleWhenHeard = new ArrayList<>();
+        repository.addListener((before, after) -> visibleWhenHeard.add(repository.findById(after.getId()).isPresent()));
+        repository.insertAll(List.of(employee("Dan", "HR", LocalDate.of(2020, 1, 1), true),
+                employee("Eve", "HR", LocalDate.of(2020, 1, 1), true)));
+        assertEquals(List.of(true, true), visibleWhenHeard);
+
+        visibleWhenHeard.clear();
+        repository.setJournal(new EmployeeJournal() {
+            @Override
+            public long upsert(Employee employee) {
+                return 0;
+            }
+
+            @Override
+            public long delete(long id) {
+                return 0;
+            }
+
+            @Override
+            public long batch(List<Employee> rows) {
+                throw new IllegalStateException("log full");
+            }
+
+            @Override
+            public void awaitDurable(long position) {
+            }
+        });
+        assertThrows(IllegalStateException.class,
+                () -> repository.insertAll(List.of(employee("Frank", "HR", LocalDate.of(2020, 1, 1), true))));
+        assertTrue(visibleWhenHeard.isEmpty());
+        assertTrue(repository.findByEmail("frank@example.com").isEmpty());
+    }
+
+    @Test
+    void concurrentWritersNeverStoreTheSameEmailTwice() throws Exception {
+        int addresses = 500;
+        int writers = 8;
+        List<CompletableFuture<Integer>> racers = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            boolean upper = w % 2 == 0;
+            racers.add(CompletableFuture.supplyAsync(() -> {
+                int created = 0;
+                for (int i = 0; i < addresses; i++) {
+                    Employee employee = employee("Racer" + i, "Race", LocalDate.of(2020, 1, 1), true);
+                    employee.setEmail(upper ? employee.getEmail().toUpperCase() : employee.getEmail());
+                    try {
+                        repository.create(employee);
+                        created++;
+                    } catch (DuplicateEmailException e) {
+                        // lost the race for this address
+                    }
+                }
+                return created;
+            }));
+        }
+        int created = 0;
+        for (CompletableFuture<Integer> racer : racers) {
+            created += racer.get();
+        }
+        assertEquals(addresses, created);
+        assertEquals(3 + addresses, repository.count());
+
+        List<CompletableFuture<Void>> churn = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            churn.add(CompletableFuture.runAsync(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 5000; i++) {
+                    long id = 1 + random.nextInt(3 + 2 * addresses);
+                    Employee employee = employee("Racer" + random.nextInt(addresses), "Race", LocalDate.of(2020, 1, 1), true);
+                    try {
+                        switch (random.nextInt(4)) {
+                            case 0 -> repository.create(employee);
+                            case 1 -> repository.delete(id);
+                            case 2 -> repository.patch(id, Map.of(EmployeeField.EMAIL, employee.getEmail()), null);
+                            default -> repository.update(id, employee);
+                        }
+                    } catch (DuplicateEmailException e) {
+                        // another row has the address
+                    }
+                }
+            }));
+        }
+        for (CompletableFuture<Void> writer : churn) {
+            writer.get();
+        }
+
+        List<Employee> rows = repository.findAll();
+        assertEquals(rows.size(), rows.stream().map(e -> e.getEmail().toLowerCase()).distinct().count());
+        for (Employee row : rows) {
+            assertEquals(row.getId(), repository.findByEmail(row.getEmail()).orElseThrow().getId());
+        }
+    }
+
+    protected static Employee employee(String firstName, String department, LocalDate hireDate, boolean active) {
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName("Test")
+                .email(firstName.toLowerCase() + "@example.com")
+                .department(department)
+                .jobTitle("Engineer")
+                .hireDate(hireDate)
+                .salary(50000.0)
+                .active(active)
+                .build();
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeSearchIndexTest {
+
+    private static final String[] FIRST = {"Ann", "Anna", "Marcus", "Rachel", "Sarah", "Mark", "Tatiana", "Ömer"};
+    private static final String[] LAST = {"Lee", "Patel", "Mitchell", "Chen", "Atel", "Marsh", "O'Hara"};
+    private static final String[] TITLES = {"Senior Analyst", "Engineer", "Project Coordinator", "Systems Administrator"};
+    private static final String[] QUERIES = {"a", "an", "ann", "ATEL", "mar", "s.m", "ana", "ompany", "ter",
+            "engineer", "o'h", "hara", "öme", "zzz", "l", "ch", "n.c", "senior an"};
+
+    private final List<Runnable> compactions = new ArrayList<>();
+    private final EmployeeSearchIndex index = new EmployeeSearchIndex(compactions::add);
+    private final Map<Long, Employee> live = new HashMap<>();
+
+    @Test
+    void prefixMatchesRankAheadOfSubstringMatches() {
+        write(employee(1, "Rachel", "Patel", "Engineer"));
+        write(employee(2, "Ann", "Atel", "Engineer"));
+
+        assertEquals(List.of(2L, 1L), index.search("atel", 10));
+        assertEquals(List.of(2L), index.search("at", 10));
+        assertEquals(List.of(2L), index.search("ATEL", 1));
+        assertEquals(List.of(), index.search("  ", 10));
+    }
+
+    @Test
+    void updatesOnlyReindexSearchedFields() {
+        write(employee(1, "Rachel", "Patel", "Engineer"));
+        Employee renamed = employee(1, "Rachel", "Mitchell", "Engineer");
+        index.onChange(live.put(1L, renamed), renamed);
+
+        assertEquals(List.of(), index.search("patel", 10));
+        assertEquals(List.of(1L), index.search("mitch", 10));
+
+        index.onChange(renamed, null);
+        assertEquals(List.of(), index.search("mitch", 10));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void matchesBruteForceThroughChurnAndCompaction() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20_000; round++) {
+            long id = 1 + random.nextInt(800);
+            if (random.nextInt(5) == 0) {
+                Employee before = live.remove(id);
+                if (before != null) {
+                    index.onChange(before, null);
+                }
+            } else {
+                write(employee(id, FIRST[random.nextInt(FIRST.length)], LAST[random.nextInt(LAST.length)],
+                        TITLES[random.nextInt(TITLES.length)]));
+            }
+            if (round % 1000 == 0) {
+                assertMatchesBruteForce();
+            }
+            if (round % 700 == 0) {
+                runCompactions();
+            }
+        }
+        assertMatchesBruteForce();
+        assertEquals(live.size(), index.size());
+    }
+
+    @Test
+    void writesMadeDuringACompactionSurviveTheSwap() {
+        for (int round = 0; compactions.isEmpty(); round++) {
+            write(employee(1 + round % 100, FIRST[round % FIRST.length], LAST[round % LAST.length], TITLES[0]));
+        }
+        // the rebuild has been handed off but not run; writes go on against the current generation
+        Random random = new Random(7);
+        for (int round = 0; round < 2_000; round++) {
+            long id = 1 + random.nextInt(150);
+            if (random.nextInt(4) == 0) {
+                Employee before = live.remove(id);
+                if (before != null) {
+                    index.onChange(before, null);
+                }
+            } else {
+                write(employee(id, FIRST[random.nextInt(FIRST.length)], LAST[random.nextInt(LAST.length)],
+                        TITLES[random.nextInt(TITLES.length)]));
+            }
+        }
+        assertEquals(1, compactions.size());
+        assertMatchesBruteForce();
+
+        runCompactions();
+        assertMatchesBruteForce();
+        assertEquals(live.size(), index.size());
+    }
+
+    private void runCompactions() {
+        List<Runnable> queued = new ArrayList<>(compactions);
+        compactions.clear();
+        queued.forEach(Runnable::run);
+    }
+
+    private void assertMatchesBruteForce() {
+        for (String query : QUERIES) {
+            String q = query.toLowerCase(Locale.ROOT);
+            List<Long> hits = index.search(query, 1000);
+            assertEquals(hits.size(), new HashSet<>(hits).size(), query);
+            List<Long> expected = new ArrayList<>();
+            for (Employee employee : live.values()) {
+                String text = EmployeeSearchIndex.text(employee);
+                if (q.length() >= 3 ? text.contains(q) : startsWord(text, q)) {
+                    expected.add(employee.getId());
+                }
+            }
+            assertEquals(new HashSet<>(expected), new HashSet<>(hits), query);
+            boolean substringSeen = false;
+            for (Long id : hits) {
+                boolean prefix = startsWord(EmployeeSearchIndex.text(live.get(id)), q);
+                assertFalse(prefix && substringSeen, "word-prefix match after a substring match for " + query);
+                substringSeen |= !prefix;
+            }
+            assertEquals(Math.min(3, expected.size()), index.search(query, 3).size(), query);
+        }
+    }
+
+    private static boolean startsWord(String text, String q) {
+        for (int at = text.indexOf(q); at >= 0; at = text.indexOf(q, at + 1)) {
+            if (Character.isLetterOrDigit(text.charAt(at)) && (at == 0 || !Character.isLetterOrDigit(text.charAt(at - 1)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(Employee employee) {
+        index.onChange(live.put(employee.getId(), employee), employee);
+    }
+
+    private static Employee employee(long id, String first, String last, String title) {
+        return Employee.builder()
+                .id(id)
+                .firstName(first)
+                .lastName(last)
+                .email(first.toLowerCase(Locale.ROOT).charAt(0) + "." + last.toLowerCase(Locale.ROOT) + "@company.org")
+                .jobTitle(title)
+                .version(1L)
+                .build();
+    }
+}
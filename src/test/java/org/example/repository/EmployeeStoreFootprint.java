@@ -0,0 +1,62 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+/**
+ * Compares retained heap of the storage engines. Not a unit test; run it with enough heap, e.g.
+ * <pre>
+ * java -Xmx8g -cp target/classes:target/test-classes:... org.example.repository.EmployeeStoreFootprint heap 1000000
+ * </pre>
+ * Each row gets its own String instances, as rows deserialized from JSON would.
+ */
+public class EmployeeStoreFootprint {
+
+    private static final String[] DEPARTMENTS = {"Engineering", "Marketing", "Finance", "HR", "Sales", "Design", "Operations", "IT"};
+    private static final String[] TITLES = {"Software Engineer", "Analyst", "Manager", "Specialist", "Coordinator", "Director"};
+
+    public static void main(String[] args) {
+        String engine = args.length > 0 ? args[0] : "heap";
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Supplier<EmployeeRepository> factory = switch (engine) {
+            case "heap" -> InMemoryEmployeeRepository::new;
+            case "columnar" -> ColumnarEmployeeRepository::new;
+            default -> throw new IllegalArgumentException("Unknown engine: " + engine);
+        };
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedAfterGc(memory);
+        EmployeeRepository repository = factory.get();
+        for (int i = 0; i < rows; i++) {
+            repository.create(row(i));
+        }
+        long used = usedAfterGc(memory) - baseline;
+
+        System.out.printf("engine=%s rows=%d retained=%.1f MiB bytesPerRow=%.1f%n",
+                engine, repository.count(), used / (1024.0 * 1024.0), (double) used / rows);
+    }
+
+    static Employee row(int i) {
+        return Employee.builder()
+                .firstName("First" + i)
+                .lastName("Last" + i)
+                .email("user" + i + "@example.com")
+                .department(new String(DEPARTMENTS[i % DEPARTMENTS.length]))
+                .jobTitle(new String(TITLES[i % TITLES.length]))
+                .hireDate(LocalDate.of(2000, 1, 1).plusDays(i % 9000))
+                .salary(40000.0 + (i % 1000) * 100)
+                .active(i % 10 != 0)
+                .build();
+    }
+
+    private static long usedAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
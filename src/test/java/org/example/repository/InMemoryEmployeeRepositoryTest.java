@@ -0,0 +1,94 @@
+package org.example.repository;
+
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.EmployeePage;
+import org.example.query.EmployeeQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryEmployeeRepositoryTest extends EmployeeRepositoryContractTest {
+
+    @Override
+    protected EmployeeRepository newRepository() {
+        return new InMemoryEmployeeRepository();
+    }
+
+    @Test
+    void preloadedRepositoryContinuesAfterHighestId() {
+        InMemoryEmployeeRepository preloaded = new InMemoryEmployeeRepository(List.of(
+                Employee.builder().id(7L).firstName("Grace").department("Design").active(true).build()));
+
+        Employee created = preloaded.create(employee("Henry", "Sales", LocalDate.of(2020, 6, 30), true));
+
+        assertEquals(8L, created.getId());
+        assertEquals(1, preloaded.findByDepartment("design").size());
+    }
+
+    @Test
+    void idOrderedQueryStopsAtPageBoundary() {
+        for (int i = 0; i < 100; i++) {
+            repository.create(employee("Emp" + i, "Sales", LocalDate.of(2020, 1, 1), true));
+        }
+
+        EmployeePage page = repository.query(EmployeeQuery.builder().limit(10).build());
+
+        assertEquals(10, page.getItems().size());
+        assertEquals(10L, page.getNext().getId());
+        assertTrue(page.getScanned() <= 11);
+    }
+
+    @Test
+    void pagesSortedByAnotherColumnWalkItsIndexFromTheCursor() {
+        Random random = new Random(3);
+        for (int i = 0; i < 2_000; i++) {
+            Employee row = employee("Sorted" + i, "Sales", LocalDate.of(2020, 1, 1), true);
+            row.setSalary(random.nextInt(50) * 1000.0);
+            repository.create(row);
+        }
+        EmployeeQuery first = EmployeeQuery.builder().sortField(EmployeeField.SALARY).descending(true).limit(25).build();
+        assertEquals(sortedIds(first), pagedIds(first));
+
+        // the index follows writes made after it was built
+        for (int i = 0; i < 300; i++) {
+            long id = 1 + random.nextInt(2_000);
+            if (i % 3 == 0) {
+                repository.delete(id, null);
+            } else {
+                repository.patch(id, Map.of(EmployeeField.SALARY, random.nextInt(50) * 1000.0), null);
+            }
+        }
+        repository.insertAll(List.of(employee("Late", "HR", LocalDate.of(2021, 1, 1), true)));
+        assertEquals(sortedIds(first), pagedIds(first));
+
+        EmployeePage page = repository.query(first);
+        EmployeePage next = repository.query(EmployeeQuery.builder().sortField(EmployeeField.SALARY).descending(true)
+                .limit(25).after(page.getNext()).build());
+        assertTrue(next.getScanned() <= 26);
+    }
+
+    private List<Long> sortedIds(EmployeeQuery query) {
+        return repository.findAll().stream().filter(query::matches).sorted(query.order()).map(Employee::getId).toList();
+    }
+
+    private List<Long> pagedIds(EmployeeQuery first) {
+        List<Long> ids = new ArrayList<>();
+        EmployeeQuery query = first;
+        while (true) {
+            EmployeePage page = repository.query(query);
+            page.getItems().forEach(e -> ids.add(e.getId()));
+            if (page.getNext() == null) {
+                return ids;
+            }
+            query = EmployeeQuery.builder().sortField(first.getSortField()).descending(first.isDescending())
+                    .limit(first.getLimit()).after(page.getNext()).build();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.service;
+
+import org.example.model.DepartmentStats;
+import org.example.model.Employee;
+import org.example.repository.ColumnarEmployeeRepository;
+import org.example.repository.DuplicateEmailException;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.InMemoryEmployeeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DepartmentStatsServiceTest {
+
+    private static final String[] DEPARTMENTS = {"Finance", "IT", "HR", "Sales"};
+
+    @Test
+    void mergeAveragesOverTheSummedSalariedCounts() {
+        List<DepartmentStats> merged = DepartmentStatsService.merge(List.of(
+                List.of(new DepartmentStats("IT", 3, 3, 2, 0.0, 0.0, 0.0, 0.0),
+                        new DepartmentStats("HR", 1, 1, 0, 0.0, null, null, null)),
+                List.of(new DepartmentStats("it", 2, 1, 2, 90_000.0, 40_000.0, 50_000.0, 45_000.0),
+                        new DepartmentStats("hr", 1, 0, 0, 0.0, null, null, null))));
+
+        assertEquals(2, merged.size());
+        DepartmentStats hr = merged.get(0);
+        assertEquals(2, hr.getHeadcount());
+        assertNull(hr.getAverageSalary());
+        DepartmentStats it = merged.get(1);
+        assertEquals(5, it.getHeadcount());
+        assertEquals(4, it.getSalariedCount());
+        assertEquals(0.0, it.getMinSalary());
+        assertEquals(22_500.0, it.getAverageSalary());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"heap", "columnar"})
+    void aggregatesMatchFullRecomputeAfterConcurrentWrites(String engine) throws Exception {
+        EmployeeRepository repository = engine.equals("heap") ? new InMemoryEmployeeRepository() : new ColumnarEmployeeRepository();
+        for (int i = 0; i < 200; i++) {
+            repository.create(employee(i));
+        }
+        DepartmentStatsService service = new DepartmentStatsService(repository);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                writers.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 2000; i++) {
+                        long id = 1 + random.nextInt(400);
+                        try {
+                            switch (random.nextInt(4)) {
+                                case 0 -> repository.create(employee(random.nextInt(1000)));
+                                case 1 -> repository.delete(id);
+                                default -> repository.update(id, employee(random.nextInt(1000)));
+                            }
+                        } catch (DuplicateEmailException e) {
+                            // another row has that address; the rejected write must leave no trace
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Map<String, List<Employee>> expected = repository.findAll().stream()
+                .collect(Collectors.groupingBy(Employee::getDepartment, TreeMap::new, Collectors.toList()));
+        List<DepartmentStats> actual = service.stats();
+        assertEquals(List.copyOf(expected.keySet()), actual.stream().map(DepartmentStats::getDepartment).toList());
+        for (DepartmentStats stats : actual) {
+            List<Employee> rows = expected.get(stats.getDepartment());
+            assertEquals(rows.size(), stats.getHeadcount());
+            assertEquals(rows.stream().filter(Employee::getActive).count(), stats.getActiveCount());
+            assertEquals(rows.stream().mapToDouble(Employee::getSalary).sum(), stats.getSalarySum(), 1e-6);
+            assertEquals(rows.stream().mapToDouble(Employee::getSalary).min().orElseThrow(), stats.getMinSalary());
+            assertEquals(rows.stream().mapToDouble(Employee::getSalary).max().orElseThrow(), stats.getMaxSalary());
+        }
+    }
+
+    private static Employee employee(int seed) {
+        return Employee.builder()
+                .firstName("Emp" + seed)
+                .lastName("Tester")
+                .email("emp" + seed + "@example.com")
+                .department(DEPARTMENTS[seed % DEPARTMENTS.length])
+                .jobTitle("Engineer")
+                .hireDate(LocalDate.of(2020, 1, 1))
+                .salary(40000.0 + seed * 10.25)
+                .active(seed % 3 != 0)
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.service;
+
+import org.example.model.Employee;
+import org.example.model.EmployeeChange;
+import org.example.repository.DuplicateEmailException;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.InMemoryEmployeeRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmployeeChangeFeedTest {
+
+    @Test
+    void concurrentWritesGetGaplessSequenceInCommitOrderPerRow() throws Exception {
+        EmployeeRepository repository = new InMemoryEmployeeRepository();
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(repository, 1 << 16);
+        for (int i = 0; i < 100; i++) {
+            repository.create(employee("E" + i));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                writers.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 1000; i++) {
+                        long id = 1 + random.nextInt(150);
+                        try {
+                            switch (random.nextInt(4)) {
+                                case 0 -> repository.create(employee("N" + i));
+                                case 1 -> repository.delete(id);
+                                default -> repository.update(id, employee("U" + i));
+                            }
+                        } catch (DuplicateEmailException e) {
+                            // another row has that address; the rejected write must leave no trace
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Map<Long, Employee> replayed = new HashMap<>();
+        long seq = 0;
+        for (List<EmployeeChange> page = feed.after(seq); !page.isEmpty(); page = feed.after(seq)) {
+            for (EmployeeChange change : page) {
+                assertEquals(++seq, change.getSeq());
+                Employee previous = replayed.get(change.getId());
+                switch (change.getType()) {
+                    case CREATED -> assertNull(previous);
+                    case UPDATED -> assertEquals(previous.getVersion() + 1, change.getEmployee().getVersion());
+                    case DELETED -> assertNotNull(previous);
+                }
+                if (change.getType() == EmployeeChange.Type.DELETED) {
+                    replayed.remove(change.getId());
+                } else {
+                    replayed.put(change.getId(), change.getEmployee());
+                }
+            }
+        }
+        assertEquals(repository.count(), replayed.size());
+        replayed.forEach((id, employee) -> assertEquals(repository.findById(id).orElseThrow().getVersion(), employee.getVersion()));
+        feed.destroy();
+    }
+
+    @Test
+    void readersLappedByWritersMustResync() {
+        EmployeeRepository repository = new InMemoryEmployeeRepository();
+        EmployeeChangeFeed feed = new EmployeeChangeFeed(repository, 4);
+        for (int i = 0; i < 10; i++) {
+            repository.create(employee("E" + i));
+        }
+
+        assertNull(feed.after(0));
+        assertNull(feed.after(5));
+        assertEquals(List.of(7L, 8L, 9L, 10L), feed.after(6).stream().map(EmployeeChange::getSeq).toList());
+        assertEquals(List.of(), feed.after(10));
+        assertNull(feed.after(11));
+
+        assertEquals(10, feed.parse(feed.position()));
+        assertEquals(-1, feed.parse("earlier-run:10"));
+        assertEquals(-1, feed.parse("garbage"));
+        feed.destroy();
+    }
+
+    private static Employee employee(String name) {
+        return Employee.builder().firstName(name).lastName("Feed").department("IT").active(true).build();
+    }
+}
@@ -0,0 +1,142 @@
+package org.example.service;
+
+import org.example.model.Worklist;
+import org.example.model.WorklistLease;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorklistQueueTest {
+
+    private static final Duration LEASE = Duration.ofSeconds(30);
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2024-05-01T12:00:00Z"));
+
+    @Test
+    void singleStripeClaimsByPriorityThenArrival() {
+        WorklistQueue queue = new WorklistQueue(now::get, 1);
+        queue.add(item("low", 0));
+        queue.add(item("high", 5));
+        queue.add(item("low-2", 0));
+        queue.add(item("mid", 2));
+
+        List<String> order = queue.claim("w", 4, LEASE).stream().map(lease -> lease.getItem().getAccountName()).toList();
+
+        assertEquals(List.of("high", "mid", "low", "low-2"), order);
+        assertTrue(queue.claim("w", 1, LEASE).isEmpty());
+    }
+
+    @Test
+    void addIgnoresSuppliedIds() {
+        WorklistQueue queue = new WorklistQueue(now::get, 4);
+        Worklist first = queue.add(item("a", 0));
+        Worklist clash = item("b", 0);
+        clash.setId(first.getId());
+
+        Worklist second = queue.add(clash);
+
+        assertNotEquals(first.getId(), second.getId());
+        List<WorklistLease> leases = queue.claim("w", 2, LEASE);
+        assertEquals(2, leases.size());
+        leases.forEach(lease -> assertTrue(queue.complete(lease.getItem().getId(), lease.getToken())));
+        assertEquals(0, queue.leasedCount());
+    }
+
+    @Test
+    void expiredLeasesAreRequeuedAndTheirTokensStopWorking() {
+        WorklistQueue queue = new WorklistQueue(now::get, 4);
+        queue.add(item("a", 0));
+        WorklistLease lease = queue.claim("w1", 1, LEASE).get(0);
+
+        now.set(now.get().plus(LEASE));
+        WorklistLease reclaimed = queue.claim("w2", 1, LEASE).get(0);
+
+        assertEquals(lease.getItem().getId(), reclaimed.getItem().getId());
+        assertFalse(queue.complete(lease.getItem().getId(), lease.getToken()));
+        assertTrue(queue.complete(reclaimed.getItem().getId(), reclaimed.getToken()));
+        assertEquals(0, queue.leasedCount());
+        assertTrue(queue.waiting().isEmpty());
+    }
+
+    @Test
+    void releaseRequeuesOnceAndCompleteIsFinal() {
+        WorklistQueue queue = new WorklistQueue(now::get, 4);
+        queue.add(item("a", 0));
+        queue.add(item("b", 0));
+        List<WorklistLease> leases = queue.claim("w", 2, LEASE);
+
+        assertTrue(queue.release(leases.get(0).getItem().getId(), leases.get(0).getToken()));
+        assertFalse(queue.release(leases.get(0).getItem().getId(), leases.get(0).getToken()));
+        assertTrue(queue.complete(leases.get(1).getItem().getId(), leases.get(1).getToken()));
+
+        now.set(now.get().plus(LEASE));
+        assertEquals(0, queue.requeueExpired());
+        assertEquals(List.of(leases.get(0).getItem().getId()), queue.waiting().stream().map(Worklist::getId).toList());
+    }
+
+    @Test
+    void concurrentClaimersNeverShareAnItem() throws Exception {
+        WorklistQueue queue = new WorklistQueue(now::get, 0);
+        int items = 20_000;
+        for (int i = 0; i < items; i++) {
+            queue.add(item("acct-" + i, i % 7));
+        }
+        Set<Long> seen = ConcurrentHashMap.newKeySet();
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> claimers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int worker = t;
+                claimers.add(pool.submit(() -> {
+                    start.await();
+                    int claimed = 0;
+                    for (List<WorklistLease> batch = queue.claim("w" + worker, 1 + worker % 8, LEASE);
+                         !batch.isEmpty(); batch = queue.claim("w" + worker, 1 + worker % 8, LEASE)) {
+                        for (WorklistLease lease : batch) {
+                            assertTrue(seen.add(lease.getItem().getId()), "claimed twice: " + lease.getItem().getId());
+                            // give every other item back once, so requeued items are contended too
+                            if (lease.getItem().getId() % 2 == 0 && lease.getToken() % 3 != 0) {
+                                seen.remove(lease.getItem().getId());
+                                assertTrue(queue.release(lease.getItem().getId(), lease.getToken()));
+                            } else {
+                                assertTrue(queue.complete(lease.getItem().getId(), lease.getToken()));
+                                claimed++;
+                            }
+                        }
+                    }
+                    return claimed;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> claimer : claimers) {
+                total += claimer.get();
+            }
+            assertEquals(items, total);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, queue.leasedCount());
+        assertTrue(queue.waiting().isEmpty());
+        assertEquals(new HashSet<>(seen).size(), items);
+    }
+
+    private static Worklist item(String account, int priority) {
+        return Worklist.builder().accountName(account).clientName("Client " + account).priority(priority).build();
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.web;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long MS = 1_000_000;
+
+    private long now;
+
+    @Test
+    void capsConcurrentRequests() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 2.0, 0);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        limit.release(0, MS);
+        assertTrue(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+    }
+
+    @Test
+    void growsWhileLatencyHoldsAndDemandFillsTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 2.0, now);
+
+        for (int window = 0; window < 40; window++) {
+            run(limit, limit.getLimit(), 5 * MS);
+        }
+
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    void doesNotGrowWithoutDemand() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(40, 1, 100, 2.0, now);
+
+        for (int window = 0; window < 20; window++) {
+            run(limit, 5, 5 * MS);
+        }
+
+        assertEquals(40, limit.getLimit());
+    }
+
+    @Test
+    void shrinksWhenLatencyClimbsAndRecoversAfterwards() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(50, 4, 100, 2.0, now);
+        for (int window = 0; window < 5; window++) {
+            run(limit, 50, 5 * MS);
+        }
+        int healthy = limit.getLimit();
+
+        for (int window = 0; window < 10; window++) {
+            run(limit, limit.getLimit(), 50 * MS);
+        }
+        int overloaded = limit.getLimit();
+        assertTrue(overloaded < healthy / 2, healthy + " -> " + overloaded);
+        assertTrue(overloaded >= 4);
+
+        for (int window = 0; window < 40; window++) {
+            run(limit, limit.getLimit(), 5 * MS);
+        }
+        assertTrue(limit.getLimit() > overloaded * 2, overloaded + " -> " + limit.getLimit());
+    }
+
+    /** One window: {@code concurrent} requests at a time, each taking {@code latency}. */
+    private void run(AdaptiveConcurrencyLimit limit, int concurrent, long latency) {
+        long end = now + AdaptiveConcurrencyLimit.WINDOW_NANOS;
+        int rounds = Math.max(1, (int) Math.ceil((double) AdaptiveConcurrencyLimit.MIN_SAMPLES / concurrent));
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (admitted < concurrent && limit.tryAcquire()) {
+                admitted++;
+            }
+            long finished = round == rounds - 1 ? end : now + latency;
+            for (int i = 0; i < admitted; i++) {
+                limit.release(finished - latency, finished);
+            }
+            now = Math.max(now, finished - latency);
+        }
+        now = end;
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AdmissionFilterTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdmissionFilter filter = new AdmissionFilter(
+            new AdmissionControl(properties(), registry), "X-Client-Id", mapper);
+
+    private static AdmissionProperties properties() {
+        AdmissionProperties.Endpoint manifest = endpoint("users-manifest", List.of(), "/api/users/manifest");
+        AdmissionProperties.Endpoint list = endpoint("users-list", List.of("GET"), "/api/users");
+        list.setRate(1);
+        list.setBurst(3);
+        AdmissionProperties.Endpoint worklist = endpoint("worklist", List.of(), "/api/worklist/**");
+        worklist.setConcurrency(1);
+        worklist.setMaxConcurrency(1);
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setEndpoints(List.of(manifest, list, worklist));
+        return properties;
+    }
+
+    private static AdmissionProperties.Endpoint endpoint(String name, List<String> methods, String path) {
+        AdmissionProperties.Endpoint endpoint = new AdmissionProperties.Endpoint();
+        endpoint.setName(name);
+        endpoint.setMethods(methods);
+        endpoint.setPaths(List.of(path));
+        return endpoint;
+    }
+
+    @Test
+    void rejectsAClientOverItsRateWithRetryAfter() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, send("GET", "/api/users", "a").getStatus());
+        }
+        MockHttpServletResponse rejected = send("GET", "/api/users", "a");
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals("Rate limit exceeded for users-list",
+                mapper.readTree(rejected.getContentAsString()).path("message").asText());
+        assertEquals(1, registry.get("http.server.admission.rejected")
+                .tags("endpoint", "users-list", "reason", "rate").counter().count());
+
+        // other clients have their own buckets, and the manifest its own class
+        assertEquals(200, send("GET", "/api/users", "b").getStatus());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send("GET", "/api/users/manifest", "a").getStatus());
+        }
+    }
+
+    @Test
+    void shedsRequestsBeyondTheConcurrencyLimitUntilASlotFrees() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        FilterChain holding = (request, response) -> nested.set(send("POST", "/api/worklist/claim", "b"));
+
+        assertEquals(200, send("POST", "/api/worklist", "a", holding).getStatus());
+
+        assertEquals(503, nested.get().getStatus());
+        assertEquals("1", nested.get().getHeader("Retry-After"));
+        assertEquals(200, send("POST", "/api/worklist/claim", "b").getStatus());
+    }
+
+    @Test
+    void letsUnclassifiedRequestsThrough() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send("POST", "/api/users", "a").getStatus());
+            assertEquals(200, send("GET", "/api/worklistings", "a").getStatus());
+        }
+    }
+
+    @Test
+    void classifiesByMethodThenExactPathOrPrefix() {
+        AdmissionControl control = new AdmissionControl(properties(), registry);
+
+        assertEquals("users-manifest", control.classify("GET", "/api/users/manifest").getName());
+        assertEquals("users-list", control.classify("GET", "/api/users").getName());
+        assertEquals("worklist", control.classify("DELETE", "/api/worklist").getName());
+        assertEquals("worklist", control.classify("GET", "/api/worklist/a/b").getName());
+        assertNull(control.classify("PUT", "/api/users"));
+        assertNull(control.classify("GET", "/api/users/7"));
+        assertNull(control.classify("GET", "/api/hello"));
+    }
+
+    private MockHttpServletResponse send(String method, String path, String client)
+            throws IOException, ServletException {
+        return send(method, path, client, new MockFilterChain());
+    }
+
+    private MockHttpServletResponse send(String method, String path, String client, FilterChain chain)
+            throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-Client-Id", client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
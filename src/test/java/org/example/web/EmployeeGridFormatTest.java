@@ -0,0 +1,121 @@
+package org.example.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.model.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeGridFormatTest {
+
+    @Test
+    void roundTripsEveryColumn() {
+        List<Employee> rows = List.of(
+                employee(3L, "Sarah", "Finance", LocalDate.of(2019, 8, 12), 82500.0, true),
+                employee(1L, "Zoë", "IT", LocalDate.of(1999, 12, 31), 0.1, false),
+                employee(Long.MAX_VALUE, "Marcus", "Finance", LocalDate.of(2021, 3, 1), -1e9, true));
+
+        List<Employee> decoded = EmployeeGridFormat.read(EmployeeGridFormat.write(rows));
+
+        assertEquals(rows.size(), decoded.size());
+        for (int i = 0; i < rows.size(); i++) {
+            assertSameColumns(rows.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    void roundTripsNullsInEveryColumn() {
+        Employee blank = new Employee();
+        List<Employee> rows = List.of(blank, employee(7L, "Ann", null, null, null, null), blank);
+
+        List<Employee> decoded = EmployeeGridFormat.read(EmployeeGridFormat.write(rows));
+
+        assertNull(decoded.get(0).getId());
+        assertNull(decoded.get(0).getActive());
+        assertSameColumns(rows.get(1), decoded.get(1));
+        assertNull(decoded.get(2).getFirstName());
+    }
+
+    @Test
+    void roundTripsAnEmptyList() {
+        assertEquals(List.of(), EmployeeGridFormat.read(EmployeeGridFormat.write(List.of())));
+    }
+
+    @Test
+    void headerNamesColumnsInManifestOrder() {
+        String header = new String(EmployeeGridFormat.write(List.of()), StandardCharsets.ISO_8859_1);
+
+        int last = -1;
+        for (String field : List.of("id", "firstName", "lastName", "email", "department", "jobTitle", "hireDate", "salary", "active")) {
+            int at = header.indexOf(field, last + 1);
+            assertTrue(at > last, field + " out of order in " + header);
+            last = at;
+        }
+    }
+
+    @Test
+    void storesRepeatedTextOnceAndSequentialIdsInOneByte() throws Exception {
+        List<Employee> rows = new ArrayList<>();
+        for (long id = 1_000_000; id < 1_001_000; id++) {
+            rows.add(employee(id, "First" + id, "Research and Development", LocalDate.of(2020, 1, 1), 50000.0, true));
+        }
+
+        byte[] encoded = EmployeeGridFormat.write(rows);
+        String text = new String(encoded, StandardCharsets.ISO_8859_1);
+        byte[] json = new ObjectMapper().findAndRegisterModules().writeValueAsBytes(rows);
+
+        assertEquals(text.indexOf("Research and Development"), text.lastIndexOf("Research and Development"));
+        // what is left per row is mostly the two distinct strings and the salary double
+        assertTrue(encoded.length < 60 * rows.size(), "encoded " + encoded.length + " bytes");
+        assertTrue(encoded.length * 4 < json.length, "grid " + encoded.length + " bytes, JSON " + json.length);
+    }
+
+    @Test
+    void rejectsTruncatedOrForeignInput() {
+        byte[] encoded = EmployeeGridFormat.write(List.of(employee(1L, "Ann", "IT", LocalDate.now(), 1.0, true)));
+
+        assertThrows(IllegalArgumentException.class, () -> EmployeeGridFormat.read(Arrays.copyOf(encoded, encoded.length - 3)));
+        assertThrows(IllegalArgumentException.class, () -> EmployeeGridFormat.read("{\"data\":[]}".getBytes(StandardCharsets.UTF_8)));
+        assertArrayEquals(encoded, EmployeeGridFormat.write(EmployeeGridFormat.read(encoded)));
+    }
+
+    private static Employee employee(Long id, String firstName, String department, LocalDate hireDate, Double salary,
+                                     Boolean active) {
+        return Employee.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName("Lee")
+                .email(firstName.toLowerCase() + "@company.org")
+                .department(department)
+                .jobTitle(department == null ? null : "Analyst")
+                .hireDate(hireDate)
+                .salary(salary)
+                .active(active)
+                .version(4L)
+                .build();
+    }
+
+    private static void assertSameColumns(Employee expected, Employee actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getFirstName(), actual.getFirstName());
+        assertEquals(expected.getLastName(), actual.getLastName());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getDepartment(), actual.getDepartment());
+        assertEquals(expected.getJobTitle(), actual.getJobTitle());
+        assertEquals(expected.getHireDate(), actual.getHireDate());
+        assertEquals(expected.getSalary(), actual.getSalary());
+        assertEquals(expected.getActive(), actual.getActive());
+        // not a grid column
+        assertNull(actual.getVersion());
+    }
+}
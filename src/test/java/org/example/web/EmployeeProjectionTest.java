@@ -0,0 +1,50 @@
+package org.example.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.model.Employee;
+import org.example.query.EmployeeField;
+import org.example.query.InvalidQueryException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeProjectionTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void writesSameJsonAsJacksonForProjectedFields() throws Exception {
+        Employee employee = Employee.builder().id(7L).firstName("Zoë \"Z\"").lastName(null).email("z@company.org")
+                .department("IT").jobTitle("Engineer").hireDate(LocalDate.of(2020, 2, 29)).salary(70000.5)
+                .active(false).version(3L).build();
+
+        String projected = mapper.writeValueAsString(EmployeeProjection.visibleColumns().apply(List.of(employee)));
+        String full = mapper.writeValueAsString(List.of(employee));
+
+        assertEquals(full.replace(",\"version\":3", ""), projected);
+    }
+
+    @Test
+    void compilesEachFieldSetOnceInManifestOrderWithId() throws Exception {
+        EmployeeProjection projection = EmployeeProjection.of(List.of("salary", "lastName"));
+
+        assertSame(projection, EmployeeProjection.of(List.of(" lastName", "salary", "")));
+        assertEquals(List.of(EmployeeField.ID, EmployeeField.LAST_NAME, EmployeeField.SALARY), projection.fields());
+        assertEquals("[{\"id\":1,\"lastName\":\"Lee\",\"salary\":null}]", mapper.writeValueAsString(
+                projection.apply(List.of(Employee.builder().id(1L).firstName("Ann").lastName("Lee").build()))));
+        assertSame(EmployeeProjection.visibleColumns(), EmployeeProjection.of(null));
+    }
+
+    @Test
+    void rejectsFieldsOutsideTheManifest() {
+        assertThrows(InvalidQueryException.class, () -> EmployeeProjection.of(List.of("version")));
+        assertThrows(InvalidQueryException.class, () -> EmployeeProjection.of(List.of("getClass")));
+    }
+}
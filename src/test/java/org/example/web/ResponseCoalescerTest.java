@@ -0,0 +1,123 @@
+package org.example.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.query.EmployeeQuery;
+import org.example.query.UserColumns;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ResponseCoalescer coalescer = new ResponseCoalescer(new ObjectMapper(),
+            new RequestMetrics(registry), RequestMetrics.Endpoint.USERS);
+    private final AtomicInteger computed = new AtomicInteger();
+
+    @Test
+    void concurrentIdenticalRequestsShareOneComputationAndBuffer() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        EmployeeQuery query = query(List.of("department:Engineering"), null);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            Future<ResponseEntity<byte[]>> leader = pool.submit(() -> coalescer.respond(query, null, 1,
+                    new MockHttpServletRequest(), () -> {
+                        computed.incrementAndGet();
+                        await(release);
+                        return page("rows");
+                    }));
+            while (computed.get() == 0) {
+                Thread.onSpinWait();
+            }
+            List<Future<ResponseEntity<byte[]>>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+                request.setServerName("replica-" + i + ".example.org");
+                request.setQueryString("filter=department:engineering&sort=id");
+                followers.add(pool.submit(() -> coalescer.respond(query(List.of("department:engineering"), "id"),
+                        null, 1, request, () -> counted("again"))));
+            }
+            release.countDown();
+
+            byte[] body = leader.get(5, TimeUnit.SECONDS).getBody();
+            assertEquals("{\"rows\":\"rows\"}", new String(body));
+            for (int i = 0; i < followers.size(); i++) {
+                ResponseEntity<byte[]> response = followers.get(i).get(5, TimeUnit.SECONDS);
+                assertSame(body, response.getBody());
+                assertEquals("next", response.getHeaders().getFirst(PagedResponses.NEXT_CURSOR));
+                // the link names the follower's own host and parameters, not the leader's
+                assertEquals("<http://replica-" + i + ".example.org/api/users?filter=department:engineering&sort=id&cursor=next>; rel=\"next\"",
+                        response.getHeaders().getFirst("Link"));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, computed.get());
+        assertEquals(7, registry.get("employee.query.coalesced").tag("endpoint", "users").counter().count());
+    }
+
+    @Test
+    void newerVersionsAndOtherQueriesRecompute() {
+        EmployeeQuery query = query(List.of("active:true"), "lastName,desc");
+
+        byte[] first = respond(query, 1, "v1");
+        assertSame(first, respond(query(List.of("active:TRUE"), "lastName,desc"), 1, "unused"));
+        assertEquals(1, computed.get());
+
+        assertEquals("{\"rows\":\"v2\"}", new String(respond(query, 2, "v2")));
+        assertEquals("{\"rows\":\"other\"}", new String(respond(query(List.of("active:true"), "lastName"), 2, "other")));
+        assertEquals("{\"rows\":\"filtered\"}", new String(respond(query(List.of("active:true", "department:IT"), "lastName,desc"), 2, "filtered")));
+        assertEquals(4, computed.get());
+    }
+
+    @Test
+    void failedComputationsAreNotKept() {
+        EmployeeQuery query = query(null, null);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> coalescer.respond(query, null, 1, new MockHttpServletRequest(), () -> {
+                    throw new IllegalStateException("store unavailable");
+                }));
+        assertEquals("store unavailable", e.getMessage());
+
+        assertEquals("{\"rows\":\"ok\"}", new String(respond(query, 1, "ok")));
+    }
+
+    private byte[] respond(EmployeeQuery query, long version, String rows) {
+        return coalescer.respond(query, null, version, new MockHttpServletRequest(), () -> counted(rows)).getBody();
+    }
+
+    private ResponseEntity<Map<String, String>> counted(String rows) {
+        computed.incrementAndGet();
+        return page(rows);
+    }
+
+    private static ResponseEntity<Map<String, String>> page(String rows) {
+        return ResponseEntity.ok().header(PagedResponses.NEXT_CURSOR, "next").body(Map.of("rows", rows));
+    }
+
+    private static EmployeeQuery query(List<String> filters, String sort) {
+        return UserColumns.parser().parse(filters, sort, null, null);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}